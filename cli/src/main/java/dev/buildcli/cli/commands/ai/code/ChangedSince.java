@@ -0,0 +1,86 @@
+package dev.buildcli.cli.commands.ai.code;
+
+import dev.buildcli.core.domain.git.GitOperations;
+import dev.buildcli.core.utils.ai.ChangedMembers;
+import dev.buildcli.core.utils.filesystem.FileIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The files and members changed since a git revision, for the {@code --changed-since} option of the
+ * AI code commands.
+ * <p>
+ * Changed files come from the {@link FileIndex}, which compares the working tree against the
+ * revision's tree. In Java files only the members touched by the change are selected; other languages are sent
+ * whole.
+ */
+final class ChangedSince implements AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(ChangedSince.class);
+
+  private final GitOperations git = new GitOperations();
+  private final String revision;
+
+  ChangedSince(String revision) {
+    this.revision = revision;
+    git.openGitRepositoryContaining(".");
+  }
+
+  /**
+   * Keeps the files of {@code files} that changed since the revision beyond whitespace.
+   */
+  List<File> retain(FileIndex index, List<File> files, String... extensions) {
+    Set<Path> changed;
+    try {
+      changed = index.changedSince(git.repository, revision, extensions).stream()
+          .map(ChangedSince::normalize)
+          .collect(Collectors.toSet());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return files.stream()
+        .filter(file -> changed.contains(normalize(file.toPath())))
+        .filter(file -> {
+          try {
+            var members = members(file, Files.readString(file.toPath()));
+            if (members.isEmpty()) {
+              logger.info("Only whitespace changed since {}, skipping: {}", revision, file);
+            }
+            return !members.isEmpty();
+          } catch (IOException e) {
+            // let the command report the unreadable file
+            return true;
+          }
+        })
+        .toList();
+  }
+
+  /**
+   * Returns the members of {@code source} changed since the revision, the whole source as one
+   * member for new and non-Java files.
+   */
+  List<ChangedMembers.Member> members(File file, String source) {
+    if (!file.getName().endsWith(".java")) {
+      return ChangedMembers.of(null, source);
+    }
+    return ChangedMembers.of(git.readFileAtRevision(revision, file).orElse(null), source);
+  }
+
+  @Override
+  public void close() {
+    git.closeGitRepository();
+  }
+
+  private static Path normalize(Path path) {
+    return path.toAbsolutePath().normalize();
+  }
+}
@@ -1,15 +1,18 @@
 package dev.buildcli.cli.commands.ai.code;
 
 import dev.buildcli.core.actions.ai.AIChat;
-import dev.buildcli.core.actions.ai.factories.GeneralAIServiceFactory;
+import dev.buildcli.core.actions.ai.AIResultCache;
+import dev.buildcli.core.actions.ai.AIServiceRegistry;
+import dev.buildcli.core.actions.ai.AITelemetry;
+import dev.buildcli.core.actions.ai.ChunkedAIService;
 import dev.buildcli.core.constants.AIConstants;
 import dev.buildcli.core.domain.BuildCLICommand;
 import dev.buildcli.core.domain.configs.BuildCLIConfig;
 import dev.buildcli.core.utils.async.Async;
 import dev.buildcli.core.utils.config.ConfigContextLoader;
-import dev.buildcli.core.utils.filesystem.FindFilesUtils;
+import dev.buildcli.core.utils.ai.ChangedMembers;
+import dev.buildcli.core.utils.filesystem.FileIndex;
 import dev.buildcli.core.utils.ai.IAParamsUtils;
-import dev.buildcli.core.utils.console.markdown.MarkdownInterpreter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine.Command;
@@ -19,9 +22,9 @@ import picocli.CommandLine.Parameters;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
-import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -41,6 +44,12 @@ public class CommentCommand implements BuildCLICommand {
   @Option(names = {"--context"}, description = "Overwrite the default AI command")
   private String context;
 
+  @Option(names = "--no-cache", description = "Generate again even when the file and prompt are unchanged", defaultValue = "false")
+  private boolean noCache;
+
+  @Option(names = "--changed-since", paramLabel = "<rev>", description = "Only comment files changed since this git revision, and in Java files only the changed members")
+  private String changedSince;
+
   private final BuildCLIConfig allConfigs = ConfigContextLoader.getAllConfigs();
 
   @Override
@@ -50,37 +59,70 @@ public class CommentCommand implements BuildCLICommand {
       return;
     }
 
-    logger.info("Loading files with extensions: {}", Arrays.toString(getExtensions()));
-    var targetFiles = files.parallelStream()
-        .map(file -> FindFilesUtils.search(file, getExtensions()))
-        .flatMap(List::stream)
-        .toList();
+    var telemetry = AITelemetry.global();
+    var requestsBefore = telemetry.count();
 
-    logger.info("Found {} files with extensions: {}.", targetFiles.size(), Arrays.toString(getExtensions()));
+    try (var changes = changedSince == null ? null : new ChangedSince(changedSince)) {
+      logger.info("Loading files with extensions: {}", Arrays.toString(getExtensions()));
+      var index = FileIndex.open(Path.of(""));
+      var targetFiles = files.stream()
+          .flatMap(file -> index.files(file.toPath(), getExtensions()).stream())
+          .map(Path::toFile)
+          .toList();
+      if (changes != null) {
+        targetFiles = changes.retain(index, targetFiles, getExtensions());
+      }
 
-    var execsAsync = Async.group(targetFiles.size());
+      logger.info("Found {} files with extensions: {}.", targetFiles.size(), Arrays.toString(getExtensions()));
 
-    logger.info("Commenting files {}...", targetFiles.size());
-    for (int i = 0; i < targetFiles.size(); i++) {
-      execsAsync[i] = Async.run(createCodeCommenter(targetFiles.get(i)))
-          .consumeAsync(printCommentedCode(targetFiles.get(i)))
-          .catchAny(catchAnyError(targetFiles.get(i)));
-    }
+      var execsAsync = Async.group(targetFiles.size());
 
-    Async.awaitAll(execsAsync);
+      logger.info("Commenting files {}...", targetFiles.size());
+      for (int i = 0; i < targetFiles.size(); i++) {
+        execsAsync[i] = Async.justRun(createCodeCommenter(targetFiles.get(i), changes)::get)
+            .catchAny(catchAnyError(targetFiles.get(i)));
+      }
+
+      Async.awaitAll(execsAsync);
+      AITelemetry.summary(telemetry.since(requestsBefore)).ifPresent(System.out::print);
+    }
   }
 
-  private Supplier<String> createCodeCommenter(File source) {
+  private Supplier<String> createCodeCommenter(File source, ChangedSince changes) {
     try {
       logger.info("Reading source file: {}", source.getAbsolutePath());
       var sourceCode = Files.readString(source.toPath());
       logger.info("Source file read: {}", source.getAbsolutePath());
 
       var aiParams = IAParamsUtils.createAIParams();
-      var iaService = new GeneralAIServiceFactory().create(aiParams);
+      var service = noCache ? AIServiceRegistry.get(aiParams)
+          : AIResultCache.defaultCache().cached(AIServiceRegistry.get(aiParams), aiParams);
+      var chunked = ChunkedAIService.forText(service, ChunkedAIService.configuredTokenBudget());
+      var iaService = source.getName().endsWith(".java") ? chunked : service;
+      var prompt = context == null || context.isEmpty() ? AIConstants.COMMENT_CODE_PROMPT : context;
+
+      var members = changes == null ? null : changes.members(source, sourceCode);
+      if (members != null && !ChangedMembers.isWhole(members, sourceCode)) {
+        logger.info("Commenting {} changed members with IA...", members.size());
+        var excerpts = members.stream().map(ChangedMembers.Member::code).toList();
+        return () -> {
+          var comments = chunked.generateEach(new AIChat(prompt, ""), excerpts);
+          try (var answer = printCommentedCode(source)) {
+            for (int i = 0; i < members.size(); i++) {
+              answer.accept("%s**Line %d**%n%n%s%n".formatted(i == 0 ? "" : System.lineSeparator(),
+                  lineOf(sourceCode, members.get(i)), comments.get(i)));
+            }
+            return String.join(System.lineSeparator(), comments);
+          }
+        };
+      }
 
       logger.info("Commenting with IA...");
-      return () -> iaService.generate(new AIChat(context == null || context.isEmpty() ? AIConstants.COMMENT_CODE_PROMPT : context, sourceCode));
+      return () -> {
+        try (var answer = printCommentedCode(source)) {
+          return iaService.generate(new AIChat(prompt, sourceCode), answer);
+        }
+      };
 
     } catch (IOException e) {
       return () -> {
@@ -90,15 +132,20 @@ public class CommentCommand implements BuildCLICommand {
     }
   }
 
-  private Consumer<String> printCommentedCode(File file) {
-    return comment -> {
-      System.out.println(brightGreenFg("=").repeat(130));
-      System.out.printf("Commented file: %s%n%n", blueFg(file.getAbsolutePath()));
+  /**
+   * The line of the first non-blank character of {@code member}, counting from one.
+   */
+  private static long lineOf(String sourceCode, ChangedMembers.Member member) {
+    var code = member.code();
+    var offset = member.start() + code.indexOf(code.strip());
+    return sourceCode.substring(0, offset).chars().filter(c -> c == '\n').count() + 1;
+  }
 
-      System.out.println(new MarkdownInterpreter().interpret(comment));
+  private StreamedAnswer printCommentedCode(File file) {
+    var separator = brightGreenFg("=").repeat(130) + System.lineSeparator();
+    var header = separator + "Commented file: %s%n%n".formatted(blueFg(file.getAbsolutePath()));
 
-      System.out.println(brightGreenFg("=").repeat(130));
-    };
+    return new StreamedAnswer(header, System.lineSeparator() + separator);
   }
 
   private Function<Throwable, Void> catchAnyError(File file) {
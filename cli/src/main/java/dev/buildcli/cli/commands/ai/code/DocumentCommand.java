@@ -2,13 +2,17 @@ package dev.buildcli.cli.commands.ai.code;
 
 import dev.buildcli.cli.commands.ai.CodeCommand;
 import dev.buildcli.core.actions.ai.AIChat;
-import dev.buildcli.core.actions.ai.factories.GeneralAIServiceFactory;
+import dev.buildcli.core.actions.ai.AIResultCache;
+import dev.buildcli.core.actions.ai.AIServiceRegistry;
+import dev.buildcli.core.actions.ai.AITelemetry;
+import dev.buildcli.core.actions.ai.ChunkedAIService;
 import dev.buildcli.core.constants.AIConstants;
 import dev.buildcli.core.domain.BuildCLICommand;
 import dev.buildcli.core.domain.configs.BuildCLIConfig;
 import dev.buildcli.core.utils.async.Async;
 import dev.buildcli.core.utils.config.ConfigContextLoader;
-import dev.buildcli.core.utils.filesystem.FindFilesUtils;
+import dev.buildcli.core.utils.filesystem.FileIndex;
+import dev.buildcli.core.utils.ai.ChangedMembers;
 import dev.buildcli.core.utils.ai.CodeUtils;
 import dev.buildcli.core.utils.ai.IAParamsUtils;
 import org.slf4j.Logger;
@@ -18,6 +22,7 @@ import picocli.CommandLine.*;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Consumer;
@@ -41,6 +46,12 @@ public class DocumentCommand implements BuildCLICommand {
   @Option(names = {"--context"}, description = "Overwrite the default AI command")
   private String context;
 
+  @Option(names = "--no-cache", description = "Generate again even when the file and prompt are unchanged", defaultValue = "false")
+  private boolean noCache;
+
+  @Option(names = "--changed-since", paramLabel = "<rev>", description = "Only document files changed since this git revision, and in Java files only the changed members")
+  private String changedSince;
+
   private final BuildCLIConfig allConfigs = ConfigContextLoader.getAllConfigs();
 
 
@@ -53,39 +64,59 @@ public class DocumentCommand implements BuildCLICommand {
       return;
     }
 
-    logger.info("Loading files with extensions: {}", Arrays.toString(getExtensions()));
-    var targetFiles = files.parallelStream()
-        .map(file -> FindFilesUtils.search(file, getExtensions()))
-        .flatMap(List::stream)
-        .toList();
+    var telemetry = AITelemetry.global();
+    var requestsBefore = telemetry.count();
+
+    try (var changes = changedSince == null ? null : new ChangedSince(changedSince)) {
+      logger.info("Loading files with extensions: {}", Arrays.toString(getExtensions()));
+      var index = FileIndex.open(Path.of(""));
+      var targetFiles = files.stream()
+          .flatMap(file -> index.files(file.toPath(), getExtensions()).stream())
+          .map(Path::toFile)
+          .toList();
+      if (changes != null) {
+        targetFiles = changes.retain(index, targetFiles, getExtensions());
+      }
 
-    logger.info("Found {} files with extensions: {}.", targetFiles.size(), Arrays.toString(getExtensions()));
+      logger.info("Found {} files with extensions: {}.", targetFiles.size(), Arrays.toString(getExtensions()));
 
-    var execsAsync = Async.group(targetFiles.size());;
+      var execsAsync = Async.group(targetFiles.size());;
 
-    logger.info("Documenting files {}...", targetFiles.size());
-    for (int i = 0; i < targetFiles.size(); i++) {
-      execsAsync[i] = Async.run(createCodeDocumenter(targetFiles.get(i)))
-          .then(CodeUtils::extractCode)
-          .consumeAsync(saveSourceCodeDocumented(targetFiles.get(i)))
-          .catchAny(catchAnyError(targetFiles.get(i)));
-    }
+      logger.info("Documenting files {}...", targetFiles.size());
+      for (int i = 0; i < targetFiles.size(); i++) {
+        execsAsync[i] = Async.run(createCodeDocumenter(targetFiles.get(i), changes))
+            .consumeAsync(saveSourceCodeDocumented(targetFiles.get(i)))
+            .catchAny(catchAnyError(targetFiles.get(i)));
+      }
 
-    Async.awaitAll(execsAsync);
+      Async.awaitAll(execsAsync);
+      AITelemetry.summary(telemetry.since(requestsBefore)).ifPresent(System.out::print);
+    }
   }
 
 
-  private Supplier<String> createCodeDocumenter(File source) {
+  private Supplier<String> createCodeDocumenter(File source, ChangedSince changes) {
     try {
       logger.info("Reading source file: {}", source.getAbsolutePath());
       var sourceCode = Files.readString(source.toPath());
       logger.info("Source file read: {}", source.getAbsolutePath());
 
       var aiParams = IAParamsUtils.createAIParams(parent.getModel(), parent.getVendor());;
-      var iaService = new GeneralAIServiceFactory().create(aiParams);
+      var service = noCache ? AIServiceRegistry.get(aiParams)
+          : AIResultCache.defaultCache().cached(AIServiceRegistry.get(aiParams), aiParams);
+      var chunked = ChunkedAIService.forCode(service, ChunkedAIService.configuredTokenBudget());
+      var iaService = source.getName().endsWith(".java") ? chunked : service;
+      var prompt = context == null || context.isEmpty() ? AIConstants.DOCUMENT_CODE_PROMPT : context;
+
+      var members = changes == null ? null : changes.members(source, sourceCode);
+      if (members != null && !ChangedMembers.isWhole(members, sourceCode)) {
+        logger.info("Documenting {} changed members with IA...", members.size());
+        var excerpts = members.stream().map(ChangedMembers.Member::code).toList();
+        return () -> ChangedMembers.splice(sourceCode, members, chunked.generateEach(new AIChat(prompt, ""), excerpts));
+      }
 
       logger.info("Commenting with IA...");
-      return () -> iaService.generate(new AIChat(context == null || context.isEmpty() ? AIConstants.DOCUMENT_CODE_PROMPT : context, sourceCode));
+      return () -> CodeUtils.extractCode(iaService.generate(new AIChat(prompt, sourceCode)));
 
     } catch (IOException e) {
       return () -> {
@@ -0,0 +1,64 @@
+package dev.buildcli.cli.commands.ai.code;
+
+import dev.buildcli.core.utils.console.markdown.MarkdownInterpreter;
+import dev.buildcli.core.utils.console.markdown.MarkdownStream;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Prints the AI answer for one file as its tokens arrive.
+ * <p>
+ * Files are generated concurrently, so only one answer streams to the console at a time; answers
+ * that arrive meanwhile are buffered and printed whole when they finish, never interleaved.
+ */
+final class StreamedAnswer implements Consumer<String>, AutoCloseable {
+  private static final Semaphore CONSOLE = new Semaphore(1);
+
+  private final String header;
+  private final String footer;
+  private final StringBuilder buffered = new StringBuilder();
+  private MarkdownStream live;
+  private boolean started;
+
+  StreamedAnswer(String header, String footer) {
+    this.header = header;
+    this.footer = footer;
+  }
+
+  @Override
+  public synchronized void accept(String token) {
+    if (!started) {
+      started = true;
+      if (CONSOLE.tryAcquire()) {
+        System.out.print(header);
+        live = new MarkdownInterpreter().stream(System.out::print);
+      }
+    }
+
+    if (live != null) {
+      live.accept(token);
+    } else {
+      buffered.append(token);
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    if (live != null) {
+      try {
+        live.close();
+        System.out.print(footer);
+      } finally {
+        CONSOLE.release();
+      }
+    } else if (started) {
+      CONSOLE.acquireUninterruptibly();
+      try {
+        System.out.print(header + new MarkdownInterpreter().interpret(buffered.toString()) + footer);
+      } finally {
+        CONSOLE.release();
+      }
+    }
+  }
+}
@@ -2,7 +2,9 @@ package dev.buildcli.cli.commands.ai.code;
 
 import dev.buildcli.cli.commands.ai.CodeCommand;
 import dev.buildcli.core.actions.ai.AIChat;
-import dev.buildcli.core.actions.ai.factories.GeneralAIServiceFactory;
+import dev.buildcli.core.actions.ai.AIResultCache;
+import dev.buildcli.core.actions.ai.AIServiceRegistry;
+import dev.buildcli.core.actions.ai.AITelemetry;
 import dev.buildcli.core.domain.BuildCLICommand;
 import dev.buildcli.core.domain.configs.BuildCLIConfig;
 import dev.buildcli.core.utils.LanguageDetector;
@@ -10,8 +12,7 @@ import dev.buildcli.core.utils.ai.CodeUtils;
 import dev.buildcli.core.utils.ai.IAParamsUtils;
 import dev.buildcli.core.utils.async.Async;
 import dev.buildcli.core.utils.config.ConfigContextLoader;
-import dev.buildcli.core.utils.filesystem.FindFilesUtils;
-import dev.buildcli.core.utils.console.markdown.MarkdownInterpreter;
+import dev.buildcli.core.utils.filesystem.FileIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine.Command;
@@ -22,6 +23,7 @@ import picocli.CommandLine.ParentCommand;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
@@ -53,6 +55,10 @@ public class TestCommand implements BuildCLICommand {
   private String extensions;
   @Option(names = {"--context"}, description = "Overwrite the default AI command")
   private String context;
+  @Option(names = "--no-cache", description = "Generate again even when the file and prompt are unchanged", defaultValue = "false")
+  private boolean noCache;
+  @Option(names = "--changed-since", paramLabel = "<rev>", description = "Only generate tests for files changed since this git revision")
+  private String changedSince;
   @Option(names = "-y", description = "Accept all code", defaultValue = "false")
   private boolean acceptAllCode;
 
@@ -65,11 +71,21 @@ public class TestCommand implements BuildCLICommand {
       return;
     }
 
+    var telemetry = AITelemetry.global();
+    var requestsBefore = telemetry.count();
+
     logger.info("Loading files with extensions: {}", Arrays.toString(getExtensions()));
-    var targetFiles = files.parallelStream()
-        .map(file -> FindFilesUtils.search(file, getExtensions()))
-        .flatMap(List::stream)
+    var index = FileIndex.open(Path.of(""));
+    var targetFiles = files.stream()
+        .flatMap(file -> index.files(file.toPath(), getExtensions()).stream())
+        .map(Path::toFile)
         .toList();
+    if (changedSince != null) {
+      // a test covers the whole class, so changed files are sent whole
+      try (var changes = new ChangedSince(changedSince)) {
+        targetFiles = changes.retain(index, targetFiles, getExtensions());
+      }
+    }
     logger.info("Found {} files with extensions: {}.", targetFiles.size(), Arrays.toString(getExtensions()));
 
     var execsAsync = Async.group(targetFiles.size());
@@ -77,22 +93,19 @@ public class TestCommand implements BuildCLICommand {
     logger.info("Commenting files {}...", targetFiles.size());
     for (int i = 0; i < targetFiles.size(); i++) {
       execsAsync[i] = Async.run(createCodeTestGenerator(targetFiles.get(i)))
-          .then(printFormattedCode(targetFiles.get(i)))
           .then(CodeUtils::extractCode)
           .consumeAsync(writeTestCode(targetFiles.get(i)))
           .catchAny(catchAnyError(targetFiles.get(i)));
     }
 
     Async.awaitAll(execsAsync);
+    AITelemetry.summary(telemetry.since(requestsBefore)).ifPresent(System.out::print);
   }
 
-  private Function<String, String> printFormattedCode(File file) {
-    return s -> {
-      System.out.println();
-      System.out.println("File: " + blueFg(file.toString()));
-      System.out.println(new MarkdownInterpreter().interpret(s));
-      return s;
-    };
+  private StreamedAnswer printFormattedCode(File file) {
+    var header = "%nFile: %s%n".formatted(blueFg(file.toString()));
+
+    return new StreamedAnswer(header, System.lineSeparator());
   }
 
   private Consumer<String> writeTestCode(File source) {
@@ -135,12 +148,17 @@ public class TestCommand implements BuildCLICommand {
       logger.info("Source file read: {}", source.getAbsolutePath());
 
       var aiParams = IAParamsUtils.createAIParams(parent.getModel(), parent.getVendor());
-      var iaService = new GeneralAIServiceFactory().create(aiParams);
+      var iaService = noCache ? AIServiceRegistry.get(aiParams)
+          : AIResultCache.defaultCache().cached(AIServiceRegistry.get(aiParams), aiParams);
 
       var lang = LanguageDetector.detectLanguage(source.getName());
 
       logger.info("Generating test with IA...");
-      return () -> iaService.generate(new AIChat(context == null || context.isEmpty() ? String.format(GENERATE_TEST_PROMPT, lang) : context, sourceCode));
+      return () -> {
+        try (var answer = printFormattedCode(source)) {
+          return iaService.generate(new AIChat(context == null || context.isEmpty() ? String.format(GENERATE_TEST_PROMPT, lang) : context, sourceCode), answer);
+        }
+      };
 
     } catch (IOException e) {
       return () -> {
@@ -1,11 +1,12 @@
 package dev.buildcli.cli.commands.doctor;
 
 import dev.buildcli.core.actions.tools.DockerChecker;
-import dev.buildcli.core.actions.tools.ToolCheckers;
+import dev.buildcli.core.actions.tools.ToolScanner;
 import dev.buildcli.core.domain.BuildCLICommand;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 
 @Command(
     name = "scan",
@@ -14,15 +15,19 @@ import picocli.CommandLine.Command;
 )
 public class ScanCommand implements BuildCLICommand {
   private final Logger logger = LoggerFactory.getLogger("DoctorScanCommand");
+
+  @Option(names = {"--refresh", "-r"}, description = "Probe every tool again instead of using cached results.", defaultValue = "false")
+  private boolean refresh;
+
   @Override
   public void run() {
-    ToolCheckers.all().forEach(toolChecker -> {
-      logger.info("Running environment scan...");
+    logger.info("Running environment scan...");
+    new ToolScanner().scan(refresh).forEach((toolChecker, status) -> {
       logger.info("Checking {}...", toolChecker.name());
 
-      if (toolChecker.isInstalled()) {
-        logger.info("  Installed, version: {}", toolChecker.version());
-        if (toolChecker instanceof DockerChecker c && !c.isRunning()) {
+      if (status.installed()) {
+        logger.info("  Installed, version: {}", status.version());
+        if (toolChecker instanceof DockerChecker docker && !docker.isRunning()) {
           logger.warn("  Docker is installed but not running.");
         }
       } else {
@@ -7,7 +7,7 @@ import dev.buildcli.core.domain.jar.Jar;
 import dev.buildcli.core.utils.ProjectUtils;
 import dev.buildcli.core.utils.config.ConfigContextLoader;
 import dev.buildcli.core.utils.filesystem.FindFilesUtils;
-import dev.buildcli.core.utils.net.FileDownloader;
+import dev.buildcli.core.utils.net.DownloadCache;
 import dev.buildcli.plugin.utils.BuildCLIPluginUtils;
 import org.eclipse.jgit.api.Git;
 import org.slf4j.Logger;
@@ -80,17 +80,40 @@ public class AddCommand implements BuildCLICommand {
   }
 
   private void processRemoteJar(String jarUrl) throws IOException {
-    File downloadedFile = FileDownloader.download(jarUrl);
+    var tempDir = Files.createTempDirectory("buildcli-plugin");
 
-    if (isValidJarFile(downloadedFile)) {
-      Jar jar = new Jar(downloadedFile);
-      if (BuildCLIPluginUtils.isValid(jar)) {
-        copyJarPlugin(jar);
+    try {
+      File downloadedFile;
+      try {
+        downloadedFile = DownloadCache.defaultCache().fetchInto(jarUrl, tempDir, null).toFile();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Download interrupted: " + jarUrl, e);
+      }
+
+      if (isValidJarFile(downloadedFile)) {
+        Jar jar = new Jar(downloadedFile);
+        if (BuildCLIPluginUtils.isValid(jar)) {
+          copyJarPlugin(jar);
+        } else {
+          logger.warn("Downloaded JAR is not a valid plugin: {}", downloadedFile);
+        }
       } else {
-        logger.warn("Downloaded JAR is not a valid plugin: {}", downloadedFile);
+        logger.warn("Downloaded file is not a valid JAR: {}", downloadedFile);
       }
-    } else {
-      logger.warn("Downloaded file is not a valid JAR: {}", downloadedFile);
+    } finally {
+      deleteTempDirectory(tempDir);
+    }
+  }
+
+  private void deleteTempDirectory(Path directory) {
+    try (var files = Files.list(directory)) {
+      for (var file : files.toList()) {
+        Files.deleteIfExists(file);
+      }
+      Files.deleteIfExists(directory);
+    } catch (IOException e) {
+      logger.warn("Could not delete temporary directory: {}", directory, e);
     }
   }
 
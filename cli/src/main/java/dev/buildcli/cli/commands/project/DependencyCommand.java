@@ -0,0 +1,12 @@
+package dev.buildcli.cli.commands.project;
+
+import dev.buildcli.cli.commands.project.dependency.TreeCommand;
+import picocli.CommandLine.Command;
+
+@Command(name = "dependency", aliases = {"dep"}, description = "Inspects the project's dependencies.",
+        subcommands = {TreeCommand.class},
+        mixinStandardHelpOptions = true
+)
+public class DependencyCommand {
+
+}
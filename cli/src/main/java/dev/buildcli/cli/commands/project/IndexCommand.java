@@ -0,0 +1,43 @@
+package dev.buildcli.cli.commands.project;
+
+import dev.buildcli.core.domain.BuildCLICommand;
+import dev.buildcli.core.log.SystemOutLogger;
+import dev.buildcli.core.utils.filesystem.FileIndex;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.nio.file.Path;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Command(name = "index", aliases = {"idx"}, description = "Updates the project file index in .buildcli/ used by the AI "
+    + "commands to find source files. With --watch, keeps it current until interrupted.", mixinStandardHelpOptions = true)
+public class IndexCommand implements BuildCLICommand {
+  private static final Logger logger = Logger.getLogger(IndexCommand.class.getName());
+
+  @Option(names = {"--watch", "-w"}, description = "Keep the index up to date in the foreground.", defaultValue = "false")
+  private boolean watch;
+
+  @Override
+  public void run() {
+    var index = FileIndex.open(Path.of(""));
+
+    try {
+      if (!watch) {
+        index.refresh();
+        SystemOutLogger.log("Indexed %d files in %s.".formatted(index.size(), index.root()));
+        return;
+      }
+
+      try (var watcher = index.watch()) {
+        SystemOutLogger.log("Indexed %d files in %s. Watching for changes, press Ctrl+C to stop."
+            .formatted(index.size(), index.root()));
+        watcher.await();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      logger.log(Level.SEVERE, "Error indexing project files", e);
+    }
+  }
+}
@@ -5,16 +5,15 @@ import dev.buildcli.core.constants.MavenConstants;
 import dev.buildcli.core.domain.BuildCLICommand;
 import dev.buildcli.core.log.SystemOutLogger;
 import dev.buildcli.core.utils.PomUtils;
-import dev.buildcli.core.utils.tools.maven.PomReader;
+import dev.buildcli.core.utils.tools.maven.PomTransaction;
+import dev.buildcli.core.utils.tools.maven.ReactorIndex;
 import org.jetbrains.annotations.NotNull;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Parameters;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -27,17 +26,30 @@ public class DependencyCommand implements BuildCLICommand {
   private String dependency;
   @Option(names = {"--manual", "-m"}, description = "Defines if dependency will be added manually or not.")
   Boolean manually;
+  @Option(names = {"--module"}, description = "Reactor module (artifactId or groupId:artifactId) to add the dependency "
+          + "to, or 'all' for every module. Defaults to the root pom.xml.")
+  String module;
+  @Option(names = {"--reindex"}, description = "Rebuilds the offline dependency index from the local Maven repository "
+          + "before searching.")
+  boolean reindex;
+  @Option(names = {"--central-index"}, description = "Maven Central index export (nexus-maven-repository-index.gz) to "
+          + "include when rebuilding the offline dependency index.")
+  Path centralIndex;
 
   @Override
   public void run() {
     try {
-      String pomWithAddedDependencies = getPomWithAddedDependencies();
+      var dependencies = getDependencies().stream().map(PomUtils::convertToDependency).toList();
 
-      try {
-        Files.write(Paths.get(MavenConstants.FILE), pomWithAddedDependencies.getBytes());
-        SystemOutLogger.log("Dependency added to pom.xml.");
-      } catch (IOException e) {
-        logger.log(Level.SEVERE, "Error adding dependency to pom.xml", e);
+      for (var pomFile : ReactorIndex.resolveTargets(Path.of(MavenConstants.FILE), module)) {
+        try {
+          var transaction = PomTransaction.begin(pomFile);
+          dependencies.forEach(transaction::add);
+          transaction.commit();
+          SystemOutLogger.log("Dependency added to " + pomFile + ".");
+        } catch (IOException e) {
+          logger.log(Level.SEVERE, "Error adding dependency to " + pomFile, e);
+        }
       }
 
     } catch (Exception e) {
@@ -46,22 +58,19 @@ public class DependencyCommand implements BuildCLICommand {
   }
 
   @NotNull
-  private String getPomWithAddedDependencies() {
-    DependencySearchService service = new DependencySearchService();
-    List<String> dependencies =  List.of(dependency);
-
-    if(manually==null) {
-     dependencies = service.searchDependecy(dependency);
+  private List<String> getDependencies() {
+    if (manually != null) {
+      return List.of(dependency);
     }
-    List<String> pomWithAddedDependencies = new ArrayList<>();
-    dependencies.forEach(dep -> {
+
+    var service = new DependencySearchService();
+    if (reindex || centralIndex != null) {
       try {
-        pomWithAddedDependencies.add(PomReader.addOrUpdateDependency(MavenConstants.FILE, PomUtils.convertToDependency(dep)));
-      } catch (Exception e) {
-        throw new RuntimeException(e);
+        service.rebuildIndex(centralIndex);
+      } catch (IOException e) {
+        logger.log(Level.WARNING, "Could not rebuild the dependency index", e);
       }
-    });
-
-    return pomWithAddedDependencies.getFirst();
+    }
+    return service.searchDependecy(dependency);
   }
 }
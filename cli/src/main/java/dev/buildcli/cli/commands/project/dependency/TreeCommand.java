@@ -0,0 +1,54 @@
+package dev.buildcli.cli.commands.project.dependency;
+
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.domain.BuildCLICommand;
+import dev.buildcli.core.log.SystemOutLogger;
+import dev.buildcli.core.utils.tools.maven.DependencyTreeResolver;
+import dev.buildcli.core.utils.tools.maven.EffectivePomResolver;
+import dev.buildcli.core.utils.tools.maven.ReactorIndex;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.nio.file.Path;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Command(name = "tree", aliases = {"t"}, description = "Prints the transitive dependency tree resolved from the local "
+        + "Maven repository and reports version conflicts.", mixinStandardHelpOptions = true)
+public class TreeCommand implements BuildCLICommand {
+  private static final Logger logger = Logger.getLogger(TreeCommand.class.getName());
+
+  @Option(names = {"--module"}, description = "Reactor module (artifactId or groupId:artifactId), or 'all' for every "
+          + "module. Defaults to the root pom.xml.")
+  private String module;
+
+  @Option(names = {"--conflicts", "-c"}, description = "Only report version conflicts.", defaultValue = "false")
+  private boolean conflictsOnly;
+
+  @Override
+  public void run() {
+    try {
+      var treeResolver = new DependencyTreeResolver(EffectivePomResolver.local());
+
+      for (var pomFile : ReactorIndex.resolveTargets(Path.of(MavenConstants.FILE), module)) {
+        var tree = treeResolver.resolve(pomFile);
+
+        if (!conflictsOnly) {
+          SystemOutLogger.log(tree.render());
+        }
+
+        if (tree.conflicts().isEmpty()) {
+          SystemOutLogger.log("No version conflicts in " + tree.project().coordinates() + ".");
+        }
+        tree.conflicts().forEach(conflict -> SystemOutLogger.log("%s: %s selected, %s omitted (requested by %s)"
+            .formatted(conflict.key(), conflict.selectedVersion(), conflict.omittedVersion(), conflict.requestedBy())));
+
+        if (!tree.unresolved().isEmpty()) {
+          SystemOutLogger.log("Not in local repository: " + String.join(", ", tree.unresolved()));
+        }
+      }
+    } catch (Exception e) {
+      logger.log(Level.SEVERE, "Error resolving dependency tree", e);
+    }
+  }
+}
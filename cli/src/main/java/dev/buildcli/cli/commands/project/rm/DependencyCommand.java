@@ -3,13 +3,15 @@ package dev.buildcli.cli.commands.project.rm;
 import dev.buildcli.core.constants.MavenConstants;
 import dev.buildcli.core.domain.BuildCLICommand;
 import dev.buildcli.core.log.SystemOutLogger;
-import dev.buildcli.core.utils.tools.maven.PomReader;
+import dev.buildcli.core.utils.PomUtils;
+import dev.buildcli.core.utils.tools.maven.PomTransaction;
+import dev.buildcli.core.utils.tools.maven.ReactorIndex;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.file.Path;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
@@ -20,20 +22,25 @@ public class DependencyCommand implements BuildCLICommand {
   private final Logger logger = Logger.getLogger(DependencyCommand.class.getName());
   @Parameters
   private String[] dependencies;
+  @Option(names = {"--module"}, description = "Reactor module (artifactId or groupId:artifactId) to remove the "
+          + "dependencies from, or 'all' for every module. Defaults to the root pom.xml.")
+  private String module;
 
   @Override
   public void run() {
     try {
-      var pom = PomReader.read(MavenConstants.FILE);
-      var pomData = PomReader.readAsString(MavenConstants.FILE);
-      Stream.of(dependencies).forEach(pom::rmDependency);
+      var toRemove = Stream.of(dependencies).map(PomUtils::convertToDependency).toList();
 
-      try {
-        String pomContent = pomData.replace(MavenConstants.DEPENDENCIES_PATTERN, pom.getDependencyFormatted());
-        Files.write(Paths.get(MavenConstants.FILE), pomContent.getBytes());
-        SystemOutLogger.log("Dependency removed from pom.xml.");
-      } catch (IOException e) {
-        logger.log(Level.SEVERE, "Error removing dependency from pom.xml", e);
+      for (var pomFile : ReactorIndex.resolveTargets(Path.of(MavenConstants.FILE), module)) {
+        try {
+          var transaction = PomTransaction.begin(pomFile);
+          toRemove.forEach(dependency -> transaction.remove(dependency.getGroupId(), dependency.getArtifactId()));
+          if (transaction.commit()) {
+            SystemOutLogger.log("Dependency removed from " + pomFile + ".");
+          }
+        } catch (IOException e) {
+          logger.log(Level.SEVERE, "Error removing dependency from " + pomFile, e);
+        }
       }
 
     } catch (Exception e) {
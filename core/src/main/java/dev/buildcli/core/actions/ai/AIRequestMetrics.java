@@ -0,0 +1,30 @@
+package dev.buildcli.core.actions.ai;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * What one AI request cost.
+ *
+ * @param start            when the request was made, before any queueing
+ * @param tokensEstimated  whether the model server did not report token counts and they were
+ *                         estimated from the text
+ * @param queueWait        time spent waiting for a free slot of the service
+ * @param timeToFirstToken time from getting a slot to the first token, the whole answer for
+ *                         requests that do not stream
+ * @param latency          time from getting a slot to the complete answer
+ */
+public record AIRequestMetrics(Instant start, String vendor, String model, boolean succeeded,
+                               int promptTokens, int completionTokens, boolean tokensEstimated,
+                               Duration queueWait, Duration timeToFirstToken, Duration latency) {
+  /**
+   * Completion tokens per second of generation, after the first token when the answer streamed.
+   */
+  public double tokensPerSecond() {
+    var generation = latency.minus(timeToFirstToken);
+    if (generation.isZero() || generation.isNegative() || completionTokens <= 1) {
+      generation = latency;
+    }
+    return generation.isZero() ? 0 : completionTokens * 1_000_000_000.0 / generation.toNanos();
+  }
+}
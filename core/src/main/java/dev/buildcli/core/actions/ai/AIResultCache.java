@@ -0,0 +1,227 @@
+package dev.buildcli.core.actions.ai;
+
+import dev.buildcli.core.actions.ai.params.OllamaAIServiceParams;
+import dev.buildcli.core.constants.AIConstants;
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Generated answers stored under {@code ~/.buildcli/cache/ai}, so that running an AI code command
+ * again over unchanged files replays the previous answers instead of generating them anew.
+ *
+ * <p>An answer is keyed by the SHA-256 of the source, the system prompt, the vendor, the model, the
+ * server URL and the temperature; changing any of them is a miss. Hits touch the file's modification
+ * time and the least recently used answers are evicted once the cache exceeds its size budget. The
+ * directory is measured once per instance and then kept up to date as answers are stored, so only
+ * an eviction walks it again. Writes are atomic moves, so concurrent runs can share the directory.</p>
+ */
+public final class AIResultCache {
+  public static final Path DEFAULT_DIRECTORY = Path.of(System.getProperty("user.home"), ".buildcli", "cache", "ai");
+  public static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+
+  private static final Logger log = LoggerFactory.getLogger(AIResultCache.class);
+  private static final String SUFFIX = ".md";
+
+  private final Path directory;
+  private final long maxSize;
+  private long size = -1;
+
+  public AIResultCache(Path directory, long maxSize) {
+    this.directory = directory;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * The cache at {@link #DEFAULT_DIRECTORY}, bounded by {@code buildcli.cache.ai.max-size-mb}.
+   */
+  public static AIResultCache defaultCache() {
+    var maxSize = ConfigContextLoader.getAllConfigs().getPropertyAsInt(ConfigDefaultConstants.AI_CACHE_MAX_SIZE)
+        .map(megabytes -> megabytes * 1024L * 1024).orElse(DEFAULT_MAX_SIZE);
+    return new AIResultCache(DEFAULT_DIRECTORY, maxSize);
+  }
+
+  /**
+   * Wraps {@code service} so that answers for {@code params} are looked up here first and stored
+   * once generated. Hits are handed out as a single token.
+   */
+  public StreamingAIService cached(StreamingAIService service, AIServiceParams params) {
+    return new StreamingAIService() {
+      @Override
+      public String generate(AIChat chat, Consumer<String> onToken) {
+        var key = key(chat, params);
+        var hit = get(key);
+        if (hit.isPresent()) {
+          onToken.accept(hit.get());
+          return hit.get();
+        }
+
+        var answer = service.generate(chat, onToken);
+        put(key, answer);
+        return answer;
+      }
+
+      @Override
+      public String generate(AIChat chat) {
+        return generate(chat, token -> {
+        });
+      }
+    };
+  }
+
+  /**
+   * The key of the answer to {@code chat} from the model described by {@code params}.
+   */
+  public static String key(AIChat chat, AIServiceParams params) {
+    var digest = sha256();
+    var url = params instanceof OllamaAIServiceParams ollama ? ollama.url() : "";
+    for (var part : new String[]{chat.getUserMessage(), chat.getSystemMessage(),
+        params.vendor().toLowerCase(Locale.ROOT), params.model().orElse(""), url, String.valueOf(AIConstants.TEMPERATURE)}) {
+      var bytes = part.getBytes(StandardCharsets.UTF_8);
+      // length prefixes keep ("ab", "c") and ("a", "bc") apart
+      digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+      digest.update(bytes);
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  public Optional<String> get(String key) {
+    var file = file(key);
+    String answer;
+    try {
+      answer = Files.readString(file, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      return Optional.empty();
+    }
+
+    try {
+      Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (IOException e) {
+      log.debug("Could not mark cached AI answer {} as used", key, e);
+    }
+    log.debug("Replaying cached AI answer {}", key);
+    return Optional.of(answer);
+  }
+
+  public void put(String key, String answer) {
+    var file = file(key);
+    try {
+      Files.createDirectories(file.getParent());
+      var temp = Files.createTempFile(file.getParent(), key, ".tmp");
+      Files.writeString(temp, answer, StandardCharsets.UTF_8);
+      var added = Files.size(temp) - size(file);
+      move(temp, file);
+      stored(added);
+    } catch (IOException e) {
+      log.debug("Could not cache AI answer {}", key, e);
+    }
+  }
+
+  /**
+   * Accounts for {@code added} bytes, measuring the directory on first use, and evicts when the
+   * cache no longer fits in its budget.
+   */
+  private synchronized void stored(long added) throws IOException {
+    if (size < 0) {
+      size = 0;
+      for (var answer : list()) {
+        size += size(answer);
+      }
+    } else {
+      size += added;
+    }
+    if (size > maxSize) {
+      evict();
+    }
+  }
+
+  /**
+   * Removes the least recently used answers until the cache fits in its budget.
+   */
+  synchronized void evict() throws IOException {
+    var answers = new ArrayList<>(list());
+    var total = 0L;
+    for (var answer : answers) {
+      total += size(answer);
+    }
+    size = total;
+    if (total <= maxSize) {
+      return;
+    }
+
+    answers.sort(Comparator.comparing(AIResultCache::lastUsed));
+    for (var answer : answers) {
+      if (total <= maxSize) {
+        break;
+      }
+      total -= size(answer);
+      Files.deleteIfExists(answer);
+    }
+    size = total;
+  }
+
+  private Path file(String key) {
+    return directory.resolve(key.substring(0, 2)).resolve(key + SUFFIX);
+  }
+
+  private List<Path> list() throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+    try (Stream<Path> files = Files.walk(directory, 2)) {
+      return files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).toList();
+    }
+  }
+
+  private static long size(Path file) {
+    try {
+      return Files.size(file);
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private static FileTime lastUsed(Path file) {
+    try {
+      return Files.getLastModifiedTime(file);
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+
+  private static void move(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package dev.buildcli.core.actions.ai;
+
+import dev.buildcli.core.actions.ai.factories.AIServiceFactory;
+import dev.buildcli.core.actions.ai.factories.GeneralAIServiceFactory;
+import dev.buildcli.core.actions.ai.params.OllamaAIServiceParams;
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Keeps one {@link AIService} per vendor, model and URL for the whole process, so that a command
+ * working on many files loads a model once instead of once per file.
+ *
+ * <p>Each service admits a limited number of concurrent {@link AIService#generate} calls, set by
+ * {@code buildcli.ai.concurrency}; the rest wait in arrival order. A local JLama model computes on
+ * the CPU and defaults to one call at a time, remote vendors to {@value #REMOTE_CONCURRENCY}.</p>
+ *
+ * <p>The services returned are {@link StreamingAIService}s; a service that cannot stream hands out
+ * its whole answer as one token. Every call is measured, queue wait included, by {@link AITelemetry}.</p>
+ */
+public final class AIServiceRegistry {
+  static final int REMOTE_CONCURRENCY = 4;
+
+  private static final AIServiceRegistry SHARED = new AIServiceRegistry(new GeneralAIServiceFactory(),
+      AIServiceRegistry::configuredConcurrency, AITelemetry.global());
+
+  @SuppressWarnings("rawtypes")
+  private final AIServiceFactory factory;
+  private final ToIntFunction<AIServiceParams> concurrency;
+  private final AITelemetry telemetry;
+  private final Map<Key, Entry> services = new ConcurrentHashMap<>();
+
+  @SuppressWarnings("rawtypes")
+  AIServiceRegistry(AIServiceFactory factory, ToIntFunction<AIServiceParams> concurrency, AITelemetry telemetry) {
+    this.factory = factory;
+    this.concurrency = concurrency;
+    this.telemetry = telemetry;
+  }
+
+  /**
+   * Returns the process-wide service for {@code params}, creating it on first use.
+   */
+  public static StreamingAIService get(AIServiceParams params) {
+    return SHARED.service(params);
+  }
+
+  StreamingAIService service(AIServiceParams params) {
+    return services.computeIfAbsent(Key.of(params), key -> new Entry()).service(params);
+  }
+
+  private static int configuredConcurrency(AIServiceParams params) {
+    return ConfigContextLoader.getAllConfigs().getPropertyAsInt(ConfigDefaultConstants.AI_CONCURRENCY)
+        .filter(limit -> limit > 0)
+        .orElse("jlama".equalsIgnoreCase(params.vendor()) ? 1 : REMOTE_CONCURRENCY);
+  }
+
+  private record Key(String vendor, String model, String url) {
+    static Key of(AIServiceParams params) {
+      var url = params instanceof OllamaAIServiceParams ollama ? ollama.url() : null;
+      return new Key(params.vendor().toLowerCase(Locale.ROOT), params.model().orElse(null), url);
+    }
+  }
+
+  /**
+   * Creates its service once; callers asking while a model loads wait for it instead of loading
+   * another copy.
+   */
+  private final class Entry {
+    private volatile StreamingAIService service;
+
+    @SuppressWarnings("unchecked")
+    StreamingAIService service(AIServiceParams params) {
+      var current = service;
+      if (current == null) {
+        synchronized (this) {
+          current = service;
+          if (current == null) {
+            current = new LimitedAIService(factory.create(params), concurrency.applyAsInt(params),
+                telemetry, params.vendor().toLowerCase(Locale.ROOT), params.model().orElse("default"));
+            service = current;
+          }
+        }
+      }
+      return current;
+    }
+  }
+
+  private static final class LimitedAIService implements StreamingAIService {
+    private final AIService delegate;
+    private final Semaphore permits;
+    private final AITelemetry telemetry;
+    private final String vendor;
+    private final String model;
+
+    private LimitedAIService(AIService delegate, int limit, AITelemetry telemetry, String vendor, String model) {
+      this.delegate = delegate;
+      this.permits = new Semaphore(Math.max(1, limit), true);
+      this.telemetry = telemetry;
+      this.vendor = vendor;
+      this.model = model;
+    }
+
+    @Override
+    public String generate(AIChat chat) {
+      try (var request = telemetry.start(chat, vendor, model)) {
+        acquire();
+        request.admitted();
+        try {
+          var answer = delegate.generate(chat);
+          request.completed(answer);
+          return answer;
+        } finally {
+          permits.release();
+        }
+      }
+    }
+
+    @Override
+    public String generate(AIChat chat, Consumer<String> onToken) {
+      try (var request = telemetry.start(chat, vendor, model)) {
+        acquire();
+        request.admitted();
+        try {
+          var observed = request.observe(onToken);
+          String answer;
+          if (delegate instanceof StreamingAIService streaming) {
+            answer = streaming.generate(chat, observed);
+          } else {
+            answer = delegate.generate(chat);
+            observed.accept(answer);
+          }
+          request.completed(answer);
+          return answer;
+        } finally {
+          permits.release();
+        }
+      }
+    }
+
+    private void acquire() {
+      try {
+        permits.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for the AI service", e);
+      }
+    }
+  }
+}
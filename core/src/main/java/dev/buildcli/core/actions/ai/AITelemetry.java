@@ -0,0 +1,253 @@
+package dev.buildcli.core.actions.ai;
+
+import com.google.gson.JsonObject;
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.ai.JavaChunker;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Records what each AI request cost: tokens, queue wait, time to first token, latency and
+ * generation speed, to size the hosts that serve the models.
+ *
+ * <p>Requests are measured by the services handed out by {@link AIServiceRegistry}, around the
+ * wait for a free slot and the call to the model. The model's service reports the token counts the
+ * server returned with {@link #reportTokens}; when it reports none they are estimated from the
+ * text. Every request is appended to a JSON lines file as it completes, for dashboards, and
+ * {@link #summary} tabulates them per model.</p>
+ */
+public final class AITelemetry {
+  public static final Path DEFAULT_FILE = Path.of(System.getProperty("user.home"), ".buildcli", "telemetry", "ai.jsonl");
+
+  private static final Logger log = LoggerFactory.getLogger(AITelemetry.class);
+  private static final ThreadLocal<Request> CURRENT = new ThreadLocal<>();
+
+  private final Path file;
+  private final List<AIRequestMetrics> requests = new ArrayList<>();
+  private boolean writeFailed;
+
+  /**
+   * @param file the JSON lines file to append requests to, or {@code null} to keep them in memory only
+   */
+  public AITelemetry(Path file) {
+    this.file = file;
+  }
+
+  private static final class Holder {
+    private static final AITelemetry GLOBAL = new AITelemetry(
+        file(ConfigContextLoader.getAllConfigs().getProperty(ConfigDefaultConstants.AI_TELEMETRY_FILE)));
+  }
+
+  /**
+   * The file {@code buildcli.ai.telemetry.file} names: {@link #DEFAULT_FILE} when it is unset, and
+   * {@code null}, keeping the requests in memory only, when it is blank or {@code none}.
+   */
+  static Path file(Optional<String> configured) {
+    if (configured.isEmpty()) {
+      return DEFAULT_FILE;
+    }
+    var path = configured.get().strip();
+    return path.isEmpty() || path.equalsIgnoreCase("none") ? null : Path.of(path);
+  }
+
+  /**
+   * The telemetry of this process, written to {@code buildcli.ai.telemetry.file} unless it is
+   * {@code none}.
+   */
+  public static AITelemetry global() {
+    return Holder.GLOBAL;
+  }
+
+  /**
+   * Starts measuring a request on the current thread; closing it records the request.
+   */
+  public Request start(AIChat chat, String vendor, String model) {
+    var request = new Request(chat, vendor, model);
+    CURRENT.set(request);
+    return request;
+  }
+
+  /**
+   * Reports the token counts the model server returned for the request in progress on the current
+   * thread. Does nothing outside a measured request.
+   */
+  public static void reportTokens(Integer promptTokens, Integer completionTokens) {
+    var request = CURRENT.get();
+    if (request != null && promptTokens != null && completionTokens != null) {
+      request.promptTokens = promptTokens;
+      request.completionTokens = completionTokens;
+    }
+  }
+
+  /**
+   * How many requests were recorded so far, to summarize the ones that follow with {@link #since}.
+   */
+  public synchronized int count() {
+    return requests.size();
+  }
+
+  public synchronized List<AIRequestMetrics> since(int count) {
+    return List.copyOf(requests.subList(Math.min(count, requests.size()), requests.size()));
+  }
+
+  public synchronized void record(AIRequestMetrics metrics) {
+    requests.add(metrics);
+    if (file == null || writeFailed) {
+      return;
+    }
+    try {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+      Files.writeString(file, toJson(metrics) + System.lineSeparator(), StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      writeFailed = true;
+      log.warn("Could not write AI telemetry to {}: {}", file, e.getMessage());
+    }
+  }
+
+  /**
+   * A table of {@code requests} per vendor and model, or empty when there are none.
+   */
+  public static Optional<String> summary(List<AIRequestMetrics> requests) {
+    if (requests.isEmpty()) {
+      return Optional.empty();
+    }
+
+    var models = new LinkedHashMap<String, List<AIRequestMetrics>>();
+    for (var request : requests) {
+      models.computeIfAbsent(request.vendor() + "/" + request.model(), key -> new ArrayList<>()).add(request);
+    }
+
+    var format = "%-28s %8s %7s %10s %10s %10s %10s %10s %10s %10s %8s%n";
+    var table = new StringBuilder("AI requests").append(System.lineSeparator());
+    table.append(format.formatted("model", "requests", "failed", "prompt tk", "answer tk",
+        "queue p50", "TTFT p50", "TTFT p95", "lat p50", "lat p95", "tk/s"));
+    for (var model : models.entrySet()) {
+      var metrics = model.getValue();
+      var generation = metrics.stream().filter(AIRequestMetrics::succeeded)
+          .mapToDouble(request -> request.tokensPerSecond() == 0 ? 0 : request.completionTokens() / request.tokensPerSecond())
+          .sum();
+      var completionTokens = metrics.stream().filter(AIRequestMetrics::succeeded).mapToLong(AIRequestMetrics::completionTokens).sum();
+      table.append(format.formatted(model.getKey(), metrics.size(),
+          metrics.stream().filter(request -> !request.succeeded()).count(),
+          metrics.stream().mapToLong(AIRequestMetrics::promptTokens).sum(),
+          completionTokens,
+          millis(percentile(metrics, AIRequestMetrics::queueWait, 50)),
+          millis(percentile(metrics, AIRequestMetrics::timeToFirstToken, 50)),
+          millis(percentile(metrics, AIRequestMetrics::timeToFirstToken, 95)),
+          millis(percentile(metrics, AIRequestMetrics::latency, 50)),
+          millis(percentile(metrics, AIRequestMetrics::latency, 95)),
+          "%.1f".formatted(generation == 0 ? 0 : completionTokens / generation)));
+    }
+
+    var estimated = requests.stream().filter(AIRequestMetrics::tokensEstimated).count();
+    if (estimated > 0) {
+      table.append("Token counts of %d requests are estimated from the text.%n".formatted(estimated));
+    }
+    return Optional.of(table.toString());
+  }
+
+  static Duration percentile(List<AIRequestMetrics> requests, Function<AIRequestMetrics, Duration> metric, double percentile) {
+    var values = requests.stream().map(metric).sorted(Comparator.naturalOrder()).toList();
+    if (values.isEmpty()) {
+      return Duration.ZERO;
+    }
+    var index = (int) Math.ceil(percentile / 100 * values.size()) - 1;
+    return values.get(Math.max(0, Math.min(index, values.size() - 1)));
+  }
+
+  private static String millis(Duration duration) {
+    return duration.toMillis() + " ms";
+  }
+
+  private static String toJson(AIRequestMetrics metrics) {
+    var json = new JsonObject();
+    json.addProperty("start", metrics.start().toString());
+    json.addProperty("vendor", metrics.vendor());
+    json.addProperty("model", metrics.model());
+    json.addProperty("succeeded", metrics.succeeded());
+    json.addProperty("promptTokens", metrics.promptTokens());
+    json.addProperty("completionTokens", metrics.completionTokens());
+    json.addProperty("tokensEstimated", metrics.tokensEstimated());
+    json.addProperty("queueWaitMs", metrics.queueWait().toMillis());
+    json.addProperty("timeToFirstTokenMs", metrics.timeToFirstToken().toMillis());
+    json.addProperty("latencyMs", metrics.latency().toMillis());
+    json.addProperty("tokensPerSecond", Math.round(metrics.tokensPerSecond() * 10) / 10.0);
+    return json.toString();
+  }
+
+  /**
+   * A request being measured. Mark when it got a slot with {@link #admitted}, pass its tokens
+   * through {@link #observe} and its answer to {@link #completed}; a request closed without an
+   * answer is recorded as failed.
+   */
+  public final class Request implements AutoCloseable {
+    private final AIChat chat;
+    private final String vendor;
+    private final String model;
+    private final Instant start = Instant.now();
+    private final long started = System.nanoTime();
+    private long admitted = -1;
+    private volatile long firstToken = -1;
+    private String answer;
+    private Integer promptTokens;
+    private Integer completionTokens;
+
+    private Request(AIChat chat, String vendor, String model) {
+      this.chat = chat;
+      this.vendor = vendor;
+      this.model = model;
+    }
+
+    public void admitted() {
+      admitted = System.nanoTime();
+    }
+
+    /**
+     * Wraps {@code onToken} to note when the first token arrives.
+     */
+    public Consumer<String> observe(Consumer<String> onToken) {
+      return token -> {
+        if (firstToken < 0) {
+          firstToken = System.nanoTime();
+        }
+        onToken.accept(token);
+      };
+    }
+
+    public void completed(String answer) {
+      this.answer = answer;
+    }
+
+    @Override
+    public void close() {
+      CURRENT.remove();
+      long end = System.nanoTime();
+      long slot = admitted < 0 ? end : admitted;
+      long first = firstToken < 0 ? end : firstToken;
+
+      var estimated = promptTokens == null || completionTokens == null;
+      var prompt = estimated ? JavaChunker.estimateTokens(chat.getSystemMessage()) + JavaChunker.estimateTokens(chat.getUserMessage()) : promptTokens;
+      var completion = estimated ? (answer == null ? 0 : JavaChunker.estimateTokens(answer)) : completionTokens;
+
+      record(new AIRequestMetrics(start, vendor, model, answer != null, prompt, completion, estimated,
+          Duration.ofNanos(slot - started), Duration.ofNanos(Math.max(0, first - slot)), Duration.ofNanos(end - slot)));
+    }
+  }
+}
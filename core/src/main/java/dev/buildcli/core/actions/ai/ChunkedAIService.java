@@ -0,0 +1,162 @@
+package dev.buildcli.core.actions.ai;
+
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.ai.CodeUtils;
+import dev.buildcli.core.utils.ai.JavaChunker;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Sends a large Java source to the model in pieces cut by {@link JavaChunker}, so each request
+ * fits the context window and prompt processing grows linearly with the file instead of
+ * quadratically.
+ *
+ * <p>The pieces are generated concurrently, within the limit of the wrapped service, and handed out
+ * in source order as soon as each piece and those before it are done. Sources within the budget go
+ * to the wrapped service unchanged, streaming included.</p>
+ */
+public final class ChunkedAIService implements StreamingAIService {
+  public static final int DEFAULT_TOKEN_BUDGET = 1536;
+
+  private static final String PART_PROMPT = """
+
+
+      The code below is part %d of %d of one source file, cut between members, so it may open or \
+      close in the middle of a class. Work on this part only.""";
+  private static final String CODE_PART_PROMPT = PART_PROMPT + " Return only this part, in a single code block.";
+  private static final String EXCERPT_PROMPT = """
+
+
+      The code below is excerpt %d of %d taken from one source file, each a whole member of a class. \
+      Work on this excerpt only.""";
+  private static final String CODE_EXCERPT_PROMPT = EXCERPT_PROMPT + " Return only this excerpt, in a single code block.";
+
+  private final StreamingAIService delegate;
+  private final int tokenBudget;
+  private final boolean code;
+
+  private ChunkedAIService(StreamingAIService delegate, int tokenBudget, boolean code) {
+    this.delegate = delegate;
+    this.tokenBudget = tokenBudget;
+    this.code = code;
+  }
+
+  /**
+   * For answers that rewrite the source: the code of each piece is extracted with
+   * {@link CodeUtils#extractCode} and the pieces are joined back into one {@code java} code block.
+   */
+  public static ChunkedAIService forCode(StreamingAIService delegate, int tokenBudget) {
+    return new ChunkedAIService(delegate, tokenBudget, true);
+  }
+
+  /**
+   * For answers about the source, such as reviews: the answers for the pieces follow each other.
+   */
+  public static ChunkedAIService forText(StreamingAIService delegate, int tokenBudget) {
+    return new ChunkedAIService(delegate, tokenBudget, false);
+  }
+
+  /**
+   * The budget set by {@code buildcli.ai.chunk-tokens}.
+   */
+  public static int configuredTokenBudget() {
+    return ConfigContextLoader.getAllConfigs().getPropertyAsInt(ConfigDefaultConstants.AI_CHUNK_TOKENS)
+        .filter(tokens -> tokens > 0)
+        .orElse(DEFAULT_TOKEN_BUDGET);
+  }
+
+  @Override
+  public String generate(AIChat chat, Consumer<String> onToken) {
+    var chunks = JavaChunker.split(chat.getUserMessage(), tokenBudget);
+    if (chunks.size() <= 1) {
+      return delegate.generate(chat, onToken);
+    }
+
+    var parts = submit(chat, chunks, code ? CODE_PART_PROMPT : PART_PROMPT);
+    try {
+      return reassemble(chunks, parts, onToken);
+    } catch (CompletionException e) {
+      throw failure(parts, e);
+    }
+  }
+
+  /**
+   * Generates an answer for each of {@code excerpts}, pieces of the source the caller chose, such as
+   * the members changed since a revision, concurrently. For code, each answer is the extracted code
+   * laid out like its excerpt, ready to take its place in the source.
+   */
+  public List<String> generateEach(AIChat chat, List<String> excerpts) {
+    var parts = submit(chat, excerpts, code ? CODE_EXCERPT_PROMPT : EXCERPT_PROMPT);
+    try {
+      var answers = new ArrayList<String>(parts.size());
+      for (int i = 0; i < parts.size(); i++) {
+        var answer = parts.get(i).join();
+        answers.add(code ? layoutLike(excerpts.get(i), CodeUtils.extractCode(answer)) : answer.trim());
+      }
+      return answers;
+    } catch (CompletionException e) {
+      throw failure(parts, e);
+    }
+  }
+
+  private List<CompletableFuture<String>> submit(AIChat chat, List<String> pieces, String prompt) {
+    var parts = new ArrayList<CompletableFuture<String>>(pieces.size());
+    for (int i = 0; i < pieces.size(); i++) {
+      var part = new AIChat(chat.getSystemMessage() + prompt.formatted(i + 1, pieces.size()), pieces.get(i));
+      parts.add(CompletableFuture.supplyAsync(() -> delegate.generate(part), ThreadPoolUtils.virtual()));
+    }
+    return parts;
+  }
+
+  private static RuntimeException failure(List<CompletableFuture<String>> parts, CompletionException e) {
+    parts.forEach(part -> part.cancel(true));
+    return e.getCause() instanceof RuntimeException cause ? cause : e;
+  }
+
+  private String reassemble(List<String> chunks, List<CompletableFuture<String>> parts, Consumer<String> onToken) {
+    var answer = new StringBuilder();
+    if (code) {
+      answer.append("```java\n");
+      onToken.accept(answer.toString());
+    }
+
+    for (int i = 0; i < parts.size(); i++) {
+      var part = parts.get(i).join();
+      var piece = code ? indentLike(chunks.get(i), CodeUtils.extractCode(part)) : part.trim();
+      piece = (i == 0 ? "" : "\n\n") + piece;
+      answer.append(piece);
+      onToken.accept(piece);
+    }
+
+    var end = code ? "\n```\n" : "\n";
+    answer.append(end);
+    onToken.accept(end);
+    return answer.toString();
+  }
+
+  /**
+   * Gives back the blank lines around {@code excerpt} and the indentation of its first line, which
+   * {@link CodeUtils#extractCode} trims.
+   */
+  private static String layoutLike(String excerpt, String code) {
+    var content = excerpt.strip();
+    var firstLine = excerpt.lastIndexOf('\n', excerpt.indexOf(content)) + 1;
+    var trailing = excerpt.substring(excerpt.stripTrailing().length());
+    return excerpt.substring(0, firstLine) + indentLike(excerpt, code) + trailing;
+  }
+
+  /**
+   * Gives back the indentation {@link CodeUtils#extractCode} trims from the first line of a piece.
+   */
+  private static String indentLike(String chunk, String piece) {
+    var firstLine = chunk.lines().filter(line -> !line.isBlank()).findFirst().orElse("");
+    var indent = firstLine.substring(0, firstLine.length() - firstLine.stripLeading().length());
+    return piece.isEmpty() || Character.isWhitespace(piece.charAt(0)) ? piece : indent + piece;
+  }
+}
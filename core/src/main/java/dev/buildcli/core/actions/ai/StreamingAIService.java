@@ -0,0 +1,21 @@
+package dev.buildcli.core.actions.ai;
+
+import java.util.function.Consumer;
+
+/**
+ * An {@link AIService} that hands out the answer token by token while it is generated.
+ */
+public interface StreamingAIService extends AIService {
+  /**
+   * Generates an answer, passing each token to {@code onToken} as it arrives.
+   *
+   * @return the complete answer, once generation has finished
+   */
+  String generate(AIChat chat, Consumer<String> onToken);
+
+  @Override
+  default String generate(AIChat chat) {
+    return generate(chat, token -> {
+    });
+  }
+}
@@ -1,29 +1,112 @@
 package dev.buildcli.core.actions.ai.service;
 
+import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.data.message.SystemMessage;
 import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
 import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
 import dev.buildcli.core.actions.ai.AIChat;
-import dev.buildcli.core.actions.ai.AIService;
+import dev.buildcli.core.actions.ai.AITelemetry;
+import dev.buildcli.core.actions.ai.StreamingAIService;
 
-public abstract class AbstractLangchain4jAIService implements AIService {
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+public abstract class AbstractLangchain4jAIService implements StreamingAIService {
   private final ChatLanguageModel model;
+  private final StreamingChatLanguageModel streamingModel;
 
   protected AbstractLangchain4jAIService() {
-    this(null);
+    this(null, null);
   }
 
   protected AbstractLangchain4jAIService(ChatLanguageModel model) {
+    this(model, null);
+  }
+
+  protected AbstractLangchain4jAIService(StreamingChatLanguageModel streamingModel) {
+    this(null, streamingModel);
+  }
+
+  /**
+   * Either model may be {@code null}: blocking calls fall back to collecting the stream, and
+   * streaming calls to handing out the blocking answer as one token.
+   */
+  protected AbstractLangchain4jAIService(ChatLanguageModel model, StreamingChatLanguageModel streamingModel) {
     this.model = model;
+    this.streamingModel = streamingModel;
   }
 
   @Override
   public String generate(AIChat chat) {
+    if (model == null) {
+      return generate(chat, token -> {
+      });
+    }
+
     var aiMessageResponse = model.generate(
         new SystemMessage(chat.getSystemMessage()),
         new UserMessage(chat.getUserMessage())
     );
 
+    reportTokens(aiMessageResponse);
     return aiMessageResponse.content().text();
   }
+
+  @Override
+  public String generate(AIChat chat, Consumer<String> onToken) {
+    if (streamingModel == null) {
+      var answer = generate(chat);
+      onToken.accept(answer);
+      return answer;
+    }
+
+    var response = new CompletableFuture<Response<AiMessage>>();
+    streamingModel.generate(List.of(new SystemMessage(chat.getSystemMessage()), new UserMessage(chat.getUserMessage())),
+        new StreamingResponseHandler<>() {
+          @Override
+          public void onNext(String token) {
+            if (response.isDone()) {
+              return;
+            }
+            try {
+              onToken.accept(token);
+            } catch (RuntimeException e) {
+              response.completeExceptionally(e);
+            }
+          }
+
+          @Override
+          public void onComplete(Response<AiMessage> complete) {
+            response.complete(complete);
+          }
+
+          @Override
+          public void onError(Throwable error) {
+            response.completeExceptionally(error);
+          }
+        });
+
+    try {
+      var complete = response.join();
+      reportTokens(complete);
+      return complete.content().text();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("AI generation failed", e.getCause());
+    }
+  }
+
+  private static void reportTokens(Response<AiMessage> response) {
+    var usage = response.tokenUsage();
+    if (usage != null) {
+      AITelemetry.reportTokens(usage.inputTokenCount(), usage.outputTokenCount());
+    }
+  }
 }
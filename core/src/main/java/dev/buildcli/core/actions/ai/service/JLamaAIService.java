@@ -1,7 +1,9 @@
 package dev.buildcli.core.actions.ai.service;
 
+import dev.buildcli.core.constants.AIConstants;
 import dev.langchain4j.model.chat.ChatLanguageModel;
-import dev.langchain4j.model.jlama.JlamaChatModel.JlamaChatModelBuilder;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.jlama.JlamaStreamingChatModel.JlamaStreamingChatModelBuilder;
 
 import java.nio.file.Path;
 
@@ -11,18 +13,26 @@ public class JLamaAIService extends AbstractLangchain4jAIService {
     super(model);
   }
 
+  protected JLamaAIService(StreamingChatLanguageModel model) {
+    super(model);
+  }
+
   public static Builder builder() {
     return new Builder();
   }
 
+  /**
+   * Builds only the streaming model: each JLama model loads its own copy of the weights, and
+   * blocking calls can collect the stream instead.
+   */
   public static class Builder {
-    private final JlamaChatModelBuilder builder;
+    private final JlamaStreamingChatModelBuilder builder;
 
     private Builder() {
-      builder = new JlamaChatModelBuilder();
+      builder = new JlamaStreamingChatModelBuilder();
       var path = Path.of(System.getProperty("user.home"), ".buildcli", "ai", "jlama");
 
-      builder.workingDirectory(path).modelCachePath(path).temperature(.7f);
+      builder.workingDirectory(path).modelCachePath(path).temperature((float) AIConstants.TEMPERATURE);
     }
 
     public Builder modelName(String modelName) {
@@ -1,38 +1,50 @@
 package dev.buildcli.core.actions.ai.service;
 
+import dev.buildcli.core.constants.AIConstants;
 import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
 import dev.langchain4j.model.ollama.OllamaChatModel;
+import dev.langchain4j.model.ollama.OllamaStreamingChatModel;
 
 public class OllamaAIService extends AbstractLangchain4jAIService {
   protected OllamaAIService(ChatLanguageModel model) {
     super(model);
   }
 
+  protected OllamaAIService(ChatLanguageModel model, StreamingChatLanguageModel streamingModel) {
+    super(model, streamingModel);
+  }
+
   public static Builder builder() {
     return new Builder();
   }
 
   public static class Builder {
     private final OllamaChatModel.OllamaChatModelBuilder builder;
+    private final OllamaStreamingChatModel.OllamaStreamingChatModelBuilder streamingBuilder;
 
     private Builder() {
       builder = new OllamaChatModel.OllamaChatModelBuilder();
+      streamingBuilder = new OllamaStreamingChatModel.OllamaStreamingChatModelBuilder();
 
-      builder.temperature(.7).maxRetries(3);
+      builder.temperature(AIConstants.TEMPERATURE).maxRetries(3);
+      streamingBuilder.temperature(AIConstants.TEMPERATURE);
     }
 
     public Builder modelName(String modelName) {
       builder.modelName(modelName);
+      streamingBuilder.modelName(modelName);
       return this;
     }
 
     public Builder url(String url) {
       builder.baseUrl(url);
+      streamingBuilder.baseUrl(url);
       return this;
     }
 
     public OllamaAIService build() {
-      return new OllamaAIService(builder.build());
+      return new OllamaAIService(builder.build(), streamingBuilder.build());
     }
 
   }
@@ -1,15 +1,31 @@
 package dev.buildcli.core.actions.commandline;
 
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
+/**
+ * Runs an external command. Processes created with {@code printOutput} share the terminal with
+ * BuildCLI; the others have stdout and stderr drained concurrently on virtual threads while they
+ * run, so a child never blocks on a full pipe, and the last {@link #OUTPUT_LINES} lines of each
+ * stream are kept for {@link #output()}.
+ */
 public abstract class AbstractCommandLineProcess implements CommandLineProcess {
+  public static final int OUTPUT_LINES = 1_000;
+
   protected final List<String> commands = new ArrayList<>();
-  private BufferedReader reader = null;
   private final boolean printOutput;
+  private final LineRingBuffer stdout = new LineRingBuffer(OUTPUT_LINES);
+  private final LineRingBuffer stderr = new LineRingBuffer(OUTPUT_LINES);
+  private volatile Process process;
+  private volatile int exitCode = -1;
 
   protected AbstractCommandLineProcess(String mainCommand, boolean printOutput) {
     commands.add(mainCommand);
@@ -18,6 +34,20 @@ public abstract class AbstractCommandLineProcess implements CommandLineProcess {
 
   @Override
   public int run() {
+    var exit = start(null);
+    try {
+      return exit.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      destroy();
+      return -1;
+    } catch (ExecutionException e) {
+      return -1;
+    }
+  }
+
+  @Override
+  public CompletableFuture<Integer> start(Consumer<String> lineListener) {
     try {
       var processBuilder = new ProcessBuilder(commands);
 
@@ -25,35 +55,83 @@ public abstract class AbstractCommandLineProcess implements CommandLineProcess {
         processBuilder.inheritIO();
       }
 
-      var process = processBuilder.start();
-
-      var result = process.waitFor();
-
-      if (result != 0) {
-        reader = new BufferedReader(new InputStreamReader(process.getErrorStream()));
-      } else {
-        reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-      }
+      process = processBuilder.start();
+    } catch (IOException e) {
+      return CompletableFuture.completedFuture(-1);
+    }
 
-      return result;
-    } catch (InterruptedException | IOException e) {
-      return -1;
+    var running = process;
+    var exit = running.onExit();
+    if (!printOutput) {
+      closeQuietly(running);
+      var listener = synchronizedListener(lineListener);
+      var stdoutPump = pump(running.inputReader(), stdout, listener);
+      var stderrPump = pump(running.errorReader(), stderr, listener);
+      exit = exit.thenCombine(CompletableFuture.allOf(stdoutPump, stderrPump), (p, v) -> p);
     }
+
+    return exit.thenApply(p -> exitCode = p.exitValue());
   }
 
+  /**
+   * Lines of stdout when the process succeeded, of stderr otherwise; empty when the output went to
+   * the terminal.
+   */
   @Override
   public List<String> output() {
-    var lines = new ArrayList<String>();
+    return exitCode == 0 ? stdout.lines() : stderr.lines();
+  }
 
+  public List<String> standardOutput() {
+    return stdout.lines();
+  }
+
+  public List<String> errorOutput() {
+    return stderr.lines();
+  }
+
+  public void destroy() {
+    var running = process;
+    if (running != null) {
+      running.descendants().forEach(ProcessHandle::destroy);
+      running.destroy();
+    }
+  }
+
+  private static void closeQuietly(Process running) {
     try {
-      String line;
-      while ((line = reader.readLine()) != null) {
-        lines.add(line);
-      }
-    } catch (IOException e) {
-      e.printStackTrace();
+      running.getOutputStream().close();
+    } catch (IOException ignored) {
+      // the child does not read stdin
+    }
+  }
+
+  private static Consumer<String> synchronizedListener(Consumer<String> listener) {
+    if (listener == null) {
+      return null;
     }
 
-    return lines;
+    var lock = new Object();
+    return line -> {
+      synchronized (lock) {
+        listener.accept(line);
+      }
+    };
+  }
+
+  private static CompletableFuture<Void> pump(BufferedReader reader, LineRingBuffer buffer, Consumer<String> listener) {
+    return CompletableFuture.runAsync(() -> {
+      try (reader) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          buffer.add(line);
+          if (listener != null) {
+            listener.accept(line);
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }, ThreadPoolUtils.virtual());
   }
 }
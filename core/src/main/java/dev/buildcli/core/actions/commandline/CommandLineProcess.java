@@ -1,8 +1,18 @@
 package dev.buildcli.core.actions.commandline;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface CommandLineProcess {
   int run();
   List<String> output();
+
+  /**
+   * Starts the process without blocking. {@code lineListener}, when not {@code null}, receives every
+   * line the process prints on stdout or stderr as soon as it is read, one call at a time; the
+   * returned future completes with the exit code once the process ended and both streams were
+   * drained, or with {@code -1} when the process could not be started.
+   */
+  CompletableFuture<Integer> start(Consumer<String> lineListener);
 }
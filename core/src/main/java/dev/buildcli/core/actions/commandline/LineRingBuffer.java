@@ -0,0 +1,29 @@
+package dev.buildcli.core.actions.commandline;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Keeps the last {@code capacity} lines written to it, dropping the oldest ones, so capturing the
+ * output of a chatty process costs bounded memory.
+ */
+final class LineRingBuffer {
+  private final int capacity;
+  private final ArrayDeque<String> lines;
+
+  LineRingBuffer(int capacity) {
+    this.capacity = capacity;
+    this.lines = new ArrayDeque<>(Math.min(capacity, 64));
+  }
+
+  synchronized void add(String line) {
+    if (lines.size() == capacity) {
+      lines.removeFirst();
+    }
+    lines.addLast(line);
+  }
+
+  synchronized List<String> lines() {
+    return List.copyOf(lines);
+  }
+}
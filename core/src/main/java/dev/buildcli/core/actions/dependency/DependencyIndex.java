@@ -0,0 +1,619 @@
+package dev.buildcli.core.actions.dependency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UTFDataFormatException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * An offline search index of Maven artifacts and their latest versions, kept in one memory-mapped
+ * file.
+ *
+ * <p>The file holds one record per {@code groupId:artifactId}, sorted, and a trigram index over
+ * the lower-cased keys: for every three-character sequence, the delta and varint encoded list of
+ * records containing it. A query intersects the lists of its own trigrams, so lookups read a few
+ * kilobytes of the mapping whatever the size of the index, and any substring of a coordinate
+ * matches. Indexes are built with {@link #builder()} from the local repository or from a Maven
+ * Central index export. A release is preferred over a newer {@code SNAPSHOT} as the latest version.</p>
+ */
+public final class DependencyIndex {
+  public static final Path DEFAULT_FILE = Path.of(System.getProperty("user.home"), ".buildcli", "cache",
+      "dependencies", "index.bin");
+  public static final Path LOCAL_REPOSITORY = Path.of(System.getProperty("user.home"), ".m2", "repository");
+
+  private static final Logger log = LoggerFactory.getLogger(DependencyIndex.class);
+  private static final int MAGIC = 0x42434449;
+  private static final int VERSION = 2;
+  private static final int HEADER_SIZE = 20;
+  private static final int FLAG_CENTRAL = 1;
+
+  private final ByteBuffer buffer;
+  private final int entryCount;
+  private final int gramCount;
+  private final int flags;
+  private final int gramKeys;
+  private final int gramStarts;
+  private final int postings;
+
+  private DependencyIndex(ByteBuffer buffer) throws IOException {
+    this.buffer = buffer;
+    if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+      throw new IOException("Not a dependency index");
+    }
+    this.entryCount = buffer.getInt(8);
+    this.gramCount = buffer.getInt(12);
+    this.flags = buffer.getInt(16);
+    this.gramKeys = HEADER_SIZE + entryCount * Integer.BYTES;
+    this.gramStarts = gramKeys + gramCount * Integer.BYTES;
+    this.postings = gramStarts + (gramCount + 1) * Integer.BYTES;
+  }
+
+  public static DependencyIndex open(Path file) throws IOException {
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return new DependencyIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public int size() {
+    return entryCount;
+  }
+
+  /**
+   * Whether the index was built from a Maven Central index export, so that it knows Central's
+   * artifacts and not only those in the local repository.
+   */
+  public boolean includesCentral() {
+    return (flags & FLAG_CENTRAL) != 0;
+  }
+
+  /**
+   * Returns up to {@code limit} {@code groupId:artifactId:version} coordinates whose
+   * {@code groupId:artifactId} contains {@code query}, ignoring case. Exact and prefix matches on
+   * the artifactId come first.
+   */
+  public List<String> search(String query, int limit) {
+    var needle = query.trim().toLowerCase(Locale.ROOT);
+    if (needle.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+
+    var matches = new ArrayList<Match>();
+    for (var id : candidates(needle)) {
+      var key = key(id);
+      var lowerCase = key.toLowerCase(Locale.ROOT);
+      if (lowerCase.contains(needle)) {
+        matches.add(new Match(key, rank(lowerCase, needle), id));
+      }
+    }
+
+    matches.sort(Comparator.comparingInt(Match::rank).thenComparingInt(match -> match.key().length())
+        .thenComparing(Match::key));
+    return matches.stream().limit(limit).map(match -> match.key() + ":" + version(match.id())).toList();
+  }
+
+  /**
+   * Returns the latest version of {@code groupId:artifactId}, or {@code null} when not indexed.
+   */
+  public String latestVersion(String groupId, String artifactId) {
+    var key = groupId + ":" + artifactId;
+    int low = 0;
+    int high = entryCount - 1;
+    while (low <= high) {
+      var middle = (low + high) >>> 1;
+      var compare = key(middle).compareTo(key);
+      if (compare == 0) {
+        return version(middle);
+      } else if (compare < 0) {
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return null;
+  }
+
+  private record Match(String key, int rank, int id) { }
+
+  private static int rank(String key, String needle) {
+    var artifactId = key.substring(key.indexOf(':') + 1);
+    if (artifactId.equals(needle) || key.equals(needle)) {
+      return 0;
+    }
+    if (artifactId.startsWith(needle)) {
+      return 1;
+    }
+    return key.startsWith(needle) ? 2 : 3;
+  }
+
+  /**
+   * Returns the records that contain every trigram of {@code needle}, or all records when it is
+   * too short to have any.
+   */
+  private int[] candidates(String needle) {
+    var grams = grams(needle);
+    if (grams.length == 0) {
+      var all = new int[entryCount];
+      Arrays.setAll(all, i -> i);
+      return all;
+    }
+
+    var lists = new ArrayList<int[]>();
+    for (var gram : grams) {
+      var index = findGram(gram);
+      if (index < 0) {
+        return new int[0];
+      }
+      lists.add(posting(index));
+    }
+    lists.sort(Comparator.comparingInt(list -> list.length));
+
+    var result = lists.getFirst();
+    for (int i = 1; i < lists.size() && result.length > 0; i++) {
+      result = intersect(result, lists.get(i));
+    }
+    return result;
+  }
+
+  private int findGram(int gram) {
+    int low = 0;
+    int high = gramCount - 1;
+    while (low <= high) {
+      var middle = (low + high) >>> 1;
+      var value = buffer.getInt(gramKeys + middle * Integer.BYTES);
+      if (value == gram) {
+        return middle;
+      } else if (value < gram) {
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return -1;
+  }
+
+  private int[] posting(int gramIndex) {
+    var position = postings + buffer.getInt(gramStarts + gramIndex * Integer.BYTES);
+    var end = postings + buffer.getInt(gramStarts + (gramIndex + 1) * Integer.BYTES);
+    var ids = new int[16];
+    var count = 0;
+    var previous = 0;
+    while (position < end) {
+      int value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = buffer.get(position++);
+        value |= (b & 0x7F) << shift;
+        shift += 7;
+      } while (b < 0);
+      previous += value;
+      if (count == ids.length) {
+        ids = Arrays.copyOf(ids, count * 2);
+      }
+      ids[count++] = previous;
+    }
+    return Arrays.copyOf(ids, count);
+  }
+
+  private static int[] intersect(int[] left, int[] right) {
+    var result = new int[Math.min(left.length, right.length)];
+    int i = 0;
+    int j = 0;
+    int count = 0;
+    while (i < left.length && j < right.length) {
+      if (left[i] == right[j]) {
+        result[count++] = left[i];
+        i++;
+        j++;
+      } else if (left[i] < right[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  private String key(int id) {
+    return string(buffer.getInt(HEADER_SIZE + id * Integer.BYTES));
+  }
+
+  private String version(int id) {
+    var position = buffer.getInt(HEADER_SIZE + id * Integer.BYTES);
+    return string(position + Short.BYTES + Short.toUnsignedInt(buffer.getShort(position)));
+  }
+
+  private String string(int position) {
+    var bytes = new byte[Short.toUnsignedInt(buffer.getShort(position))];
+    buffer.get(position + Short.BYTES, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns the distinct ASCII trigrams of {@code text}, sorted.
+   */
+  static int[] grams(String text) {
+    var grams = new int[Math.max(0, text.length() - 2)];
+    var count = 0;
+    for (int i = 0; i + 3 <= text.length(); i++) {
+      var a = text.charAt(i);
+      var b = text.charAt(i + 1);
+      var c = text.charAt(i + 2);
+      if (a < 128 && b < 128 && c < 128) {
+        grams[count++] = (a << 16) | (b << 8) | c;
+      }
+    }
+    return Arrays.stream(grams, 0, count).sorted().distinct().toArray();
+  }
+
+  /**
+   * Packs an ASCII trigram of {@link #grams} into 21 bits, keeping its order.
+   */
+  private static int compact(int gram) {
+    return ((gram >> 16) << 14) | (((gram >> 8) & 0x7F) << 7) | (gram & 0x7F);
+  }
+
+  /**
+   * Orders Maven versions: numeric parts numerically, and a qualifier such as {@code -rc1} before
+   * the release it leads to.
+   */
+  static int compareVersions(String left, String right) {
+    var a = left.toLowerCase(Locale.ROOT).split("[.\\-]");
+    var b = right.toLowerCase(Locale.ROOT).split("[.\\-]");
+    for (int i = 0; i < Math.max(a.length, b.length); i++) {
+      var x = i < a.length ? a[i] : null;
+      var y = i < b.length ? b[i] : null;
+      var compare = compareParts(x, y);
+      if (compare != 0) {
+        return compare;
+      }
+    }
+    return 0;
+  }
+
+  private static int compareParts(String x, String y) {
+    var xNumber = x != null && !x.isEmpty() && x.chars().allMatch(Character::isDigit);
+    var yNumber = y != null && !y.isEmpty() && y.chars().allMatch(Character::isDigit);
+    if (xNumber && yNumber) {
+      return new BigInteger(x).compareTo(new BigInteger(y));
+    }
+    if (xNumber) {
+      return 1;
+    }
+    if (yNumber) {
+      return -1;
+    }
+    var rank = Integer.compare(qualifierRank(x), qualifierRank(y));
+    return rank != 0 ? rank : Objects.toString(x, "").compareTo(Objects.toString(y, ""));
+  }
+
+  private static int qualifierRank(String qualifier) {
+    if (qualifier == null || qualifier.isEmpty() || qualifier.equals("ga") || qualifier.equals("final")
+        || qualifier.equals("release")) {
+      return 5;
+    }
+    if (qualifier.startsWith("alpha") || qualifier.matches("a\\d+")) {
+      return 0;
+    }
+    if (qualifier.startsWith("beta") || qualifier.matches("b\\d+")) {
+      return 1;
+    }
+    if (qualifier.startsWith("milestone") || qualifier.matches("m\\d+")) {
+      return 2;
+    }
+    if (qualifier.startsWith("rc") || qualifier.startsWith("cr")) {
+      return 3;
+    }
+    if (qualifier.equals("snapshot")) {
+      return 4;
+    }
+    return qualifier.startsWith("sp") ? 6 : 3;
+  }
+
+  /**
+   * Collects artifacts, keeping the latest version of each, and writes the index file.
+   */
+  public static final class Builder {
+    private final Map<String, String> latest = new TreeMap<>();
+    private boolean central;
+
+    private Builder() {
+    }
+
+    public Builder add(String groupId, String artifactId, String version) {
+      if (groupId.isBlank() || artifactId.isBlank() || version.isBlank()) {
+        return this;
+      }
+      var key = groupId + ":" + artifactId;
+      latest.merge(key, version, Builder::preferred);
+      return this;
+    }
+
+    /**
+     * The version to index of two: a release over a {@code SNAPSHOT}, otherwise the later one.
+     */
+    private static String preferred(String current, String candidate) {
+      var currentSnapshot = isSnapshot(current);
+      if (currentSnapshot != isSnapshot(candidate)) {
+        return currentSnapshot ? candidate : current;
+      }
+      return compareVersions(candidate, current) > 0 ? candidate : current;
+    }
+
+    private static boolean isSnapshot(String version) {
+      return version.toUpperCase(Locale.ROOT).endsWith("-SNAPSHOT");
+    }
+
+    public int size() {
+      return latest.size();
+    }
+
+    /**
+     * Adds every artifact with a POM in a local repository laid out as
+     * {@code group/path/artifactId/version/artifactId-version.pom}.
+     */
+    public Builder addLocalRepository(Path repository) throws IOException {
+      if (!Files.isDirectory(repository)) {
+        return this;
+      }
+
+      Files.walkFileTree(repository, new SimpleFileVisitor<>() {
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+          var name = file.getFileName().toString();
+          var relative = repository.relativize(file);
+          if (name.endsWith(".pom") && relative.getNameCount() >= 4) {
+            var version = relative.getName(relative.getNameCount() - 2).toString();
+            var artifactId = relative.getName(relative.getNameCount() - 3).toString();
+            if (name.equals(artifactId + "-" + version + ".pom")) {
+              var groupId = relative.subpath(0, relative.getNameCount() - 3).toString()
+                  .replace(relative.getFileSystem().getSeparator(), ".");
+              add(groupId, artifactId, version);
+            }
+          }
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException e) {
+          log.debug("Skipping {}", file, e);
+          return FileVisitResult.CONTINUE;
+        }
+      });
+      return this;
+    }
+
+    /**
+     * Adds the main artifacts of a Maven Central index export
+     * ({@code nexus-maven-repository-index.gz}), read as a stream.
+     */
+    public Builder addCentralIndex(Path file) throws IOException {
+      try (InputStream in = Files.newInputStream(file)) {
+        return addCentralIndex(file.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(in, 64 * 1024) : in);
+      }
+    }
+
+    /**
+     * Reads the index data format: a version byte and a timestamp, then documents of
+     * {@code (flags, name, value)} fields. Artifact documents carry
+     * {@code groupId|artifactId|version|classifier|extension} in their {@code u} field.
+     */
+    public Builder addCentralIndex(InputStream in) throws IOException {
+      var data = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+      var version = data.readByte();
+      if (version != 1) {
+        throw new IOException("Unsupported index data version: " + version);
+      }
+      data.readLong();
+      central = true;
+
+      while (true) {
+        int fields;
+        try {
+          fields = data.readInt();
+        } catch (EOFException e) {
+          return this;
+        }
+
+        String uinfo = null;
+        var deleted = false;
+        for (int i = 0; i < fields; i++) {
+          data.readByte();
+          var name = data.readUTF();
+          var value = readString(data);
+          if (name.equals("u")) {
+            uinfo = value;
+          } else if (name.equals("del")) {
+            deleted = true;
+          }
+        }
+
+        if (uinfo != null && !deleted) {
+          var parts = uinfo.split("\\|");
+          if (parts.length >= 4 && parts[3].equals("NA")) {
+            add(parts[0], parts[1], parts[2]);
+          }
+        }
+      }
+    }
+
+    /**
+     * Reads a modified UTF-8 string with an {@code int} length, which unlike
+     * {@link DataInputStream#readUTF()} may exceed 64 KB.
+     */
+    private static String readString(DataInputStream data) throws IOException {
+      var bytes = new byte[data.readInt()];
+      data.readFully(bytes);
+      var chars = new char[bytes.length];
+      var count = 0;
+      for (int i = 0; i < bytes.length; ) {
+        int b = bytes[i] & 0xFF;
+        if (b < 0x80) {
+          chars[count++] = (char) b;
+          i++;
+        } else if ((b & 0xE0) == 0xC0 && i + 1 < bytes.length) {
+          chars[count++] = (char) (((b & 0x1F) << 6) | (bytes[i + 1] & 0x3F));
+          i += 2;
+        } else if ((b & 0xF0) == 0xE0 && i + 2 < bytes.length) {
+          chars[count++] = (char) (((b & 0x0F) << 12) | ((bytes[i + 1] & 0x3F) << 6) | (bytes[i + 2] & 0x3F));
+          i += 3;
+        } else {
+          throw new UTFDataFormatException("Malformed string in index data");
+        }
+      }
+      return new String(chars, 0, count);
+    }
+
+    /**
+     * Writes the index to {@code file}, replacing it atomically, and opens it.
+     */
+    public DependencyIndex write(Path file) throws IOException {
+      var keys = new ArrayList<byte[]>(latest.size());
+      var versions = new ArrayList<byte[]>(latest.size());
+      for (var entry : latest.entrySet()) {
+        var key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+        var version = entry.getValue().getBytes(StandardCharsets.UTF_8);
+        if (key.length <= 0xFFFF && version.length <= 0xFFFF) {
+          keys.add(key);
+          versions.add(version);
+        }
+      }
+
+      // Counting sort of the (trigram, record) pairs into posting lists, in one int per pair: an
+      // export of Maven Central yields tens of millions of them. Trigrams of ASCII characters fit
+      // in 21 bits once the unused high bit of each character is dropped.
+      var counts = new int[(1 << 21) + 1];
+      for (var key : keys) {
+        for (var gram : grams(new String(key, StandardCharsets.UTF_8).toLowerCase(Locale.ROOT))) {
+          counts[compact(gram) + 1]++;
+        }
+      }
+      var gramCount = 0;
+      for (int i = 1; i < counts.length; i++) {
+        if (counts[i] > 0) {
+          gramCount++;
+        }
+        counts[i] += counts[i - 1];
+      }
+      var ids = new int[counts[counts.length - 1]];
+      var next = Arrays.copyOf(counts, counts.length - 1);
+      for (int id = 0; id < keys.size(); id++) {
+        for (var gram : grams(new String(keys.get(id), StandardCharsets.UTF_8).toLowerCase(Locale.ROOT))) {
+          ids[next[compact(gram)]++] = id;
+        }
+      }
+
+      var gramKeys = new int[gramCount];
+      var starts = new int[gramCount + 1];
+      var postingBytes = new ByteArrayOutputStream();
+      var index = 0;
+      for (int compact = 0; compact < counts.length - 1; compact++) {
+        if (counts[compact] == counts[compact + 1]) {
+          continue;
+        }
+        gramKeys[index] = ((compact >> 14) << 16) | (((compact >> 7) & 0x7F) << 8) | (compact & 0x7F);
+        starts[index++] = postingBytes.size();
+        var previous = 0;
+        for (int i = counts[compact]; i < counts[compact + 1]; i++) {
+          writeVarInt(postingBytes, ids[i] - previous);
+          previous = ids[i];
+        }
+      }
+      starts[gramCount] = postingBytes.size();
+
+      var entryCount = keys.size();
+      var recordsStart = (long) HEADER_SIZE + (long) entryCount * Integer.BYTES
+          + (long) gramCount * Integer.BYTES + (long) starts.length * Integer.BYTES + postingBytes.size();
+      var recordsSize = 0L;
+      for (int i = 0; i < entryCount; i++) {
+        recordsSize += 2L * Short.BYTES + keys.get(i).length + versions.get(i).length;
+      }
+      if (recordsStart + recordsSize > Integer.MAX_VALUE) {
+        throw new IOException("Dependency index too large");
+      }
+
+      Files.createDirectories(file.toAbsolutePath().getParent());
+      var temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+      try {
+        try (OutputStream os = Files.newOutputStream(temp);
+             var out = new DataOutputStream(new BufferedOutputStream(os, 64 * 1024))) {
+          out.writeInt(MAGIC);
+          out.writeInt(VERSION);
+          out.writeInt(entryCount);
+          out.writeInt(gramCount);
+          out.writeInt(central ? FLAG_CENTRAL : 0);
+
+          var offset = (int) recordsStart;
+          for (int i = 0; i < entryCount; i++) {
+            out.writeInt(offset);
+            offset += 2 * Short.BYTES + keys.get(i).length + versions.get(i).length;
+          }
+          for (int i = 0; i < gramCount; i++) {
+            out.writeInt(gramKeys[i]);
+          }
+          for (var start : starts) {
+            out.writeInt(start);
+          }
+          postingBytes.writeTo(out);
+          for (int i = 0; i < entryCount; i++) {
+            out.writeShort(keys.get(i).length);
+            out.write(keys.get(i));
+            out.writeShort(versions.get(i).length);
+            out.write(versions.get(i));
+          }
+        }
+
+        try {
+          Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+      return open(file);
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+      while ((value & ~0x7F) != 0) {
+        out.write((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      out.write(value);
+    }
+  }
+}
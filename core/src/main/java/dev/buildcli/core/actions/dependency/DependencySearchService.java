@@ -1,6 +1,10 @@
 package dev.buildcli.core.actions.dependency;
 
 import com.google.gson.*;
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.net.URI;
 import java.net.URLEncoder;
@@ -8,39 +12,92 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.StreamSupport;
 
 import static dev.buildcli.core.utils.console.input.InteractiveInputUtils.options;
 import static dev.buildcli.core.constants.DependencyConstants.DEPENDENCIES;
 
+/**
+ * Finds dependencies in the offline {@link DependencyIndex} and on Maven Central.
+ *
+ * <p>An index built from a Central export answers alone. An index of the local repository only
+ * knows what was downloaded before, so its matches are added to Central's and used alone only when
+ * Central cannot be reached.</p>
+ *
+ * <p>Central results are cached per normalized query under {@code ~/.buildcli/cache/search}. Within
+ * the TTL ({@code buildcli.cache.search.ttl-minutes}) a cached result is used as is; after it, the
+ * query is revalidated with {@code If-None-Match} / {@code If-Modified-Since}, and a stale result is
+ * still returned when Central cannot be reached. Identical lookups running at the same time, in
+ * this or any other instance, share one request.</p>
+ */
 public class DependencySearchService {
+    private static final Logger logger = LoggerFactory.getLogger(DependencySearchService.class);
 
     private static final String API_MAVEN = "https://search.maven.org/solrsearch/select?q=";
     private static final String ROWS = "&rows=25";
     private static final String OUTPUT ="&wt=json";
+    private static final int LOCAL_ROWS = 25;
+    private static final Duration DEFAULT_TTL = Duration.ofDays(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    public static final Path DEFAULT_CACHE_DIRECTORY = Path.of(System.getProperty("user.home"), ".buildcli", "cache",
+            "search");
+
+    private static final Map<String, CompletableFuture<List<String>>> inFlight = new ConcurrentHashMap<>();
+
+    private final Path indexFile;
+    private final Path cacheDirectory;
+    private final Duration ttl;
+    private final String searchUrl;
+    private DependencyIndex index;
+
+    public DependencySearchService() {
+        this(DependencyIndex.DEFAULT_FILE);
+    }
+
+    public DependencySearchService(Path indexFile) {
+        this(indexFile, DEFAULT_CACHE_DIRECTORY, configuredTtl(), API_MAVEN);
+    }
+
+    DependencySearchService(Path indexFile, Path cacheDirectory, Duration ttl, String searchUrl) {
+        this.indexFile = indexFile;
+        this.cacheDirectory = cacheDirectory;
+        this.ttl = ttl;
+        this.searchUrl = searchUrl;
+    }
+
+    private static Duration configuredTtl() {
+        return ConfigContextLoader.getAllConfigs().getPropertyAsInt(ConfigDefaultConstants.SEARCH_CACHE_TTL)
+                .map(minutes -> Duration.ofMinutes(Math.max(0, minutes)))
+                .orElse(DEFAULT_TTL);
+    }
 
     public HttpRequest createSearchGetRequest(String groupOrArtifactID){
         return HttpRequest.newBuilder()
-                .uri(URI.create(API_MAVEN + groupOrArtifactID + ROWS + OUTPUT))
+                .uri(URI.create(searchUrl + groupOrArtifactID + ROWS + OUTPUT))
+                .timeout(REQUEST_TIMEOUT)
                 .GET()
                 .build();
     }
 
-    private String getResponseBody(HttpRequest request){
-        HttpClient client = HttpClient.newHttpClient();
-
-        HttpResponse<String> response = null;
-        try {
-            response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            client.close();
-            return response.body();
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
     public List<String> promptOptionsToAdd(List<String> dependencies){
         return List.of(options("Which dependency do you wanna add?",dependencies));
     }
@@ -56,14 +113,222 @@ public class DependencySearchService {
         return promptOptionsToAdd(sendSearchRequest(dependencyName));
     }
 
+    /**
+     * Searches the local index and, unless it was built from a Central export and has a match,
+     * Maven Central. Central's results come first, followed by the local matches it did not return.
+     */
     public List<String> sendSearchRequest(String dependencyName) {
-        dependencyName = URLEncoder.encode(dependencyName, StandardCharsets.UTF_8);
+        var local = searchLocalIndex(dependencyName);
+        if (!local.isEmpty() && indexIncludesCentral()) {
+            return local;
+        }
+
+        List<String> central;
+        try {
+            central = searchCentral(dependencyName);
+        } catch (RuntimeException e) {
+            if (local.isEmpty()) {
+                throw e;
+            }
+            logger.warn("Maven Central search failed, using the local index for {}", dependencyName);
+            return local;
+        }
+        return merge(central, local);
+    }
+
+    private static List<String> merge(List<String> central, List<String> local) {
+        var artifacts = new HashSet<String>();
+        central.forEach(dependency -> artifacts.add(artifactOf(dependency)));
+        var merged = new ArrayList<>(central);
+        local.stream().filter(dependency -> artifacts.add(artifactOf(dependency))).forEach(merged::add);
+        return merged;
+    }
+
+    private static String artifactOf(String coordinates) {
+        return coordinates.substring(0, coordinates.lastIndexOf(':'));
+    }
 
-        HttpRequest request = createSearchGetRequest(dependencyName);
+    private List<String> searchCentral(String dependencyName) {
+        var query = dependencyName.trim().toLowerCase(Locale.ROOT);
+        var cached = readCache(query);
+        if (cached != null && cached.isFresh(ttl)) {
+            logger.debug("Using cached search results for {}", query);
+            return cached.dependencies();
+        }
 
-        String response = getResponseBody(request);
+        var mine = new CompletableFuture<List<String>>();
+        var running = inFlight.putIfAbsent(searchUrl + query, mine);
+        if (running != null) {
+            return running.join();
+        }
 
-       return getDependencyList(response);
+        try {
+            var dependencies = revalidate(query, cached);
+            mine.complete(dependencies);
+            return dependencies;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(searchUrl + query, mine);
+        }
+    }
+
+    /**
+     * Asks Central for {@code query}, conditionally when a cached result exists, and stores the
+     * answer.
+     */
+    private List<String> revalidate(String query, CachedSearch cached) {
+        var builder = HttpRequest.newBuilder(createSearchGetRequest(URLEncoder.encode(query, StandardCharsets.UTF_8)),
+                (name, value) -> true);
+        if (cached != null && cached.etag() != null) {
+            builder.header("If-None-Match", cached.etag());
+        }
+        if (cached != null && cached.lastModified() != null) {
+            builder.header("If-Modified-Since", cached.lastModified());
+        }
+
+        HttpResponse<String> response;
+        try {
+            response = ClientHolder.CLIENT.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            if (cached != null) {
+                logger.warn("Maven Central unreachable, using cached results for {}", query);
+                return cached.dependencies();
+            }
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+
+        if (response.statusCode() == 304 && cached != null) {
+            writeCache(query, cached.dependencies(), cached.etag(), cached.lastModified());
+            return cached.dependencies();
+        }
+        if (response.statusCode() != 200) {
+            if (cached != null) {
+                logger.warn("Maven Central answered {}, using cached results for {}", response.statusCode(), query);
+                return cached.dependencies();
+            }
+            throw new RuntimeException("Maven Central search failed: " + response.statusCode());
+        }
+
+        var dependencies = getDependencyList(response.body());
+        writeCache(query, dependencies, response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null));
+        return dependencies;
+    }
+
+    private record CachedSearch(List<String> dependencies, long fetched, String etag, String lastModified) {
+        boolean isFresh(Duration ttl) {
+            return System.currentTimeMillis() - fetched < ttl.toMillis();
+        }
+    }
+
+    private Path cacheFile(String query) {
+        try {
+            var hash = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            return cacheDirectory.resolve(HexFormat.of().formatHex(hash, 0, 20) + ".properties");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private CachedSearch readCache(String query) {
+        var file = cacheFile(query);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        var properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+            if (!query.equals(properties.getProperty("query"))) {
+                return null;
+            }
+            var dependencies = properties.getProperty("dependencies", "");
+            return new CachedSearch(dependencies.isEmpty() ? List.of() : List.of(dependencies.split(",")),
+                    Long.parseLong(properties.getProperty("fetched", "0")),
+                    properties.getProperty("etag"), properties.getProperty("last-modified"));
+        } catch (IOException | IllegalArgumentException e) {
+            logger.debug("Ignoring unreadable search cache entry {}", file, e);
+            return null;
+        }
+    }
+
+    private void writeCache(String query, List<String> dependencies, String etag, String lastModified) {
+        var properties = new Properties();
+        properties.setProperty("query", query);
+        properties.setProperty("fetched", Long.toString(System.currentTimeMillis()));
+        properties.setProperty("dependencies", String.join(",", dependencies));
+        if (etag != null) {
+            properties.setProperty("etag", etag);
+        }
+        if (lastModified != null) {
+            properties.setProperty("last-modified", lastModified);
+        }
+
+        var file = cacheFile(query);
+        try {
+            Files.createDirectories(cacheDirectory);
+            var temp = Files.createTempFile(cacheDirectory, file.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "BuildCLI search cache entry");
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.debug("Could not write search cache entry {}", file, e);
+        }
+    }
+
+    public List<String> searchLocalIndex(String dependencyName) {
+        try {
+            return localIndex().search(dependencyName, LOCAL_ROWS);
+        } catch (IOException e) {
+            logger.debug("Local dependency index unavailable", e);
+            return List.of();
+        }
+    }
+
+    /**
+     * Rebuilds the local index from the local Maven repository and, when given, a Maven Central
+     * index export ({@code nexus-maven-repository-index.gz}).
+     */
+    public DependencyIndex rebuildIndex(Path centralIndex) throws IOException {
+        var builder = DependencyIndex.builder().addLocalRepository(DependencyIndex.LOCAL_REPOSITORY);
+        if (centralIndex != null) {
+            builder.addCentralIndex(centralIndex);
+        }
+        index = builder.write(indexFile);
+        logger.info("Indexed {} artifacts in {}", index.size(), indexFile);
+        return index;
+    }
+
+    private boolean indexIncludesCentral() {
+        try {
+            return localIndex().includesCentral();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private DependencyIndex localIndex() throws IOException {
+        if (index == null && Files.isRegularFile(indexFile)) {
+            try {
+                index = DependencyIndex.open(indexFile);
+            } catch (IOException e) {
+                logger.debug("Rebuilding unreadable dependency index {}", indexFile, e);
+            }
+        }
+        if (index == null) {
+            index = rebuildIndex(null);
+        }
+        return index;
     }
 
     private List<String> getDependencyList(String response){
@@ -82,4 +347,11 @@ public class DependencySearchService {
                 ":",jsonObject.get("a").getAsString(),
                 ":",jsonObject.get("latestVersion").getAsString());
     }
-}
\ No newline at end of file
+
+    private static final class ClientHolder {
+        private static final HttpClient CLIENT = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+}
@@ -2,6 +2,8 @@ package dev.buildcli.core.actions.tools;
 
 import dev.buildcli.core.actions.commandline.DockerProcess;
 
+import java.util.List;
+
 public class DockerChecker implements ToolChecker {
   @Override
   public String name() {
@@ -20,16 +22,19 @@ public class DockerChecker implements ToolChecker {
 
   @Override
   public String version() {
-    var process = DockerProcess.createGetVersionProcess();
-    var result = process.run();
-    var lines = process.output();
+    return probe().version();
+  }
 
-    if (result == 0 && !lines.isEmpty()) {
-      var versionLine = lines.getFirst();
-      return versionLine.split(" ")[2].replace(",", "");
-    }
+  @Override
+  public String executable() {
+    return "docker";
+  }
 
-    return "N/A";
+  @Override
+  public ToolStatus probe() {
+    var process = DockerProcess.createGetVersionProcess();
+    var result = process.run();
+    return new ToolStatus(name(), result == 0, parseVersion(result, process.output()));
   }
 
   @Override
@@ -41,4 +46,13 @@ public class DockerChecker implements ToolChecker {
   public void fixIssue() {
     System.out.println("Fixing Docker issues is not automated. Please ensure Docker is installed and running.");
   }
+
+  private static String parseVersion(int result, List<String> lines) {
+    if (result == 0 && !lines.isEmpty()) {
+      var versionLine = lines.getFirst();
+      return versionLine.split(" ")[2].replace(",", "");
+    }
+
+    return ToolStatus.UNKNOWN_VERSION;
+  }
 }
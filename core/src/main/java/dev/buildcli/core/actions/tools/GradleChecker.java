@@ -1,8 +1,11 @@
 package dev.buildcli.core.actions.tools;
 
 import dev.buildcli.core.actions.commandline.GradleProcess;
+import dev.buildcli.core.constants.GradleConstants;
 import dev.buildcli.core.utils.installers.GradleInstaller;
 
+import java.util.List;
+
 public class GradleChecker implements ToolChecker {
   @Override
   public String name() {
@@ -16,16 +19,19 @@ public class GradleChecker implements ToolChecker {
 
   @Override
   public String version() {
-    var process = GradleProcess.createGetVersionProcess();
-    var result = process.run();
-    var lines = process.output().stream().filter(line -> line.contains("Gradle")).toList();
+    return probe().version();
+  }
 
-    if (result == 0 && !lines.isEmpty()) {
-      var versionLine = lines.getFirst();
-      return versionLine.split(" ")[1].replace("!", "");
-    }
+  @Override
+  public String executable() {
+    return GradleConstants.GRADLE_CMD;
+  }
 
-    return "N/A";
+  @Override
+  public ToolStatus probe() {
+    var process = GradleProcess.createGetVersionProcess();
+    var result = process.run();
+    return new ToolStatus(name(), result == 0, parseVersion(result, process.output()));
   }
 
   @Override
@@ -37,4 +43,15 @@ public class GradleChecker implements ToolChecker {
   public void fixIssue() {
     GradleInstaller.installGradle();
   }
+
+  private static String parseVersion(int result, List<String> output) {
+    var lines = output.stream().filter(line -> line.contains("Gradle")).toList();
+
+    if (result == 0 && !lines.isEmpty()) {
+      var versionLine = lines.getFirst();
+      return versionLine.split(" ")[1].replace("!", "");
+    }
+
+    return ToolStatus.UNKNOWN_VERSION;
+  }
 }
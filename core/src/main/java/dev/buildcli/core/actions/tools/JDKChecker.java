@@ -2,6 +2,8 @@ package dev.buildcli.core.actions.tools;
 
 import dev.buildcli.core.actions.commandline.JavaProcess;
 
+import java.util.List;
+
 public class JDKChecker implements ToolChecker {
   @Override
   public String name() {
@@ -15,17 +17,19 @@ public class JDKChecker implements ToolChecker {
 
   @Override
   public String version() {
-    var process = JavaProcess.createGetVersionProcess();
-    var result = process.run();
-
-    var lines = process.output();
+    return probe().version();
+  }
 
-    if (result == 0 && !lines.isEmpty()) {
-      var versionLine = lines.getFirst();
-      return versionLine.split(" ")[1].replace("\"", "");
-    }
+  @Override
+  public String executable() {
+    return "java";
+  }
 
-    return "N/A";
+  @Override
+  public ToolStatus probe() {
+    var process = JavaProcess.createGetVersionProcess();
+    var result = process.run();
+    return new ToolStatus(name(), result == 0, parseVersion(result, process.output()));
   }
 
   @Override
@@ -37,5 +41,13 @@ public class JDKChecker implements ToolChecker {
   public void fixIssue() {
     System.out.println("Fixing JDK issues is not automated. Follow the installation instructions.");
   }
-}
 
+  private static String parseVersion(int result, List<String> lines) {
+    if (result == 0 && !lines.isEmpty()) {
+      var versionLine = lines.getFirst();
+      return versionLine.split(" ")[1].replace("\"", "");
+    }
+
+    return ToolStatus.UNKNOWN_VERSION;
+  }
+}
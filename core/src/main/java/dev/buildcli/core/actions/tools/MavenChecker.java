@@ -1,8 +1,11 @@
 package dev.buildcli.core.actions.tools;
 
 import dev.buildcli.core.actions.commandline.MavenProcess;
+import dev.buildcli.core.constants.MavenConstants;
 import dev.buildcli.core.utils.installers.MavenInstaller;
 
+import java.util.List;
+
 public class MavenChecker implements ToolChecker {
 
   @Override
@@ -17,17 +20,19 @@ public class MavenChecker implements ToolChecker {
 
   @Override
   public String version() {
+    return probe().version();
+  }
+
+  @Override
+  public String executable() {
+    return MavenConstants.MAVEN_CMD;
+  }
 
+  @Override
+  public ToolStatus probe() {
     var process = MavenProcess.createGetVersionProcessor();
     var result = process.run();
-    var lines = process.output();
-
-    if (result == 0 && !lines.isEmpty()) {
-      var versionLine = lines.getFirst();
-      return versionLine.split(" ")[2];
-    }
-
-    return "N/A";
+    return new ToolStatus(name(), result == 0, parseVersion(result, process.output()));
   }
 
   @Override
@@ -39,5 +44,13 @@ public class MavenChecker implements ToolChecker {
   public void fixIssue() {
     MavenInstaller.installMaven();
   }
-}
 
+  private static String parseVersion(int result, List<String> lines) {
+    if (result == 0 && !lines.isEmpty()) {
+      var versionLine = lines.getFirst();
+      return versionLine.split(" ")[2];
+    }
+
+    return ToolStatus.UNKNOWN_VERSION;
+  }
+}
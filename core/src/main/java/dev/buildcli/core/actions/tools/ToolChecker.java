@@ -9,5 +9,18 @@ public interface ToolChecker {
   String version();
   String installInstructions();
   void fixIssue();
-}
 
+  /**
+   * The command looked up on {@code PATH} to run the tool, used to tell when a cached
+   * {@link ToolStatus} is stale.
+   */
+  String executable();
+
+  /**
+   * Checks installation and version together. Implementations should spawn a single process.
+   */
+  default ToolStatus probe() {
+    var installed = isInstalled();
+    return new ToolStatus(name(), installed, installed ? version() : ToolStatus.UNKNOWN_VERSION);
+  }
+}
@@ -0,0 +1,173 @@
+package dev.buildcli.core.actions.tools;
+
+import dev.buildcli.core.utils.OS;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Probes all {@link ToolChecker}s concurrently, one process per tool, and remembers the results in
+ * {@code ~/.buildcli/cache/doctor.properties}.
+ *
+ * <p>A cached status is reused while the tool's executable resolves to the same file on
+ * {@code PATH}, that file keeps its modification time and {@code PATH} itself is unchanged; so
+ * installing, upgrading or switching a tool invalidates its entry. Tools whose executable cannot be
+ * found are probed every time.</p>
+ */
+public final class ToolScanner {
+  public static final Path DEFAULT_CACHE_FILE = Path.of(System.getProperty("user.home"), ".buildcli", "cache",
+      "doctor.properties");
+
+  private static final Logger logger = Logger.getLogger(ToolScanner.class.getName());
+
+  private final List<ToolChecker> checkers;
+  private final Path cacheFile;
+  private final String path;
+
+  public ToolScanner() {
+    this(ToolCheckers.all(), DEFAULT_CACHE_FILE, System.getenv("PATH"));
+  }
+
+  public ToolScanner(List<ToolChecker> checkers, Path cacheFile, String path) {
+    this.checkers = checkers;
+    this.cacheFile = cacheFile;
+    this.path = path == null ? "" : path;
+  }
+
+  /**
+   * Returns the status of every checker, in checker order. With {@code refresh} every tool is
+   * probed again and the cache rewritten.
+   */
+  public Map<ToolChecker, ToolStatus> scan(boolean refresh) {
+    var cache = refresh ? new Properties() : load();
+
+    var futures = new ArrayList<CompletableFuture<ToolStatus>>();
+    var keys = new ArrayList<String>();
+    for (var checker : checkers) {
+      var key = fingerprint(checker);
+      keys.add(key);
+
+      var cached = key == null ? null : fromCache(cache, checker, key);
+      futures.add(cached != null
+          ? CompletableFuture.completedFuture(cached)
+          : CompletableFuture.supplyAsync(checker::probe, ThreadPoolUtils.virtual()));
+    }
+
+    var statuses = new LinkedHashMap<ToolChecker, ToolStatus>();
+    var changed = false;
+    for (int i = 0; i < checkers.size(); i++) {
+      var checker = checkers.get(i);
+      var status = futures.get(i).join();
+      statuses.put(checker, status);
+
+      if (keys.get(i) != null && !keys.get(i).equals(cache.getProperty(checker.name() + ".key"))) {
+        cache.setProperty(checker.name() + ".key", keys.get(i));
+        cache.setProperty(checker.name() + ".installed", Boolean.toString(status.installed()));
+        cache.setProperty(checker.name() + ".version", status.version());
+        changed = true;
+      }
+    }
+
+    if (changed) {
+      store(cache);
+    }
+    return statuses;
+  }
+
+  /**
+   * Resolves {@code command} against {@code path} like a shell would, trying the {@code PATHEXT}
+   * extensions on Windows.
+   */
+  static Path locate(String command, String path) {
+    var candidates = new ArrayList<String>();
+    candidates.add(command);
+    if (OS.isWindows() && !command.contains(".")) {
+      var extensions = System.getenv().getOrDefault("PATHEXT", ".EXE;.CMD;.BAT");
+      for (var extension : extensions.split(";")) {
+        candidates.add(command + extension.toLowerCase());
+      }
+    }
+
+    for (var directory : path.split(File.pathSeparator)) {
+      if (directory.isBlank()) {
+        continue;
+      }
+      for (var candidate : candidates) {
+        var file = Path.of(directory, candidate);
+        if (Files.isRegularFile(file) && Files.isExecutable(file)) {
+          return file;
+        }
+      }
+    }
+    return null;
+  }
+
+  private String fingerprint(ToolChecker checker) {
+    var executable = locate(checker.executable(), path);
+    if (executable == null) {
+      return null;
+    }
+
+    try {
+      var real = executable.toRealPath();
+      return real + "|" + Files.getLastModifiedTime(real).toMillis() + "|" + path;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private static ToolStatus fromCache(Properties cache, ToolChecker checker, String key) {
+    if (!key.equals(cache.getProperty(checker.name() + ".key"))) {
+      return null;
+    }
+
+    return new ToolStatus(checker.name(), Boolean.parseBoolean(cache.getProperty(checker.name() + ".installed")),
+        cache.getProperty(checker.name() + ".version", ToolStatus.UNKNOWN_VERSION));
+  }
+
+  private Properties load() {
+    var properties = new Properties();
+    if (Files.isRegularFile(cacheFile)) {
+      try (InputStream in = Files.newInputStream(cacheFile)) {
+        properties.load(in);
+      } catch (IOException | IllegalArgumentException e) {
+        logger.log(Level.FINE, "Ignoring unreadable doctor cache " + cacheFile, e);
+        properties.clear();
+      }
+    }
+    return properties;
+  }
+
+  private void store(Properties properties) {
+    try {
+      Files.createDirectories(cacheFile.getParent());
+      var temp = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+      try (OutputStream out = Files.newOutputStream(temp)) {
+        properties.store(out, "BuildCLI doctor scan cache");
+      }
+
+      try {
+        Files.move(temp, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      logger.log(Level.FINE, "Could not write doctor cache " + cacheFile, e);
+    }
+  }
+}
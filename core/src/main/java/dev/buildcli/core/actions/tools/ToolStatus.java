@@ -0,0 +1,12 @@
+package dev.buildcli.core.actions.tools;
+
+/**
+ * Outcome of probing one tool.
+ *
+ * @param name      the tool name, as returned by {@link ToolChecker#name()}
+ * @param installed whether the tool's version command succeeded
+ * @param version   the reported version, or {@code N/A}
+ */
+public record ToolStatus(String name, boolean installed, String version) {
+  public static final String UNKNOWN_VERSION = "N/A";
+}
@@ -5,6 +5,8 @@ public abstract class AIConstants {
   private AIConstants() {
   }
 
+  public static final double TEMPERATURE = .7;
+
   public static final String DOCUMENT_CODE_PROMPT = """
       ### Strict Code Commenting Prompt
       
@@ -36,24 +36,46 @@ public abstract class ConfigDefaultConstants {
   public static final String AI_MODEL = composePropertyName(AI_PARENT, "model");
   public static final String AI_URL = composePropertyName(AI_PARENT, "url");
   public static final String AI_TOKEN = composePropertyName(AI_PARENT, "token");
+  public static final String AI_CONCURRENCY = composePropertyName(AI_PARENT, "concurrency");
+  public static final String AI_CHUNK_TOKENS = composePropertyName(AI_PARENT, "chunk-tokens");
+  public static final String AI_TELEMETRY_FILE = composePropertyName(AI_PARENT, "telemetry", "file");
 
   //Plugins
   public static final String PLUGIN_PARENT = "plugin";
   public static final String PLUGIN_PATHS = composePropertyName(PLUGIN_PARENT, "paths");
 
+  //Cache
+  public static final String CACHE_PARENT = "cache";
+  public static final String DOWNLOAD_CACHE_PATH = composePropertyName(CACHE_PARENT, "downloads", "path");
+  public static final String DOWNLOAD_CACHE_MAX_SIZE = composePropertyName(CACHE_PARENT, "downloads", "max-size-mb");
+  public static final String SEARCH_CACHE_TTL = composePropertyName(CACHE_PARENT, "search", "ttl-minutes");
+  public static final String AI_CACHE_MAX_SIZE = composePropertyName(CACHE_PARENT, "ai", "max-size-mb");
+
   private static final Map<String, String> configs;
 
   static {
-    configs = Map.of(
-        BANNER_ENABLED, "Show or hidden banner. It's %s by default".formatted(greenFg(true)),
-        BANNER_PATH, "Custom banner path",
-        PROJECT_NAME, "Project name",
-        PROJECT_TYPE, "Project type, e.g., %s, %s".formatted(greenFg("spring-boot"), greenFg("quarkus")),
-        AI_VENDOR, "LLM vendor, e.g, %s, %s".formatted(greenFg("jlama"), greenFg("ollama")),
-        AI_TOKEN, "LLM token",
-        AI_URL, "LLM url, e.g, %s".formatted(content("http://localhost:11434").italic().greenFg()),
-        AI_MODEL, "LLM model",
-        PLUGIN_PATHS, "Path to yours plugins, separated by %s".formatted(greenFg(";"))
+    configs = Map.ofEntries(
+        Map.entry(BANNER_ENABLED, "Show or hidden banner. It's %s by default".formatted(greenFg(true))),
+        Map.entry(BANNER_PATH, "Custom banner path"),
+        Map.entry(PROJECT_NAME, "Project name"),
+        Map.entry(PROJECT_TYPE, "Project type, e.g., %s, %s".formatted(greenFg("spring-boot"), greenFg("quarkus"))),
+        Map.entry(AI_VENDOR, "LLM vendor, e.g, %s, %s".formatted(greenFg("jlama"), greenFg("ollama"))),
+        Map.entry(AI_TOKEN, "LLM token"),
+        Map.entry(AI_URL, "LLM url, e.g, %s".formatted(content("http://localhost:11434").italic().greenFg())),
+        Map.entry(AI_MODEL, "LLM model"),
+        Map.entry(AI_CONCURRENCY, "Maximum concurrent LLM requests, %s for jlama and %s for other vendors by default"
+            .formatted(greenFg(1), greenFg(4))),
+        Map.entry(AI_CHUNK_TOKENS, "Estimated tokens per piece when large Java files are sent in pieces. It's %s by default"
+            .formatted(greenFg(1536))),
+        Map.entry(AI_TELEMETRY_FILE, "JSON lines file every AI request's tokens and timings are appended to, or %s to not write one. Defaults to %s"
+            .formatted(greenFg("none"), greenFg("~/.buildcli/telemetry/ai.jsonl"))),
+        Map.entry(PLUGIN_PATHS, "Path to yours plugins, separated by %s".formatted(greenFg(";"))),
+        Map.entry(DOWNLOAD_CACHE_PATH, "Download cache directory, can be shared between machines. Defaults to %s"
+            .formatted(greenFg("~/.buildcli/cache/downloads"))),
+        Map.entry(DOWNLOAD_CACHE_MAX_SIZE, "Download cache size budget in MB. It's %s by default".formatted(greenFg(2048))),
+        Map.entry(SEARCH_CACHE_TTL, "Minutes a cached Maven Central search stays fresh before it is revalidated. "
+            + "It's %s by default".formatted(greenFg(1440))),
+        Map.entry(AI_CACHE_MAX_SIZE, "Size budget in MB of the cached AI code answers. It's %s by default".formatted(greenFg(64)))
     );
   }
 
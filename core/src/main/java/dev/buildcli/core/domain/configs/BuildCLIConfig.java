@@ -50,7 +50,13 @@ public class BuildCLIConfig {
 
   public Optional<Integer> getPropertyAsInt(String property) {
     try {
-      return Optional.of(Integer.parseInt(properties.getProperty(property)));
+      var value = properties.getProperty(property);
+
+      if (value == null) {
+        return Optional.empty();
+      }
+
+      return Optional.of(Integer.parseInt(value));
     } catch (NumberFormatException e) {
       throw new ConfigException("Invalid integer value for property: " + property, e);
     }
@@ -9,13 +9,16 @@ import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.eclipse.jgit.transport.URIish;
 import org.eclipse.jgit.transport.sshd.SshdSessionFactory;
+import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.util.StringUtils;
 
 import java.net.URISyntaxException;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
@@ -45,6 +48,48 @@ public class GitOperations {
         }
     }
 
+    /**
+     * Opens the repository containing {@code path}, searching its parent directories for it.
+     */
+    public Git openGitRepositoryContaining(String path) {
+        try {
+            repository = new FileRepositoryBuilder()
+                    .findGitDir(new File(path).getAbsoluteFile())
+                    .readEnvironment()
+                    .setMustExist(true)
+                    .build();
+            git = Git.wrap(repository);
+            return git;
+        } catch (IOException | IllegalArgumentException e) {
+            handleException("No Git repository found for " + path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the content {@code file} had at {@code revision}, or empty when it did not exist there.
+     */
+    public Optional<String> readFileAtRevision(String revision, File file) {
+        try {
+            ObjectId tree = repository.resolve(revision + "^{tree}");
+            if (tree == null) {
+                throw new IllegalArgumentException("Unknown revision: " + revision);
+            }
+
+            var workTree = repository.getWorkTree().toPath().toAbsolutePath().normalize();
+            var path = workTree.relativize(file.toPath().toAbsolutePath().normalize()).toString().replace(File.separatorChar, '/');
+            try (TreeWalk walk = TreeWalk.forPath(repository, path, tree)) {
+                if (walk == null) {
+                    return Optional.empty();
+                }
+                return Optional.of(new String(repository.open(walk.getObjectId(0)).getBytes(), StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            handleException("Error reading " + file + " at " + revision, e);
+            return Optional.empty();
+        }
+    }
+
     public void closeGitRepository() {
         git.close();
     }
@@ -0,0 +1,11 @@
+package dev.buildcli.core.exceptions;
+
+public class ArtifactResolutionException extends RuntimeException {
+  public ArtifactResolutionException(String message) {
+    super(message);
+  }
+
+  public ArtifactResolutionException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -1,9 +1,11 @@
 package dev.buildcli.core.exceptions;
 
-import java.io.IOException;
-
 public class DownloadFailedException extends RuntimeException {
   public DownloadFailedException(String message) {
     super(message);
   }
+
+  public DownloadFailedException(String message, Throwable cause) {
+    super(message, cause);
+  }
 }
@@ -2,8 +2,13 @@ package dev.buildcli.core.model;
 
 import jakarta.xml.bind.annotation.XmlAccessType;
 import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementWrapper;
 import jakarta.xml.bind.annotation.XmlRootElement;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @XmlRootElement(name = "dependency")
 @XmlAccessorType(XmlAccessType.FIELD)
 public class Dependency {
@@ -14,9 +19,14 @@ public class Dependency {
     private String artifactId;
     private String version;
     private String type;
+    private String classifier;
     private String scope;
     private String optional;
 
+    @XmlElementWrapper
+    @XmlElement(name = "exclusion")
+    private final List<Exclusion> exclusions = new ArrayList<>();
+
     public Dependency() { }
     
     public Dependency(String groupId, String artifactId, String version) {
@@ -66,6 +76,14 @@ public class Dependency {
         this.type = type;
     }
 
+    public String getClassifier() {
+        return classifier;
+    }
+
+    public void setClassifier(String classifier) {
+        this.classifier = classifier;
+    }
+
     public String getScope() {
         return scope;
     }
@@ -81,4 +99,8 @@ public class Dependency {
     public void setOptional(String optional) {
         this.optional = optional;
     }
+
+    public List<Exclusion> getExclusions() {
+        return exclusions;
+    }
 }
@@ -0,0 +1,27 @@
+package dev.buildcli.core.model;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementWrapper;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@XmlRootElement(name = "dependencyManagement")
+@XmlAccessorType(XmlAccessType.FIELD)
+public class DependencyManagement {
+
+    @XmlElementWrapper
+    @XmlElement(name = "dependency")
+    private final List<Dependency> dependencies;
+
+    public DependencyManagement() {
+        this.dependencies = new ArrayList<>();
+    }
+
+    public List<Dependency> getDependencies() {
+        return dependencies;
+    }
+}
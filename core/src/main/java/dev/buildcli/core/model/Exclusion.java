@@ -0,0 +1,43 @@
+package dev.buildcli.core.model;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+@XmlRootElement(name = "exclusion")
+@XmlAccessorType(XmlAccessType.FIELD)
+public class Exclusion {
+
+    public static final String WILDCARD = "*";
+
+    private String groupId;
+    private String artifactId;
+
+    public Exclusion() { }
+
+    public Exclusion(String groupId, String artifactId) {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    public void setArtifactId(String artifactId) {
+        this.artifactId = artifactId;
+    }
+
+    public boolean matches(String groupId, String artifactId) {
+        return (WILDCARD.equals(this.groupId) || this.groupId.equals(groupId))
+                && (WILDCARD.equals(this.artifactId) || this.artifactId.equals(artifactId));
+    }
+}
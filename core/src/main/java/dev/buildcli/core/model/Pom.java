@@ -5,9 +5,12 @@ import jakarta.xml.bind.annotation.XmlAccessorType;
 import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlElementWrapper;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Logger;
 
@@ -18,11 +21,28 @@ public class Pom {
 	private static final Logger logger = Logger.getLogger(Pom.class.getName());
 	public static final String XML_ELEMENT = "project";
 
+	private String groupId;
+	private String artifactId;
+	private String version;
+	private String packaging;
+	private Parent parent;
+
+	@XmlElementWrapper
+	@XmlElement(name = "module")
+	private final List<String> modules;
+
+	@XmlJavaTypeAdapter(PropertiesAdapter.class)
+	private Map<String, String> properties;
+
+	private DependencyManagement dependencyManagement;
+
 	@XmlElementWrapper
 	@XmlElement(name = "dependency")
     private final List<Dependency> dependencies;
     
     public Pom() {
+    	this.modules = new ArrayList<>();
+    	this.properties = new LinkedHashMap<>();
     	this.dependencies = new ArrayList<>();
     }
 
@@ -136,6 +156,62 @@ public class Pom {
         return dependencies;
     }
 
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    public void setArtifactId(String artifactId) {
+        this.artifactId = artifactId;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public String getPackaging() {
+        return packaging;
+    }
+
+    public void setPackaging(String packaging) {
+        this.packaging = packaging;
+    }
+
+    public Parent getParent() {
+        return parent;
+    }
+
+    public void setParent(Parent parent) {
+        this.parent = parent;
+    }
+
+    public List<String> getModules() {
+        return modules;
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    public DependencyManagement getDependencyManagement() {
+        return dependencyManagement;
+    }
+
+    public void setDependencyManagement(DependencyManagement dependencyManagement) {
+        this.dependencyManagement = dependencyManagement;
+    }
+
     public Dependency getDependency(Dependency dependency) {
         return this.dependencies
                 .stream()
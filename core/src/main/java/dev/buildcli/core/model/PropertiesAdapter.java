@@ -0,0 +1,48 @@
+package dev.buildcli.core.model;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlAnyElement;
+import jakarta.xml.bind.annotation.adapters.XmlAdapter;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the free-form {@code <properties>} section of a POM, where every child element name is a
+ * property key, to an insertion ordered {@link Map}.
+ */
+public class PropertiesAdapter extends XmlAdapter<PropertiesAdapter.Elements, Map<String, String>> {
+
+    @Override
+    public Map<String, String> unmarshal(Elements elements) {
+        var properties = new LinkedHashMap<String, String>();
+        for (Element element : elements.entries) {
+            var name = element.getLocalName() != null ? element.getLocalName() : element.getNodeName();
+            properties.put(name, element.getTextContent().trim());
+        }
+        return properties;
+    }
+
+    @Override
+    public Elements marshal(Map<String, String> properties) throws Exception {
+        var document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        var elements = new Elements();
+        properties.forEach((name, value) -> {
+            var element = document.createElement(name);
+            element.setTextContent(value);
+            elements.entries.add(element);
+        });
+        return elements;
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Elements {
+        @XmlAnyElement
+        private final List<Element> entries = new ArrayList<>();
+    }
+}
@@ -1,29 +1,153 @@
 package dev.buildcli.core.utils;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import dev.buildcli.core.actions.ai.AIRequestMetrics;
+import dev.buildcli.core.actions.ai.AITelemetry;
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.file.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 /**
  * Utility class for documenting Java code using Ollama AI.
+ * <p>
+ * Files are put on a work queue and documented by a fixed number of workers, one request in flight
+ * each, so that the number of concurrent requests matches the parallel slots of the model server
+ * ({@code OLLAMA_NUM_PARALLEL}) instead of queuing inside it. All requests share one keep-alive
+ * HTTP client. Each request is recorded in {@link AITelemetry}, the time a file waited for a free
+ * worker as its queue wait.
  */
 public class CodeDocumenter {
 
     private static final Logger logger = Logger.getLogger(CodeDocumenter.class.getName());
-    private static final String OLLAMA_URL = "http://localhost:11434/v1/chat/completions";
+    private static final String DEFAULT_URL = "http://localhost:11434";
+    private static final String DEFAULT_MODEL = "llama3.2";
+    private static final int DEFAULT_PARALLEL = 4;
+    private static final String COMPLETIONS_PATH = "/v1/chat/completions";
+    private static final Queued END_OF_QUEUE = new Queued(Path.of(""), 0);
+    private static final String SYSTEM_PROMPT = """
+                                You are a helpful assistant. Document the following Java code following these guidelines:
+                                1. Add concise and meaningful Javadoc comments.
+                                2. Avoid adding redundant explanations or suggestions within the code.
+                                3. Focus on good practices for getters and setters, such as returning the attribute directly without additional logic or comments.
+                                4. Do not include 'TODO' or hypothetical improvement suggestions.
+                                5. Preserve the original structure of the code.
+                          """;
 
     private CodeDocumenter() {
     }
 
+    /**
+     * Where and how many requests to send.
+     *
+     * @param url      Base URL of the Ollama server, e.g. {@code http://localhost:11434}.
+     * @param model    Model to document with.
+     * @param parallel Requests in flight at once.
+     */
+    public record Settings(String url, String model, int parallel) {
+        public Settings {
+            url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+            parallel = Math.max(1, parallel);
+        }
+
+        /**
+         * Reads {@code buildcli.ai.url}, {@code buildcli.ai.model} and {@code buildcli.ai.concurrency}.
+         */
+        public static Settings fromConfig() {
+            var configs = ConfigContextLoader.getAllConfigs();
+            return new Settings(
+                    configs.getProperty(ConfigDefaultConstants.AI_URL).orElse(DEFAULT_URL),
+                    configs.getProperty(ConfigDefaultConstants.AI_MODEL).orElse(DEFAULT_MODEL),
+                    configs.getPropertyAsInt(ConfigDefaultConstants.AI_CONCURRENCY).orElse(DEFAULT_PARALLEL));
+        }
+
+        URI endpoint() {
+            return URI.create(url + COMPLETIONS_PATH);
+        }
+    }
+
+    /**
+     * The outcome of documenting one file.
+     *
+     * @param latency Time from reading the file to writing it back.
+     */
+    public record FileResult(Path file, boolean documented, Duration latency) {
+    }
+
+    /**
+     * The outcome of a batch.
+     *
+     * @param elapsed Wall-clock time of the whole batch.
+     */
+    public record Stats(List<FileResult> results, Duration elapsed) {
+        public long documented() {
+            return results.stream().filter(FileResult::documented).count();
+        }
+
+        public long failed() {
+            return results.size() - documented();
+        }
+
+        /**
+         * Documented files per minute of wall-clock time.
+         */
+        public double throughput() {
+            return elapsed.isZero() ? 0 : documented() * 60_000.0 / elapsed.toMillis();
+        }
+
+        /**
+         * The latency below which {@code percentile} percent of the files were documented.
+         */
+        public Duration latency(double percentile) {
+            var latencies = results.stream().map(FileResult::latency).sorted().toList();
+            if (latencies.isEmpty()) {
+                return Duration.ZERO;
+            }
+            var index = (int) Math.ceil(percentile / 100 * latencies.size()) - 1;
+            return latencies.get(Math.max(0, Math.min(index, latencies.size() - 1)));
+        }
+
+        @Override
+        public String toString() {
+            return "%d documented, %d failed in %.1f s (%.1f files/min); latency p50 %d ms, p95 %d ms, max %d ms"
+                    .formatted(documented(), failed(), elapsed.toMillis() / 1000.0, throughput(),
+                            latency(50).toMillis(), latency(95).toMillis(), latency(100).toMillis());
+        }
+    }
+
+    private record Queued(Path file, long enqueued) {
+    }
+
+    private static final class ClientHolder {
+        // Ollama speaks HTTP/1.1 only; asking for h2c would add an upgrade round trip to every connection
+        private static final HttpClient CLIENT = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
     /**
      * Processes the documentation for a file or all Java files in a directory.
      *
@@ -31,38 +155,109 @@ public class CodeDocumenter {
      */
     public static void getDocumentationFromOllama(String path) {
         Path inputPath = Path.of(path);
-        if (Files.isDirectory(inputPath)) {
-            documentDirectory(inputPath);
-        } else if (Files.isRegularFile(inputPath) && path.endsWith(".java")) {
-            try {
-                documentFile(inputPath);
-            } catch (IOException e) {
-                logger.log(Level.SEVERE, "Error documenting file: " + path, e);
-            }
+        if (Files.isDirectory(inputPath) || (Files.isRegularFile(inputPath) && path.endsWith(".java"))) {
+            logger.info(document(inputPath, Settings.fromConfig()).toString());
         } else {
             logger.warning("Invalid path provided: " + path);
         }
     }
 
     /**
-     * Processes all Java files in the specified directory.
+     * Documents a Java file, or every Java file under a directory, and reports how it went.
      *
-     * @param directoryPath Path to the directory.
+     * @param path     Path to the file or directory.
+     * @param settings Server, model and number of requests in flight.
+     * @return Per-file latencies and batch throughput.
      */
-    private static void documentDirectory(Path directoryPath) {
-        try {
-            Files.walk(directoryPath)
-                    .filter(Files::isRegularFile) // Process only files
-                    .filter(path -> path.toString().endsWith(".java")) // Only Java files
-                    .forEach(file -> {
-                        try {
-                            documentFile(file);
-                        } catch (IOException e) {
-                            logger.log(Level.SEVERE, "Error documenting file: " + file, e);
-                        }
-                    });
-        } catch (IOException e) {
-            logger.log(Level.SEVERE, "Error traversing directory: " + directoryPath, e);
+    public static Stats document(Path path, Settings settings) {
+        return document(path, settings, AITelemetry.global());
+    }
+
+    /**
+     * Documents like {@link #document(Path, Settings)}, recording each request in {@code telemetry}.
+     */
+    public static Stats document(Path path, Settings settings, AITelemetry telemetry) {
+        long start = System.nanoTime();
+        var queue = new LinkedBlockingQueue<Queued>();
+        var results = new ArrayList<FileResult>();
+
+        try (var workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            var batches = new ArrayList<Future<List<FileResult>>>();
+            for (int i = 0; i < settings.parallel(); i++) {
+                batches.add(workers.submit(() -> work(queue, settings, telemetry)));
+            }
+
+            // the walk feeds the queue while the first files are already being documented
+            try (Stream<Path> files = Files.walk(path)) {
+                files.filter(Files::isRegularFile)
+                        .filter(file -> file.toString().endsWith(".java"))
+                        .forEach(file -> queue.add(new Queued(file, System.nanoTime())));
+            } catch (IOException | UncheckedIOException e) {
+                logger.log(Level.SEVERE, "Error traversing directory: " + path, e);
+            }
+            for (int i = 0; i < settings.parallel(); i++) {
+                queue.add(END_OF_QUEUE);
+            }
+
+            for (var batch : batches) {
+                results.addAll(batch.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.log(Level.SEVERE, "Documentation worker failed", e.getCause());
+        }
+
+        results.sort(Comparator.comparing(FileResult::file));
+        return new Stats(List.copyOf(results), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Documents files from the queue, one at a time, until the end marker.
+     */
+    private static List<FileResult> work(BlockingQueue<Queued> queue, Settings settings, AITelemetry telemetry)
+            throws InterruptedException {
+        var results = new ArrayList<FileResult>();
+        for (Queued queued = queue.take(); queued != END_OF_QUEUE; queued = queue.take()) {
+            long start = System.nanoTime();
+            var request = new Request(settings, Duration.ofNanos(start - queued.enqueued()));
+            var documented = documentFile(queued.file(), settings, request);
+            request.record(telemetry, documented);
+            results.add(new FileResult(queued.file(), documented, Duration.ofNanos(System.nanoTime() - start)));
+        }
+        return results;
+    }
+
+    /**
+     * The telemetry of one request; token counts come from the {@code usage} the server returns.
+     */
+    private static final class Request {
+        private final Instant started = Instant.now();
+        private final long start = System.nanoTime();
+        private final Settings settings;
+        private final Duration queueWait;
+        private int promptTokens = -1;
+        private int completionTokens = -1;
+
+        private Request(Settings settings, Duration queueWait) {
+            this.settings = settings;
+            this.queueWait = queueWait;
+        }
+
+        private void usage(JsonObject response) {
+            if (response.has(JsonProperty.USAGE.val())) {
+                JsonObject usage = response.getAsJsonObject(JsonProperty.USAGE.val());
+                promptTokens = usage.get(JsonProperty.PROMPT_TOKENS.val()).getAsInt();
+                completionTokens = usage.get(JsonProperty.COMPLETION_TOKENS.val()).getAsInt();
+            }
+        }
+
+        private void record(AITelemetry telemetry, boolean documented) {
+            // the answer is not streamed, so its first token arrives with the last
+            var latency = Duration.ofNanos(System.nanoTime() - start);
+            telemetry.record(new AIRequestMetrics(started, "ollama", settings.model(), documented,
+                    Math.max(0, promptTokens), Math.max(0, completionTokens), promptTokens < 0,
+                    queueWait, latency, latency));
         }
     }
 
@@ -70,74 +265,66 @@ public class CodeDocumenter {
      * Sends a single Java file to Ollama for documentation.
      *
      * @param filePath Path to the Java file to be documented.
-     * @throws IOException if an I/O error occurs.
+     * @return Whether the file was documented.
      */
-    private static void documentFile(Path filePath) throws IOException {
-        if (!Files.isRegularFile(filePath)) {
-            logger.warning("Skipping non-regular file: " + filePath);
-            return;
-        }
-
+    private static boolean documentFile(Path filePath, Settings settings, Request telemetry) throws InterruptedException {
         try {
             logger.info("Processing file: " + filePath);
             String fileContent = Files.readString(filePath);
 
             // Configure JSON payload for the request
             JsonObject requestBody = new JsonObject();
-            requestBody.addProperty(JsonProperty.MODEL.val(), "llama3.2");
+            requestBody.addProperty(JsonProperty.MODEL.val(), settings.model());
             JsonObject systemMessage = new JsonObject();
             systemMessage.addProperty(JsonProperty.ROLE.val(), "system");
-            systemMessage.addProperty(JsonProperty.CONTENT.val(),
-                    """
-                                You are a helpful assistant. Document the following Java code following these guidelines:
-                                1. Add concise and meaningful Javadoc comments.
-                                2. Avoid adding redundant explanations or suggestions within the code.
-                                3. Focus on good practices for getters and setters, such as returning the attribute directly without additional logic or comments.
-                                4. Do not include 'TODO' or hypothetical improvement suggestions.
-                                5. Preserve the original structure of the code.
-                          """);
+            systemMessage.addProperty(JsonProperty.CONTENT.val(), SYSTEM_PROMPT);
             JsonObject userMessage = new JsonObject();
             userMessage.addProperty(JsonProperty.ROLE.val(), "user");
             userMessage.addProperty(JsonProperty.CONTENT.val(), "Document this code:\n\n" + fileContent);
-            requestBody.add(JsonProperty.MESSAGES.val(), JsonParser.parseString("[" + systemMessage + "," + userMessage + "]"));
+            JsonArray messages = new JsonArray();
+            messages.add(systemMessage);
+            messages.add(userMessage);
+            requestBody.add(JsonProperty.MESSAGES.val(), messages);
 
             // Send HTTP request to Ollama
-            HttpClient client = HttpClient.newHttpClient();
             HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(OLLAMA_URL))
+                    .uri(settings.endpoint())
                     .header("Content-Type", "application/json")
                     .POST(HttpRequest.BodyPublishers.ofString(requestBody.toString()))
                     .build();
             logger.info("Sending request to Ollama for file: " + filePath);
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == HttpURLConnection.HTTP_OK) {
-                logger.info("Received response from Ollama for file: " + filePath);
-
-                JsonObject responseObject = JsonParser.parseString(response.body()).getAsJsonObject();
-                String content = responseObject.getAsJsonArray(JsonProperty.CHOICES.val())
-                        .get(0).getAsJsonObject()
-                        .getAsJsonObject(JsonProperty.MESSAGE.val())
-                        .get(JsonProperty.CONTENT.val()).getAsString();
-
-                // Extract code content between ```java tags
-                int codeStart = content.indexOf("```java");
-                int codeEnd = content.lastIndexOf("```");
-                if (codeStart != -1 && codeEnd != -1) {
-                    content = content.substring(codeStart + 7, codeEnd).trim();
-                }
-
-                Files.writeString(filePath, content);
-                logger.log(Level.INFO, "Documentation added to file: {0}", filePath);
+            HttpResponse<String> response = ClientHolder.CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
 
-            } else {
+            if (response.statusCode() != HttpURLConnection.HTTP_OK) {
                 logger.log(Level.WARNING, "Failed to retrieve documentation for file: {0}. Status code: {1}",
                         new Object[]{filePath, response.statusCode()});
                 logger.log(Level.WARNING, "Response body: {0}", response.body());
+                return false;
             }
-        } catch (IOException | InterruptedException e) {
+            logger.info("Received response from Ollama for file: " + filePath);
+
+            JsonObject responseObject = JsonParser.parseString(response.body()).getAsJsonObject();
+            telemetry.usage(responseObject);
+            String content = responseObject.getAsJsonArray(JsonProperty.CHOICES.val())
+                    .get(0).getAsJsonObject()
+                    .getAsJsonObject(JsonProperty.MESSAGE.val())
+                    .get(JsonProperty.CONTENT.val()).getAsString();
+
+            // Extract code content between ```java tags, leaving the file alone when the answer has none
+            int codeStart = content.indexOf("```java");
+            int codeEnd = content.lastIndexOf("```");
+            if (codeStart == -1 || codeEnd <= codeStart) {
+                logger.log(Level.WARNING, "No complete java code block in the answer for file: {0}", filePath);
+                return false;
+            }
+            content = content.substring(codeStart + 7, codeEnd).trim();
+
+            Files.writeString(filePath, content);
+            logger.log(Level.INFO, "Documentation added to file: {0}", filePath);
+            return true;
+        } catch (IOException | RuntimeException e) {
             logger.log(Level.SEVERE, "Error occurred while documenting file: " + filePath, e);
-            Thread.currentThread().interrupt();
+            return false;
         }
     }
 }
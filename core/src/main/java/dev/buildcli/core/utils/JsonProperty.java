@@ -7,7 +7,10 @@ public enum JsonProperty {
 	CONTENT("content"),
 	MESSAGES("messages"),
 	MESSAGE("message"),
-	CHOICES("choices");
+	CHOICES("choices"),
+	USAGE("usage"),
+	PROMPT_TOKENS("prompt_tokens"),
+	COMPLETION_TOKENS("completion_tokens");
 	
 	private String prop;
 	
@@ -0,0 +1,113 @@
+package dev.buildcli.core.utils.ai;
+
+import org.eclipse.jgit.diff.DiffAlgorithm;
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.RawText;
+import org.eclipse.jgit.diff.RawTextComparator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the members of a Java source that changed since an earlier version of it, so that AI
+ * commands can send those instead of the whole file.
+ *
+ * <p>The versions are compared line by line with git's histogram diff, ignoring whitespace, and
+ * every {@link JavaChunker#members member} touched by a changed line is selected. A line removed
+ * between two members selects the one before it.</p>
+ */
+public final class ChangedMembers {
+  /**
+   * A member and its offsets in the current source.
+   */
+  public record Member(int start, int end, String code) {
+  }
+
+  private ChangedMembers() {
+  }
+
+  /**
+   * Returns the changed members of {@code current} in source order, all of it as one member when
+   * there is no {@code previous} version, and nothing when only whitespace changed.
+   */
+  public static List<Member> of(String previous, String current) {
+    if (previous == null) {
+      return List.of(new Member(0, current.length(), current));
+    }
+
+    var edits = DiffAlgorithm.getAlgorithm(DiffAlgorithm.SupportedAlgorithm.HISTOGRAM)
+        .diff(RawTextComparator.WS_IGNORE_ALL, text(previous), text(current));
+    var lineStarts = lineStarts(current);
+
+    var changed = new ArrayList<Member>();
+    int start = 0;
+    for (var code : JavaChunker.members(current)) {
+      int end = start + code.length();
+      if (!code.isBlank() && touched(edits, line(lineStarts, start), line(lineStarts, end - 1) + 1)) {
+        changed.add(new Member(start, end, code));
+      }
+      start = end;
+    }
+    return changed;
+  }
+
+  /**
+   * Whether {@code members} cover all of {@code source}, leaving nothing to gain from sending them alone.
+   */
+  public static boolean isWhole(List<Member> members, String source) {
+    if (members.size() == 1 && members.getFirst().start() == 0 && members.getFirst().end() == source.length()) {
+      return true;
+    }
+    return members.size() == JavaChunker.members(source).stream().filter(code -> !code.isBlank()).count();
+  }
+
+  /**
+   * Replaces each member in {@code source} with the corresponding entry of {@code replacements}.
+   */
+  public static String splice(String source, List<Member> members, List<String> replacements) {
+    var result = new StringBuilder(source);
+    for (int i = members.size() - 1; i >= 0; i--) {
+      var member = members.get(i);
+      result.replace(member.start(), member.end(), replacements.get(i));
+    }
+    return result.toString();
+  }
+
+  private static boolean touched(List<Edit> edits, int firstLine, int endLine) {
+    for (var edit : edits) {
+      int begin = edit.getBeginB();
+      int end = edit.getEndB();
+      if (begin == end) {
+        // a deletion sits between two lines; count it against the line before
+        begin = Math.max(0, begin - 1);
+        end = begin + 1;
+      }
+      if (begin < endLine && end > firstLine) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static RawText text(String source) {
+    return new RawText(source.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static int[] lineStarts(String source) {
+    var starts = new ArrayList<Integer>();
+    starts.add(0);
+    for (int i = 0; i < source.length(); i++) {
+      if (source.charAt(i) == '\n' && i + 1 < source.length()) {
+        starts.add(i + 1);
+      }
+    }
+    return starts.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private static int line(int[] lineStarts, int offset) {
+    int index = Arrays.binarySearch(lineStarts, offset);
+    return index >= 0 ? index : -index - 2;
+  }
+}
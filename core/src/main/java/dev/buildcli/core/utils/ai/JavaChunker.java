@@ -0,0 +1,183 @@
+package dev.buildcli.core.utils.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Cuts Java sources into pieces that fit a model's context window.
+ *
+ * <p>Cuts only fall between the members of a type (after a method, field, initializer or nested
+ * type) or between top-level types, so every piece holds whole methods. The package, imports and
+ * type declaration stay with the first member. A nested type too large for the budget is cut
+ * between its own members; a single method larger than the budget becomes a piece of its own.
+ * Concatenating the pieces gives back the source exactly.</p>
+ *
+ * <p>The scan is lexical: it skips comments, strings, text blocks and character literals and counts
+ * braces, which is enough to find member boundaries without parsing.</p>
+ */
+public final class JavaChunker {
+  /**
+   * Roughly how many characters of Java code one token covers with common tokenizers.
+   */
+  static final int CHARS_PER_TOKEN = 4;
+
+  private static final Pattern TYPE_DECLARATION = Pattern.compile("\\b(class|interface|enum|record)\\s+[\\p{L}_$][\\p{L}\\p{N}_$]*");
+
+  private JavaChunker() {
+  }
+
+  public static int estimateTokens(CharSequence text) {
+    return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+  }
+
+  /**
+   * Splits {@code source} into consecutive pieces of at most {@code tokenBudget} estimated tokens
+   * where member boundaries allow it.
+   */
+  public static List<String> split(String source, int tokenBudget) {
+    var chunks = new ArrayList<String>();
+    var current = new StringBuilder();
+    for (var unit : units(source, tokenBudget)) {
+      if (!current.isEmpty() && estimateTokens(current) + estimateTokens(unit) > tokenBudget) {
+        chunks.add(current.toString());
+        current.setLength(0);
+      }
+      current.append(unit);
+    }
+    if (!current.isEmpty()) {
+      if (!chunks.isEmpty() && current.toString().isBlank()) {
+        chunks.set(chunks.size() - 1, chunks.getLast() + current);
+      } else {
+        chunks.add(current.toString());
+      }
+    }
+    return chunks;
+  }
+
+  /**
+   * Returns the members of {@code source} in order, nested types cut into their own members. The
+   * first one holds the package, imports and type declaration; the members concatenate back to the
+   * source.
+   */
+  public static List<String> members(String source) {
+    return units(source, 0);
+  }
+
+  /**
+   * Returns the members of {@code source} in order, cutting nested types over the budget into theirs.
+   */
+  private static List<String> units(String source, int tokenBudget) {
+    var units = new ArrayList<String>();
+    int start = 0;
+    for (int end : boundaries(source)) {
+      var unit = source.substring(start, end);
+      start = end;
+
+      var nested = estimateTokens(unit) > tokenBudget && isTypeDeclaration(unit) ? units(unit, tokenBudget) : null;
+      if (nested != null && nested.size() > 1) {
+        units.addAll(nested);
+      } else {
+        units.add(unit);
+      }
+    }
+    if (start < source.length()) {
+      units.add(source.substring(start));
+    }
+    return units;
+  }
+
+  private static boolean isTypeDeclaration(String unit) {
+    var body = unit.indexOf('{');
+    return body > 0 && TYPE_DECLARATION.matcher(stripComments(unit.substring(0, body))).find();
+  }
+
+  /**
+   * Returns the offsets just after each member: where a type body opens, where a member ends at
+   * depth one and where a top-level type closes. Cuts are only made at line ends, and braces inside
+   * parentheses, such as annotation arrays, do not end a member.
+   */
+  static List<Integer> boundaries(String source) {
+    var boundaries = new ArrayList<Integer>();
+    int depth = 0;
+    int parentheses = 0;
+    int length = source.length();
+    for (int i = 0; i < length; i++) {
+      char c = source.charAt(i);
+      int boundary = -1;
+      if (c == '/' && i + 1 < length && source.charAt(i + 1) == '/') {
+        i = skipTo(source, "\n", i + 2) - 1;
+      } else if (c == '/' && i + 1 < length && source.charAt(i + 1) == '*') {
+        i = skipTo(source, "*/", i + 2) - 1;
+      } else if (source.startsWith("\"\"\"", i)) {
+        i = skipLiteral(source, "\"\"\"", i + 3) - 1;
+      } else if (c == '"' || c == '\'') {
+        i = skipLiteral(source, String.valueOf(c), i + 1) - 1;
+      } else if (c == '(') {
+        parentheses++;
+      } else if (c == ')') {
+        parentheses = Math.max(0, parentheses - 1);
+      } else if (c == '{') {
+        depth++;
+        if (depth == 1) {
+          boundary = lineEnd(source, i + 1);
+        }
+      } else if (c == '}') {
+        depth = Math.max(0, depth - 1);
+        if (depth <= 1 && parentheses == 0) {
+          boundary = lineEnd(source, i + 1);
+        }
+      } else if (c == ';' && depth == 1 && parentheses == 0) {
+        boundary = lineEnd(source, i + 1);
+      }
+
+      if (boundary > 0 && boundary < length && (boundaries.isEmpty() || boundaries.getLast() < boundary)) {
+        boundaries.add(boundary);
+      }
+    }
+    return boundaries;
+  }
+
+  /**
+   * Returns the offset after the line break that follows {@code from}, past blanks and a trailing
+   * line comment, or {@code -1} when code follows on the same line.
+   */
+  private static int lineEnd(String source, int from) {
+    int i = from;
+    while (i < source.length() && (source.charAt(i) == ' ' || source.charAt(i) == '\t')) {
+      i++;
+    }
+    if (source.startsWith("//", i)) {
+      i = skipTo(source, "\n", i + 2) - 1;
+    }
+    if (i < source.length() && source.charAt(i) == '\r') {
+      i++;
+    }
+    if (i < source.length() && source.charAt(i) == '\n') {
+      return i + 1;
+    }
+    return -1;
+  }
+
+  private static int skipTo(String source, String terminator, int from) {
+    int end = source.indexOf(terminator, from);
+    return end < 0 ? source.length() : end + terminator.length();
+  }
+
+  private static int skipLiteral(String source, String quote, int from) {
+    for (int i = from; i < source.length(); i++) {
+      if (source.charAt(i) == '\\') {
+        i++;
+      } else if (source.startsWith(quote, i)) {
+        return i + quote.length();
+      } else if (source.charAt(i) == '\n' && quote.length() == 1) {
+        return i;
+      }
+    }
+    return source.length();
+  }
+
+  private static String stripComments(String code) {
+    return code.replaceAll("(?s)/\\*.*?\\*/", " ").replaceAll("//[^\n]*", " ");
+  }
+}
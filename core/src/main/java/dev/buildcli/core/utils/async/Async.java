@@ -2,40 +2,160 @@ package dev.buildcli.core.utils.async;
 
 import dev.buildcli.core.utils.threads.ThreadPoolUtils;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+/**
+ * A value computed on a virtual thread, and the stages that follow it.
+ * <p>
+ * Only {@link #run} starts a thread. The stages added with {@link #then}, {@link #consumeAsync} and
+ * {@link #catchAny} are composed on the future and run on the thread that completes the stage
+ * before them, or on the caller when that stage is already complete, so a pipeline parks no thread
+ * waiting for another.
+ * <p>
+ * {@link #cancel} interrupts the thread computing the value, whichever stage it is called on;
+ * {@link #timeout} cancels when time is up, {@link #awaitAll} when one of its tasks fails and
+ * {@link #mapAsync} when one of its items fails.
+ */
 public class Async<T> {
   private final CompletableFuture<T> execsAsync;
-  private T value;
-  private Function<Throwable, Void> throwableVoidFunction;
+  private final Async<?> source;
+  private final Future<?> task;
+
+  private Async(CompletableFuture<T> execsAsync, Async<?> source, Future<?> task) {
+    this.execsAsync = execsAsync;
+    this.source = source;
+    this.task = task;
+  }
 
   public Async(Supplier<T> supplier) {
-    this.execsAsync = CompletableFuture.supplyAsync(supplier, ThreadPoolUtils.virtual());
+    this(supplier, ThreadPoolUtils.virtual());
+  }
+
+  private Async(Supplier<T> supplier, Executor executor) {
+    this.execsAsync = new CompletableFuture<>();
+    this.source = null;
+    this.task = new FutureTask<Void>(() -> {
+      try {
+        execsAsync.complete(supplier.get());
+      } catch (Throwable throwable) {
+        execsAsync.completeExceptionally(throwable);
+      }
+    }, null);
+
+    try {
+      executor.execute((Runnable) task);
+    } catch (RuntimeException e) {
+      execsAsync.completeExceptionally(e);
+    }
+  }
+
+  private <R> Async<R> next(CompletableFuture<R> future) {
+    return new Async<>(future, this, null);
   }
 
   public boolean isDone() {
     return execsAsync.isDone();
   }
 
+  /**
+   * Waits for the value, throwing what computing it threw.
+   */
   public T await() throws InterruptedException {
-    return execsAsync.join();
+    try {
+      return execsAsync.get();
+    } catch (ExecutionException e) {
+      throw unchecked(e.getCause());
+    }
+  }
+
+  /**
+   * Waits at most {@code timeout} for the value, cancelling the work when it is not ready by then.
+   */
+  public T await(Duration timeout) throws InterruptedException, TimeoutException {
+    try {
+      return execsAsync.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (ExecutionException e) {
+      throw unchecked(e.getCause());
+    } catch (TimeoutException e) {
+      cancel();
+      throw e;
+    }
   }
 
   public <R> Async<R> then(Function<? super T, ? extends R> function) {
-    return new Async<>(() -> function.apply(execsAsync.join()));
+    return next(execsAsync.thenApply(function));
   }
 
   public Async<Void> consumeAsync(Consumer<? super T> consumer) {
-    return new Async<>(() -> execsAsync.thenAccept(consumer).join());
+    return next(execsAsync.thenAccept(consumer));
+  }
+
+  /**
+   * Recovers from a failure of this or an earlier stage with the value {@code throwableVoidFunction}
+   * returns for it. The function gets the exception that was thrown, not a {@link CompletionException}
+   * wrapping it.
+   */
+  public Async<T> catchAny(Function<Throwable, T> throwableVoidFunction) {
+    return next(execsAsync.exceptionally(throwable -> throwableVoidFunction.apply(unwrap(throwable))));
+  }
+
+  /**
+   * Fails with a {@link TimeoutException} and cancels the work when the value is not ready within
+   * {@code timeout}.
+   */
+  public Async<T> timeout(Duration timeout) {
+    var timed = next(execsAsync.copy().orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS));
+    timed.execsAsync.whenComplete((value, throwable) -> {
+      if (unwrap(throwable) instanceof TimeoutException) {
+        cancel();
+      }
+    });
+    return timed;
+  }
+
+  /**
+   * Cancels this stage and interrupts the thread computing the value, if it still runs.
+   */
+  public void cancel() {
+    execsAsync.cancel(true);
+    if (task != null) {
+      task.cancel(true);
+    }
+    if (source != null) {
+      source.cancel();
+    }
   }
 
   public static <T> Async<T> run(Supplier<T> supplier) {
     return new Async<>(supplier);
   }
 
+  /**
+   * Runs {@code supplier} on a thread of {@code executor} instead of a new virtual thread.
+   */
+  public static <T> Async<T> run(Supplier<T> supplier, Executor executor) {
+    return new Async<>(supplier, executor);
+  }
+
   public static Async<Void> justRun(Runnable runnable) {
     return new Async<>(() -> {
       runnable.run();
@@ -43,24 +163,159 @@ public class Async<T> {
     });
   }
 
-  public static Async[] group(int size) {
-    return new Async[size];
+  public static Async<?>[] group(int size) {
+    return new Async<?>[size];
   }
 
-  public static void awaitAll(Async... asyncs) {
-    var completableFutures = new CompletableFuture[asyncs.length];
+  /**
+   * Waits for all of {@code asyncs}. When one fails the others are cancelled and its exception is
+   * thrown.
+   */
+  public static void awaitAll(Async<?>... asyncs) {
+    var failure = new AtomicReference<Throwable>();
+    var completableFutures = new CompletableFuture<?>[asyncs.length];
 
     for (int i = 0; i < asyncs.length; i++) {
-      completableFutures[i] = asyncs[i].execsAsync;
+      var async = asyncs[i];
+      completableFutures[i] = async.execsAsync;
+      async.execsAsync.whenComplete((value, throwable) -> {
+        var cause = unwrap(throwable);
+        if (cause != null && !(cause instanceof CancellationException) && failure.compareAndSet(null, cause)) {
+          Arrays.stream(asyncs).filter(other -> other != async).forEach(Async::cancel);
+        }
+      });
+    }
+
+    try {
+      CompletableFuture.allOf(completableFutures).join();
+    } catch (CompletionException | CancellationException e) {
+      throw unchecked(failure.get() == null ? unwrap(e) : failure.get());
     }
+  }
 
-    CompletableFuture.allOf(completableFutures).join();
+  /**
+   * Applies {@code mapper} to each of {@code items} with at most {@code parallelism} running at
+   * once, giving the results in the order of the items. A new item starts only when one finishes,
+   * so no more than {@code parallelism} threads exist at a time. The first failure cancels the
+   * items still running and fails the whole.
+   */
+  public static <T, R> Async<List<R>> mapAsync(List<T> items, int parallelism, Function<? super T, ? extends R> mapper) {
+    return mapAsync(items, parallelism, mapper, ThreadPoolUtils.virtual());
   }
 
-  public Async<T> catchAny(Function<Throwable, T> throwableVoidFunction) {
+  /**
+   * Maps like {@link #mapAsync(List, int, Function)} on threads of {@code executor}.
+   */
+  public static <T, R> Async<List<R>> mapAsync(List<T> items, int parallelism, Function<? super T, ? extends R> mapper,
+                                               Executor executor) {
+    return new BoundedMap<T, R>(items, Math.max(1, parallelism), mapper, executor).start();
+  }
+
+  private static Throwable unwrap(Throwable throwable) {
+    while ((throwable instanceof CompletionException || throwable instanceof ExecutionException) && throwable.getCause() != null) {
+      throwable = throwable.getCause();
+    }
+    return throwable;
+  }
+
+  private static RuntimeException unchecked(Throwable throwable) {
+    if (throwable instanceof RuntimeException runtime) {
+      return runtime;
+    }
+    if (throwable instanceof Error error) {
+      throw error;
+    }
+    return new CompletionException(throwable);
+  }
 
-    execsAsync.exceptionally(throwableVoidFunction);
+  private static final class BoundedMap<T, R> {
+    private final List<T> items;
+    private final int parallelism;
+    private final Function<? super T, ? extends R> mapper;
+    private final Executor executor;
+    private final Object[] results;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger launches = new AtomicInteger();
+    private final AtomicInteger remaining;
+    private final Map<Integer, Async<R>> running = new ConcurrentHashMap<>();
+    private final CompletableFuture<List<R>> done = new CompletableFuture<>();
 
-    return this;
+    private BoundedMap(List<T> items, int parallelism, Function<? super T, ? extends R> mapper, Executor executor) {
+      this.items = List.copyOf(items);
+      this.parallelism = parallelism;
+      this.mapper = mapper;
+      this.executor = executor;
+      this.results = new Object[items.size()];
+      this.remaining = new AtomicInteger(items.size());
+    }
+
+    private Async<List<R>> start() {
+      done.whenComplete((value, throwable) -> {
+        if (throwable != null) {
+          running.values().forEach(Async::cancel);
+        }
+      });
+      if (items.isEmpty()) {
+        done.complete(List.of());
+      }
+      for (int i = 0; i < Math.min(parallelism, items.size()); i++) {
+        launch();
+      }
+      return new Async<>(done, null, null);
+    }
+
+    /**
+     * Starts the next item. An item that completes on the thread launching it, as with an executor
+     * running tasks inline, asks for the next one from inside this call; such requests are counted
+     * and started by the loop of the thread already launching, instead of nesting a call per item.
+     */
+    private void launch() {
+      if (launches.getAndIncrement() != 0) {
+        return;
+      }
+      do {
+        try {
+          launchNext();
+        } catch (Throwable throwable) {
+          done.completeExceptionally(throwable);
+        }
+      } while (launches.decrementAndGet() != 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void launchNext() {
+      int index = next.getAndIncrement();
+      if (index >= items.size() || done.isDone()) {
+        return;
+      }
+
+      var item = items.get(index);
+      var async = Async.<R>run(() -> mapper.apply(item), executor);
+      running.put(index, async);
+      async.execsAsync.whenComplete((value, throwable) -> {
+        try {
+          running.remove(index);
+          if (throwable != null) {
+            done.completeExceptionally(unwrap(throwable));
+            return;
+          }
+          results[index] = value;
+          if (remaining.decrementAndGet() == 0) {
+            var list = new ArrayList<R>(results.length);
+            for (var result : results) {
+              list.add((R) result);
+            }
+            done.complete(list);
+          } else {
+            launch();
+          }
+        } catch (Throwable callbackFailure) {
+          done.completeExceptionally(callbackFailure);
+        }
+      });
+      if (done.isDone()) {
+        async.cancel();
+      }
+    }
   }
 }
@@ -1,89 +1,399 @@
 package dev.buildcli.core.utils.compress;
 
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import dev.buildcli.core.log.SystemOutLogger;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.SequenceInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.ToLongFunction;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
+/**
+ * Extracts {@code .zip} and {@code .tar.gz} archives.
+ *
+ * <p>Entries are streamed to disk through a small transfer buffer, so memory use does not depend on
+ * entry size. Every entry name is checked to stay inside the target directory (no "zip slip"), and
+ * links are only created when they point inside it too. Since a link extracted earlier can redirect
+ * the entries that follow, directories are checked by their real path before anything is created or
+ * written in them, and link targets are resolved through the links that already exist. As a later
+ * link can change where an earlier one leads, every link is checked again once all entries are
+ * extracted; links that then point outside are removed and the extraction fails. Executable bits
+ * recorded in the archive are kept on POSIX file systems.</p>
+ */
 public abstract class FileExtractor {
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
   private FileExtractor() {
   }
 
   public static void extractFile(String filePath, String extractTo) throws IOException {
-    CompressedFileExtractor fileExtractor;
-
     SystemOutLogger.log("Validating extension file to: " + filePath);
-    if (filePath.endsWith(".zip")) {
-      fileExtractor = new ZipFileExtractor();
-    } else if (filePath.endsWith(".tar.gz")) {
-      fileExtractor = new TarGzFileExtractor();
-    } else {
-      throw new IllegalArgumentException("Archive format unsupported. Only use .zip or .tar.gz.");
-    }
+    CompressedFileExtractor fileExtractor = extractorFor(filePath);
 
     SystemOutLogger.log("Trying to extract %s to %s".formatted(filePath, extractTo));
     fileExtractor.extract(filePath, extractTo);
   }
 
+  /**
+   * Extracts an archive while it is being read, e.g. straight from a download, without storing it
+   * first. {@code archiveName} (a file name or URL) selects the format. The stream is closed.
+   */
+  public static void extract(InputStream archive, String archiveName, String extractTo) throws IOException {
+    CompressedFileExtractor fileExtractor = extractorFor(archiveName);
+
+    SystemOutLogger.log("Trying to extract %s to %s".formatted(archiveName, extractTo));
+    fileExtractor.extract(archive, Paths.get(extractTo));
+    SystemOutLogger.log("Extracted: %s to %s".formatted(archiveName, extractTo));
+  }
+
+  private static CompressedFileExtractor extractorFor(String archiveName) {
+    if (archiveName.endsWith(".zip")) {
+      return new ZipFileExtractor();
+    } else if (archiveName.endsWith(".tar.gz")) {
+      return new TarGzFileExtractor();
+    } else {
+      throw new IllegalArgumentException("Archive format unsupported. Only use .zip or .tar.gz.");
+    }
+  }
+
   public interface CompressedFileExtractor {
-    void extract(String filePath, String extractTo) throws IOException;
+    void extract(InputStream archive, Path outputPath) throws IOException;
+
+    default void extract(String filePath, String extractTo) throws IOException {
+      try (InputStream archive = new FileInputStream(filePath)) {
+        extract(archive, Paths.get(extractTo));
+      }
+      SystemOutLogger.log("Extracted: %s to %s".formatted(filePath, extractTo));
+    }
   }
 
+  /**
+   * Extracts files with random access, inflating entries on all cores. A zip read as a stream is
+   * extracted sequentially and without file modes, which only the central directory at the end of
+   * the archive records.
+   */
   public static class ZipFileExtractor implements CompressedFileExtractor {
     @Override
     public void extract(String filePath, String extractTo) throws IOException {
-      Path outputPath = Paths.get(extractTo);
-      Files.createDirectories(outputPath);
+      var outputPath = prepare(Paths.get(extractTo));
+
+      try (var file = new RandomAccessFile(filePath, "r");
+           var zip = ZipFile.builder().setSeekableByteChannel(file.getChannel()).get()) {
+        var files = new ArrayList<ZipArchiveEntry>();
+        var links = new ArrayList<ZipArchiveEntry>();
+        for (var entry : Collections.list(zip.getEntries())) {
+          var entryPath = resolve(outputPath, entry.getName());
+          if (entry.isDirectory()) {
+            createDirectories(outputPath, entryPath);
+          } else {
+            createDirectories(outputPath, entryPath.getParent());
+            (entry.isUnixSymlink() ? links : files).add(entry);
+          }
+        }
+
+        inParallel(files, ZipArchiveEntry::getCompressedSize, entry -> {
+          try (InputStream in = open(zip, entry)) {
+            write(in, resolve(outputPath, entry.getName()), entry.getUnixMode());
+          }
+        });
 
-      try (ZipInputStream zis = new ZipInputStream(new FileInputStream(filePath))) {
+        // after the files, so that no write can race with a link changing where it lands
+        var created = new ArrayList<Path>();
+        for (var entry : links) {
+          try (InputStream in = open(zip, entry)) {
+            created.add(link(outputPath, resolve(outputPath, entry.getName()), new String(in.readAllBytes(), zip.getEncoding())));
+          }
+        }
+        checkLinks(outputPath, created);
+      }
+      SystemOutLogger.log("Extracted: %s to %s".formatted(filePath, extractTo));
+    }
+
+    /**
+     * Inflates deflated entries from the raw data with a large buffer; {@link ZipFile#getInputStream}
+     * feeds its inflater 512 bytes per read.
+     */
+    private static InputStream open(ZipFile zip, ZipArchiveEntry entry) throws IOException {
+      if (entry.getMethod() != ZipEntry.DEFLATED) {
+        return zip.getInputStream(entry);
+      }
+
+      // a nowrap inflater may need one byte past the end of the data
+      var raw = new SequenceInputStream(new BufferedInputStream(zip.getRawInputStream(entry), BUFFER_SIZE),
+          new ByteArrayInputStream(new byte[1]));
+      var inflater = new Inflater(true);
+      return new InflaterInputStream(raw, inflater, BUFFER_SIZE) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            inflater.end();
+          }
+        }
+      };
+    }
+
+    @Override
+    public void extract(InputStream archive, Path outputPath) throws IOException {
+      outputPath = prepare(outputPath);
+
+      try (ZipInputStream zis = new ZipInputStream(archive)) {
         ZipEntry zipEntry;
         while ((zipEntry = zis.getNextEntry()) != null) {
-          Path entryPath = outputPath.resolve(zipEntry.getName());
+          Path entryPath = resolve(outputPath, zipEntry.getName());
           if (zipEntry.isDirectory()) {
-            Files.createDirectories(entryPath);
+            createDirectories(outputPath, entryPath);
           } else {
-            Files.createDirectories(entryPath.getParent());
-            try (OutputStream os = Files.newOutputStream(entryPath)) {
-              os.write(zis.readAllBytes());
-            }
+            createDirectories(outputPath, entryPath.getParent());
+            write(zis, entryPath, 0);
           }
         }
       }
-      SystemOutLogger.log("Extracted: %s to %s".formatted(filePath, extractTo));
     }
   }
 
+  /**
+   * Extracts entries in archive order; gzip can only be inflated sequentially.
+   */
   public static class TarGzFileExtractor implements CompressedFileExtractor {
     @Override
-    public void extract(String filePath, String extractTo) throws IOException {
-      Path outputPath = Paths.get(extractTo);
-      Files.createDirectories(outputPath);
-
-      try (TarArchiveInputStream tais = new TarArchiveInputStream(new GzipCompressorInputStream(new FileInputStream(filePath)))) {
+    public void extract(InputStream archive, Path outputPath) throws IOException {
+      outputPath = prepare(outputPath);
 
+      var links = new ArrayList<Path>();
+      try (TarArchiveInputStream tais = new TarArchiveInputStream(new GzipCompressorInputStream(archive))) {
         TarArchiveEntry entry;
         while ((entry = tais.getNextEntry()) != null) {
-          Path entryPath = outputPath.resolve(entry.getName());
+          Path entryPath = resolve(outputPath, entry.getName());
           if (entry.isDirectory()) {
-            Files.createDirectories(entryPath);
-          } else {
-            Files.createDirectories(entryPath.getParent());
-            try (OutputStream os = Files.newOutputStream(entryPath)) {
-              os.write(tais.readAllBytes());
-            }
+            createDirectories(outputPath, entryPath);
+            continue;
+          }
+
+          createDirectories(outputPath, entryPath.getParent());
+          if (entry.isSymbolicLink()) {
+            links.add(link(outputPath, entryPath, entry.getLinkName()));
+          } else if (entry.isLink()) {
+            var existing = resolve(outputPath, entry.getLinkName()).toRealPath();
+            checkInside(outputPath, existing, entry.getLinkName());
+            Files.deleteIfExists(entryPath);
+            Files.createLink(entryPath, existing);
+          } else if (entry.isFile()) {
+            write(tais, entryPath, entry.getMode());
           }
         }
       }
-      SystemOutLogger.log("Extracted: %s to %s".formatted(filePath, extractTo));
+      checkLinks(outputPath, links);
+    }
+  }
+
+  private static Path prepare(Path outputPath) throws IOException {
+    return Files.createDirectories(outputPath).toRealPath();
+  }
+
+  /**
+   * Resolves an entry name against the target directory, refusing names that leave it.
+   */
+  private static Path resolve(Path outputPath, String name) throws IOException {
+    var entryPath = outputPath.resolve(name).normalize();
+    if (!entryPath.startsWith(outputPath)) {
+      throw new IOException("Entry is outside of the target directory: " + name);
+    }
+    return entryPath;
+  }
+
+  /**
+   * Creates {@code directory} after checking that the part of it that exists is, once links are
+   * followed, inside the target directory; the part created after that cannot hold links.
+   */
+  private static void createDirectories(Path outputPath, Path directory) throws IOException {
+    var existing = directory;
+    while (!Files.exists(existing)) {
+      existing = existing.getParent();
+    }
+    checkInside(outputPath, existing.toRealPath(), outputPath.relativize(directory).toString());
+    Files.createDirectories(directory);
+  }
+
+  private static void checkInside(Path outputPath, Path realPath, String name) throws IOException {
+    if (!realPath.startsWith(outputPath)) {
+      throw new IOException("Entry is outside of the target directory: " + name);
+    }
+  }
+
+  /**
+   * Creates a link after checking where it leads in the tree as extracted so far, returning where
+   * it was created.
+   */
+  private static Path link(Path outputPath, Path entryPath, String target) throws IOException {
+    var parent = entryPath.getParent().toRealPath();
+    checkInside(outputPath, parent, outputPath.relativize(entryPath).toString());
+    if (!followLinks(parent.resolve(target)).startsWith(outputPath)) {
+      throw new IOException("Link %s points outside of the target directory: %s".formatted(entryPath, target));
+    }
+    var link = parent.resolve(entryPath.getFileName());
+    Files.deleteIfExists(link);
+    return Files.createSymbolicLink(link, Path.of(target));
+  }
+
+  /**
+   * Checks the created {@code links} again in the finished tree, where links extracted after them
+   * may have changed what they resolve to. Links that now lead outside are removed.
+   */
+  private static void checkLinks(Path outputPath, List<Path> links) throws IOException {
+    var escaping = new ArrayList<Path>();
+    for (var link : links) {
+      var parent = link.getParent().toRealPath();
+      var location = parent.resolve(link.getFileName());
+      if (!parent.startsWith(outputPath) || !Files.isSymbolicLink(location)) {
+        continue;
+      }
+      Path target;
+      try {
+        target = location.toRealPath();
+      } catch (IOException e) {
+        // dangling or looping: resolve what exists of it
+        target = followLinks(parent.resolve(Files.readSymbolicLink(location)));
+      }
+      if (!target.startsWith(outputPath)) {
+        escaping.add(location);
+      }
+    }
+
+    for (var link : escaping) {
+      Files.deleteIfExists(link);
+    }
+    if (!escaping.isEmpty()) {
+      throw new IOException("Links point outside of the target directory: " + escaping.stream()
+          .map(link -> outputPath.relativize(link).toString()).toList());
+    }
+  }
+
+  /**
+   * Resolves {@code path} one name at a time, following the links that exist on the way, so that a
+   * {@code ..} after a link leaves the directory the link points to rather than the link's own.
+   */
+  private static Path followLinks(Path path) throws IOException {
+    var current = path.getRoot();
+    for (var name : path) {
+      if (name.toString().equals("..")) {
+        current = current.getParent() == null ? current : current.getParent();
+      } else if (!name.toString().equals(".")) {
+        var next = current.resolve(name);
+        current = Files.exists(next) ? next.toRealPath() : next;
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Streams an entry into its file and keeps the executable bits of its Unix {@code mode}.
+   */
+  private static void write(InputStream in, Path entryPath, int mode) throws IOException {
+    try (var channel = FileChannel.open(entryPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING, LinkOption.NOFOLLOW_LINKS)) {
+      in.transferTo(Channels.newOutputStream(channel));
+    }
+
+    if (POSIX && (mode & 0111) != 0) {
+      var permissions = Files.getPosixFilePermissions(entryPath);
+      if ((mode & 0100) != 0) {
+        permissions.add(PosixFilePermission.OWNER_EXECUTE);
+      }
+      if ((mode & 0010) != 0) {
+        permissions.add(PosixFilePermission.GROUP_EXECUTE);
+      }
+      if ((mode & 0001) != 0) {
+        permissions.add(PosixFilePermission.OTHERS_EXECUTE);
+      }
+      Files.setPosixFilePermissions(entryPath, permissions);
+    }
+  }
+
+  private interface EntryAction<T> {
+    void accept(T entry) throws IOException;
+  }
+
+  /**
+   * Spreads entries over one task per core, largest first onto the least loaded task, and waits for
+   * all of them.
+   */
+  private static <T> void inParallel(List<T> entries, ToLongFunction<T> size, EntryAction<T> action)
+      throws IOException {
+    var tasks = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), entries.size()));
+    var buckets = new ArrayList<List<T>>();
+    var loads = new long[tasks];
+    for (int i = 0; i < tasks; i++) {
+      buckets.add(new ArrayList<>());
+    }
+
+    var bySize = new ArrayList<>(entries);
+    bySize.sort(Comparator.comparingLong(size).reversed());
+    for (var entry : bySize) {
+      var lightest = 0;
+      for (int i = 1; i < tasks; i++) {
+        if (loads[i] < loads[lightest]) {
+          lightest = i;
+        }
+      }
+      buckets.get(lightest).add(entry);
+      loads[lightest] += Math.max(1, size.applyAsLong(entry));
+    }
+
+    var futures = new ArrayList<Future<?>>();
+    for (var bucket : buckets) {
+      futures.add(ThreadPoolUtils.virtual().submit(() -> {
+        for (var entry : bucket) {
+          action.accept(entry);
+        }
+        return null;
+      }));
+    }
+
+    try {
+      for (var future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      futures.forEach(future -> future.cancel(true));
+      if (e.getCause() instanceof IOException io) {
+        throw io;
+      }
+      throw new IOException(e.getCause());
+    } catch (InterruptedException e) {
+      futures.forEach(future -> future.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new IOException("Extraction was interrupted", e);
     }
   }
 }
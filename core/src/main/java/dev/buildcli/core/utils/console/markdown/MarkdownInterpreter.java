@@ -2,12 +2,15 @@ package dev.buildcli.core.utils.console.markdown;
 
 import dev.buildcli.core.utils.BeautifyShell;
 
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static dev.buildcli.core.utils.BeautifyShell.*;
 
 public class MarkdownInterpreter {
+  private static final int STREAMED_CODE_BLOCK_WIDTH = 50;
+
   /**
    * Parses a Markdown formatted string and converts it to styled console output.
    * <p>
@@ -33,81 +36,127 @@ public class MarkdownInterpreter {
     }
 
     StringBuilder result = new StringBuilder();
-    String[] lines = markdown.split("\n");
-    String lang = "";
+    LineRenderer renderer = new LineRenderer(false);
 
-    boolean inCodeBlock = false;
-    boolean inBlockQuote = false;
-    StringBuilder codeBlockContent = new StringBuilder();
+    for (String line : markdown.split("\n")) {
+      result.append(renderer.line(line));
+    }
 
-    for (String line : lines) {
+    return result.toString();
+  }
+
+  /**
+   * Renders Markdown that arrives in pieces, such as the tokens of an AI answer, writing each line
+   * to {@code out} as soon as it is complete.
+   * <p>
+   * Code blocks are drawn line by line with an open right border, since their width is not known
+   * until they end. Close the returned stream to render the last, unterminated line.
+   *
+   * @param out Receives the styled output, one or more lines at a time
+   * @return A stream accepting the Markdown text in pieces of any size
+   */
+  public MarkdownStream stream(Consumer<String> out) {
+    return new MarkdownStream(new LineRenderer(true), out);
+  }
+
+  /**
+   * Renders one line at a time, keeping the code block and blockquote state between lines.
+   */
+  final class LineRenderer {
+    private final boolean incremental;
+    private final StringBuilder codeBlockContent = new StringBuilder();
+    private String lang = "";
+    private boolean inCodeBlock = false;
+    private boolean inBlockQuote = false;
+
+    LineRenderer(boolean incremental) {
+      this.incremental = incremental;
+    }
+
+    /**
+     * @return The styled line followed by a line break, or nothing while a code block is buffered
+     */
+    String line(String line) {
       // Check for code blocks
       if (line.startsWith("```") || (inCodeBlock && line.contains("```"))) {
         if (inCodeBlock) {
           // End of code block
           inCodeBlock = false;
-          result.append(processCodeBlock(codeBlockContent.toString())).append("\n");
+          if (incremental) {
+            return brightBlackFg("└" + "─".repeat(STREAMED_CODE_BLOCK_WIDTH)) + "\n";
+          }
+          String codeBlock = processCodeBlock(codeBlockContent.toString());
           codeBlockContent.setLength(0);
-        } else {
-          // Start of code block
-          inCodeBlock = true;
-          // Extract language if specified
-          lang = line.length() > 3 ? line.substring(3).trim() : "";
-          codeBlockContent.append("LANGUAGE:").append(lang).append("\n");
+          return codeBlock + "\n";
+        }
+
+        // Start of code block
+        inCodeBlock = true;
+        // Extract language if specified
+        lang = line.length() > 3 ? line.substring(3).trim() : "";
+        if (incremental) {
+          String label = lang.isEmpty() ? "" : content(lang).brightWhiteFg().blackBg().toString() + "\n";
+          return label + brightBlackFg("┌" + "─".repeat(STREAMED_CODE_BLOCK_WIDTH)) + "\n";
         }
-        continue;
+        codeBlockContent.append("LANGUAGE:").append(lang).append("\n");
+        return "";
       }
 
       if (inCodeBlock) {
+        if (incremental) {
+          return brightBlackFg("│ ") + SyntaxHighlighter.highlight(line, lang) + "\n";
+        }
         codeBlockContent.append(line).append("\n");
-        continue;
+        return "";
       }
 
       // Check for blockquotes
       if (line.startsWith(">")) {
         String quoteContent = line.substring(1).trim();
-        result.append(processBlockQuote(quoteContent)).append("\n");
         inBlockQuote = true;
-        continue;
+        return processBlockQuote(quoteContent) + "\n";
       } else if (inBlockQuote && line.trim().isEmpty()) {
         inBlockQuote = false;
-        result.append("\n");
-        continue;
+        return "\n";
       } else if (inBlockQuote) {
         // Continuation of a blockquote without > prefix
-        result.append(processBlockQuote(line)).append("\n");
-        continue;
+        return processBlockQuote(line) + "\n";
       }
 
       // Check for headers
       if (line.startsWith("#")) {
-        result.append(processHeader(line)).append("\n");
-        continue;
+        return processHeader(line) + "\n";
       }
 
       // Check for horizontal rules
       if (line.matches("^([-*_])\\1{2,}$")) {
-        result.append(processHorizontalRule()).append("\n");
-        continue;
+        return processHorizontalRule() + "\n";
       }
 
       // Check for unordered lists
       if (line.matches("^\\s*[*+-]\\s.*$")) {
-        result.append(processUnorderedListItem(line)).append("\n");
-        continue;
+        return processUnorderedListItem(line) + "\n";
       }
 
       // Check for ordered lists
       if (line.matches("^\\s*\\d+\\.\\s.*$")) {
-        result.append(processOrderedListItem(line)).append("\n");
-        continue;
+        return processOrderedListItem(line) + "\n";
       }
 
       // Process inline formatting for normal text
-      result.append(processInlineFormatting(line)).append("\n");
+      return processInlineFormatting(line) + "\n";
     }
 
-    return result.toString();
+    /**
+     * @return The bottom border of a streamed code block the answer never closed
+     */
+    String finish() {
+      if (incremental && inCodeBlock) {
+        inCodeBlock = false;
+        return brightBlackFg("└" + "─".repeat(STREAMED_CODE_BLOCK_WIDTH)) + "\n";
+      }
+      return "";
+    }
   }
 
   private String processHeader(String line) {
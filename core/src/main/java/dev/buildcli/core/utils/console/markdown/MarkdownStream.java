@@ -0,0 +1,51 @@
+package dev.buildcli.core.utils.console.markdown;
+
+import java.util.function.Consumer;
+
+/**
+ * Markdown rendered as it arrives, created by {@link MarkdownInterpreter#stream(Consumer)}.
+ */
+public class MarkdownStream implements Consumer<String>, AutoCloseable {
+  private final MarkdownInterpreter.LineRenderer renderer;
+  private final Consumer<String> out;
+  private final StringBuilder pending = new StringBuilder();
+
+  MarkdownStream(MarkdownInterpreter.LineRenderer renderer, Consumer<String> out) {
+    this.renderer = renderer;
+    this.out = out;
+  }
+
+  /**
+   * Adds a piece of Markdown, rendering every line it completes.
+   */
+  @Override
+  public synchronized void accept(String text) {
+    int start = pending.length();
+    pending.append(text);
+
+    int newline;
+    while ((newline = pending.indexOf("\n", start)) >= 0) {
+      emit(renderer.line(pending.substring(0, newline)));
+      pending.delete(0, newline + 1);
+      start = 0;
+    }
+  }
+
+  /**
+   * Renders the last line and closes a code block left open.
+   */
+  @Override
+  public synchronized void close() {
+    if (!pending.isEmpty()) {
+      emit(renderer.line(pending.toString()));
+      pending.setLength(0);
+    }
+    emit(renderer.finish());
+  }
+
+  private void emit(String rendered) {
+    if (!rendered.isEmpty()) {
+      out.accept(rendered);
+    }
+  }
+}
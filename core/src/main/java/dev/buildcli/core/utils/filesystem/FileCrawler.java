@@ -0,0 +1,296 @@
+package dev.buildcli.core.utils.filesystem;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lists the files below a directory as a lazy {@link Stream}, skipping what a build never needs to
+ * look at: VCS metadata, dependency folders, build output and anything matched by a
+ * {@code .gitignore} on the way down.
+ *
+ * <p>Directories are read one at a time as the stream is consumed, so {@code findFirst()} or
+ * {@code limit()} stop the walk early. A parallel stream splits the pending directories between
+ * fork-join workers. Pruned directories are never opened; {@code target} and {@code build} only
+ * count as build output next to a {@code pom.xml} or {@code build.gradle(.kts)}, so source packages
+ * with those names are still visited. Symbolic links to files are listed, links to directories
+ * are not followed.</p>
+ *
+ * <p>The returned stream holds open directory handles until it is exhausted or closed, so callers
+ * that may stop early should use it in a try-with-resources block.</p>
+ */
+public final class FileCrawler {
+  public static final Set<String> PRUNED_DIRECTORIES = Set.of(".git", ".hg", ".svn", ".gradle", ".buildcli",
+      "node_modules");
+
+  private static final Logger logger = Logger.getLogger(FileCrawler.class.getName());
+  private static final int MAX_EAGER_DIRECTORIES = 16;
+
+  private final Path root;
+  private final List<String> extensions;
+  private final boolean honorIgnores;
+
+  private FileCrawler(Path root, List<String> extensions, boolean honorIgnores) {
+    this.root = root;
+    this.extensions = extensions;
+    this.honorIgnores = honorIgnores;
+  }
+
+  public static FileCrawler of(Path root) {
+    return new FileCrawler(root, List.of(), true);
+  }
+
+  /**
+   * Only returns files whose name ends with one of {@code suffixes}; with none, every file matches.
+   */
+  public FileCrawler extensions(String... suffixes) {
+    return new FileCrawler(root, List.of(suffixes), honorIgnores);
+  }
+
+  /**
+   * Also descends into build output and git-ignored directories, for callers looking for build
+   * artifacts; VCS metadata and dependency folders are still skipped.
+   */
+  public FileCrawler includeBuildOutput() {
+    return new FileCrawler(root, extensions, false);
+  }
+
+  public Stream<Path> stream() {
+    return stream(honorIgnores ? GitIgnore.empty().enter(root) : GitIgnore.empty(), null);
+  }
+
+  /**
+   * Walks from the root with {@code ignore} already in effect, reporting every directory that is
+   * read to {@code onDirectory}.
+   */
+  Stream<Path> stream(GitIgnore ignore, BiConsumer<Path, GitIgnore> onDirectory) {
+    if (Files.isRegularFile(root)) {
+      var ignored = honorIgnores && ignore.isIgnored(root, false);
+      return matches(root) && !ignored ? Stream.of(root) : Stream.empty();
+    }
+    if (!Files.isDirectory(root)) {
+      return Stream.empty();
+    }
+
+    var open = ConcurrentHashMap.<DirectoryStream<Path>>newKeySet();
+    var pending = new ArrayDeque<Directory>();
+    pending.add(new Directory(root, ignore));
+
+    return StreamSupport.stream(new Walker(pending, open, onDirectory), false).onClose(() -> {
+      for (var stream : open) {
+        close(stream);
+      }
+    });
+  }
+
+  public List<Path> list() {
+    try (var paths = stream()) {
+      return paths.toList();
+    }
+  }
+
+  boolean matches(Path file) {
+    if (extensions.isEmpty()) {
+      return true;
+    }
+
+    var name = file.getFileName().toString();
+    for (var extension : extensions) {
+      if (name.endsWith(extension)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  boolean isPruned(Path directory, GitIgnore ignore) {
+    var name = directory.getFileName().toString();
+    if (PRUNED_DIRECTORIES.contains(name)) {
+      return true;
+    }
+    if (!honorIgnores) {
+      return false;
+    }
+
+    var parent = directory.getParent();
+    if ("target".equals(name) && Files.isRegularFile(parent.resolve("pom.xml"))) {
+      return true;
+    }
+    if ("build".equals(name) && (Files.isRegularFile(parent.resolve("build.gradle"))
+        || Files.isRegularFile(parent.resolve("build.gradle.kts")))) {
+      return true;
+    }
+
+    return ignore.isIgnored(directory, true);
+  }
+
+  private static void close(DirectoryStream<Path> stream) {
+    try {
+      stream.close();
+    } catch (IOException e) {
+      logger.log(Level.FINE, "Could not close directory stream", e);
+    }
+  }
+
+  private record Directory(Path path, GitIgnore ignore) { }
+
+  private final class Walker implements Spliterator<Path> {
+    private final Deque<Directory> pending;
+    private final Set<DirectoryStream<Path>> open;
+    private final BiConsumer<Path, GitIgnore> onDirectory;
+    private final Deque<Path> ready = new ArrayDeque<>();
+
+    private Directory current;
+    private DirectoryStream<Path> stream;
+    private Iterator<Path> entries;
+
+    private Walker(Deque<Directory> pending, Set<DirectoryStream<Path>> open, BiConsumer<Path, GitIgnore> onDirectory) {
+      this.pending = pending;
+      this.open = open;
+      this.onDirectory = onDirectory;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Path> action) {
+      while (true) {
+        if (!ready.isEmpty()) {
+          action.accept(ready.poll());
+          return true;
+        }
+        if (entries == null && !openNext()) {
+          return false;
+        }
+
+        try {
+          while (entries.hasNext()) {
+            var match = visit(entries.next(), current.ignore());
+            if (match != null) {
+              action.accept(match);
+              return true;
+            }
+          }
+        } catch (DirectoryIteratorException e) {
+          logger.log(Level.FINE, "Stopped reading " + current.path(), e);
+        }
+
+        finishCurrent();
+      }
+    }
+
+    /**
+     * Queues {@code entry} when it is a directory worth descending into and returns it when it is a
+     * matching file.
+     */
+    private Path visit(Path entry, GitIgnore ignore) {
+      BasicFileAttributes attributes;
+      try {
+        attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+      } catch (IOException e) {
+        logger.log(Level.FINE, "Skipping unreadable " + entry, e);
+        return null;
+      }
+
+      if (attributes.isDirectory()) {
+        if (!isPruned(entry, ignore)) {
+          pending.push(new Directory(entry, honorIgnores ? ignore.enter(entry) : ignore));
+        }
+        return null;
+      }
+
+      var file = attributes.isRegularFile() || attributes.isSymbolicLink() && Files.isRegularFile(entry);
+      var ignored = honorIgnores && ignore.isIgnored(entry, false);
+      return file && matches(entry) && !ignored ? entry : null;
+    }
+
+    private boolean openNext() {
+      while (!pending.isEmpty()) {
+        var next = pending.pop();
+        try {
+          stream = Files.newDirectoryStream(next.path());
+          open.add(stream);
+          entries = stream.iterator();
+          current = next;
+          if (onDirectory != null) {
+            onDirectory.accept(next.path(), next.ignore());
+          }
+          return true;
+        } catch (IOException e) {
+          logger.log(Level.FINE, "Skipping unreadable directory " + next.path(), e);
+        }
+      }
+      return false;
+    }
+
+    private void finishCurrent() {
+      open.remove(stream);
+      close(stream);
+      stream = null;
+      entries = null;
+      current = null;
+    }
+
+    /**
+     * Hands half of the pending directories to a new walker. A walk that has just started has a
+     * single pending directory, so the first few levels are read eagerly until there is something to
+     * share.
+     */
+    @Override
+    public Spliterator<Path> trySplit() {
+      for (int expanded = 0; pending.size() == 1 && expanded < MAX_EAGER_DIRECTORIES; expanded++) {
+        expand(pending.pop());
+      }
+      if (pending.size() < 2) {
+        return null;
+      }
+
+      var half = new ArrayDeque<Directory>();
+      for (int i = pending.size() / 2; i > 0; i--) {
+        half.add(pending.removeLast());
+      }
+      return new Walker(half, open, onDirectory);
+    }
+
+    private void expand(Directory directory) {
+      try (var listing = Files.newDirectoryStream(directory.path())) {
+        if (onDirectory != null) {
+          onDirectory.accept(directory.path(), directory.ignore());
+        }
+        for (var entry : listing) {
+          var match = visit(entry, directory.ignore());
+          if (match != null) {
+            ready.add(match);
+          }
+        }
+      } catch (IOException | DirectoryIteratorException e) {
+        logger.log(Level.FINE, "Skipping unreadable directory " + directory.path(), e);
+      }
+    }
+
+    @Override
+    public long estimateSize() {
+      return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+      return DISTINCT | NONNULL;
+    }
+  }
+}
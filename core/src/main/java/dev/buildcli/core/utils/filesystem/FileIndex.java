@@ -0,0 +1,553 @@
+package dev.buildcli.core.utils.filesystem;
+
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * A persistent index of the files of a project, stored in {@code .buildcli/index} under the project
+ * root, that answers "which files have these extensions" and "which files changed since this
+ * revision" without reading the tree again.
+ *
+ * <p>Every file the {@link FileCrawler} would list gets an entry with its size, modification time
+ * and git blob id. A query first brings the part of the tree it covers up to date: files are only
+ * re-hashed when their size or modification time changed, so a refresh costs one directory walk.
+ * While a {@link Watcher} runs, in this or another process, it keeps the index current from
+ * {@link WatchService} events and queries skip the walk altogether.</p>
+ *
+ * <p>"Changed since a revision" walks that revision's tree against the working tree with JGit, which
+ * applies the repository's filters and skips files its own index knows to be unmodified. Index write
+ * failures are logged and never fail a query.</p>
+ */
+public final class FileIndex {
+  public static final String DIRECTORY = ".buildcli";
+
+  private static final Logger logger = Logger.getLogger(FileIndex.class.getName());
+  private static final int MAGIC = 0x42434649;
+  private static final int FORMAT_VERSION = 1;
+  private static final long DEBOUNCE_MILLIS = 200;
+  private static final Set<Path> WATCHED = ConcurrentHashMap.newKeySet();
+
+  private final Path root;
+  private final Path indexFile;
+  private final Path lockFile;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * @param path         the file path relative to the index root, with {@code /} separators
+   * @param size         the size in bytes
+   * @param lastModified the modification time in milliseconds
+   * @param blobId       the id git gives the content as a blob
+   */
+  public record Entry(String path, long size, long lastModified, ObjectId blobId) { }
+
+  private FileIndex(Path root) {
+    this.root = root;
+    this.indexFile = root.resolve(DIRECTORY).resolve("index").resolve("files.bin");
+    this.lockFile = indexFile.resolveSibling("watch.lock");
+  }
+
+  /**
+   * Loads the index of the project rooted at {@code root}, which is empty the first time.
+   */
+  public static FileIndex open(Path root) {
+    var index = new FileIndex(root.toAbsolutePath().normalize());
+    index.load();
+    return index;
+  }
+
+  public Path root() {
+    return root;
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public List<Entry> entries() {
+    return entries.values().stream().sorted(Comparator.comparing(Entry::path)).toList();
+  }
+
+  /**
+   * Returns the indexed files ending with one of {@code extensions}, or every file without any.
+   */
+  public List<Path> files(String... extensions) {
+    return files(root, extensions);
+  }
+
+  /**
+   * Returns the files under {@code target}, a directory or a single file, ending with one of
+   * {@code extensions}. Paths outside the project or inside pruned directories are crawled directly
+   * and not indexed.
+   */
+  public List<Path> files(Path target, String... extensions) {
+    var absolute = target.toAbsolutePath().normalize();
+    var ignore = locate(absolute);
+    if (ignore == null) {
+      return FileCrawler.of(absolute).extensions(extensions).list();
+    }
+
+    if (!isWatched()) {
+      update(absolute, ignore, null);
+    }
+
+    var prefix = key(absolute);
+    var crawler = FileCrawler.of(absolute).extensions(extensions);
+    return entries.keySet().stream()
+        .filter(key -> within(key, prefix))
+        .sorted()
+        .map(this::path)
+        .filter(crawler::matches)
+        .toList();
+  }
+
+  /**
+   * Returns the files ending with one of {@code extensions} whose content differs from
+   * {@code revision}, including files that did not exist there and files deleted since.
+   *
+   * <p>The working tree is compared with the revision's tree through JGit, so line ending
+   * conversion and clean filters apply as they do for {@code git diff}, and files the index of the
+   * repository records as unmodified are not read. New files are only reported when this index lists
+   * them, which leaves out ignored and pruned files.</p>
+   */
+  public List<Path> changedSince(Repository repository, String revision, String... extensions) throws IOException {
+    var tree = repository.resolve(revision + "^{tree}");
+    if (tree == null) {
+      throw new IllegalArgumentException("Unknown revision: " + revision);
+    }
+    var workTree = repository.getWorkTree().toPath().toAbsolutePath().normalize();
+    if (!root.startsWith(workTree)) {
+      throw new IllegalArgumentException(root + " is not inside the work tree of " + workTree);
+    }
+    if (!isWatched()) {
+      refresh();
+    }
+
+    var prefix = separators(workTree.relativize(root).toString());
+    var crawler = FileCrawler.of(root).extensions(extensions);
+    var changed = new ArrayList<Path>();
+    try (var walk = new TreeWalk(repository)) {
+      walk.addTree(tree);
+      int dirCache = walk.addTree(new DirCacheIterator(repository.readDirCache()));
+      var workingTree = new FileTreeIterator(repository);
+      workingTree.setDirCacheIterator(walk, dirCache);
+      walk.addTree(workingTree);
+      walk.setRecursive(true);
+      walk.setFilter(prefix.isEmpty() ? TreeFilter.ANY_DIFF
+          : AndTreeFilter.create(PathFilter.create(prefix), TreeFilter.ANY_DIFF));
+
+      while (walk.next()) {
+        var key = prefix.isEmpty() ? walk.getPathString() : walk.getPathString().substring(prefix.length() + 1);
+        var inRevision = walk.getFileMode(0) != FileMode.MISSING;
+        var inWorkingTree = walk.getFileMode(2) != FileMode.MISSING;
+
+        var isChanged = inRevision && inWorkingTree ? !walk.idEqual(0, 2) : inRevision || entries.containsKey(key);
+        if (isChanged && crawler.matches(path(key))) {
+          changed.add(path(key));
+        }
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Brings the whole index up to date with the tree.
+   */
+  public void refresh() {
+    update(root, GitIgnore.empty().enter(root), null);
+  }
+
+  /**
+   * Whether a {@link Watcher} currently keeps this index up to date.
+   */
+  public boolean isWatched() {
+    if (WATCHED.contains(root)) {
+      return true;
+    }
+    if (!Files.exists(lockFile)) {
+      return false;
+    }
+
+    try (var channel = FileChannel.open(lockFile, StandardOpenOption.WRITE)) {
+      var lock = channel.tryLock();
+      if (lock == null) {
+        return true;
+      }
+      lock.release();
+      return false;
+    } catch (OverlappingFileLockException e) {
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Refreshes the index and starts keeping it current in the background until the watcher is
+   * closed. Only one watcher may run per project.
+   */
+  public Watcher watch() throws IOException {
+    return new Watcher();
+  }
+
+  /**
+   * Rebuilds the entries under {@code target} and saves the index when anything changed.
+   */
+  private void update(Path target, GitIgnore ignore, BiConsumer<Path, GitIgnore> onDirectory) {
+    if (reindex(target, ignore, onDirectory)) {
+      save();
+    }
+  }
+
+  private synchronized boolean reindex(Path target, GitIgnore ignore, BiConsumer<Path, GitIgnore> onDirectory) {
+    var prefix = key(target);
+    var seen = new HashSet<String>();
+    var stale = new ArrayList<Path>();
+
+    try (var paths = FileCrawler.of(target).stream(ignore, onDirectory)) {
+      paths.forEach(path -> {
+        var key = key(path);
+        seen.add(key);
+
+        var entry = entries.get(key);
+        var attributes = attributes(path);
+        if (attributes != null && (entry == null || entry.size() != attributes.size()
+            || entry.lastModified() != attributes.lastModifiedTime().toMillis())) {
+          stale.add(path);
+        }
+      });
+    }
+
+    var scanned = stale.parallelStream().map(this::scan).filter(Objects::nonNull).toList();
+    scanned.forEach(entry -> entries.put(entry.path(), entry));
+
+    var removed = entries.keySet().removeIf(key -> within(key, prefix) && !seen.contains(key));
+    return removed || !scanned.isEmpty();
+  }
+
+  private synchronized boolean remove(Path target) {
+    var prefix = key(target);
+    return entries.keySet().removeIf(key -> within(key, prefix));
+  }
+
+  private Entry scan(Path file) {
+    var attributes = attributes(file);
+    if (attributes == null) {
+      return null;
+    }
+
+    try (var in = new BufferedInputStream(Files.newInputStream(file))) {
+      var blobId = new ObjectInserter.Formatter().idFor(Constants.OBJ_BLOB, attributes.size(), in);
+      return new Entry(key(file), attributes.size(), attributes.lastModifiedTime().toMillis(), blobId);
+    } catch (IOException e) {
+      logger.log(Level.FINE, "Could not index " + file, e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns the ignore rules in effect at {@code target}, or {@code null} when it is outside the
+   * project or below a directory the crawler prunes.
+   */
+  private GitIgnore locate(Path target) {
+    if (!target.startsWith(root)) {
+      return null;
+    }
+
+    var crawler = FileCrawler.of(root);
+    var ignore = GitIgnore.empty().enter(root);
+    var directory = root;
+    for (var name : root.relativize(target)) {
+      directory = directory.resolve(name);
+      if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+        break;
+      }
+      if (crawler.isPruned(directory, ignore)) {
+        return null;
+      }
+      ignore = ignore.enter(directory);
+    }
+    return ignore;
+  }
+
+  private String key(Path path) {
+    return separators(root.relativize(path).toString());
+  }
+
+  private Path path(String key) {
+    return key.isEmpty() ? root : root.resolve(key);
+  }
+
+  private static String separators(String path) {
+    return path.replace('\\', '/');
+  }
+
+  private static boolean within(String key, String prefix) {
+    return prefix.isEmpty() || key.equals(prefix) || key.startsWith(prefix + "/");
+  }
+
+  private static BasicFileAttributes attributes(Path path) {
+    try {
+      return Files.readAttributes(path, BasicFileAttributes.class);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private void load() {
+    try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !root.toString().equals(in.readUTF())) {
+        return;
+      }
+
+      var raw = new byte[Constants.OBJECT_ID_LENGTH];
+      var loaded = new HashMap<String, Entry>();
+      for (int i = in.readInt(); i > 0; i--) {
+        var path = in.readUTF();
+        var size = in.readLong();
+        var lastModified = in.readLong();
+        in.readFully(raw);
+        loaded.put(path, new Entry(path, size, lastModified, ObjectId.fromRaw(raw)));
+      }
+      entries.putAll(loaded);
+    } catch (NoSuchFileException e) {
+      // first use
+    } catch (IOException | RuntimeException e) {
+      logger.log(Level.FINE, "Ignoring unreadable file index " + indexFile, e);
+    }
+  }
+
+  private synchronized void save() {
+    Path temp = null;
+    try {
+      Files.createDirectories(indexFile.getParent());
+      temp = Files.createTempFile(indexFile.getParent(), indexFile.getFileName().toString(), ".tmp");
+
+      var raw = new byte[Constants.OBJECT_ID_LENGTH];
+      try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        var snapshot = List.copyOf(entries.values());
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(root.toString());
+        out.writeInt(snapshot.size());
+        for (var entry : snapshot) {
+          out.writeUTF(entry.path());
+          out.writeLong(entry.size());
+          out.writeLong(entry.lastModified());
+          entry.blobId().copyRawTo(raw, 0);
+          out.write(raw);
+        }
+      }
+
+      try {
+        Files.move(temp, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      logger.log(Level.FINE, "Could not write file index " + indexFile, e);
+      if (temp != null) {
+        try {
+          Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+          // best effort
+        }
+      }
+    }
+  }
+
+  /**
+   * Keeps the index current from file system events. Every directory the crawler visits is
+   * registered with a {@link WatchService}; events are collected until the tree has been quiet for
+   * {@value #DEBOUNCE_MILLIS} ms and then only the touched paths are re-indexed. An overflow or a
+   * changed {@code .gitignore} triggers a full refresh. The watcher holds a lock on
+   * {@code .buildcli/index/watch.lock}, which is how other processes know to trust the index.
+   */
+  public final class Watcher implements AutoCloseable {
+    private final WatchService service;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final Map<WatchKey, Watched> keys = new ConcurrentHashMap<>();
+    private final Thread thread;
+
+    private Watcher() throws IOException {
+      if (!WATCHED.add(root)) {
+        throw new IllegalStateException("The file index of " + root + " is already being watched");
+      }
+
+      FileChannel channel = null;
+      FileLock acquired = null;
+      try {
+        Files.createDirectories(lockFile.getParent());
+        channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        acquired = channel.tryLock();
+      } catch (OverlappingFileLockException e) {
+        // held by this JVM through another channel
+      } finally {
+        if (acquired == null) {
+          WATCHED.remove(root);
+          if (channel != null) {
+            channel.close();
+          }
+        }
+      }
+      if (acquired == null) {
+        throw new IllegalStateException("The file index of " + root + " is already being watched");
+      }
+      lockChannel = channel;
+      lock = acquired;
+
+      try {
+        service = root.getFileSystem().newWatchService();
+        update(root, GitIgnore.empty().enter(root), this::register);
+      } catch (IOException | RuntimeException e) {
+        release();
+        throw e;
+      }
+      thread = Thread.ofVirtual().name("buildcli-file-index").start(this::loop);
+    }
+
+    /**
+     * Blocks until the watcher is closed or the calling thread is interrupted.
+     */
+    public void await() throws InterruptedException {
+      thread.join();
+    }
+
+    @Override
+    public void close() throws IOException {
+      service.close();
+      try {
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      release();
+    }
+
+    private void release() throws IOException {
+      try {
+        if (lock.isValid()) {
+          lock.release();
+        }
+      } catch (ClosedChannelException ignored) {
+        // already released
+      } finally {
+        lockChannel.close();
+        WATCHED.remove(root);
+      }
+    }
+
+    private void register(Path directory, GitIgnore ignore) {
+      try {
+        keys.put(directory.register(service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), new Watched(directory, ignore));
+      } catch (IOException | ClosedWatchServiceException e) {
+        logger.log(Level.FINE, "Could not watch " + directory, e);
+      }
+    }
+
+    private void loop() {
+      try {
+        while (true) {
+          var touched = new LinkedHashMap<Path, GitIgnore>();
+          var rescan = false;
+
+          var key = service.take();
+          while (key != null) {
+            var watched = keys.get(key);
+            for (var event : key.pollEvents()) {
+              if (event.kind() == OVERFLOW || watched == null) {
+                rescan = true;
+                continue;
+              }
+
+              var child = watched.directory().resolve((Path) event.context());
+              rescan |= GitIgnore.FILE_NAME.equals(child.getFileName().toString());
+              touched.put(child, watched.ignore());
+            }
+            if (!key.reset()) {
+              keys.remove(key);
+            }
+            key = service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+          }
+
+          if (rescan) {
+            update(root, GitIgnore.empty().enter(root), this::register);
+            continue;
+          }
+
+          var changed = false;
+          var crawler = FileCrawler.of(root);
+          for (var entry : touched.entrySet()) {
+            var child = entry.getKey();
+            var ignore = entry.getValue();
+            if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+              changed |= crawler.isPruned(child, ignore)
+                  ? remove(child)
+                  : reindex(child, ignore.enter(child), this::register);
+            } else {
+              changed |= reindex(child, ignore, null);
+            }
+          }
+          if (changed) {
+            save();
+          }
+        }
+      } catch (ClosedWatchServiceException e) {
+        // closed
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private record Watched(Path directory, GitIgnore ignore) { }
+}
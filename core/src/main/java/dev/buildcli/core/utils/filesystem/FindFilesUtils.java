@@ -1,44 +1,39 @@
 package dev.buildcli.core.utils.filesystem;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.io.File;
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Stream;
 
 public abstract class FindFilesUtils {
-  private static final Logger logger = LoggerFactory.getLogger(FindFilesUtils.class);
   private FindFilesUtils() {
   }
 
+  /**
+   * Lists the files under {@code dir} ending with one of {@code extensions}, skipping VCS metadata,
+   * dependency folders, build output and git-ignored paths. See {@link FileCrawler}.
+   */
   public static List<File> search(File dir, String...extensions) {
-    List<File> files = new ArrayList<>();
-    if (dir.isDirectory()) {
-      var listFiles = dir.listFiles();
-      if (listFiles == null || listFiles.length == 0) {
-        return files;
-      }
-
-      for (File file : listFiles) {
-        if (file.isDirectory()) {
-          files.addAll(search(file, extensions));
-          continue;
-        }
-
-        if (endsWith(file, extensions)) {
-          files.add(file);
-        }
-      }
-    } else if (dir.isFile() && endsWith(dir, extensions)) {
-      files.add(dir);
+    try (var paths = stream(dir, extensions)) {
+      return paths.map(Path::toFile).toList();
     }
+  }
 
-    return List.copyOf(files);
+  /**
+   * Lazy variant of {@link #search(File, String...)}; close the stream when not consuming it fully.
+   */
+  public static Stream<Path> stream(File dir, String...extensions) {
+    return FileCrawler.of(dir.toPath()).extensions(extensions).stream();
   }
 
+  /**
+   * Jars are usually build output, so unlike {@link #search(File, String...)} this also looks into
+   * {@code target}, {@code build} and git-ignored directories.
+   */
   public static List<File> searchJarFiles(File dir) {
-    return search(dir, ".jar");
+    try (var paths = FileCrawler.of(dir.toPath()).extensions(".jar").includeBuildOutput().stream()) {
+      return paths.map(Path::toFile).toList();
+    }
   }
 
   public static List<File> searchJavaFiles(File dir) {
@@ -50,14 +45,4 @@ public abstract class FindFilesUtils {
     final String[] extensions = {".java", ".kt", ".scala", ".js", ".ts", ".jsx", ".tsx"};
     return search(dir, extensions);
   }
-
-  private static boolean endsWith(File file, String...suffixes) {
-    for (String suffix : suffixes) {
-      if (file.getName().endsWith(suffix)) {
-        return true;
-      }
-    }
-
-    return false;
-  }
 }
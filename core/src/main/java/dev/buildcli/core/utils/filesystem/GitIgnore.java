@@ -0,0 +1,179 @@
+package dev.buildcli.core.utils.filesystem;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * The rules of one {@code .gitignore} file, chained to the rules of the directories above it.
+ *
+ * <p>Supports the pattern syntax described in {@code gitignore(5)}: comments, negation with
+ * {@code !}, directory-only patterns ending in {@code /}, patterns anchored by a slash, {@code *},
+ * {@code ?}, {@code **} and character classes. Deeper files take precedence over shallower ones and,
+ * within a file, the last matching pattern wins.</p>
+ */
+final class GitIgnore {
+  static final String FILE_NAME = ".gitignore";
+
+  private static final Logger logger = Logger.getLogger(GitIgnore.class.getName());
+
+  private final GitIgnore parent;
+  private final Path base;
+  private final List<Rule> rules;
+
+  private GitIgnore(GitIgnore parent, Path base, List<Rule> rules) {
+    this.parent = parent;
+    this.base = base;
+    this.rules = rules;
+  }
+
+  static GitIgnore empty() {
+    return new GitIgnore(null, null, List.of());
+  }
+
+  /**
+   * Returns these rules extended with {@code directory/.gitignore}, or {@code this} when the
+   * directory has none.
+   */
+  GitIgnore enter(Path directory) {
+    var file = directory.resolve(FILE_NAME);
+    if (!Files.isRegularFile(file)) {
+      return this;
+    }
+
+    try {
+      return child(directory, Files.readAllLines(file, StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      logger.log(Level.FINE, "Ignoring unreadable " + file, e);
+      return this;
+    }
+  }
+
+  GitIgnore child(Path directory, List<String> lines) {
+    var parsed = new ArrayList<Rule>();
+    for (var line : lines) {
+      var rule = Rule.parse(line);
+      if (rule != null) {
+        parsed.add(rule);
+      }
+    }
+    return parsed.isEmpty() ? this : new GitIgnore(this, directory, List.copyOf(parsed));
+  }
+
+  boolean isIgnored(Path path, boolean directory) {
+    for (var ignore = this; ignore != null && ignore.base != null; ignore = ignore.parent) {
+      if (!path.startsWith(ignore.base)) {
+        continue;
+      }
+
+      var relative = ignore.base.relativize(path).toString().replace('\\', '/');
+      for (int i = ignore.rules.size() - 1; i >= 0; i--) {
+        var rule = ignore.rules.get(i);
+        if (rule.matches(relative, directory)) {
+          return !rule.negated();
+        }
+      }
+    }
+    return false;
+  }
+
+  private record Rule(Pattern pattern, boolean negated, boolean directoryOnly, boolean anchored) {
+
+    static Rule parse(String line) {
+      var text = stripTrailingSpaces(line);
+      if (text.isEmpty() || text.startsWith("#")) {
+        return null;
+      }
+
+      var negated = text.startsWith("!");
+      if (negated || text.startsWith("\\!") || text.startsWith("\\#")) {
+        text = text.substring(1);
+      }
+
+      var directoryOnly = text.endsWith("/");
+      if (directoryOnly) {
+        text = text.substring(0, text.length() - 1);
+      }
+
+      var anchored = text.contains("/");
+      if (text.startsWith("/")) {
+        text = text.substring(1);
+      }
+      if (text.isEmpty()) {
+        return null;
+      }
+
+      return new Rule(Pattern.compile(toRegex(text)), negated, directoryOnly, anchored);
+    }
+
+    boolean matches(String relative, boolean directory) {
+      if (directoryOnly && !directory) {
+        return false;
+      }
+
+      var subject = anchored ? relative : relative.substring(relative.lastIndexOf('/') + 1);
+      return pattern.matcher(subject).matches();
+    }
+
+    private static String stripTrailingSpaces(String line) {
+      var end = line.length();
+      while (end > 0 && line.charAt(end - 1) == ' ' && (end < 2 || line.charAt(end - 2) != '\\')) {
+        end--;
+      }
+      return line.substring(0, end);
+    }
+
+    private static String toRegex(String glob) {
+      var regex = new StringBuilder();
+      for (int i = 0; i < glob.length(); i++) {
+        var c = glob.charAt(i);
+        switch (c) {
+          case '*' -> {
+            if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+              var leading = i == 0 || glob.charAt(i - 1) == '/';
+              var trailing = i + 2 == glob.length() || glob.charAt(i + 2) == '/';
+              if (leading && trailing) {
+                if (i + 2 == glob.length()) {
+                  regex.append(".*");
+                } else {
+                  regex.append("(?:.*/)?");
+                  i++;
+                }
+                i++;
+                continue;
+              }
+            }
+            regex.append("[^/]*");
+          }
+          case '?' -> regex.append("[^/]");
+          case '[' -> {
+            var close = glob.indexOf(']', i + 2);
+            if (close < 0) {
+              regex.append("\\[");
+              continue;
+            }
+            var body = glob.substring(i + 1, close);
+            if (body.startsWith("!")) {
+              body = "^" + body.substring(1);
+            }
+            regex.append('[').append(body.replace("\\", "\\\\")).append(']');
+            i = close;
+          }
+          case '\\' -> {
+            if (i + 1 < glob.length()) {
+              regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+            }
+          }
+          default -> regex.append(Pattern.quote(String.valueOf(c)));
+        }
+      }
+      return regex.toString();
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package dev.buildcli.core.utils.installers;
+
+import dev.buildcli.core.utils.DirectoryCleanup;
+import dev.buildcli.core.utils.compress.FileExtractor;
+import dev.buildcli.core.utils.net.DownloadCache;
+import dev.buildcli.core.utils.net.FileDownloader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Downloads tool distributions through the download cache and extracts them.
+ */
+final class Distributions {
+  private Distributions() {
+  }
+
+  /**
+   * Extracts the distribution at {@code url} into {@code extractTo}, removing {@code name} there on
+   * failure.
+   *
+   * <p>A {@code .tar.gz} is extracted while it downloads. A {@code .zip} keeps its file modes only
+   * in the central directory at its end, so it is extracted from the cached archive, hard-linked
+   * into a temporary directory, with random access and on all cores.</p>
+   */
+  static void downloadAndExtract(String url, File extractTo, String name) throws IOException, InterruptedException {
+    var cache = DownloadCache.defaultCache();
+    try {
+      if (url.endsWith(".zip")) {
+        var directory = Files.createTempDirectory("buildcli-distribution");
+        try {
+          var archive = cache.fetch(url, directory.resolve(name + ".zip"), FileDownloader.Progress.console());
+          new FileExtractor.ZipFileExtractor().extract(archive.toString(), extractTo.getAbsolutePath());
+        } finally {
+          DirectoryCleanup.cleanup(directory.toString());
+        }
+      } else {
+        try (var archive = cache.open(url, null, FileDownloader.Progress.console())) {
+          FileExtractor.extract(archive, url, extractTo.getAbsolutePath());
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      DirectoryCleanup.cleanup(new File(extractTo, name).getAbsolutePath());
+      throw e;
+    }
+  }
+}
@@ -4,15 +4,12 @@ import dev.buildcli.core.log.SystemOutLogger;
 import dev.buildcli.core.utils.DirectoryCleanup;
 import dev.buildcli.core.utils.OS;
 import dev.buildcli.core.utils.compress.FileExtractor;
+import dev.buildcli.core.utils.net.DownloadCache;
+import dev.buildcli.core.utils.net.FileDownloader;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.file.Paths;
 import java.util.Scanner;
 
@@ -27,17 +24,12 @@ public abstract class GradleInstaller {
   public static void installGradle() {
     SystemOutLogger.log("Installing Gradle operation started...");
     try {
-      SystemOutLogger.log("Downloading Gradle operation started...");
-      var file = downloadGradle();
-      SystemOutLogger.log("Downloading Gradle operation finished...");
-
-      SystemOutLogger.log("Gradle downloaded to " + file.getAbsolutePath());
       var outputDir = installProgramFilesDirectory();
       SystemOutLogger.log("Gradle install path set to " + outputDir.getAbsolutePath());
 
-      SystemOutLogger.log("Extracting Gradle operation started...");
-      extractGradle(file.getAbsolutePath(), outputDir.getAbsolutePath());
-      SystemOutLogger.log("Extracting Gradle operation finished...");
+      SystemOutLogger.log("Downloading and extracting Gradle operation started...");
+      downloadAndExtractGradle(outputDir);
+      SystemOutLogger.log("Downloading and extracting Gradle operation finished...");
 
       String gradleExtractedDir = Paths.get(outputDir.getAbsolutePath(), GRADLE_NAME).toFile().getAbsolutePath();
       SystemOutLogger.log("Configuring Gradle path operation started...");
@@ -60,25 +52,17 @@ public abstract class GradleInstaller {
     }
   }
 
-  public static File downloadGradle() throws IOException, InterruptedException {
-    var request = HttpRequest.newBuilder().uri(URI.create(GRADLE_DOWNLOAD_URL)).GET().build();
-    var client = HttpClient.newBuilder()
-        .followRedirects(HttpClient.Redirect.ALWAYS)
-        .build();
-
+  /**
+   * Extracts the Gradle distribution from the download cache with its file modes, without writing
+   * the archive to the working directory. A partial or unverified installation is removed on failure.
+   */
+  public static void downloadAndExtractGradle(File extractTo) throws IOException, InterruptedException {
     SystemOutLogger.log("Downloading Gradle artifact from: " + GRADLE_DOWNLOAD_URL);
+    Distributions.downloadAndExtract(GRADLE_DOWNLOAD_URL, extractTo, GRADLE_NAME);
+  }
 
-    var response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
-
-    if (response.statusCode() != 200) {
-      throw new IOException("Failed to download Gradle artifact: " + response.statusCode());
-    }
-
-    long contentLength = response.headers().firstValue("Content-Length").map(GradleInstaller::parseContentLengthToLong).orElse(0L);
-
-    if (contentLength == 0L) {
-      throw new IOException("Failed to download maven artifact: " + response.statusCode());
-    }
+  public static File downloadGradle() throws IOException, InterruptedException {
+    SystemOutLogger.log("Downloading Gradle artifact from: " + GRADLE_DOWNLOAD_URL);
 
     var gradleZip = new File(GRADLE_NAME +  ".zip");
 
@@ -87,27 +71,7 @@ public abstract class GradleInstaller {
       DirectoryCleanup.cleanup(gradleZip.getAbsolutePath());
     }
 
-    try (var bodyStream = response.body()) {
-      try (var fos = new FileOutputStream(gradleZip)) {
-        byte[] buffer = new byte[1024];
-        long totalRead = 0;
-        int read;
-
-        while ((read = bodyStream.read(buffer)) != -1) {
-          fos.write(buffer, 0, read);
-          totalRead += read;
-
-          int progress = (int) ((totalRead * 100) / contentLength);
-          int progressBarLength = 50;
-          int filledLength = (int) ((progress / 100.0) * progressBarLength);
-
-          String progressBar = "=".repeat(filledLength) + " ".repeat(progressBarLength - filledLength);
-
-          System.out.printf("\r[%s] %d%%", progressBar, progress);
-        }
-        System.out.println();
-      }
-    }
+    DownloadCache.defaultCache().fetch(GRADLE_DOWNLOAD_URL, gradleZip.toPath(), FileDownloader.Progress.console());
 
     if (!gradleZip.exists()) {
       throw new IOException("Failed to create Gradle zip file: " + gradleZip);
@@ -139,28 +103,21 @@ public abstract class GradleInstaller {
       }
 
       Scanner scanner = new Scanner(System.in);
-      SystemOutLogger.log("Please run: sudo chmod +x " + gradleExtractedDir + "/bin/gradle");
       SystemOutLogger.log("Please run: source ~/" + shellConfigFile);
-      SystemOutLogger.log("Do you want to run these commands now? (y/n)");
+      SystemOutLogger.log("Do you want to run this command now? (y/n)");
 
       String response = scanner.nextLine().trim().toLowerCase();
       if (response.equals("y") || response.equals("yes")) {
-        SystemOutLogger.log("Running the commands...");
-
-        Runtime.getRuntime().exec(new String[] {"sudo chmod +x " + gradleExtractedDir + "/bin/gradle"});
+        SystemOutLogger.log("Running the command...");
 
         String sourceCommand = "bash -c 'source ~/" + shellConfigFile + " && echo \"Source command executed\"'";
         Runtime.getRuntime().exec(new String[] {sourceCommand});
       } else {
-        SystemOutLogger.log("You can run the commands later.");
+        SystemOutLogger.log("You can run the command later.");
       }
 
       scanner.close();
     }
   }
-
-  private static long parseContentLengthToLong(String s) {
-    return s.isEmpty() ? 0 : Long.parseLong(s);
-  }
 }
 
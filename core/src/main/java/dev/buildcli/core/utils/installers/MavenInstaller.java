@@ -4,15 +4,12 @@ import dev.buildcli.core.log.SystemOutLogger;
 import dev.buildcli.core.utils.DirectoryCleanup;
 import dev.buildcli.core.utils.OS;
 import dev.buildcli.core.utils.compress.FileExtractor;
+import dev.buildcli.core.utils.net.DownloadCache;
+import dev.buildcli.core.utils.net.FileDownloader;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.file.Paths;
 
 public abstract class MavenInstaller {
@@ -27,27 +24,16 @@ public abstract class MavenInstaller {
   public static void installMaven() {
     SystemOutLogger.log("Installing Maven operation started...");
     try {
-      SystemOutLogger.log("Downloading Maven operation started...");
-      var file = downloadMaven();
-      SystemOutLogger.log("Downloading Maven operation finished...");
-
-      SystemOutLogger.log("Maven downloaded to " + file.getAbsolutePath());
       var outputFile = installProgramFilesDirectory();
       SystemOutLogger.log("Maven install path set to " + outputFile.getAbsolutePath());
 
-      SystemOutLogger.log("Extracting Maven operation started...");
-      extractMaven(file.getAbsolutePath(), outputFile.getAbsolutePath());
-      SystemOutLogger.log("Extracting Maven operation finished...");
+      SystemOutLogger.log("Downloading and extracting Maven operation started...");
+      downloadAndExtractMaven(outputFile);
+      SystemOutLogger.log("Downloading and extracting Maven operation finished...");
 
       SystemOutLogger.log("Configuring Maven path operation started...");
       configurePath(Paths.get(outputFile.getAbsolutePath(), MAVEN_NAME).toFile().getAbsolutePath());
       SystemOutLogger.log("Configuring Maven path operation finished...");
-
-      if (file.exists()) {
-        SystemOutLogger.log("Cleaning up maven download path...");
-        DirectoryCleanup.cleanup(file.getAbsolutePath());
-        SystemOutLogger.log("Cleaning up maven download path finished...");
-      }
     } catch (IOException | InterruptedException e) {
       throw new RuntimeException(e);
     }
@@ -65,29 +51,22 @@ public abstract class MavenInstaller {
     }
   }
 
+  /**
+   * Extracts the Maven distribution through the download cache, without writing the archive to the
+   * working directory. A partial or unverified installation is removed on failure.
+   */
+  public static void downloadAndExtractMaven(File extractTo) throws IOException, InterruptedException {
+    var url = MAVEN_DOWNLOAD_URL + (OS.isWindows() ? "zip" : "tar.gz");
+    SystemOutLogger.log("Downloading Maven artifact from: " + url);
+    Distributions.downloadAndExtract(url, extractTo, MAVEN_NAME);
+  }
+
   public static File downloadMaven() throws IOException, InterruptedException {
     var isWindows = OS.isWindows();
     var url = MAVEN_DOWNLOAD_URL + (isWindows ? "zip" : "tar.gz");
-    var request = HttpRequest.newBuilder().uri(URI.create(url)).GET().build();
 
     SystemOutLogger.log("Downloading Maven artifact from: " + url);
 
-    var client = HttpClient.newHttpClient();
-
-    SystemOutLogger.log("Connecting to " + url);
-    var response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
-    SystemOutLogger.log("Connected to " + url);
-
-    if (response.statusCode() != 200) {
-      throw new IOException("Failed to download maven artifact: " + response.statusCode());
-    }
-
-    long contentLength = response.headers().firstValue("Content-Length").map(MavenInstaller::parseContentLengthToLong).orElse(0L);
-
-    if (contentLength == 0L) {
-      throw new IOException("Failed to download maven artifact: " + response.statusCode());
-    }
-
     var mavenInstallDir = new File(MAVEN_NAME + (isWindows ? ".zip" : ".tar.gz"));
 
     if (mavenInstallDir.exists()) {
@@ -95,28 +74,7 @@ public abstract class MavenInstaller {
       DirectoryCleanup.cleanup(mavenInstallDir.getAbsolutePath());
     }
 
-    try (var bodyStream = response.body()) {
-      try (var fos = new FileOutputStream(mavenInstallDir)) {
-        byte[] buffer = new byte[1024];
-        long totalRead = 0;
-        int read;
-
-        while ((read = bodyStream.read(buffer)) != -1) {
-          fos.write(buffer, 0, read);
-          totalRead += read;
-
-          int progress = (int) ((totalRead * 100) / contentLength);
-          int progressBarLength = 50;
-          int filledLength = (int) ((progress / 100.0) * progressBarLength);
-
-          String progressBar = "=".repeat(filledLength) + " ".repeat(progressBarLength - filledLength);
-
-          System.out.printf("\r[%s] %d%%", progressBar, progress);
-        }
-        System.out.println();
-      }
-    }
-
+    DownloadCache.defaultCache().fetch(url, mavenInstallDir.toPath(), FileDownloader.Progress.console());
 
     if (!mavenInstallDir.exists()) {
       throw new IOException("Failed to create maven download directory: " + mavenInstallDir);
@@ -125,10 +83,6 @@ public abstract class MavenInstaller {
     return mavenInstallDir;
   }
 
-  private static long parseContentLengthToLong(String s) {
-    return s.isEmpty() ? 0 : Long.parseLong(s);
-  }
-
   public static void extractMaven(String filePath, String extractTo) throws IOException, InterruptedException {
     FileExtractor.extractFile(filePath, extractTo);
   }
@@ -143,7 +97,6 @@ public abstract class MavenInstaller {
         fw.write("\nexport PATH=$PATH:" + mavenBinPath + "/bin\n");
       }
       SystemOutLogger.log("Please run: source ~/.bashrc");
-      SystemOutLogger.log("Please run: sudo chmod +x " + mavenBinPath + "/bin/mvn\n");
     }
   }
 }
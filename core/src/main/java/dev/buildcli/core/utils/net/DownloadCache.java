@@ -0,0 +1,546 @@
+package dev.buildcli.core.utils.net;
+
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.exceptions.DownloadFailedException;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A content-addressed cache of downloaded files under {@code ~/.buildcli/cache/downloads}.
+ *
+ * <p>Content lives once in {@code blobs/<sha256>}; {@code sha512/<hash>} points SHA-512 digests at
+ * their blob and {@code entries/} maps each URL to its blob and the file name the server gave it.
+ * A fetch first looks for a checksum: the one the caller passes, or the {@code .sha512} /
+ * {@code .sha256} file published next to the URL. With a checksum, a blob with that hash is a hit whatever URL it came from; without one, the
+ * URL entry is trusted, so only immutable URLs should be fetched without a published checksum.
+ * Every download is verified before it enters the cache and a mismatch fails the fetch.</p>
+ *
+ * <p>Hits are hard linked to the target, falling back to a copy across file systems (the JDK has no
+ * reflink call). Since a target edited in place would change the blob too, blobs are re-hashed on
+ * every hit and dropped when they no longer match. Entries are rewritten on every use and the least
+ * recently used ones are evicted once the blobs exceed the size budget. All writes are atomic moves,
+ * so the directory can be shared by several processes or machines.</p>
+ */
+public final class DownloadCache {
+  public static final Path DEFAULT_DIRECTORY = Path.of(System.getProperty("user.home"), ".buildcli", "cache",
+      "downloads");
+  public static final long DEFAULT_MAX_SIZE = 2048L * 1024 * 1024;
+
+  private static final Logger log = LoggerFactory.getLogger(DownloadCache.class);
+  private static final Duration CHECKSUM_TIMEOUT = Duration.ofSeconds(15);
+  private static final String SHA256 = "sha256";
+  private static final String SHA512 = "sha512";
+  private static final String FILE_NAME = "fileName";
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final Path directory;
+  private final long maxSize;
+
+  public DownloadCache(Path directory, long maxSize) {
+    this.directory = directory;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * The cache configured by {@code buildcli.cache.downloads.path} and
+   * {@code buildcli.cache.downloads.max-size-mb}.
+   */
+  public static DownloadCache defaultCache() {
+    var configs = ConfigContextLoader.getAllConfigs();
+    var path = configs.getProperty(ConfigDefaultConstants.DOWNLOAD_CACHE_PATH).map(Path::of).orElse(DEFAULT_DIRECTORY);
+    var maxSize = configs.getPropertyAsInt(ConfigDefaultConstants.DOWNLOAD_CACHE_MAX_SIZE)
+        .map(megabytes -> megabytes * 1024L * 1024).orElse(DEFAULT_MAX_SIZE);
+    return new DownloadCache(path, maxSize);
+  }
+
+  /**
+   * An expected digest; {@code algorithm} is {@code sha256} or {@code sha512}.
+   */
+  public record Checksum(String algorithm, String hex) {
+    public Checksum {
+      algorithm = algorithm.toLowerCase(Locale.ROOT);
+      hex = hex.toLowerCase(Locale.ROOT);
+      if (!SHA256.equals(algorithm) && !SHA512.equals(algorithm)) {
+        throw new IllegalArgumentException("Unsupported checksum algorithm: " + algorithm);
+      }
+    }
+
+    public static Checksum sha256(String hex) {
+      return new Checksum(SHA256, hex);
+    }
+
+    public static Checksum sha512(String hex) {
+      return new Checksum(SHA512, hex);
+    }
+
+    /**
+     * Reads a checksum file, which holds the hex digest optionally followed by a file name.
+     */
+    static Checksum parse(String algorithm, String content) {
+      var tokens = content.trim().split("\\s+");
+      var hex = tokens.length == 0 ? "" : tokens[0];
+      var expectedLength = SHA256.equals(algorithm) ? 64 : 128;
+      if (hex.length() != expectedLength || !hex.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+        return null;
+      }
+      return new Checksum(algorithm, hex);
+    }
+  }
+
+  public Path fetch(String url, Path target, FileDownloader.Progress progress) throws IOException, InterruptedException {
+    return fetch(url, target, null, progress);
+  }
+
+  /**
+   * Places the content of {@code url} at {@code target}, from the cache when possible.
+   *
+   * @param expected the digest the content must have, or {@code null} to use the published one
+   * @throws DownloadFailedException when the downloaded content does not match the checksum
+   */
+  public Path fetch(String url, Path target, Checksum expected, FileDownloader.Progress progress)
+      throws IOException, InterruptedException {
+    return fetch(url, expected, progress, name -> target);
+  }
+
+  /**
+   * Places the content of {@code url} in {@code directory}, from the cache when possible, under the
+   * name the server gave it in {@code Content-Disposition} or else the last segment of the URL path.
+   * Cache hits reuse the name recorded when the URL was downloaded.
+   */
+  public Path fetchInto(String url, Path directory, FileDownloader.Progress progress)
+      throws IOException, InterruptedException {
+    return fetch(url, null, progress, directory::resolve);
+  }
+
+  private Path fetch(String url, Checksum expected, FileDownloader.Progress progress, Function<String, Path> target)
+      throws IOException, InterruptedException {
+    var checksum = expected != null ? expected : published(url);
+
+    var entry = entryFile(url);
+    var cached = cached(url, checksum);
+    if (cached != null) {
+      var name = readEntry(entry, FILE_NAME);
+      return link(blob(cached), target.apply(name != null ? name : FileDownloader.fileName(URI.create(url))));
+    }
+
+    var downloaded = download(url, checksum, progress);
+    writeEntry(entry, url, downloaded.sha256(), downloaded.fileName());
+    var result = link(blob(downloaded.sha256()), target.apply(downloaded.fileName()));
+    evict();
+    return result;
+  }
+
+  /**
+   * A download that entered the cache, with the name the server gave it.
+   */
+  private record Downloaded(String sha256, String fileName) { }
+
+  /**
+   * Downloads into the cache and checks the content.
+   */
+  private Downloaded download(String url, Checksum checksum, FileDownloader.Progress progress)
+      throws IOException, InterruptedException {
+    var temp = Files.createDirectories(directory.resolve("tmp"));
+    var file = Files.createTempFile(temp, "download", ".tmp");
+    try {
+      var fileName = FileDownloader.downloadNamed(url, file, progress);
+
+      var sha256 = messageDigest("SHA-256");
+      var sha512 = messageDigest("SHA-512");
+      try (InputStream in = Files.newInputStream(file)) {
+        var buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          sha256.update(buffer, 0, read);
+          sha512.update(buffer, 0, read);
+        }
+      }
+      return new Downloaded(store(url, file, sha256, sha512, checksum), fileName);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Opens the content of {@code url} for reading, from the cache when possible.
+   *
+   * <p>On a miss the content is streamed: the caller reads the response body as it arrives while
+   * it is hashed and written into the cache on the side. Closing the stream reads whatever the
+   * caller left unread, checks the checksum and only then adds the content to the cache, so a
+   * {@link DownloadFailedException} from {@code close()} means the bytes read were not the expected
+   * ones and anything produced from them should be discarded.</p>
+   *
+   * @param expected the digest the content must have, or {@code null} to use the published one
+   */
+  public InputStream open(String url, Checksum expected, FileDownloader.Progress progress)
+      throws IOException, InterruptedException {
+    var checksum = expected != null ? expected : published(url);
+
+    var cached = cached(url, checksum);
+    if (cached != null) {
+      return Files.newInputStream(blob(cached));
+    }
+
+    var temp = Files.createDirectories(directory.resolve("tmp"));
+    var file = Files.createTempFile(temp, "download", ".tmp");
+    try {
+      return new CachingInputStream(FileDownloader.open(url, progress), url, file, checksum);
+    } catch (IOException | InterruptedException | RuntimeException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the SHA-256 of a valid cached copy of {@code url}, recording the use, or {@code null}.
+   */
+  private String cached(String url, Checksum checksum) throws IOException {
+    var entry = entryFile(url);
+    var recorded = readEntry(entry, SHA256);
+    var cached = checksum != null ? lookup(checksum) : recorded;
+    if (cached == null || !Files.isRegularFile(blob(cached))) {
+      return null;
+    }
+    if (!cached.equals(sha256(blob(cached)))) {
+      log.warn("Discarding corrupt cache entry {}", blob(cached));
+      Files.deleteIfExists(blob(cached));
+      return null;
+    }
+
+    log.info("Using cached download of {}", url);
+    writeEntry(entry, url, cached, cached.equals(recorded) ? readEntry(entry, FILE_NAME) : null);
+    return cached;
+  }
+
+  /**
+   * Checks a downloaded file against the checksum and moves it into the blobs.
+   */
+  private String store(String url, Path file, MessageDigest sha256, MessageDigest sha512, Checksum checksum)
+      throws IOException {
+    var hash = HexFormat.of().formatHex(sha256.digest());
+    var hash512 = HexFormat.of().formatHex(sha512.digest());
+
+    if (checksum != null) {
+      var actual = SHA256.equals(checksum.algorithm()) ? hash : hash512;
+      if (!actual.equals(checksum.hex())) {
+        throw new DownloadFailedException("Checksum mismatch for %s: expected %s %s but got %s"
+            .formatted(url, checksum.algorithm(), checksum.hex(), actual));
+      }
+    }
+
+    Files.createDirectories(blob(hash).getParent());
+    move(file, blob(hash));
+    write(directory.resolve(SHA512).resolve(hash512), hash);
+    return hash;
+  }
+
+  /**
+   * Fetches the {@code .sha512} or {@code .sha256} file published next to {@code url}, if any.
+   */
+  private Checksum published(String url) throws InterruptedException {
+    for (var algorithm : List.of(SHA512, SHA256)) {
+      try {
+        var request = HttpRequest.newBuilder(URI.create(url + "." + algorithm)).GET().timeout(CHECKSUM_TIMEOUT).build();
+        var response = FileDownloader.client().send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 200) {
+          var checksum = Checksum.parse(algorithm, response.body());
+          if (checksum != null) {
+            return checksum;
+          }
+        }
+      } catch (IOException | IllegalArgumentException e) {
+        log.debug("No {} checksum for {}", algorithm, url, e);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the SHA-256 of the blob with the given checksum, or {@code null} when not cached.
+   */
+  private String lookup(Checksum checksum) {
+    if (SHA256.equals(checksum.algorithm())) {
+      return checksum.hex();
+    }
+
+    try {
+      return Files.readString(directory.resolve(SHA512).resolve(checksum.hex()), StandardCharsets.UTF_8).trim();
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private static Path link(Path blob, Path target) throws IOException {
+    var parent = target.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    Files.deleteIfExists(target);
+
+    try {
+      return Files.createLink(target, blob);
+    } catch (IOException | UnsupportedOperationException e) {
+      return Files.copy(blob, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Removes blobs no entry refers to, then the least recently used entries and their blobs, until
+   * the blobs fit in the budget.
+   */
+  synchronized void evict() throws IOException {
+    var blobs = list(directory.resolve("blobs"));
+    var total = 0L;
+    for (var blob : blobs) {
+      total += Files.size(blob);
+    }
+    if (total <= maxSize) {
+      return;
+    }
+
+    var entries = new ArrayList<>(list(directory.resolve("entries")));
+    entries.sort(Comparator.comparing(DownloadCache::lastUsed));
+    var references = new HashMap<String, Integer>();
+    var hashes = new HashMap<Path, String>();
+    for (var entry : entries) {
+      var hash = readEntry(entry, SHA256);
+      if (hash != null) {
+        hashes.put(entry, hash);
+        references.merge(hash, 1, Integer::sum);
+      }
+    }
+
+    for (var blob : blobs) {
+      if (total > maxSize && !references.containsKey(blob.getFileName().toString())) {
+        total -= Files.size(blob);
+        Files.deleteIfExists(blob);
+      }
+    }
+
+    for (var entry : entries) {
+      if (total <= maxSize) {
+        break;
+      }
+      Files.deleteIfExists(entry);
+      var hash = hashes.get(entry);
+      if (hash != null && references.merge(hash, -1, Integer::sum) == 0 && Files.exists(blob(hash))) {
+        log.debug("Evicting {} from the download cache", hash);
+        total -= Files.size(blob(hash));
+        Files.deleteIfExists(blob(hash));
+      }
+    }
+
+    for (var pointer : list(directory.resolve(SHA512))) {
+      var hash = lookup(Checksum.sha512(pointer.getFileName().toString()));
+      if (hash == null || !Files.exists(blob(hash))) {
+        Files.deleteIfExists(pointer);
+      }
+    }
+  }
+
+  private Path blob(String sha256) {
+    return directory.resolve("blobs").resolve(sha256);
+  }
+
+  private Path entryFile(String url) {
+    var hash = messageDigest("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+    return directory.resolve("entries").resolve(HexFormat.of().formatHex(hash, 0, 20) + ".properties");
+  }
+
+  /**
+   * Returns a property recorded for an entry, such as its SHA-256, or {@code null}.
+   */
+  private static String readEntry(Path entry, String property) {
+    if (!Files.isRegularFile(entry)) {
+      return null;
+    }
+
+    var properties = new Properties();
+    try (InputStream in = Files.newInputStream(entry)) {
+      properties.load(in);
+      return properties.getProperty(property);
+    } catch (IOException | IllegalArgumentException e) {
+      log.debug("Ignoring unreadable cache entry {}", entry, e);
+      return null;
+    }
+  }
+
+  /**
+   * Records which blob {@code url} resolved to; rewriting the entry also marks it as used.
+   */
+  private void writeEntry(Path entry, String url, String sha256, String fileName) {
+    var properties = new Properties();
+    properties.setProperty("url", url);
+    properties.setProperty(SHA256, sha256);
+    if (fileName != null) {
+      properties.setProperty(FILE_NAME, fileName);
+    }
+
+    try {
+      Files.createDirectories(entry.getParent());
+      var temp = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), ".tmp");
+      try (OutputStream out = Files.newOutputStream(temp)) {
+        properties.store(out, "BuildCLI download cache entry");
+      }
+      move(temp, entry);
+    } catch (IOException e) {
+      log.debug("Could not write cache entry {}", entry, e);
+    }
+  }
+
+  private void write(Path file, String content) throws IOException {
+    Files.createDirectories(file.getParent());
+    var temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+    Files.writeString(temp, content, StandardCharsets.UTF_8);
+    move(temp, file);
+  }
+
+  private static List<Path> list(Path directory) throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> !file.getFileName().toString().endsWith(".tmp")).toList();
+    }
+  }
+
+  private static FileTime lastUsed(Path entry) {
+    try {
+      return Files.getLastModifiedTime(entry);
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+
+  private static void move(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static String sha256(Path file) throws IOException {
+    var digest = messageDigest("SHA-256");
+    try (InputStream in = Files.newInputStream(file)) {
+      var buffer = new byte[BUFFER_SIZE];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * Copies what is read into a cache file and commits it on close.
+   */
+  private final class CachingInputStream extends FilterInputStream {
+    private final String url;
+    private final Path file;
+    private final Checksum checksum;
+    private final OutputStream copy;
+    private final MessageDigest sha256 = messageDigest("SHA-256");
+    private final MessageDigest sha512 = messageDigest("SHA-512");
+    private boolean closed;
+
+    private CachingInputStream(InputStream body, String url, Path file, Checksum checksum) throws IOException {
+      super(body);
+      this.url = url;
+      this.file = file;
+      this.checksum = checksum;
+      this.copy = Files.newOutputStream(file);
+    }
+
+    @Override
+    public int read() throws IOException {
+      var value = in.read();
+      if (value >= 0) {
+        copy.write(value);
+        sha256.update((byte) value);
+        sha512.update((byte) value);
+      }
+      return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      var read = in.read(buffer, offset, length);
+      if (read > 0) {
+        copy.write(buffer, offset, read);
+        sha256.update(buffer, offset, read);
+        sha512.update(buffer, offset, read);
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      return Math.max(0, read(new byte[(int) Math.max(0, Math.min(n, BUFFER_SIZE))]));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+
+      // whatever the caller left unread, such as the zip central directory, still belongs in the cache
+      try (copy) {
+        var buffer = new byte[BUFFER_SIZE];
+        while (read(buffer, 0, buffer.length) != -1) {
+          continue;
+        }
+      } catch (IOException e) {
+        Files.deleteIfExists(file);
+        throw e;
+      } finally {
+        in.close();
+      }
+
+      try {
+        var hash = store(url, file, sha256, sha512, checksum);
+        writeEntry(entryFile(url), url, hash, null);
+        evict();
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+
+  private static MessageDigest messageDigest(String algorithm) {
+    try {
+      return MessageDigest.getInstance(algorithm);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
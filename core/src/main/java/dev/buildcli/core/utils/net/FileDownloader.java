@@ -1,82 +1,523 @@
 package dev.buildcli.core.utils.net;
 
 import dev.buildcli.core.exceptions.DownloadFailedException;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+/**
+ * Downloads files over one shared HTTP/2 client.
+ *
+ * <p>When the server announces the size and accepts byte ranges, a large file is split into up to
+ * {@value #MAX_SEGMENTS} segments fetched in parallel, each written in place with positional
+ * {@link FileChannel} writes into a pre-sized {@code .part} file. The first segment to fail
+ * interrupts the others. Segment progress is kept next to
+ * it in {@code .part.properties}, so a download that failed or was interrupted resumes where each
+ * segment stopped, as long as the server still reports the same size and validator
+ * ({@code ETag} or {@code Last-Modified}). Servers without range support, or without a
+ * {@code Content-Length}, get a single streamed request.</p>
+ *
+ * <p>Progress is reported at most every {@value #PROGRESS_INTERVAL_MILLIS} ms, plus once on
+ * completion.</p>
+ */
 public final class FileDownloader {
   private static final Logger log = LoggerFactory.getLogger(FileDownloader.class);
 
+  static final long MIN_SEGMENT_SIZE = 4L * 1024 * 1024;
+  static final int MAX_SEGMENTS = 6;
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final long PROGRESS_INTERVAL_MILLIS = 250;
+  private static final long CHECKPOINT_BYTES = 8L * 1024 * 1024;
+  private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(2);
+  private static final String PART_SUFFIX = ".part";
+  private static final String STATE_SUFFIX = ".part.properties";
+
   private FileDownloader(){ }
 
-  public static File download(String url) throws DownloadFailedException {
-    try (var client = HttpClient.newHttpClient()) {
-      var request = HttpRequest.newBuilder().GET().uri(URI.create(url)).timeout(Duration.ofMinutes(30)).build();
+  /**
+   * Receives the number of bytes downloaded so far and the total size, {@code -1} when unknown.
+   */
+  @FunctionalInterface
+  public interface Progress {
+    void update(long downloaded, long total);
+
+    /**
+     * A progress bar redrawn in place on standard output.
+     */
+    static Progress console() {
+      return (downloaded, total) -> {
+        if (total <= 0) {
+          System.out.printf("\rDownloaded %d KB", downloaded / 1024);
+        } else {
+          System.out.printf("\r[%s] %d%%", bar(downloaded, total), percent(downloaded, total));
+        }
+        if (downloaded == total) {
+          System.out.println();
+        }
+      };
+    }
+  }
 
+  /**
+   * Downloads {@code url} into the working directory, naming the file after the
+   * {@code Content-Disposition} header or, without one, after the last segment of the URL path.
+   */
+  public static File download(String url) throws DownloadFailedException {
+    try {
+      var uri = URI.create(url);
       log.info("Connecting to {}", url);
-      var response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+      var remote = probe(uri);
       log.info("Connected to {}", url);
 
+      var target = Path.of(remote.fileName() != null ? remote.fileName() : fileName(uri));
+      var served = transfer(remote, target, MIN_SEGMENT_SIZE, MAX_SEGMENTS, logProgress());
+      if (served != null && !served.equals(target.toString())) {
+        target = Files.move(target, Path.of(served), StandardCopyOption.REPLACE_EXISTING);
+      }
+
+      log.info("Download completed successfully. File saved as: {}", target);
+      return target.toFile();
+    } catch (IOException | IllegalArgumentException e) {
+      throw new DownloadFailedException(e.getMessage(), e);
+    } catch (InterruptedException e) {
+      log.error("Thread was interrupted. Cleanup performed. {}", e.getMessage());
+      Thread.currentThread().interrupt();
+    }
+    return null;
+  }
+
+  public static Path download(String url, Path target, Progress progress) throws IOException, InterruptedException {
+    return download(URI.create(url), target, MIN_SEGMENT_SIZE, MAX_SEGMENTS, progress);
+  }
+
+  /**
+   * Opens the body of {@code url} as a stream that can be consumed while it is still arriving; the
+   * client keeps receiving into its buffers while the caller works on what it has read. Progress is
+   * reported as the stream is read.
+   */
+  public static InputStream open(String url, Progress progress) throws IOException, InterruptedException {
+    var request = HttpRequest.newBuilder(URI.create(url)).GET().timeout(REQUEST_TIMEOUT).build();
+    var response = client().send(request, HttpResponse.BodyHandlers.ofInputStream());
+    if (response.statusCode() != 200) {
+      response.body().close();
+      throw new IOException("Failed to download file: " + response.statusCode());
+    }
+
+    var reporter = new Reporter(progress, contentLength(response.headers()));
+    return new FilterInputStream(response.body()) {
+      private boolean done;
+
+      @Override
+      public int read() throws IOException {
+        var value = super.read();
+        count(value < 0 ? -1 : 1);
+        return value;
+      }
+
+      @Override
+      public int read(byte[] buffer, int offset, int length) throws IOException {
+        var read = super.read(buffer, offset, length);
+        count(read);
+        return read;
+      }
+
+      private void count(int read) {
+        if (read > 0) {
+          reporter.add(read);
+        } else if (read < 0 && !done) {
+          done = true;
+          reporter.done();
+        }
+      }
+    };
+  }
+
+  /**
+   * Downloads {@code url} to {@code target} and returns the name the server gave the file in
+   * {@code Content-Disposition}, or the last segment of the URL path when it gave none.
+   */
+  static String downloadNamed(String url, Path target, Progress progress) throws IOException, InterruptedException {
+    var uri = URI.create(url);
+    var served = transfer(probe(uri), target, MIN_SEGMENT_SIZE, MAX_SEGMENTS, progress);
+    return served != null ? served : fileName(uri);
+  }
+
+  static Path download(URI uri, Path target, long minSegmentSize, int maxSegments, Progress progress)
+      throws IOException, InterruptedException {
+    transfer(probe(uri), target, minSegmentSize, maxSegments, progress);
+    return target;
+  }
+
+  static HttpClient client() {
+    return ClientHolder.CLIENT;
+  }
+
+  /**
+   * Downloads into {@code target} and returns the file name the server suggested, if any.
+   */
+  private static String transfer(Remote remote, Path target, long minSegmentSize, int maxSegments, Progress progress)
+      throws IOException, InterruptedException {
+    var reporter = new Reporter(progress, remote.length());
+    var part = sibling(target, PART_SUFFIX);
+    var state = sibling(target, STATE_SUFFIX);
+    if (target.toAbsolutePath().getParent() != null) {
+      Files.createDirectories(target.toAbsolutePath().getParent());
+    }
+
+    var served = remote.fileName();
+    var segmented = remote.length() > 0 && remote.acceptsRanges();
+    if (segmented) {
+      try {
+        fetchSegments(remote, part, state, minSegmentSize, maxSegments, reporter);
+      } catch (RangeIgnoredException e) {
+        log.debug("{} ignored the range request, downloading in one piece", remote.uri());
+        segmented = false;
+      }
+    }
+    if (!segmented) {
+      Files.deleteIfExists(state);
+      var name = fetchWhole(remote, part, reporter);
+      served = name != null ? name : served;
+    }
+
+    try {
+      Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+    Files.deleteIfExists(state);
+    reporter.done();
+    return served;
+  }
+
+  /**
+   * Asks for the size, range support and validator of {@code uri} with a {@code HEAD} request,
+   * following redirects once so that segments go straight to the final location.
+   */
+  private static Remote probe(URI uri) throws IOException, InterruptedException {
+    var request = HttpRequest.newBuilder(uri).method("HEAD", HttpRequest.BodyPublishers.noBody())
+        .timeout(REQUEST_TIMEOUT).build();
+
+    HttpResponse<Void> response;
+    try {
+      response = client().send(request, HttpResponse.BodyHandlers.discarding());
+    } catch (IOException e) {
+      log.debug("HEAD {} failed, falling back to a plain GET", uri, e);
+      return new Remote(uri, -1, false, null, null);
+    }
+
+    if (response.statusCode() == 404 || response.statusCode() == 410) {
+      throw new IOException("Failed to download file: " + response.statusCode());
+    }
+    if (response.statusCode() != 200) {
+      return new Remote(uri, -1, false, null, null);
+    }
+
+    var headers = response.headers();
+    return new Remote(response.uri(), contentLength(headers),
+        headers.firstValue("Accept-Ranges").map(value -> value.contains("bytes")).orElse(false),
+        headers.firstValue("ETag").or(() -> headers.firstValue("Last-Modified")).orElse(null),
+        fileName(headers));
+  }
+
+  private static String fetchWhole(Remote remote, Path part, Reporter reporter) throws IOException, InterruptedException {
+    var request = HttpRequest.newBuilder(remote.uri()).GET().timeout(REQUEST_TIMEOUT).build();
+    var response = client().send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+    try (InputStream body = response.body()) {
       if (response.statusCode() != 200) {
         throw new IOException("Failed to download file: " + response.statusCode());
       }
+      reporter.total(contentLength(response.headers()));
 
-      long contentLength = response.headers().firstValue("Content-Length").map(s -> s.isEmpty() ? 0 : Long.parseLong(s)).orElse(0L);
+      try (OutputStream out = Files.newOutputStream(part)) {
+        var buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+          out.write(buffer, 0, read);
+          reporter.add(read);
+        }
+      }
+    }
+    return fileName(response.headers());
+  }
+
+  private static void fetchSegments(Remote remote, Path part, Path state, long minSegmentSize, int maxSegments,
+                                    Reporter reporter) throws IOException, InterruptedException {
+    var length = remote.length();
+    var count = (int) Math.max(1, Math.min(maxSegments, length / minSegmentSize));
+    var segmentSize = (length + count - 1) / count;
+    count = (int) ((length + segmentSize - 1) / segmentSize);
 
-      if (contentLength == 0L) {
-        throw new IOException("Failed to download maven artifact: " + response.statusCode());
+    var done = resume(remote, part, state, segmentSize, count);
+    if (done == null) {
+      done = new AtomicLongArray(count);
+      try (var channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING)) {
+        channel.write(ByteBuffer.allocate(1), length - 1);
       }
+    }
+    for (int i = 0; i < count; i++) {
+      reporter.add(done.get(i));
+    }
 
-      var contentDisposition = response.headers().firstValue("Content-disposition");
+    var completed = done;
+    try (var channel = FileChannel.open(part, StandardOpenOption.WRITE);
+         var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var segments = new ExecutorCompletionService<Void>(executor);
+      for (int i = 0; i < count; i++) {
+        var start = i * segmentSize;
+        var end = Math.min(length, start + segmentSize) - 1;
+        var index = i;
+        segments.submit(() -> {
+          fetchSegment(remote, channel, index, start, end, completed, state, segmentSize, reporter);
+          return null;
+        });
+      }
 
-      if (contentDisposition.isEmpty()) {
-        throw new IOException("Failed to download file: " + response.statusCode());
+      try {
+        for (int i = 0; i < count; i++) {
+          segments.take().get();
+        }
+      } catch (ExecutionException e) {
+        executor.shutdownNow();
+        var cause = e.getCause();
+        if (cause instanceof IOException io) {
+          throw io;
+        }
+        if (cause instanceof InterruptedException interrupted) {
+          throw interrupted;
+        }
+        throw new IOException(cause);
+      } catch (InterruptedException e) {
+        executor.shutdownNow();
+        throw e;
       }
+    } finally {
+      saveState(remote, state, segmentSize, completed);
+    }
+  }
+
+  private static void fetchSegment(Remote remote, FileChannel channel, int index, long start, long end,
+                                   AtomicLongArray done, Path state, long segmentSize, Reporter reporter)
+      throws IOException, InterruptedException {
+    var position = start + done.get(index);
+    if (position > end) {
+      return;
+    }
 
-      var filename = contentDisposition.map(s -> s.split("=")[1].replace("\"", "")).orElse("");
+    var builder = HttpRequest.newBuilder(remote.uri()).GET().timeout(REQUEST_TIMEOUT)
+        .header("Range", "bytes=" + position + "-" + end);
+    if (remote.validator() != null) {
+      builder.header("If-Range", remote.validator());
+    }
 
-      if (filename.isEmpty()) {
+    var response = client().send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+    try (InputStream body = response.body()) {
+      if (response.statusCode() == 200) {
+        throw new RangeIgnoredException();
+      }
+      if (response.statusCode() != 206) {
         throw new IOException("Failed to download file: " + response.statusCode());
       }
 
-      var file = new File(filename);
+      var buffer = new byte[BUFFER_SIZE];
+      var sinceCheckpoint = 0L;
+      int read;
+      while (position <= end && (read = body.read(buffer, 0, (int) Math.min(BUFFER_SIZE, end - position + 1))) > 0) {
+        var chunk = ByteBuffer.wrap(buffer, 0, read);
+        while (chunk.hasRemaining()) {
+          position += channel.write(chunk, position);
+        }
+        done.addAndGet(index, read);
+        reporter.add(read);
 
-      try (var bodyStream = response.body()) {
-        try (var fos = new FileOutputStream(file)) {
-          byte[] buffer = new byte[1024];
-          long totalRead = 0;
-          int read;
+        sinceCheckpoint += read;
+        if (sinceCheckpoint >= CHECKPOINT_BYTES) {
+          saveState(remote, state, segmentSize, done);
+          sinceCheckpoint = 0;
+        }
+      }
+    }
 
-          while ((read = bodyStream.read(buffer)) != -1) {
-            fos.write(buffer, 0, read);
-            totalRead += read;
+    if (position <= end) {
+      throw new IOException("Connection closed after %d of %d bytes of segment %d"
+          .formatted(position - start, end - start + 1, index));
+    }
+  }
 
-            int progress = (int) ((totalRead * 100) / contentLength);
-            int progressBarLength = 50;
-            int filledLength = (int) ((progress / 100.0) * progressBarLength);
+  /**
+   * Returns the progress of a previous attempt at the same file, or {@code null} to start over.
+   */
+  private static AtomicLongArray resume(Remote remote, Path part, Path state, long segmentSize, int count) {
+    if (!Files.isRegularFile(state) || !Files.isRegularFile(part)) {
+      return null;
+    }
 
-            String progressBar = "=".repeat(filledLength) + " ".repeat(progressBarLength - filledLength);
-            log.info("Download progress: [{}] {}%", progressBar, progress);
-          }
-        }
+    var properties = new Properties();
+    try (InputStream in = Files.newInputStream(state)) {
+      properties.load(in);
+      if (!remote.uri().toString().equals(properties.getProperty("url"))
+          || remote.validator() == null || !remote.validator().equals(properties.getProperty("validator"))
+          || remote.length() != Long.parseLong(properties.getProperty("length", "-1"))
+          || segmentSize != Long.parseLong(properties.getProperty("segmentSize", "-1"))
+          || Files.size(part) != remote.length()) {
+        return null;
+      }
+
+      var done = new AtomicLongArray(count);
+      for (int i = 0; i < count; i++) {
+        done.set(i, Long.parseLong(properties.getProperty("segment." + i, "0")));
       }
-      log.info("Download completed successfully. File saved as: {}", filename);
-      return file;
+      log.info("Resuming download of {}", remote.uri());
+      return done;
+    } catch (IOException | RuntimeException e) {
+      log.debug("Ignoring unreadable download state {}", state, e);
+      return null;
+    }
+  }
+
+  private static synchronized void saveState(Remote remote, Path state, long segmentSize, AtomicLongArray done) {
+    var properties = new Properties();
+    properties.setProperty("url", remote.uri().toString());
+    properties.setProperty("length", Long.toString(remote.length()));
+    properties.setProperty("segmentSize", Long.toString(segmentSize));
+    if (remote.validator() != null) {
+      properties.setProperty("validator", remote.validator());
+    }
+    for (int i = 0; i < done.length(); i++) {
+      properties.setProperty("segment." + i, Long.toString(done.get(i)));
+    }
+
+    try (OutputStream out = Files.newOutputStream(state)) {
+      properties.store(out, "BuildCLI partial download");
     } catch (IOException e) {
-      throw new DownloadFailedException(e.getMessage());
-    } catch (InterruptedException e) {
-      log.error("Thread was interrupted. Cleanup performed. {}", e.getMessage());
-      Thread.currentThread().interrupt();
+      log.debug("Could not save download state {}", state, e);
     }
-    return null;
+  }
+
+  private static long contentLength(HttpHeaders headers) {
+    return headers.firstValue("Content-Length").map(value -> value.isBlank() ? -1 : Long.parseLong(value.trim()))
+        .orElse(-1L);
+  }
+
+  private static String fileName(HttpHeaders headers) {
+    return headers.firstValue("Content-Disposition")
+        .flatMap(value -> {
+          var index = value.indexOf("filename=");
+          return index < 0 ? Optional.empty()
+              : Optional.of(value.substring(index + 9).split(";")[0].replace("\"", "").trim());
+        })
+        .filter(name -> !name.isEmpty())
+        .map(name -> Path.of(name).getFileName().toString())
+        .orElse(null);
+  }
+
+  static String fileName(URI uri) {
+    var path = uri.getPath();
+    var name = path == null ? "" : path.substring(path.lastIndexOf('/') + 1);
+    return name.isEmpty() ? "download" : name;
+  }
+
+  private static Path sibling(Path target, String suffix) {
+    return target.resolveSibling(target.getFileName() + suffix);
+  }
+
+  private static Progress logProgress() {
+    return (downloaded, total) -> {
+      if (total <= 0) {
+        log.info("Download progress: {} KB", downloaded / 1024);
+      } else {
+        log.info("Download progress: [{}] {}%", bar(downloaded, total), percent(downloaded, total));
+      }
+    };
+  }
+
+  private static int percent(long downloaded, long total) {
+    return (int) (downloaded * 100 / total);
+  }
+
+  private static String bar(long downloaded, long total) {
+    int progressBarLength = 50;
+    int filledLength = (int) (percent(downloaded, total) / 100.0 * progressBarLength);
+    return "=".repeat(filledLength) + " ".repeat(progressBarLength - filledLength);
+  }
+
+  private record Remote(URI uri, long length, boolean acceptsRanges, String validator, String fileName) { }
+
+  /**
+   * Forwards progress from any number of segments to a {@link Progress}, at most once per
+   * interval.
+   */
+  private static final class Reporter {
+    private final Progress progress;
+    private final AtomicLong downloaded = new AtomicLong();
+    private final AtomicLong lastReport = new AtomicLong(System.nanoTime());
+    private volatile long total;
+
+    private Reporter(Progress progress, long total) {
+      this.progress = progress;
+      this.total = total;
+    }
+
+    void total(long total) {
+      this.total = total;
+    }
+
+    void add(long bytes) {
+      var current = downloaded.addAndGet(bytes);
+      var now = System.nanoTime();
+      var last = lastReport.get();
+      if (progress != null && now - last >= Duration.ofMillis(PROGRESS_INTERVAL_MILLIS).toNanos()
+          && lastReport.compareAndSet(last, now)) {
+        progress.update(current, total);
+      }
+    }
+
+    void done() {
+      if (progress != null) {
+        var current = downloaded.get();
+        progress.update(current, total > 0 ? total : current);
+      }
+    }
+  }
+
+  private static final class RangeIgnoredException extends IOException {
+  }
+
+  private static final class ClientHolder {
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .connectTimeout(Duration.ofSeconds(30))
+        .executor(ThreadPoolUtils.virtual())
+        .build();
   }
 }
@@ -0,0 +1,27 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import java.util.List;
+
+/**
+ * A dependency selected by {@link DependencyTreeResolver}, with the dependencies it brought in.
+ *
+ * @param groupId    the group id
+ * @param artifactId the artifact id
+ * @param version    the selected version
+ * @param type       the artifact type, {@code jar} when not declared
+ * @param scope      the scope after propagation from the requesting dependency
+ * @param depth      distance from the project, {@code 1} for direct dependencies
+ * @param resolved   whether the artifact POM was found in the local repository
+ * @param children   dependencies selected through this one
+ */
+public record DependencyNode(String groupId, String artifactId, String version, String type, String scope, int depth,
+                             boolean resolved, List<DependencyNode> children) {
+
+  public String key() {
+    return groupId + ":" + artifactId;
+  }
+
+  public String coordinates() {
+    return groupId + ":" + artifactId + ":" + type + ":" + version + ":" + scope;
+  }
+}
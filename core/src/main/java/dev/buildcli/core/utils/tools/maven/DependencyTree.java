@@ -0,0 +1,61 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import java.util.List;
+
+/**
+ * Result of {@link DependencyTreeResolver}: the mediated dependency graph of a project and the
+ * versions that lost mediation.
+ *
+ * @param project      the effective POM the tree was built for
+ * @param dependencies the direct dependencies, each with its selected transitive dependencies
+ * @param conflicts    versions that were requested but omitted in favour of a nearer one
+ * @param unresolved   coordinates whose POM is not in the local repository
+ */
+public record DependencyTree(EffectivePom project, List<DependencyNode> dependencies, List<Conflict> conflicts,
+                             List<String> unresolved) {
+
+  /**
+   * A version that lost mediation.
+   *
+   * @param key             {@code groupId:artifactId}
+   * @param selectedVersion the version kept in the tree
+   * @param omittedVersion  the version that was requested and dropped
+   * @param requestedBy     coordinates of the dependency that asked for the omitted version
+   */
+  public record Conflict(String key, String selectedVersion, String omittedVersion, String requestedBy) { }
+
+  public int size() {
+    return count(dependencies);
+  }
+
+  /**
+   * Renders the tree in the layout of {@code mvn dependency:tree}.
+   */
+  public String render() {
+    var builder = new StringBuilder(project.groupId()).append(':').append(project.artifactId()).append(':')
+        .append(project.packaging()).append(':').append(project.version()).append(System.lineSeparator());
+    render(builder, dependencies, "");
+    return builder.toString();
+  }
+
+  private static void render(StringBuilder builder, List<DependencyNode> nodes, String indent) {
+    for (int i = 0; i < nodes.size(); i++) {
+      var node = nodes.get(i);
+      var last = i == nodes.size() - 1;
+      builder.append(indent).append(last ? "\\- " : "+- ").append(node.coordinates());
+      if (!node.resolved()) {
+        builder.append(" (unresolved)");
+      }
+      builder.append(System.lineSeparator());
+      render(builder, node.children(), indent + (last ? "   " : "|  "));
+    }
+  }
+
+  private static int count(List<DependencyNode> nodes) {
+    int count = nodes.size();
+    for (var node : nodes) {
+      count += count(node.children());
+    }
+    return count;
+  }
+}
@@ -0,0 +1,186 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.exceptions.ArtifactResolutionException;
+import dev.buildcli.core.model.Dependency;
+import dev.buildcli.core.model.Exclusion;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Builds the transitive dependency tree of a project from the local Maven repository, without
+ * forking {@code mvn dependency:tree}.
+ *
+ * <p>The graph is walked breadth first, so a dependency is always met at its shortest distance from
+ * the project and Maven's nearest-wins mediation (first declaration wins on a tie) falls out of the
+ * visiting order. The POMs of every dependency selected at one depth are fetched concurrently on
+ * virtual threads; the {@link EffectivePomResolver} acts as the shared memo table, so each artifact
+ * is parsed once no matter how many paths lead to it.</p>
+ *
+ * <p>Scopes propagate as in Maven: {@code test}, {@code provided} and optional dependencies of
+ * dependencies are dropped, exclusions accumulate along each path, and the project's own
+ * dependency management overrides transitive versions and scopes.</p>
+ */
+public final class DependencyTreeResolver {
+  private static final String COMPILE = "compile";
+  private static final String DEFAULT_TYPE = "jar";
+
+  private final EffectivePomResolver resolver;
+  private final Executor executor;
+
+  public DependencyTreeResolver(EffectivePomResolver resolver) {
+    this(resolver, ThreadPoolUtils.virtual());
+  }
+
+  public DependencyTreeResolver(EffectivePomResolver resolver, Executor executor) {
+    this.resolver = resolver;
+    this.executor = executor;
+  }
+
+  public DependencyTree resolve(Path pomFile) {
+    return resolve(resolver.resolve(pomFile));
+  }
+
+  public DependencyTree resolve(EffectivePom project) {
+    var roots = new ArrayList<DependencyNode>();
+    var selected = new HashMap<String, String>();
+    var conflicts = new ArrayList<DependencyTree.Conflict>();
+    var unresolved = new LinkedHashSet<String>();
+
+    var level = new ArrayList<Pending>();
+    for (var dependency : project.dependencies()) {
+      level.add(new Pending(null, dependency, scopeOf(dependency), dependency.getExclusions()));
+    }
+
+    for (int depth = 1; !level.isEmpty(); depth++) {
+      var candidates = new ArrayList<Candidate>();
+
+      for (var pending : level) {
+        var dependency = pending.dependency();
+        var key = dependency.getGroupId() + ":" + dependency.getArtifactId();
+        var version = dependency.getVersion();
+        var scope = pending.scope();
+
+        if (depth > 1) {
+          var managed = project.managed(dependency).orElse(null);
+          if (managed != null) {
+            version = managed.getVersion() != null ? managed.getVersion() : version;
+            scope = managed.getScope() != null ? managed.getScope() : scope;
+          }
+        }
+
+        if (selected.containsKey(key)) {
+          var winner = selected.get(key);
+          if (version != null && !version.equals(winner)) {
+            conflicts.add(new DependencyTree.Conflict(key, winner, version,
+                pending.parent() == null ? project.coordinates() : pending.parent().coordinates()));
+          }
+          continue;
+        }
+
+        selected.put(key, version);
+        candidates.add(new Candidate(pending, version, scope));
+      }
+
+      var poms = fetch(candidates);
+      level = new ArrayList<>();
+      for (int i = 0; i < candidates.size(); i++) {
+        var candidate = candidates.get(i);
+        var dependency = candidate.pending().dependency();
+        var pom = poms.get(i);
+
+        var node = new DependencyNode(dependency.getGroupId(), dependency.getArtifactId(), candidate.version(),
+            dependency.getType() != null ? dependency.getType() : DEFAULT_TYPE, candidate.scope(), depth, pom != null,
+            new ArrayList<>());
+        var parent = candidate.pending().parent();
+        (parent == null ? roots : parent.children()).add(node);
+
+        if (pom == null) {
+          unresolved.add(node.key() + ":" + node.version());
+          continue;
+        }
+
+        var exclusions = candidate.pending().exclusions();
+        for (var child : pom.dependencies()) {
+          var scope = propagate(node.scope(), child);
+          if (scope == null || Boolean.parseBoolean(child.getOptional()) || isExcluded(child, exclusions)) {
+            continue;
+          }
+
+          var childExclusions = exclusions;
+          if (!child.getExclusions().isEmpty()) {
+            childExclusions = new ArrayList<>(exclusions);
+            childExclusions.addAll(child.getExclusions());
+          }
+          level.add(new Pending(node, child, scope, childExclusions));
+        }
+      }
+    }
+
+    return new DependencyTree(project, roots, conflicts, List.copyOf(unresolved));
+  }
+
+  /**
+   * Reads the effective POMs of one depth concurrently; {@code null} marks a POM that is not in the
+   * local repository.
+   */
+  private List<EffectivePom> fetch(List<Candidate> candidates) {
+    var futures = candidates.stream()
+        .map(candidate -> CompletableFuture.supplyAsync(() -> resolve(candidate), executor))
+        .toList();
+    return futures.stream().map(CompletableFuture::join).toList();
+  }
+
+  private EffectivePom resolve(Candidate candidate) {
+    var dependency = candidate.pending().dependency();
+    if (candidate.version() == null || candidate.version().isBlank()) {
+      return null;
+    }
+
+    try {
+      return resolver.resolve(dependency.getGroupId(), dependency.getArtifactId(), candidate.version());
+    } catch (ArtifactResolutionException e) {
+      return null;
+    }
+  }
+
+  private static String scopeOf(Dependency dependency) {
+    return dependency.getScope() != null ? dependency.getScope() : COMPILE;
+  }
+
+  /**
+   * Maven's scope table: returns the scope a transitive dependency gets under a dependency in
+   * {@code parentScope}, or {@code null} when it is not inherited at all.
+   */
+  static String propagate(String parentScope, Dependency child) {
+    var scope = scopeOf(child);
+    if (!COMPILE.equals(scope) && !"runtime".equals(scope)) {
+      return null;
+    }
+
+    return switch (parentScope) {
+      case COMPILE -> scope;
+      case "runtime", "provided", "test" -> parentScope;
+      default -> null;
+    };
+  }
+
+  private static boolean isExcluded(Dependency dependency, List<Exclusion> exclusions) {
+    for (var exclusion : exclusions) {
+      if (exclusion.matches(dependency.getGroupId(), dependency.getArtifactId())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private record Pending(DependencyNode parent, Dependency dependency, String scope, List<Exclusion> exclusions) { }
+
+  private record Candidate(Pending pending, String version, String scope) { }
+}
@@ -0,0 +1,56 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.model.Dependency;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A POM after parent inheritance, property interpolation and dependency management, as produced by
+ * {@link EffectivePomResolver}. Dependencies carry the managed version and scope when they did not
+ * declare their own; BOM imports are already expanded into {@link #dependencyManagement()}.
+ *
+ * @param groupId              the group id, inherited from the parent when omitted
+ * @param artifactId           the artifact id
+ * @param version              the version, inherited from the parent when omitted
+ * @param packaging            the packaging, {@code jar} when omitted
+ * @param pomFile              where the POM was read from
+ * @param properties           inherited and own properties, interpolated
+ * @param dependencyManagement managed dependencies keyed by {@link #managementKey}
+ * @param dependencies         inherited and own dependencies with management applied
+ */
+public record EffectivePom(String groupId, String artifactId, String version, String packaging, Path pomFile,
+                           Map<String, String> properties, Map<String, Dependency> dependencyManagement,
+                           List<Dependency> dependencies) {
+
+  public String coordinates() {
+    return groupId + ":" + artifactId + ":" + version;
+  }
+
+  /**
+   * The management of the {@code jar} without classifier of {@code groupId:artifactId}.
+   */
+  public Optional<Dependency> managed(String groupId, String artifactId) {
+    return managed(new Dependency(groupId, artifactId, null));
+  }
+
+  /**
+   * The management that applies to {@code dependency}, matched on its type and classifier as well.
+   */
+  public Optional<Dependency> managed(Dependency dependency) {
+    return Optional.ofNullable(dependencyManagement.get(managementKey(dependency)));
+  }
+
+  /**
+   * {@code groupId:artifactId:type}, followed by {@code :classifier} when there is one, as Maven keys
+   * dependency management. The type defaults to {@code jar}.
+   */
+  static String managementKey(Dependency dependency) {
+    var type = dependency.getType() == null || dependency.getType().isBlank() ? "jar" : dependency.getType();
+    var key = dependency.getGroupId() + ":" + dependency.getArtifactId() + ":" + type;
+    var classifier = dependency.getClassifier();
+    return classifier == null || classifier.isBlank() ? key : key + ":" + classifier;
+  }
+}
@@ -0,0 +1,335 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.exceptions.ArtifactResolutionException;
+import dev.buildcli.core.model.Dependency;
+import dev.buildcli.core.model.Exclusion;
+import dev.buildcli.core.model.Parent;
+import dev.buildcli.core.model.Pom;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds {@link EffectivePom effective POMs} in process and fully offline, reading parent and BOM
+ * POMs straight from the local Maven repository instead of forking {@code mvn help:effective-pom}.
+ *
+ * <p>Resolution follows Maven's order: the raw model is merged with its parent chain, then
+ * interpolated in the context of the child, then {@code import} scoped BOMs are expanded and
+ * dependency management is applied. Every artifact (and project file) is resolved at most once per
+ * resolver; concurrent callers asking for the same artifact wait on the same result, so a resolver
+ * can be shared across threads.</p>
+ *
+ * <p>Only the local repository is consulted: {@code maven.repo.local} when set, otherwise
+ * {@code ~/.m2/repository}. Profiles and {@code settings.xml} are not evaluated.</p>
+ */
+public final class EffectivePomResolver {
+  public static final Path DEFAULT_REPOSITORY = Path.of(System.getProperty("user.home"), ".m2", "repository");
+
+  private static final Logger logger = Logger.getLogger(EffectivePomResolver.class.getName());
+  private static final Pattern EXPRESSION = Pattern.compile("\\$\\{([^}]+)}");
+  private static final int MAX_INTERPOLATION_DEPTH = 10;
+  private static final String DEFAULT_PACKAGING = "jar";
+  private static final String IMPORT_SCOPE = "import";
+
+  private final Path repository;
+  private final PomCache cache;
+  private final Map<String, CompletableFuture<Model>> models = new ConcurrentHashMap<>();
+
+  public EffectivePomResolver(Path repository) {
+    this(repository, PomCache.defaultCache());
+  }
+
+  public EffectivePomResolver(Path repository, PomCache cache) {
+    this.repository = repository;
+    this.cache = cache;
+  }
+
+  public static EffectivePomResolver local() {
+    return new EffectivePomResolver(localRepository());
+  }
+
+  public static Path localRepository() {
+    var configured = System.getProperty("maven.repo.local");
+    return configured == null || configured.isBlank() ? DEFAULT_REPOSITORY : Path.of(configured);
+  }
+
+  public Path repository() {
+    return repository;
+  }
+
+  public Path pomPath(String groupId, String artifactId, String version) {
+    return repository.resolve(groupId.replace('.', '/'))
+        .resolve(artifactId)
+        .resolve(version)
+        .resolve(artifactId + "-" + version + ".pom");
+  }
+
+  /**
+   * Resolves a project {@code pom.xml}; its parent is looked up through {@code relativePath} first
+   * and the local repository second.
+   */
+  public EffectivePom resolve(Path pomFile) {
+    return resolveFile(pomFile.toAbsolutePath().normalize(), List.of()).effective;
+  }
+
+  /**
+   * Resolves the POM of an artifact installed in the local repository.
+   */
+  public EffectivePom resolve(String groupId, String artifactId, String version) {
+    return resolveArtifact(groupId, artifactId, version, List.of()).effective;
+  }
+
+  private Model resolveFile(Path pomFile, List<String> chain) {
+    return memoize("file:" + pomFile, chain, next -> {
+      var pom = cache.load(pomFile);
+      return build(pom, pomFile, parentOf(pom, pomFile, next), next);
+    });
+  }
+
+  private Model resolveArtifact(String groupId, String artifactId, String version, List<String> chain) {
+    return memoize(groupId + ":" + artifactId + ":" + version, chain, next -> {
+      var pomFile = pomPath(groupId, artifactId, version);
+      if (!Files.isRegularFile(pomFile)) {
+        throw new ArtifactResolutionException("POM of %s:%s:%s not found in local repository %s"
+            .formatted(groupId, artifactId, version, repository));
+      }
+
+      var pom = cache.load(pomFile);
+      var parent = pom.getParent() == null ? null : resolveParentArtifact(pom.getParent(), next);
+      return build(pom, pomFile, parent, next);
+    });
+  }
+
+  private Model memoize(String key, List<String> chain, Function<List<String>, Model> resolver) {
+    if (chain.contains(key)) {
+      throw new ArtifactResolutionException("Cyclic POM reference: " + String.join(" -> ", chain) + " -> " + key);
+    }
+
+    var future = new CompletableFuture<Model>();
+    var existing = models.putIfAbsent(key, future);
+    if (existing == null) {
+      var next = new ArrayList<>(chain);
+      next.add(key);
+      try {
+        future.complete(resolver.apply(List.copyOf(next)));
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+      }
+    }
+
+    try {
+      return (existing == null ? future : existing).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private Model parentOf(Pom pom, Path pomFile, List<String> chain) {
+    var parent = pom.getParent();
+    if (parent == null) {
+      return null;
+    }
+
+    var relativePath = parent.getRelativePath() == null ? Parent.DEFAULT_RELATIVE_PATH : parent.getRelativePath().trim();
+    if (!relativePath.isEmpty()) {
+      var candidate = pomFile.getParent().resolve(relativePath).normalize();
+      if (Files.isDirectory(candidate)) {
+        candidate = candidate.resolve("pom.xml");
+      }
+
+      if (Files.isRegularFile(candidate) && isDeclaredParent(cache.load(candidate), parent)) {
+        return resolveFile(candidate, chain);
+      }
+    }
+
+    return resolveParentArtifact(parent, chain);
+  }
+
+  private Model resolveParentArtifact(Parent parent, List<String> chain) {
+    return resolveArtifact(parent.getGroupId(), parent.getArtifactId(), parent.getVersion(), chain);
+  }
+
+  private static boolean isDeclaredParent(Pom candidate, Parent parent) {
+    var groupId = candidate.getGroupId() != null ? candidate.getGroupId()
+        : candidate.getParent() == null ? null : candidate.getParent().getGroupId();
+    return parent.getArtifactId().equals(candidate.getArtifactId()) && parent.getGroupId().equals(groupId);
+  }
+
+  private Model build(Pom pom, Path pomFile, Model parent, List<String> chain) {
+    var model = new Model();
+    model.groupId = pom.getGroupId() != null ? pom.getGroupId() : parent == null ? null : parent.effective.groupId();
+    model.version = pom.getVersion() != null ? pom.getVersion() : parent == null ? null : parent.effective.version();
+    model.artifactId = pom.getArtifactId();
+    model.packaging = pom.getPackaging() != null ? pom.getPackaging() : DEFAULT_PACKAGING;
+
+    if (parent != null) {
+      model.properties.putAll(parent.properties);
+      model.managed.putAll(parent.managed);
+      model.dependencies.putAll(parent.dependencies);
+    }
+    model.properties.putAll(pom.getProperties());
+    if (pom.getDependencyManagement() != null) {
+      pom.getDependencyManagement().getDependencies().forEach(d -> model.managed.put(EffectivePom.managementKey(d), d));
+    }
+    pom.getDependencies().forEach(d -> model.dependencies.put(EffectivePom.managementKey(d), d));
+
+    var context = new HashMap<>(model.properties);
+    putProjectProperties(context, "project.", model, pom.getParent(), pomFile);
+    putProjectProperties(context, "pom.", model, pom.getParent(), pomFile);
+
+    var groupId = interpolate(model.groupId, context);
+    var version = interpolate(model.version, context);
+
+    var properties = new LinkedHashMap<String, String>();
+    model.properties.forEach((name, value) -> properties.put(name, interpolate(value, context)));
+
+    var managed = new LinkedHashMap<String, Dependency>();
+    var imports = new ArrayList<Dependency>();
+    for (var raw : model.managed.values()) {
+      var dependency = interpolate(raw, context);
+      if (IMPORT_SCOPE.equals(dependency.getScope()) && "pom".equals(dependency.getType())) {
+        imports.add(dependency);
+      } else {
+        managed.put(EffectivePom.managementKey(dependency), dependency);
+      }
+    }
+    for (var bom : imports) {
+      try {
+        resolveArtifact(bom.getGroupId(), bom.getArtifactId(), bom.getVersion(), chain)
+            .effective.dependencyManagement().forEach(managed::putIfAbsent);
+      } catch (ArtifactResolutionException e) {
+        logger.warning("Skipping BOM import in %s: %s".formatted(pomFile, e.getMessage()));
+      }
+    }
+
+    var dependencies = new ArrayList<Dependency>();
+    for (var raw : model.dependencies.values()) {
+      dependencies.add(applyManagement(interpolate(raw, context), managed));
+    }
+
+    model.effective = new EffectivePom(groupId, model.artifactId, version, model.packaging, pomFile,
+        Collections.unmodifiableMap(properties), Collections.unmodifiableMap(managed),
+        Collections.unmodifiableList(dependencies));
+    return model;
+  }
+
+  private static void putProjectProperties(Map<String, String> context, String prefix, Model model, Parent parent,
+                                           Path pomFile) {
+    putIfNotNull(context, prefix + "groupId", model.groupId);
+    putIfNotNull(context, prefix + "artifactId", model.artifactId);
+    putIfNotNull(context, prefix + "version", model.version);
+    putIfNotNull(context, prefix + "packaging", model.packaging);
+    putIfNotNull(context, prefix + "basedir", pomFile.getParent().toString());
+    if (parent != null) {
+      putIfNotNull(context, prefix + "parent.groupId", parent.getGroupId());
+      putIfNotNull(context, prefix + "parent.artifactId", parent.getArtifactId());
+      putIfNotNull(context, prefix + "parent.version", parent.getVersion());
+    }
+  }
+
+  private static void putIfNotNull(Map<String, String> context, String key, String value) {
+    if (value != null) {
+      context.put(key, value);
+    }
+  }
+
+  private static Dependency applyManagement(Dependency dependency, Map<String, Dependency> managed) {
+    var management = managed.get(EffectivePom.managementKey(dependency));
+    if (management == null) {
+      return dependency;
+    }
+
+    if (dependency.getVersion() == null || dependency.getVersion().isBlank()) {
+      dependency.setVersion(management.getVersion());
+    }
+    if (dependency.getScope() == null) {
+      dependency.setScope(management.getScope());
+    }
+    if (dependency.getOptional() == null) {
+      dependency.setOptional(management.getOptional());
+    }
+    if (dependency.getExclusions().isEmpty()) {
+      dependency.getExclusions().addAll(management.getExclusions());
+    }
+    return dependency;
+  }
+
+  private static Dependency interpolate(Dependency dependency, Map<String, String> context) {
+    var interpolated = new Dependency(interpolate(dependency.getGroupId(), context),
+        interpolate(dependency.getArtifactId(), context), interpolate(dependency.getVersion(), context),
+        interpolate(dependency.getType(), context), interpolate(dependency.getScope(), context),
+        interpolate(dependency.getOptional(), context));
+    interpolated.setClassifier(interpolate(dependency.getClassifier(), context));
+    for (var exclusion : dependency.getExclusions()) {
+      interpolated.getExclusions().add(new Exclusion(interpolate(exclusion.getGroupId(), context),
+          interpolate(exclusion.getArtifactId(), context)));
+    }
+    return interpolated;
+  }
+
+  static String interpolate(String value, Map<String, String> context) {
+    if (value == null || !value.contains("${")) {
+      return value;
+    }
+
+    var result = value;
+    for (int depth = 0; depth < MAX_INTERPOLATION_DEPTH && result.contains("${"); depth++) {
+      Matcher matcher = EXPRESSION.matcher(result);
+      var builder = new StringBuilder();
+      boolean replaced = false;
+      while (matcher.find()) {
+        var resolved = lookup(matcher.group(1), context);
+        replaced |= resolved != null;
+        matcher.appendReplacement(builder, Matcher.quoteReplacement(resolved != null ? resolved : matcher.group()));
+      }
+      matcher.appendTail(builder);
+      result = builder.toString();
+
+      if (!replaced) {
+        break;
+      }
+    }
+    return result;
+  }
+
+  private static String lookup(String name, Map<String, String> context) {
+    var value = context.get(name);
+    if (value != null) {
+      return value;
+    }
+    if (name.startsWith("env.")) {
+      return System.getenv(name.substring(4));
+    }
+    return System.getProperty(name);
+  }
+
+  /**
+   * The merged but not yet interpolated model, which children inherit, plus its effective form.
+   */
+  private static final class Model {
+    private String groupId;
+    private String artifactId;
+    private String version;
+    private String packaging;
+    private final Map<String, String> properties = new LinkedHashMap<>();
+    private final Map<String, Dependency> managed = new LinkedHashMap<>();
+    private final Map<String, Dependency> dependencies = new LinkedHashMap<>();
+    private EffectivePom effective;
+  }
+}
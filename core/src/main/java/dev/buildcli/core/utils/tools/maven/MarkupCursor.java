@@ -0,0 +1,141 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import javax.xml.stream.XMLStreamConstants;
+import java.io.Reader;
+import java.io.StringReader;
+
+/**
+ * Follows the events of a StAX reader through the source text to find the exact span of every tag.
+ *
+ * <p>{@code Location#getCharacterOffset()} cannot be used for this: the JDK parser reports the
+ * position it has buffered up to, which may already be past the next tag, and it counts
+ * {@code \r\n} line breaks after normalizing them. Since markup is reported in document order, the
+ * next tag is simply the next {@code <} in the source that does not open a comment, CDATA section
+ * or processing instruction.</p>
+ */
+final class MarkupCursor {
+  private static final String UTF8_BOM_AS_LATIN1 = "\u00EF\u00BB\u00BF";
+
+  private final String text;
+  private final int contentStart;
+  private int position;
+  private int tagStart = -1;
+  private int tagEnd = -1;
+  private boolean selfClosing;
+
+  MarkupCursor(String text) {
+    this.text = text;
+
+    if (text.startsWith("\uFEFF")) {
+      contentStart = 1;
+    } else if (text.startsWith(UTF8_BOM_AS_LATIN1)) {
+      contentStart = UTF8_BOM_AS_LATIN1.length();
+    } else {
+      contentStart = 0;
+    }
+
+    position = contentStart;
+    if (text.startsWith("<?xml", position)) {
+      position = text.indexOf("?>", position) + 2;
+    }
+  }
+
+  /**
+   * The source text without a byte order mark, which the parser would reject.
+   */
+  Reader reader() {
+    return new StringReader(contentStart == 0 ? text : text.substring(contentStart));
+  }
+
+  void advance(int event) {
+    switch (event) {
+      case XMLStreamConstants.START_ELEMENT -> {
+        tagStart = nextTag(position);
+        tagEnd = endOfTag(tagStart);
+        selfClosing = text.charAt(tagEnd - 2) == '/';
+        position = tagEnd;
+      }
+      case XMLStreamConstants.END_ELEMENT -> {
+        if (selfClosing) {
+          tagStart = position;
+          selfClosing = false;
+        } else {
+          tagStart = nextTag(position);
+          tagEnd = text.indexOf('>', tagStart) + 1;
+        }
+        position = tagEnd;
+      }
+      case XMLStreamConstants.COMMENT -> span(text.indexOf("<!--", position), "-->");
+      case XMLStreamConstants.PROCESSING_INSTRUCTION -> span(text.indexOf("<?", position), "?>");
+      case XMLStreamConstants.DTD -> {
+        tagStart = text.indexOf("<!DOCTYPE", position);
+        tagEnd = endOfTag(tagStart);
+        position = tagEnd;
+      }
+      default -> { }
+    }
+  }
+
+  /**
+   * Offset of the {@code <} that opens the markup of the current event. For the end of a
+   * self-closing element this is the same as {@link #tagEnd()}.
+   */
+  int tagStart() {
+    return tagStart;
+  }
+
+  /**
+   * Offset right after the {@code >} that closes the markup of the current event.
+   */
+  int tagEnd() {
+    return tagEnd;
+  }
+
+  private void span(int start, String terminator) {
+    tagStart = start;
+    tagEnd = text.indexOf(terminator, start) + terminator.length();
+    position = tagEnd;
+  }
+
+  private int nextTag(int from) {
+    int i = text.indexOf('<', from);
+    while (i >= 0) {
+      if (text.startsWith("<!--", i)) {
+        i = text.indexOf('<', text.indexOf("-->", i) + 3);
+      } else if (text.startsWith("<![CDATA[", i)) {
+        i = text.indexOf('<', text.indexOf("]]>", i) + 3);
+      } else if (text.startsWith("<?", i)) {
+        i = text.indexOf('<', text.indexOf("?>", i) + 2);
+      } else {
+        return i;
+      }
+    }
+    throw new IllegalStateException("No markup left after offset " + from);
+  }
+
+  /**
+   * Finds the {@code >} closing the tag at {@code start}, skipping quoted attribute values and a
+   * DOCTYPE internal subset.
+   */
+  private int endOfTag(int start) {
+    char quote = 0;
+    int brackets = 0;
+    for (int i = start + 1; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '"' || c == '\'') {
+        quote = c;
+      } else if (c == '[') {
+        brackets++;
+      } else if (c == ']') {
+        brackets--;
+      } else if (c == '>' && brackets == 0) {
+        return i + 1;
+      }
+    }
+    throw new IllegalStateException("Unterminated tag at offset " + start);
+  }
+}
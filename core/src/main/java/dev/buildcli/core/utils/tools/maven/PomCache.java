@@ -0,0 +1,291 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.exceptions.ExtractionRuntimeException;
+import dev.buildcli.core.model.Dependency;
+import dev.buildcli.core.model.DependencyManagement;
+import dev.buildcli.core.model.Exclusion;
+import dev.buildcli.core.model.Parent;
+import dev.buildcli.core.model.Pom;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps a compact binary copy of parsed {@link Pom} models under {@code ~/.buildcli/cache/pom}, so
+ * that short commands skip the XML parser and JAXB startup when the {@code pom.xml} did not change.
+ *
+ * <p>Each file gets one entry, named after the hash of its absolute path. An entry is only used
+ * when the path, size, modification time and SHA-256 of the content all match the file on disk;
+ * anything else, including an unreadable or truncated entry, falls back to {@link PomEngine} and
+ * rewrites the entry. Cache failures never fail the read.</p>
+ *
+ * <p>The system property {@value #DIRECTORY_PROPERTY} moves the default cache elsewhere, which the
+ * tests use to keep out of the user's home.</p>
+ */
+public final class PomCache {
+  public static final Path DEFAULT_DIRECTORY = Path.of(System.getProperty("user.home"), ".buildcli", "cache", "pom");
+  public static final String DIRECTORY_PROPERTY = "buildcli.cache.pom.dir";
+
+  private static final Logger logger = Logger.getLogger(PomCache.class.getName());
+  private static final int MAGIC = 0x42435043;
+  private static final int FORMAT_VERSION = 4;
+  private static final String ENTRY_SUFFIX = ".bin";
+
+  private final Path directory;
+
+  public PomCache(Path directory) {
+    this.directory = directory;
+  }
+
+  public static PomCache defaultCache() {
+    return DefaultHolder.INSTANCE;
+  }
+
+  public static Pom read(String fileName) {
+    return defaultCache().load(Paths.get(fileName));
+  }
+
+  public static Pom read(Path path) {
+    return defaultCache().load(path);
+  }
+
+  public Pom load(Path pomFile) {
+    var path = pomFile.toAbsolutePath().normalize();
+
+    try {
+      var attributes = Files.readAttributes(path, BasicFileAttributes.class);
+      var content = Files.readAllBytes(path);
+      var fingerprint = new Fingerprint(path.toString(), content.length, attributes.lastModifiedTime().toMillis(),
+          sha256(content));
+      var entry = entryFile(path);
+
+      var cached = readEntry(entry, fingerprint);
+      if (cached != null) {
+        return cached;
+      }
+
+      var pom = PomEngine.parse(new String(content, StandardCharsets.UTF_8)).pom();
+      writeEntry(entry, fingerprint, pom);
+      return pom;
+    } catch (IOException e) {
+      throw new ExtractionRuntimeException(e);
+    }
+  }
+
+  public void invalidate(Path pomFile) {
+    try {
+      Files.deleteIfExists(entryFile(pomFile.toAbsolutePath().normalize()));
+    } catch (IOException e) {
+      logger.log(Level.FINE, "Could not delete cache entry for " + pomFile, e);
+    }
+  }
+
+  Path entryFile(Path absolutePath) {
+    var name = HexFormat.of().formatHex(sha256(absolutePath.toString().getBytes(StandardCharsets.UTF_8)), 0, 16);
+    return directory.resolve(name + ENTRY_SUFFIX);
+  }
+
+  private Pom readEntry(Path entry, Fingerprint expected) {
+    try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+        return null;
+      }
+
+      var stored = new Fingerprint(in.readUTF(), in.readLong(), in.readLong(), in.readNBytes(in.readUnsignedByte()));
+      if (!stored.matches(expected)) {
+        return null;
+      }
+
+      return readPom(in);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | RuntimeException e) {
+      logger.log(Level.FINE, "Ignoring unreadable cache entry " + entry, e);
+      return null;
+    }
+  }
+
+  private void writeEntry(Path entry, Fingerprint fingerprint, Pom pom) {
+    Path temp = null;
+    try {
+      Files.createDirectories(directory);
+      temp = Files.createTempFile(directory, entry.getFileName().toString(), ".tmp");
+
+      try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(fingerprint.path());
+        out.writeLong(fingerprint.size());
+        out.writeLong(fingerprint.lastModified());
+        out.writeByte(fingerprint.hash().length);
+        out.write(fingerprint.hash());
+        writePom(out, pom);
+      }
+
+      try {
+        Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.log(Level.FINE, "Could not write cache entry " + entry, e);
+      if (temp != null) {
+        try {
+          Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+          // best effort
+        }
+      }
+    }
+  }
+
+  private static void writePom(DataOutputStream out, Pom pom) throws IOException {
+    writeString(out, pom.getGroupId());
+    writeString(out, pom.getArtifactId());
+    writeString(out, pom.getVersion());
+    writeString(out, pom.getPackaging());
+
+    var parent = pom.getParent();
+    out.writeBoolean(parent != null);
+    if (parent != null) {
+      writeString(out, parent.getGroupId());
+      writeString(out, parent.getArtifactId());
+      writeString(out, parent.getVersion());
+      writeString(out, parent.getRelativePath());
+    }
+
+    out.writeInt(pom.getModules().size());
+    for (var module : pom.getModules()) {
+      writeString(out, module);
+    }
+
+    out.writeInt(pom.getProperties().size());
+    for (var property : pom.getProperties().entrySet()) {
+      out.writeUTF(property.getKey());
+      writeString(out, property.getValue());
+    }
+
+    var management = pom.getDependencyManagement();
+    out.writeBoolean(management != null);
+    if (management != null) {
+      writeDependencies(out, management.getDependencies());
+    }
+
+    writeDependencies(out, pom.getDependencies());
+  }
+
+  private static void writeDependencies(DataOutputStream out, List<Dependency> dependencies) throws IOException {
+    out.writeInt(dependencies.size());
+    for (var dependency : dependencies) {
+      writeString(out, dependency.getGroupId());
+      writeString(out, dependency.getArtifactId());
+      writeString(out, dependency.getVersion());
+      writeString(out, dependency.getType());
+      writeString(out, dependency.getScope());
+      writeString(out, dependency.getOptional());
+      writeString(out, dependency.getClassifier());
+
+      out.writeInt(dependency.getExclusions().size());
+      for (var exclusion : dependency.getExclusions()) {
+        writeString(out, exclusion.getGroupId());
+        writeString(out, exclusion.getArtifactId());
+      }
+    }
+  }
+
+  private static Pom readPom(DataInputStream in) throws IOException {
+    var pom = new Pom();
+    pom.setGroupId(readString(in));
+    pom.setArtifactId(readString(in));
+    pom.setVersion(readString(in));
+    pom.setPackaging(readString(in));
+
+    if (in.readBoolean()) {
+      var parent = new Parent(readString(in), readString(in), readString(in));
+      parent.setRelativePath(readString(in));
+      pom.setParent(parent);
+    }
+
+    for (int i = in.readInt(); i > 0; i--) {
+      pom.getModules().add(readString(in));
+    }
+
+    for (int i = in.readInt(); i > 0; i--) {
+      pom.getProperties().put(in.readUTF(), readString(in));
+    }
+
+    if (in.readBoolean()) {
+      var management = new DependencyManagement();
+      readDependencies(in, management.getDependencies());
+      pom.setDependencyManagement(management);
+    }
+
+    readDependencies(in, pom.getDependencies());
+    return pom;
+  }
+
+  private static void readDependencies(DataInputStream in, List<Dependency> dependencies) throws IOException {
+    for (int i = in.readInt(); i > 0; i--) {
+      var dependency = new Dependency(readString(in), readString(in), readString(in), readString(in),
+          readString(in), readString(in));
+      dependency.setClassifier(readString(in));
+      for (int j = in.readInt(); j > 0; j--) {
+        dependency.getExclusions().add(new Exclusion(readString(in), readString(in)));
+      }
+      dependencies.add(dependency);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  private static byte[] sha256(byte[] content) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(content);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private record Fingerprint(String path, long size, long lastModified, byte[] hash) {
+    boolean matches(Fingerprint other) {
+      return path.equals(other.path) && size == other.size && lastModified == other.lastModified
+          && Arrays.equals(hash, other.hash);
+    }
+  }
+
+  private static final class DefaultHolder {
+    private static final PomCache INSTANCE = new PomCache(directory());
+
+    private static Path directory() {
+      var directory = System.getProperty(DIRECTORY_PROPERTY);
+      return directory == null || directory.isBlank() ? DEFAULT_DIRECTORY : Path.of(directory);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.model.Pom;
+
+/**
+ * Result of a single {@link PomEngine} pass over a {@code pom.xml}: the unmarshalled {@link Pom}
+ * model, the raw file content and the character span of the project level {@code <dependencies>}
+ * block inside it.
+ *
+ * @param pom               the parsed model
+ * @param content           the file content exactly as read from disk
+ * @param dependenciesStart offset of {@code <dependencies>}, or {@code -1} when the block is absent
+ * @param dependenciesEnd   offset right after {@code </dependencies>}, or {@code -1} when absent
+ * @param projectEnd        offset of {@code </project>}, where a missing block gets inserted
+ */
+public record PomDocument(Pom pom, String content, int dependenciesStart, int dependenciesEnd, int projectEnd) {
+
+  public boolean hasDependenciesBlock() {
+    return dependenciesStart >= 0;
+  }
+
+  /**
+   * Returns the original content with the dependencies block replaced by
+   * {@link MavenConstants#DEPENDENCIES_PATTERN}. When the project declares no dependencies the
+   * pattern is appended as the last child of {@code <project>}.
+   */
+  public String template() {
+    return splice(MavenConstants.DEPENDENCIES_PATTERN);
+  }
+
+  /**
+   * Renders the current state of {@link #pom()} into the original content.
+   */
+  public String render() {
+    return splice(pom.getDependencyFormatted());
+  }
+
+  private String splice(String dependencies) {
+    if (hasDependenciesBlock()) {
+      return content.substring(0, dependenciesStart) + dependencies + content.substring(dependenciesEnd);
+    }
+
+    return content.substring(0, projectEnd) + dependencies + content.substring(projectEnd);
+  }
+}
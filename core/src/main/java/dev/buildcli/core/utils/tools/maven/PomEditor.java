@@ -0,0 +1,485 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.model.Dependency;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Edits the project dependencies of a {@code pom.xml} without re-serializing it.
+ *
+ * <p>A single StAX pass records the byte offsets of the project level {@code <dependencies>} block
+ * and of every {@code <dependency>} in it. Edits are kept as pending changes and turned into
+ * splices on {@link #write()}: the untouched byte ranges are copied from the original file with
+ * {@link FileChannel#transferTo}, only the changed ranges are generated, and the result replaces
+ * the original through an atomic rename. Whitespace, comments and attribute order outside the
+ * edited ranges are preserved byte for byte.</p>
+ *
+ * <p>The file is scanned as ISO-8859-1 so that every character of the scanned text maps to exactly
+ * one byte of the file; element values are decoded back as UTF-8.</p>
+ */
+public final class PomEditor {
+  private static final String DEPENDENCY = "dependency";
+  private static final String DEFAULT_INDENT = "    ";
+
+  private final Path path;
+  private final byte[] source;
+  private final String text;
+  private final FileTime lastModified;
+  private final String lineSeparator;
+  private final List<Entry> entries = new ArrayList<>();
+  private final Map<String, Entry> index = new HashMap<>();
+  private final Map<String, Dependency> added = new LinkedHashMap<>();
+
+  private int blockStart = -1;
+  private int blockEnd = -1;
+  private int blockCloseStart = -1;
+  private int propertiesEnd = -1;
+  private int projectCloseStart = -1;
+  private String firstChildIndent;
+  private String childIndent;
+
+  private PomEditor(Path path, byte[] source, FileTime lastModified) {
+    this.path = path;
+    this.source = source;
+    this.text = new String(source, StandardCharsets.ISO_8859_1);
+    this.lastModified = lastModified;
+    this.lineSeparator = text.contains("\r\n") ? "\r\n" : "\n";
+  }
+
+  public static PomEditor open(String fileName) throws IOException {
+    return open(Paths.get(fileName));
+  }
+
+  public static PomEditor open(Path path) throws IOException {
+    var absolutePath = path.toAbsolutePath();
+    var lastModified = Files.getLastModifiedTime(absolutePath);
+    var editor = new PomEditor(absolutePath, Files.readAllBytes(absolutePath), lastModified);
+
+    try {
+      editor.scan();
+    } catch (XMLStreamException e) {
+      throw new IOException("Failed to parse " + absolutePath, e);
+    }
+
+    return editor;
+  }
+
+  /**
+   * Sets the version of an existing dependency, or appends the dependency to the block when it is
+   * not declared yet. A {@code null} version leaves an existing declaration untouched.
+   */
+  public PomEditor addOrUpdateDependency(Dependency dependency) {
+    var key = key(dependency.getGroupId(), dependency.getArtifactId());
+    var existing = index.get(key);
+    if (existing != null) {
+      existing.removed = false;
+      if (dependency.getVersion() != null) {
+        existing.newVersion = dependency.getVersion().equals(existing.version) ? null : dependency.getVersion();
+      }
+      return this;
+    }
+
+    var pending = added.get(key);
+    if (pending != null) {
+      pending.setVersion(dependency.getVersion());
+    } else {
+      added.put(key, copyOf(dependency));
+    }
+    return this;
+  }
+
+  public boolean removeDependency(String groupId, String artifactId) {
+    var key = key(groupId, artifactId);
+    var existing = index.get(key);
+    if (existing != null && !existing.removed) {
+      existing.removed = true;
+      existing.newVersion = null;
+      return true;
+    }
+
+    return added.remove(key) != null;
+  }
+
+  public boolean hasDependency(String groupId, String artifactId) {
+    var key = key(groupId, artifactId);
+    var existing = index.get(key);
+    return existing != null ? !existing.removed : added.containsKey(key);
+  }
+
+  /**
+   * Dependencies as they will be written: the declared ones with pending changes applied, followed
+   * by the added ones.
+   */
+  public List<Dependency> getDependencies() {
+    var dependencies = new ArrayList<Dependency>();
+    entries.stream()
+        .filter(e -> !e.removed)
+        .map(e -> new Dependency(e.groupId, e.artifactId, e.newVersion != null ? e.newVersion : e.version))
+        .forEach(dependencies::add);
+    added.values().stream().map(PomEditor::copyOf).forEach(dependencies::add);
+    return dependencies;
+  }
+
+  public boolean hasChanges() {
+    return !added.isEmpty() || entries.stream().anyMatch(e -> e.removed || e.newVersion != null);
+  }
+
+  /**
+   * Returns the full content of the file with the pending changes applied.
+   */
+  public String render() {
+    var output = new ByteArrayOutputStream(source.length + 256);
+    int position = 0;
+    for (var splice : splices()) {
+      output.write(source, position, splice.start - position);
+      output.writeBytes(splice.replacement);
+      position = splice.end;
+    }
+    output.write(source, position, source.length - position);
+    return output.toString(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes the pending changes to disk. Fails if the file was modified after it was opened.
+   */
+  public void write() throws IOException {
+    var splices = splices();
+    if (splices.isEmpty()) {
+      return;
+    }
+
+    if (!Files.getLastModifiedTime(path).equals(lastModified) || Files.size(path) != source.length) {
+      throw new IOException(path + " changed on disk since it was read");
+    }
+
+    var temp = Files.createTempFile(path.getParent(), "." + path.getFileName(), ".tmp");
+    try {
+      try (var in = FileChannel.open(path, StandardOpenOption.READ);
+           var out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        long position = 0;
+        for (var splice : splices) {
+          transfer(in, position, splice.start - position, out);
+          var buffer = ByteBuffer.wrap(splice.replacement);
+          while (buffer.hasRemaining()) {
+            out.write(buffer);
+          }
+          position = splice.end;
+        }
+        transfer(in, position, in.size() - position, out);
+        out.force(true);
+      }
+
+      copyPermissions(path, temp);
+      try {
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private void scan() throws XMLStreamException {
+    var cursor = new MarkupCursor(text);
+    var reader = PomEngine.inputFactory().createXMLStreamReader(cursor.reader());
+    try {
+      int depth = 0;
+      boolean inBlock = false;
+      Entry current = null;
+      int elementStart = -1;
+      int valueStart = -1;
+      int commentStart = -1;
+      int commentEnd = -1;
+      String comment = null;
+
+      while (reader.hasNext()) {
+        int event = reader.next();
+        cursor.advance(event);
+
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          depth++;
+          var name = reader.getLocalName();
+
+          if (depth == 2 && firstChildIndent == null) {
+            firstChildIndent = Objects.requireNonNullElse(indentBefore(cursor.tagStart()), "");
+          }
+
+          if (depth == 2 && blockStart < 0 && Dependency.XML_WRAPPER_ELEMENT.equals(name)) {
+            blockStart = cursor.tagStart();
+            inBlock = true;
+          } else if (inBlock && depth == 3 && DEPENDENCY.equals(name)) {
+            current = new Entry(cursor.tagStart());
+            if (comment != null && MavenConstants.ADDED_COMMENT.equals(comment.trim())
+                && text.substring(commentEnd, current.start).isBlank()) {
+              current.commentStart = commentStart;
+            }
+          } else if (current != null && depth == 4) {
+            elementStart = cursor.tagStart();
+            valueStart = cursor.tagEnd();
+            if (childIndent == null) {
+              childIndent = indentBefore(elementStart);
+            }
+          }
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+          if (current != null && depth == 4) {
+            var value = decode(valueStart, Math.max(valueStart, cursor.tagStart())).trim();
+            switch (reader.getLocalName()) {
+              case "groupId" -> current.groupId = value;
+              case "artifactId" -> current.artifactId = value;
+              case "version" -> {
+                current.version = value;
+                current.versionStart = elementStart;
+                current.versionEnd = cursor.tagEnd();
+              }
+              default -> { }
+            }
+          } else if (current != null && depth == 3) {
+            current.end = cursor.tagEnd();
+            current.closeStart = cursor.tagStart();
+            entries.add(current);
+            index.putIfAbsent(key(current.groupId, current.artifactId), current);
+            current = null;
+          } else if (inBlock && depth == 2) {
+            blockEnd = cursor.tagEnd();
+            blockCloseStart = cursor.tagStart() == cursor.tagEnd() ? -1 : cursor.tagStart();
+            return;
+          } else if (depth == 2 && "properties".equals(reader.getLocalName())) {
+            propertiesEnd = cursor.tagEnd();
+          } else if (depth == 1) {
+            projectCloseStart = cursor.tagStart();
+          }
+          depth--;
+        } else if (event == XMLStreamConstants.COMMENT && inBlock && depth == 2) {
+          commentStart = cursor.tagStart();
+          commentEnd = cursor.tagEnd();
+          comment = reader.getText();
+        }
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  private List<Splice> splices() {
+    var splices = new ArrayList<Splice>();
+
+    for (var entry : entries) {
+      if (entry.removed) {
+        int start = entry.commentStart >= 0 ? entry.commentStart : entry.start;
+        int lineStart = lineStart(start);
+        splices.add(new Splice(lineStart >= 0 ? lineStart : start, lineEnd(entry.end), ""));
+      } else if (entry.newVersion != null) {
+        var version = element("version", entry.newVersion);
+        if (entry.versionStart >= 0) {
+          splices.add(new Splice(entry.versionStart, entry.versionEnd, version));
+        } else {
+          int lineStart = lineStart(entry.closeStart);
+          splices.add(lineStart >= 0
+              ? new Splice(lineStart, lineStart, childIndent() + version + lineSeparator)
+              : new Splice(entry.closeStart, entry.closeStart, version));
+        }
+      }
+    }
+
+    if (!added.isEmpty()) {
+      splices.add(additionSplice());
+    }
+
+    splices.sort(Comparator.comparingInt(Splice::start));
+    return splices;
+  }
+
+  private Splice additionSplice() {
+    var items = new StringBuilder();
+    added.values().forEach(dependency -> appendDependency(items, dependency));
+
+    if (blockStart >= 0 && blockCloseStart >= 0) {
+      int lineStart = lineStart(blockCloseStart);
+      return lineStart >= 0
+          ? new Splice(lineStart, lineStart, items.toString())
+          : new Splice(blockCloseStart, blockCloseStart, lineSeparator + items + blockIndent());
+    }
+
+    var block = "<dependencies>" + lineSeparator + items + blockIndent() + "</dependencies>";
+    if (blockStart >= 0) {
+      return new Splice(blockStart, blockEnd, block);
+    }
+
+    if (propertiesEnd >= 0) {
+      return new Splice(propertiesEnd, propertiesEnd, lineSeparator + lineSeparator + blockIndent() + block);
+    }
+
+    int lineStart = lineStart(projectCloseStart);
+    return lineStart >= 0
+        ? new Splice(lineStart, lineStart, blockIndent() + block + lineSeparator)
+        : new Splice(projectCloseStart, projectCloseStart, lineSeparator + blockIndent() + block + lineSeparator);
+  }
+
+  private void appendDependency(StringBuilder builder, Dependency dependency) {
+    var itemIndent = itemIndent();
+    var childIndent = childIndent();
+
+    builder.append(itemIndent).append("<!-- ").append(MavenConstants.ADDED_COMMENT).append(" -->").append(lineSeparator)
+        .append(itemIndent).append("<dependency>").append(lineSeparator)
+        .append(childIndent).append(element("groupId", dependency.getGroupId())).append(lineSeparator)
+        .append(childIndent).append(element("artifactId", dependency.getArtifactId())).append(lineSeparator);
+
+    if (dependency.getVersion() != null) {
+      builder.append(childIndent).append(element("version", dependency.getVersion())).append(lineSeparator);
+    }
+    if (dependency.getType() != null) {
+      builder.append(childIndent).append(element("type", dependency.getType())).append(lineSeparator);
+    }
+    if (dependency.getClassifier() != null) {
+      builder.append(childIndent).append(element("classifier", dependency.getClassifier())).append(lineSeparator);
+    }
+    if (dependency.getScope() != null) {
+      builder.append(childIndent).append(element("scope", dependency.getScope())).append(lineSeparator);
+    }
+    if (dependency.getOptional() != null) {
+      builder.append(childIndent).append(element("optional", dependency.getOptional())).append(lineSeparator);
+    }
+
+    builder.append(itemIndent).append("</dependency>").append(lineSeparator);
+  }
+
+  private String indentUnit() {
+    return firstChildIndent == null || firstChildIndent.isEmpty() ? DEFAULT_INDENT : firstChildIndent;
+  }
+
+  private String blockIndent() {
+    if (blockStart >= 0) {
+      var indent = indentBefore(blockStart);
+      if (indent != null) {
+        return indent;
+      }
+    }
+    return Objects.requireNonNullElse(firstChildIndent, "");
+  }
+
+  private String itemIndent() {
+    if (!entries.isEmpty()) {
+      var indent = indentBefore(entries.getFirst().start);
+      if (indent != null) {
+        return indent;
+      }
+    }
+    return blockIndent() + indentUnit();
+  }
+
+  private String childIndent() {
+    return childIndent != null ? childIndent : itemIndent() + indentUnit();
+  }
+
+  private static String key(String groupId, String artifactId) {
+    return groupId + ":" + artifactId;
+  }
+
+  private String decode(int start, int end) {
+    return new String(source, start, end - start, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Whitespace between the start of the line and {@code offset}, or {@code null} if anything else
+   * precedes it on that line.
+   */
+  private String indentBefore(int offset) {
+    int lineStart = lineStart(offset);
+    return lineStart < 0 ? null : text.substring(lineStart, offset);
+  }
+
+  private int lineStart(int offset) {
+    int i = offset;
+    while (i > 0 && (text.charAt(i - 1) == ' ' || text.charAt(i - 1) == '\t')) {
+      i--;
+    }
+    return i == 0 || text.charAt(i - 1) == '\n' ? i : -1;
+  }
+
+  private int lineEnd(int offset) {
+    int i = offset;
+    while (i < text.length() && (text.charAt(i) == ' ' || text.charAt(i) == '\t')) {
+      i++;
+    }
+    if (text.startsWith("\r\n", i)) {
+      return i + 2;
+    }
+    if (text.startsWith("\n", i)) {
+      return i + 1;
+    }
+    return offset;
+  }
+
+  private static String element(String name, String value) {
+    var escaped = value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    return "<%s>%s</%s>".formatted(name, escaped, name);
+  }
+
+  private static Dependency copyOf(Dependency dependency) {
+    var copy = new Dependency(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion(),
+        dependency.getType(), dependency.getScope(), dependency.getOptional());
+    copy.setClassifier(dependency.getClassifier());
+    return copy;
+  }
+
+  private static void transfer(FileChannel in, long position, long count, FileChannel out) throws IOException {
+    long transferred = 0;
+    while (transferred < count) {
+      transferred += in.transferTo(position + transferred, count - transferred, out);
+    }
+  }
+
+  private static void copyPermissions(Path from, Path to) throws IOException {
+    var view = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+    if (view != null) {
+      Files.setPosixFilePermissions(to, view.readAttributes().permissions());
+    }
+  }
+
+  private static final class Entry {
+    private final int start;
+    private int end;
+    private int closeStart;
+    private int commentStart = -1;
+    private int versionStart = -1;
+    private int versionEnd = -1;
+    private String groupId = "";
+    private String artifactId = "";
+    private String version;
+    private String newVersion;
+    private boolean removed;
+
+    private Entry(int start) {
+      this.start = start;
+    }
+  }
+
+  private record Splice(int start, int end, byte[] replacement) {
+    private Splice(int start, int end, String replacement) {
+      this(start, end, replacement.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.exceptions.ExtractionRuntimeException;
+import dev.buildcli.core.model.Dependency;
+import dev.buildcli.core.model.Pom;
+import dev.buildcli.core.utils.NamespaceFilter;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Reads a {@code pom.xml} once and produces both the JAXB {@link Pom} model and the offsets needed
+ * to rewrite its dependencies block.
+ *
+ * <p>The {@link JAXBContext} is created once per JVM and shared; it is thread-safe, unlike the
+ * unmarshallers created from it, which are created per call.</p>
+ */
+public final class PomEngine {
+  private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+  private PomEngine() { }
+
+  public static PomDocument load(String fileName) {
+    return load(Paths.get(fileName));
+  }
+
+  public static PomDocument load(Path path) {
+    try {
+      var content = new String(Files.readAllBytes(path.toAbsolutePath()), StandardCharsets.UTF_8);
+      return parse(content);
+    } catch (IOException e) {
+      throw new ExtractionRuntimeException(e);
+    }
+  }
+
+  public static PomDocument parse(String content) {
+    try {
+      var cursor = new MarkupCursor(content);
+      var reader = new OffsetTrackingReader(XML_INPUT_FACTORY.createXMLStreamReader(cursor.reader()), cursor);
+      var pom = ContextHolder.CONTEXT.createUnmarshaller().unmarshal(reader, Pom.class).getValue();
+
+      return new PomDocument(pom, content, reader.dependenciesStart, reader.dependenciesEnd, reader.projectEnd);
+    } catch (JAXBException | XMLStreamException e) {
+      throw new ExtractionRuntimeException(e);
+    }
+  }
+
+  static XMLInputFactory inputFactory() {
+    return XML_INPUT_FACTORY;
+  }
+
+  private static XMLInputFactory createInputFactory() {
+    var factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false); // prevent XXE attack
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+
+  private static final class ContextHolder {
+    private static final JAXBContext CONTEXT = createContext();
+
+    private static JAXBContext createContext() {
+      try {
+        return JAXBContext.newInstance(Pom.class);
+      } catch (JAXBException e) {
+        throw new ExtractionRuntimeException(e);
+      }
+    }
+  }
+
+  /**
+   * Records where the project level {@code <dependencies>} block and the closing {@code </project>}
+   * tag sit in the source while JAXB pulls events through it.
+   */
+  private static final class OffsetTrackingReader extends NamespaceFilter {
+    private final MarkupCursor cursor;
+    private int depth;
+    private int dependenciesStart = -1;
+    private int dependenciesEnd = -1;
+    private int projectEnd = -1;
+
+    private OffsetTrackingReader(XMLStreamReader reader, MarkupCursor cursor) {
+      super(reader);
+      this.cursor = cursor;
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+      int event = super.next();
+      cursor.advance(event);
+
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+        if (depth == 2 && dependenciesStart < 0 && isDependencies()) {
+          dependenciesStart = cursor.tagStart();
+        }
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        if (depth == 2 && dependenciesStart >= 0 && dependenciesEnd < 0 && isDependencies()) {
+          dependenciesEnd = cursor.tagEnd();
+        } else if (depth == 1 && Pom.XML_ELEMENT.equals(getLocalName())) {
+          projectEnd = cursor.tagStart();
+        }
+        depth--;
+      }
+
+      return event;
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+      int event = next();
+      while (event == XMLStreamConstants.CHARACTERS && isWhiteSpace()
+          || event == XMLStreamConstants.CDATA && isWhiteSpace()
+          || event == XMLStreamConstants.SPACE
+          || event == XMLStreamConstants.PROCESSING_INSTRUCTION
+          || event == XMLStreamConstants.COMMENT) {
+        event = next();
+      }
+
+      if (event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT) {
+        throw new XMLStreamException("expected start or end tag", getLocation());
+      }
+
+      return event;
+    }
+
+    private boolean isDependencies() {
+      return Dependency.XML_WRAPPER_ELEMENT.equals(getLocalName());
+    }
+  }
+}
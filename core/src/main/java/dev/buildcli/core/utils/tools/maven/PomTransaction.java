@@ -0,0 +1,86 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.model.Dependency;
+import dev.buildcli.core.model.Pom;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Collects dependency changes for one {@code pom.xml} and writes them in a single pass.
+ *
+ * <p>The file is scanned once when the transaction begins and its declared dependencies are indexed
+ * by {@code groupId:artifactId}, so every operation is a constant-time lookup regardless of how many
+ * coordinates are changed. Nothing touches the disk until {@link #commit()}; dropping the
+ * transaction discards the changes.</p>
+ */
+public final class PomTransaction {
+  private final PomEditor editor;
+
+  private PomTransaction(PomEditor editor) {
+    this.editor = editor;
+  }
+
+  public static PomTransaction begin(String fileName) throws IOException {
+    return begin(Paths.get(fileName));
+  }
+
+  public static PomTransaction begin(Path path) throws IOException {
+    return new PomTransaction(PomEditor.open(path));
+  }
+
+  /**
+   * Adds the dependency, or sets its version if it is already declared.
+   */
+  public PomTransaction add(Dependency dependency) {
+    editor.addOrUpdateDependency(dependency);
+    return this;
+  }
+
+  /**
+   * Sets the version of a declared dependency. Coordinates that are not declared are ignored.
+   */
+  public PomTransaction update(Dependency dependency) {
+    if (editor.hasDependency(dependency.getGroupId(), dependency.getArtifactId())) {
+      editor.addOrUpdateDependency(dependency);
+    }
+    return this;
+  }
+
+  public PomTransaction remove(String groupId, String artifactId) {
+    editor.removeDependency(groupId, artifactId);
+    return this;
+  }
+
+  public boolean hasDependency(String groupId, String artifactId) {
+    return editor.hasDependency(groupId, artifactId);
+  }
+
+  public List<Dependency> getDependencies() {
+    return editor.getDependencies();
+  }
+
+  /**
+   * Returns the model the file would have after {@link #commit()}, read from the edited content
+   * without writing it.
+   */
+  public Pom preview() {
+    return PomEngine.parse(editor.render()).pom();
+  }
+
+  /**
+   * Writes all pending changes at once.
+   *
+   * @return {@code false} if the changes cancelled out and the file was left untouched
+   */
+  public boolean commit() throws IOException {
+    if (!editor.hasChanges()) {
+      return false;
+    }
+
+    editor.write();
+    return true;
+  }
+}
@@ -0,0 +1,224 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.model.Dependency;
+import dev.buildcli.core.model.Pom;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * In-memory graph of a multi-module Maven build.
+ *
+ * <p>Starting from the root {@code pom.xml}, every {@code <module>} is followed and read through
+ * {@link PomCache} on the shared virtual thread executor; a module's children are scheduled as soon
+ * as its own POM is parsed, so wide reactors are read concurrently. The resulting projects are keyed
+ * by {@code groupId:artifactId} and linked through parent, module and dependency edges.</p>
+ */
+public final class ReactorIndex {
+  public static final String ALL_MODULES = "all";
+
+  private static final Logger logger = Logger.getLogger(ReactorIndex.class.getName());
+
+  private final ReactorModule root;
+  private final Map<String, ReactorModule> byKey;
+  private final Map<String, List<ReactorModule>> byArtifactId;
+  private final Map<String, List<String>> dependents;
+
+  private ReactorIndex(ReactorModule root, Map<String, ReactorModule> byKey) {
+    this.root = root;
+    this.byKey = byKey;
+    this.byArtifactId = new HashMap<>();
+    this.dependents = new HashMap<>();
+
+    for (var module : byKey.values()) {
+      byArtifactId.computeIfAbsent(module.artifactId(), k -> new ArrayList<>()).add(module);
+      module.dependencies().forEach(d -> dependents.computeIfAbsent(d, k -> new ArrayList<>()).add(module.key()));
+    }
+  }
+
+  /**
+   * Indexes the reactor rooted at {@code path}, which may be a {@code pom.xml} or its directory.
+   */
+  public static ReactorIndex build(Path path) {
+    var rootPom = (Files.isDirectory(path) ? path.resolve(MavenConstants.FILE) : path).toAbsolutePath().normalize();
+    var parsed = new ConcurrentHashMap<Path, Pom>();
+    var children = new ConcurrentHashMap<Path, List<Path>>();
+
+    try {
+      scan(rootPom, parsed, children, ConcurrentHashMap.newKeySet()).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+
+    return assemble(rootPom, parsed, children);
+  }
+
+  /**
+   * Resolves the {@code pom.xml} files a command should act on: the root POM when {@code module} is
+   * {@code null}, every project for {@link #ALL_MODULES}, or the matching project otherwise.
+   */
+  public static List<Path> resolveTargets(Path rootPom, String module) {
+    if (module == null) {
+      return List.of(rootPom);
+    }
+
+    var index = build(rootPom);
+    if (ALL_MODULES.equals(module)) {
+      return index.modules().stream().map(ReactorModule::pomFile).toList();
+    }
+
+    return index.find(module)
+        .map(m -> List.of(m.pomFile()))
+        .orElseThrow(() -> new IllegalArgumentException("Module not found in reactor: " + module));
+  }
+
+  public ReactorModule root() {
+    return root;
+  }
+
+  /**
+   * All projects of the reactor, root first, then in module declaration order.
+   */
+  public Collection<ReactorModule> modules() {
+    return Collections.unmodifiableCollection(byKey.values());
+  }
+
+  public int size() {
+    return byKey.size();
+  }
+
+  /**
+   * Looks a project up by {@code groupId:artifactId}, or by artifact id alone when it is unique.
+   */
+  public Optional<ReactorModule> find(String coordinates) {
+    if (coordinates.contains(":")) {
+      var parts = coordinates.split(":");
+      return Optional.ofNullable(byKey.get(key(parts[0], parts[1])));
+    }
+
+    var candidates = byArtifactId.getOrDefault(coordinates, List.of());
+    return candidates.size() == 1 ? Optional.of(candidates.getFirst()) : Optional.empty();
+  }
+
+  public Optional<ReactorModule> parentOf(ReactorModule module) {
+    return Optional.ofNullable(module.parent()).map(byKey::get);
+  }
+
+  public List<ReactorModule> modulesOf(ReactorModule module) {
+    return resolve(module.modules());
+  }
+
+  public List<ReactorModule> dependenciesOf(ReactorModule module) {
+    return resolve(module.dependencies());
+  }
+
+  public List<ReactorModule> dependentsOf(ReactorModule module) {
+    return resolve(dependents.getOrDefault(module.key(), List.of()));
+  }
+
+  static String key(String groupId, String artifactId) {
+    return groupId + ":" + artifactId;
+  }
+
+  private List<ReactorModule> resolve(List<String> keys) {
+    return keys.stream().map(byKey::get).filter(Objects::nonNull).toList();
+  }
+
+  private static CompletableFuture<Void> scan(Path pomFile, Map<Path, Pom> parsed, Map<Path, List<Path>> children,
+                                              Set<Path> visited) {
+    if (!visited.add(pomFile)) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    return CompletableFuture.supplyAsync(() -> PomCache.read(pomFile), ThreadPoolUtils.virtual())
+        .thenCompose(pom -> {
+          var modules = modulePoms(pomFile, pom);
+          parsed.put(pomFile, pom);
+          children.put(pomFile, modules);
+          return CompletableFuture.allOf(modules.stream()
+              .map(child -> scan(child, parsed, children, visited))
+              .toArray(CompletableFuture[]::new));
+        });
+  }
+
+  private static List<Path> modulePoms(Path pomFile, Pom pom) {
+    var poms = new ArrayList<Path>();
+    for (var module : pom.getModules()) {
+      var path = pomFile.getParent().resolve(module.trim()).normalize();
+      var modulePom = Files.isDirectory(path) ? path.resolve(MavenConstants.FILE) : path;
+
+      if (Files.isRegularFile(modulePom)) {
+        poms.add(modulePom);
+      } else {
+        logger.warning("Module '%s' declared in %s has no pom.xml".formatted(module, pomFile));
+      }
+    }
+    return poms;
+  }
+
+  private static ReactorIndex assemble(Path rootPom, Map<Path, Pom> parsed, Map<Path, List<Path>> children) {
+    var coordinates = new HashMap<Path, String[]>();
+    parsed.forEach((path, pom) -> coordinates.put(path, coordinatesOf(pom)));
+    var reactorKeys = new HashSet<String>();
+    coordinates.values().forEach(gav -> reactorKeys.add(key(gav[0], gav[1])));
+
+    var byKey = new LinkedHashMap<String, ReactorModule>();
+    var pending = new ArrayList<Path>(List.of(rootPom));
+    var queued = new HashSet<Path>(pending);
+    for (int i = 0; i < pending.size(); i++) {
+      var path = pending.get(i);
+      var pom = parsed.get(path);
+      var gav = coordinates.get(path);
+
+      var modulePoms = children.get(path);
+      modulePoms.stream().filter(queued::add).forEach(pending::add);
+
+      var parent = pom.getParent() == null ? null : key(pom.getParent().getGroupId(), pom.getParent().getArtifactId());
+      var modules = modulePoms.stream().map(c -> key(coordinates.get(c)[0], coordinates.get(c)[1])).toList();
+      var dependencies = pom.getDependencies().stream()
+          .map(d -> key(resolveGroupId(d, gav[0]), d.getArtifactId()))
+          .filter(reactorKeys::contains)
+          .distinct()
+          .toList();
+
+      var module = new ReactorModule(gav[0], gav[1], gav[2], path, pom, parent, modules, dependencies);
+      if (byKey.putIfAbsent(module.key(), module) != null) {
+        logger.warning("Duplicate project %s in %s".formatted(module.key(), path));
+      }
+    }
+
+    return new ReactorIndex(byKey.get(key(coordinates.get(rootPom)[0], coordinates.get(rootPom)[1])), byKey);
+  }
+
+  private static String[] coordinatesOf(Pom pom) {
+    var parent = pom.getParent();
+    var groupId = pom.getGroupId() != null ? pom.getGroupId() : parent == null ? null : parent.getGroupId();
+    var version = pom.getVersion() != null ? pom.getVersion() : parent == null ? null : parent.getVersion();
+    return new String[]{groupId, pom.getArtifactId(), version};
+  }
+
+  private static String resolveGroupId(Dependency dependency, String projectGroupId) {
+    var groupId = dependency.getGroupId();
+    return "${project.groupId}".equals(groupId) || "${pom.groupId}".equals(groupId) ? projectGroupId : groupId;
+  }
+}
@@ -0,0 +1,32 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.model.Pom;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A project of a multi-module build as seen by {@link ReactorIndex}. Edges to other projects are
+ * stored as {@code groupId:artifactId} keys; the parent key is set even when the parent is not part
+ * of the reactor.
+ *
+ * @param groupId      the declared group id, or the parent's when omitted
+ * @param artifactId   the declared artifact id
+ * @param version      the declared version, or the parent's when omitted
+ * @param pomFile      absolute path of the {@code pom.xml}
+ * @param pom          the parsed model
+ * @param parent       key of the parent project, or {@code null}
+ * @param modules      keys of the aggregated modules
+ * @param dependencies keys of the reactor projects this one depends on
+ */
+public record ReactorModule(String groupId, String artifactId, String version, Path pomFile, Pom pom,
+                            String parent, List<String> modules, List<String> dependencies) {
+
+  public String key() {
+    return ReactorIndex.key(groupId, artifactId);
+  }
+
+  public Path directory() {
+    return pomFile.getParent();
+  }
+}
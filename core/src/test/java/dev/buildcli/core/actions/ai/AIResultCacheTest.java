@@ -0,0 +1,106 @@
+package dev.buildcli.core.actions.ai;
+
+import dev.buildcli.core.actions.ai.params.JlamaAIServiceParams;
+import dev.buildcli.core.actions.ai.params.OllamaAIServiceParams;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIResultCacheTest {
+  @TempDir
+  Path tempDir;
+
+  private final AtomicInteger generated = new AtomicInteger();
+
+  private final StreamingAIService service = new StreamingAIService() {
+    @Override
+    public String generate(AIChat chat, Consumer<String> onToken) {
+      generated.incrementAndGet();
+      onToken.accept("// ");
+      onToken.accept(chat.getUserMessage());
+      return "// " + chat.getUserMessage();
+    }
+  };
+
+  @Test
+  void replaysAnswersForUnchangedSources() {
+    var params = new JlamaAIServiceParams("tjake/Qwen2.5-0.5B-Instruct-JQ4");
+    var cached = new AIResultCache(tempDir, 1024 * 1024).cached(service, params);
+    var tokens = new ArrayList<String>();
+
+    assertEquals("// class A {}", cached.generate(new AIChat("comment", "class A {}"), tokens::add));
+    assertEquals("// class A {}", new AIResultCache(tempDir, 1024 * 1024).cached(service, params)
+        .generate(new AIChat("comment", "class A {}"), tokens::add));
+
+    assertEquals(1, generated.get());
+    assertEquals(List.of("// ", "class A {}", "// class A {}"), tokens);
+  }
+
+  @Test
+  void keysOnSourcePromptVendorModelAndUrl() {
+    var jlama = new JlamaAIServiceParams("llama3.2");
+    var ollama = new OllamaAIServiceParams("http://localhost:11434", "llama3.2");
+    var chat = new AIChat("comment", "class A {}");
+
+    assertEquals(AIResultCache.key(chat, jlama), AIResultCache.key(new AIChat("comment", "class A {}"), jlama));
+    assertNotEquals(AIResultCache.key(chat, jlama), AIResultCache.key(chat, ollama));
+    assertNotEquals(AIResultCache.key(chat, ollama),
+        AIResultCache.key(chat, new OllamaAIServiceParams("http://localhost:11434", "qwen2.5")));
+    assertNotEquals(AIResultCache.key(chat, ollama),
+        AIResultCache.key(chat, new OllamaAIServiceParams("http://gpu-host:11434", "llama3.2")));
+    assertNotEquals(AIResultCache.key(chat, jlama), AIResultCache.key(new AIChat("document", "class A {}"), jlama));
+    assertNotEquals(AIResultCache.key(chat, jlama), AIResultCache.key(new AIChat("comment", "class B {}"), jlama));
+    assertNotEquals(AIResultCache.key(new AIChat("ab", "c"), jlama), AIResultCache.key(new AIChat("a", "bc"), jlama));
+  }
+
+  @Test
+  void evictsTheLeastRecentlyUsedAnswers() throws IOException {
+    var cache = new AIResultCache(tempDir, 2500);
+    var answer = "x".repeat(1000);
+
+    cache.put("aa01", answer);
+    cache.put("bb02", answer);
+    age("aa01", 2);
+    age("bb02", 1);
+    assertTrue(cache.get("aa01").isPresent(), "a hit marks the answer as used");
+
+    cache.put("cc03", answer);
+
+    assertTrue(cache.get("aa01").isPresent());
+    assertTrue(cache.get("bb02").isEmpty());
+    assertTrue(cache.get("cc03").isPresent());
+    try (Stream<Path> files = Files.walk(tempDir)) {
+      assertEquals(2, files.filter(Files::isRegularFile).count());
+    }
+  }
+
+  @Test
+  void countsAReplacedAnswerOnce() {
+    var cache = new AIResultCache(tempDir, 2500);
+    var answer = "x".repeat(1000);
+
+    for (int i = 0; i < 3; i++) {
+      cache.put("aa01", answer);
+    }
+    cache.put("bb02", answer);
+
+    assertTrue(cache.get("aa01").isPresent());
+    assertTrue(cache.get("bb02").isPresent());
+  }
+
+  private void age(String key, int minutes) throws IOException {
+    var file = tempDir.resolve(key.substring(0, 2)).resolve(key + ".md");
+    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - minutes * 60_000L));
+  }
+}
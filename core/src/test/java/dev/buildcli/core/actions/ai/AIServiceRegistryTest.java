@@ -0,0 +1,113 @@
+package dev.buildcli.core.actions.ai;
+
+import dev.buildcli.core.actions.ai.factories.AIServiceFactory;
+import dev.buildcli.core.actions.ai.params.JlamaAIServiceParams;
+import dev.buildcli.core.actions.ai.params.OllamaAIServiceParams;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIServiceRegistryTest {
+  private final AtomicInteger created = new AtomicInteger();
+  private final AtomicInteger running = new AtomicInteger();
+  private final AtomicInteger maxRunning = new AtomicInteger();
+  private final AITelemetry telemetry = new AITelemetry(null);
+
+  private final AIServiceFactory<AIService, AIServiceParams> factory = params -> {
+    created.incrementAndGet();
+    try {
+      Thread.sleep(100);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return chat -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(20);
+        return params.model().orElse("") + ": " + chat.getUserMessage();
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      } finally {
+        running.decrementAndGet();
+      }
+    };
+  };
+
+  @Test
+  void createsEachModelOnce() {
+    var registry = new AIServiceRegistry(factory, params -> 1, telemetry);
+
+    var first = registry.service(new JlamaAIServiceParams("tjake/Qwen2.5-0.5B-Instruct-JQ4"));
+    var second = registry.service(new JlamaAIServiceParams("tjake/Qwen2.5-0.5B-Instruct-JQ4"));
+    var other = registry.service(new JlamaAIServiceParams("tjake/Llama-3.2-1B-Instruct-JQ4"));
+    var remote = registry.service(new OllamaAIServiceParams("http://localhost:11434", "tjake/Qwen2.5-0.5B-Instruct-JQ4"));
+
+    assertSame(first, second);
+    assertNotSame(first, other);
+    assertNotSame(first, remote);
+    assertEquals(3, created.get());
+  }
+
+  @Test
+  void concurrentCallersShareOneLoad() throws Exception {
+    var registry = new AIServiceRegistry(factory, params -> 1, telemetry);
+
+    var services = new ArrayList<Future<AIService>>();
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 16; i++) {
+        services.add(executor.submit(() -> registry.service(new JlamaAIServiceParams("model"))));
+      }
+      var expected = services.getFirst().get(5, TimeUnit.SECONDS);
+      for (var service : services) {
+        assertSame(expected, service.get(5, TimeUnit.SECONDS));
+      }
+    }
+    assertEquals(1, created.get());
+  }
+
+  @Test
+  void limitsConcurrentGenerations() throws Exception {
+    var registry = new AIServiceRegistry(factory, params -> 3, telemetry);
+    var service = registry.service(new OllamaAIServiceParams("http://localhost:11434", "llama3.2"));
+
+    var answers = new ArrayList<Future<String>>();
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 24; i++) {
+        var chat = new AIChat("system", "file" + i);
+        answers.add(executor.submit(() -> service.generate(chat)));
+      }
+      for (int i = 0; i < answers.size(); i++) {
+        assertEquals("llama3.2: file" + i, answers.get(i).get(5, TimeUnit.SECONDS));
+      }
+    }
+    assertEquals(3, maxRunning.get());
+  }
+
+  @Test
+  void measuresQueueWaitOfEachGeneration() throws Exception {
+    var registry = new AIServiceRegistry(factory, params -> 1, telemetry);
+    var service = registry.service(new OllamaAIServiceParams("http://localhost:11434", "llama3.2"));
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 4; i++) {
+        var chat = new AIChat("system", "file" + i);
+        executor.submit(() -> service.generate(chat, token -> {
+        }));
+      }
+    }
+
+    var requests = telemetry.since(0);
+    assertEquals(4, requests.size());
+    assertTrue(requests.stream().allMatch(request -> request.succeeded() && request.tokensEstimated()));
+    assertTrue(requests.stream().allMatch(request -> request.latency().toMillis() >= 20));
+    // one slot: the last of four callers waits for the three before it
+    assertTrue(AITelemetry.percentile(requests, AIRequestMetrics::queueWait, 100).toMillis() >= 55);
+    assertEquals("ollama", requests.getFirst().vendor());
+  }
+}
@@ -0,0 +1,98 @@
+package dev.buildcli.core.actions.ai;
+
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AITelemetryTest {
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void appendsEachRequestAsAJsonLine() throws Exception {
+    var file = tempDir.resolve("telemetry").resolve("ai.jsonl");
+    var telemetry = new AITelemetry(file);
+
+    try (var request = telemetry.start(new AIChat("system", "code"), "ollama", "llama3.2")) {
+      request.admitted();
+      request.observe(token -> {
+      }).accept("Hello");
+      AITelemetry.reportTokens(120, 40);
+      request.completed("Hello world");
+    }
+    try (var request = telemetry.start(new AIChat("system", "code"), "ollama", "llama3.2")) {
+      request.admitted();
+    }
+
+    var lines = Files.readAllLines(file);
+    assertEquals(2, lines.size());
+    var first = JsonParser.parseString(lines.getFirst()).getAsJsonObject();
+    assertEquals(120, first.get("promptTokens").getAsInt());
+    assertEquals(40, first.get("completionTokens").getAsInt());
+    assertFalse(first.get("tokensEstimated").getAsBoolean());
+    assertTrue(first.get("succeeded").getAsBoolean());
+    assertFalse(JsonParser.parseString(lines.get(1)).getAsJsonObject().get("succeeded").getAsBoolean());
+  }
+
+  @Test
+  void blankOrNoneFileKeepsRequestsInMemory() {
+    assertEquals(AITelemetry.DEFAULT_FILE, AITelemetry.file(Optional.empty()));
+    assertEquals(Path.of("ai.jsonl"), AITelemetry.file(Optional.of(" ai.jsonl ")));
+    assertNull(AITelemetry.file(Optional.of("  ")));
+    assertNull(AITelemetry.file(Optional.of("None")));
+  }
+
+  @Test
+  void ignoresTokensReportedOutsideARequest() {
+    var telemetry = new AITelemetry(null);
+    AITelemetry.reportTokens(1, 1);
+
+    try (var request = telemetry.start(new AIChat("", "12345678"), "jlama", "model")) {
+      request.admitted();
+      request.completed("1234");
+    }
+
+    var metrics = telemetry.since(0).getFirst();
+    assertTrue(metrics.tokensEstimated());
+    assertEquals(2, metrics.promptTokens());
+    assertEquals(1, metrics.completionTokens());
+  }
+
+  @Test
+  void summarizesPerModel() {
+    var requests = List.of(
+        metrics("llama3.2", 100, Duration.ofMillis(200), Duration.ofSeconds(2)),
+        metrics("llama3.2", 100, Duration.ofMillis(400), Duration.ofSeconds(4)),
+        metrics("qwen2.5", 50, Duration.ofMillis(100), Duration.ofSeconds(1)));
+
+    var summary = AITelemetry.summary(requests).orElseThrow();
+
+    var lines = summary.lines().toList();
+    assertEquals(4, lines.size(), summary);
+    assertTrue(lines.get(2).startsWith("ollama/llama3.2"), summary);
+    assertTrue(lines.get(2).contains("200 ms"), summary);
+    assertTrue(lines.get(3).startsWith("ollama/qwen2.5"), summary);
+    assertTrue(AITelemetry.summary(List.of()).isEmpty());
+  }
+
+  @Test
+  void tokensPerSecondCountsGenerationAfterTheFirstToken() {
+    var metrics = metrics("llama3.2", 100, Duration.ofSeconds(1), Duration.ofSeconds(3));
+
+    assertEquals(50.0, metrics.tokensPerSecond(), 0.001);
+  }
+
+  private static AIRequestMetrics metrics(String model, int completionTokens, Duration timeToFirstToken, Duration latency) {
+    return new AIRequestMetrics(Instant.now(), "ollama", model, true, 500, completionTokens, false,
+        Duration.ZERO, timeToFirstToken, latency);
+  }
+}
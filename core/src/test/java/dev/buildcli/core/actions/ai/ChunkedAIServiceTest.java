@@ -0,0 +1,99 @@
+package dev.buildcli.core.actions.ai;
+
+import dev.buildcli.core.utils.ai.CodeUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedAIServiceTest {
+  private final List<AIChat> chats = new CopyOnWriteArrayList<>();
+  private final AtomicInteger running = new AtomicInteger();
+  private final AtomicInteger maxRunning = new AtomicInteger();
+
+  /**
+   * Adds a comment on top of the code it gets, answering the later parts first.
+   */
+  private final StreamingAIService documenter = new StreamingAIService() {
+    @Override
+    public String generate(AIChat chat, Consumer<String> onToken) {
+      chats.add(chat);
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(chat.getSystemMessage().contains("part 1 of") ? 200 : 20);
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      } finally {
+        running.decrementAndGet();
+      }
+      var answer = "Sure:\n```java\n// documented\n" + chat.getUserMessage() + "```\nDone.";
+      onToken.accept(answer);
+      return answer;
+    }
+  };
+
+  private static String source(int methods) {
+    var source = new StringBuilder("package com.acme;\n\npublic class Big {\n");
+    for (int i = 0; i < methods; i++) {
+      source.append("\n  int method%d() {\n    return %d;\n  }\n".formatted(i, i));
+    }
+    return source.append("}\n").toString();
+  }
+
+  @Test
+  void documentsPiecesConcurrentlyAndReassemblesThemInOrder() {
+    var source = source(40);
+    var tokens = new ArrayList<String>();
+
+    var answer = ChunkedAIService.forCode(documenter, 64).generate(new AIChat("Document it.", source), tokens::add);
+
+    assertTrue(chats.size() > 3, "pieces: " + chats.size());
+    assertTrue(maxRunning.get() > 1, "pieces run concurrently");
+    assertTrue(chats.stream().allMatch(chat -> chat.getSystemMessage().startsWith("Document it.\n\nThe code below is part ")));
+    assertEquals(answer, String.join("", tokens));
+
+    var code = CodeUtils.extractCode(answer);
+    assertTrue(code.startsWith("// documented\npackage com.acme;"), code);
+    for (int i = 1; i < 40; i++) {
+      assertTrue(code.indexOf("method" + i + "()") > code.indexOf("method" + (i - 1) + "()"), "method order " + i);
+    }
+    assertEquals(chats.size(), code.split("// documented").length - 1);
+    assertTrue(code.endsWith("}"), code);
+  }
+
+  @Test
+  void leavesSmallSourcesToTheService() {
+    var tokens = new ArrayList<String>();
+
+    var answer = ChunkedAIService.forCode(documenter, 10_000).generate(new AIChat("Document it.", source(3)), tokens::add);
+
+    assertEquals(1, chats.size());
+    assertEquals("Document it.", chats.getFirst().getSystemMessage());
+    assertEquals(List.of(answer), tokens);
+  }
+
+  @Test
+  void joinsReviewsOfThePieces() {
+    var answer = ChunkedAIService.forText(documenter, 64).generate(new AIChat("Review it.", source(20)));
+
+    assertEquals(chats.size(), answer.lines().filter("Done."::equals).count());
+    assertTrue(answer.startsWith("Sure:"));
+  }
+
+  @Test
+  void laysOutEachExcerptLikeTheOriginal() {
+    var excerpts = List.of("\n  int a() {\n    return 1;\n  }\n", "\n  int b() {\n    return 2;\n  }\n");
+
+    var answers = ChunkedAIService.forCode(documenter, 64).generateEach(new AIChat("Document it.", ""), excerpts);
+
+    assertEquals(2, chats.size());
+    assertTrue(chats.stream().allMatch(chat -> chat.getSystemMessage().contains("excerpt ")));
+    assertEquals(List.of("\n  // documented\n\n  int a() {\n    return 1;\n  }\n",
+        "\n  // documented\n\n  int b() {\n    return 2;\n  }\n"), answers);
+  }
+}
@@ -0,0 +1,67 @@
+package dev.buildcli.core.actions.ai.service;
+
+import dev.buildcli.core.actions.ai.AIChat;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AbstractLangchain4jAIServiceTest {
+  private static final class StubService extends AbstractLangchain4jAIService {
+    StubService(StreamingChatLanguageModel model) {
+      super(model);
+    }
+  }
+
+  /**
+   * Answers on another thread, the way the Ollama client calls its handler.
+   */
+  private static StreamingChatLanguageModel echo(RuntimeException failure) {
+    return new StreamingChatLanguageModel() {
+      @Override
+      public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler) {
+        var words = ((UserMessage) messages.getLast()).singleText().split("(?<= )");
+        Thread.ofVirtual().start(() -> {
+          var answer = new StringBuilder();
+          for (var word : words) {
+            handler.onNext(word);
+            answer.append(word);
+          }
+          if (failure != null) {
+            handler.onError(failure);
+          } else {
+            handler.onComplete(Response.from(AiMessage.from(answer.toString())));
+          }
+        });
+      }
+    };
+  }
+
+  @Test
+  void handsOutTokensBeforeReturningTheAnswer() {
+    var service = new StubService(echo(null));
+    var tokens = new ArrayList<String>();
+
+    var answer = service.generate(new AIChat("system", "write a unit test"), tokens::add);
+
+    assertEquals("write a unit test", answer);
+    assertEquals(List.of("write ", "a ", "unit ", "test"), tokens);
+    assertEquals("write a unit test", service.generate(new AIChat("system", "write a unit test")));
+  }
+
+  @Test
+  void rethrowsStreamingErrors() {
+    var service = new StubService(echo(new IllegalStateException("model crashed")));
+
+    var error = assertThrows(IllegalStateException.class, () -> service.generate(new AIChat("system", "hello")));
+    assertEquals("model crashed", error.getMessage());
+  }
+}
@@ -0,0 +1,84 @@
+package dev.buildcli.core.actions.commandline;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AbstractCommandLineProcessTest {
+  private static final int LINES = 50_000;
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @Timeout(value = 60, unit = TimeUnit.SECONDS)
+  void testLargeOutputOnBothStreamsDoesNotBlock() throws IOException {
+    var process = javaProcess(writer("""
+        for (int i = 0; i < %d; i++) {
+          System.out.println("out " + i + " ".repeat(100));
+          System.err.println("err " + i + " ".repeat(100));
+        }
+        """.formatted(LINES)));
+
+    assertEquals(0, process.run());
+
+    var output = process.output();
+    assertEquals(AbstractCommandLineProcess.OUTPUT_LINES, output.size());
+    assertEquals("out " + (LINES - 1), output.getLast().strip());
+    assertEquals(AbstractCommandLineProcess.OUTPUT_LINES, process.errorOutput().size());
+  }
+
+  @Test
+  @Timeout(value = 60, unit = TimeUnit.SECONDS)
+  void testStartStreamsEveryLine() throws Exception {
+    var process = javaProcess(writer("""
+        for (int i = 0; i < 5000; i++) {
+          System.out.println("out " + i);
+          System.err.println("err " + i);
+        }
+        System.exit(3);
+        """));
+    var lines = new AtomicInteger();
+
+    var exitCode = process.start(line -> lines.incrementAndGet()).get(60, TimeUnit.SECONDS);
+
+    assertEquals(3, exitCode);
+    assertEquals(10_000, lines.get());
+    assertEquals("err 4999", process.output().getLast());
+  }
+
+  @Test
+  void testUnknownCommandCompletesWithMinusOne() throws Exception {
+    var process = new AbstractCommandLineProcess("buildcli-command-that-does-not-exist", false) { };
+
+    assertEquals(-1, process.start(null).get());
+    assertEquals(-1, process.run());
+    assertTrue(process.output().isEmpty());
+  }
+
+  private Path writer(String body) throws IOException {
+    var source = tempDir.resolve("Writer.java");
+    Files.writeString(source, """
+        public class Writer {
+          public static void main(String[] args) {
+            %s
+          }
+        }
+        """.formatted(body));
+    return source;
+  }
+
+  private static AbstractCommandLineProcess javaProcess(Path source) {
+    var process = new AbstractCommandLineProcess("java", false) { };
+    process.commands.add(source.toString());
+    return process;
+  }
+}
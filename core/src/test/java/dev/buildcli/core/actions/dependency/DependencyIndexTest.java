@@ -0,0 +1,150 @@
+package dev.buildcli.core.actions.dependency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyIndexTest {
+  @TempDir
+  Path tempDir;
+
+  private Path fixture;
+
+  @BeforeEach
+  void setUp() throws URISyntaxException {
+    fixture = Path.of(Objects.requireNonNull(getClass().getResource("/dependency-index/nexus-maven-repository-index.gz")).toURI());
+  }
+
+  private DependencyIndex fixtureIndex() throws IOException {
+    return DependencyIndex.builder().addCentralIndex(fixture).write(tempDir.resolve("index.bin"));
+  }
+
+  @Test
+  void readsTheLatestVersionOfEveryMainArtifact() throws IOException {
+    var index = fixtureIndex();
+
+    assertEquals(13, index.size());
+    assertEquals("33.4.0-jre", index.latestVersion("com.google.guava", "guava"), "classified artifacts are skipped");
+    assertEquals("2.19.0-rc2", index.latestVersion("com.fasterxml.jackson.core", "jackson-databind"));
+    assertEquals("5.12.0-M1", index.latestVersion("org.junit.jupiter", "junit-jupiter"));
+    assertEquals("4.1.115.Final", index.latestVersion("io.netty", "netty-all"));
+    assertEquals("3.17.0", index.latestVersion("org.apache.commons", "commons-lang3"));
+    assertNull(index.latestVersion("com.example", "removed"));
+  }
+
+  @Test
+  void ranksExactAndPrefixArtifactMatchesFirst() throws IOException {
+    var index = fixtureIndex();
+
+    assertEquals(List.of("junit:junit:4.13.2", "org.junit.jupiter:junit-jupiter:5.12.0-M1",
+        "org.junit.jupiter:junit-jupiter-api:5.11.4"), index.search("junit", 10));
+    assertEquals(List.of("com.fasterxml.jackson.core:jackson-core:2.18.2",
+        "com.fasterxml.jackson.core:jackson-databind:2.19.0-rc2"), index.search("Jackson", 10));
+    assertEquals(List.of("com.fasterxml.jackson.core:jackson-databind:2.19.0-rc2"), index.search("databind", 10));
+  }
+
+  @Test
+  void matchesAnySubstringOfTheCoordinates() throws IOException {
+    var index = fixtureIndex();
+
+    assertEquals(2, index.search("springframework.boot:spring-boot-starter", 10).size());
+    assertEquals(List.of("com.h2database:h2:2.3.232"), index.search("h2", 10));
+    assertEquals(1, index.search("org.spring", 1).size());
+    assertEquals(List.of(), index.search("does-not-exist", 10));
+    assertEquals(List.of(), index.search("  ", 10));
+  }
+
+  @Test
+  void indexesTheLocalRepositoryPreferringReleases() throws IOException {
+    var repository = tempDir.resolve("repository");
+    pom(repository, "com/acme/tools", "acme-core", "1.2.0");
+    pom(repository, "com/acme/tools", "acme-core", "1.10.0");
+    pom(repository, "com/acme/tools", "acme-core", "1.11.0-SNAPSHOT");
+    Files.createDirectories(repository.resolve("com/acme/tools/acme-core/1.10.0"))
+        .resolve("acme-core-1.10.0-tests.pom").toFile().createNewFile();
+    pom(repository, "com/acme/tools", "acme-cli", "0.1.0-SNAPSHOT");
+
+    var index = DependencyIndex.builder().addLocalRepository(repository).addCentralIndex(fixture)
+        .write(tempDir.resolve("index.bin"));
+
+    assertEquals(15, index.size());
+    assertEquals("1.10.0", index.latestVersion("com.acme.tools", "acme-core"));
+    assertEquals("0.1.0-SNAPSHOT", index.latestVersion("com.acme.tools", "acme-cli"));
+    assertEquals(List.of("com.acme.tools:acme-core:1.10.0"), index.search("acme-core", 10));
+    assertTrue(index.includesCentral());
+  }
+
+  @Test
+  void reopensTheMappedFile() throws IOException {
+    fixtureIndex();
+
+    var reopened = DependencyIndex.open(tempDir.resolve("index.bin"));
+
+    assertEquals(List.of("org.projectlombok:lombok:1.18.36"), reopened.search("lombok", 10));
+    Files.writeString(tempDir.resolve("broken.bin"), "not an index");
+    assertThrows(IOException.class, () -> DependencyIndex.open(tempDir.resolve("broken.bin")));
+  }
+
+  @Test
+  void searchServiceAnswersFromTheLocalIndex() throws IOException {
+    fixtureIndex();
+
+    var service = new DependencySearchService(tempDir.resolve("index.bin"));
+
+    assertEquals(List.of("org.slf4j:slf4j-api:2.1.0-alpha1"), service.sendSearchRequest("slf4j"));
+  }
+
+  @Test
+  void indexesAnExportOfCentralSize() throws IOException {
+    var export = tempDir.resolve("nexus-maven-repository-index");
+    var artifacts = 400_000;
+    try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(export), 64 * 1024))) {
+      out.writeByte(1);
+      out.writeLong(System.currentTimeMillis());
+      for (int i = 0; i < artifacts; i++) {
+        var uinfo = "org.example.group%d|example-artifact-%d|1.%d.0|NA|jar".formatted(i % 5_000, i, i % 97)
+            .getBytes(StandardCharsets.UTF_8);
+        out.writeInt(1);
+        out.writeByte(0);
+        out.writeUTF("u");
+        out.writeInt(uinfo.length);
+        out.write(uinfo);
+      }
+    }
+
+    var index = DependencyIndex.builder().addCentralIndex(export).write(tempDir.resolve("index.bin"));
+
+    assertEquals(artifacts, index.size());
+    assertEquals("1.%d.0".formatted(123_456 % 97), index.latestVersion("org.example.group" + 123_456 % 5_000, "example-artifact-123456"));
+    assertEquals(List.of("org.example.group%d:example-artifact-123456:1.%d.0".formatted(123_456 % 5_000, 123_456 % 97)),
+        index.search("artifact-123456", 10));
+    assertEquals(10, index.search("example-artifact-1", 10).size());
+  }
+
+  @Test
+  void comparesMavenVersions() {
+    assertTrue(DependencyIndex.compareVersions("1.10", "1.9") > 0);
+    assertTrue(DependencyIndex.compareVersions("1.0", "1.0-rc1") > 0);
+    assertTrue(DependencyIndex.compareVersions("1.0-rc1", "1.0-beta2") > 0);
+    assertTrue(DependencyIndex.compareVersions("1.0-SNAPSHOT", "1.0") < 0);
+    assertTrue(DependencyIndex.compareVersions("1.0.1", "1.0") > 0);
+    assertEquals(0, DependencyIndex.compareVersions("1.0.Final", "1.0.final"));
+  }
+
+  private static void pom(Path repository, String group, String artifactId, String version) throws IOException {
+    var directory = Files.createDirectories(repository.resolve(group).resolve(artifactId).resolve(version));
+    Files.writeString(directory.resolve(artifactId + "-" + version + ".pom"), "<project/>");
+  }
+}
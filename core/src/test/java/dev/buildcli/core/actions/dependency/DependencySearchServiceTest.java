@@ -0,0 +1,172 @@
+package dev.buildcli.core.actions.dependency;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import utilsfortest.StubServer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencySearchServiceTest {
+  private static final String BODY = """
+      {"response": {"docs": [
+        {"g": "com.google.guava", "a": "guava", "latestVersion": "33.4.0-jre"},
+        {"g": "com.google.guava", "a": "guava-testlib", "latestVersion": "33.4.0-jre"}
+      ]}}""";
+
+  @TempDir
+  Path tempDir;
+
+  @RegisterExtension
+  final StubServer server = new StubServer();
+
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+  private volatile CountDownLatch release = new CountDownLatch(0);
+
+  @BeforeEach
+  void startServer() {
+    server.context("/solrsearch/select", this::serve);
+  }
+
+  private void serve(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      var ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+      requests.add(exchange.getRequestURI().getQuery() + (ifNoneMatch != null ? " if-none-match " + ifNoneMatch : ""));
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+
+      exchange.getResponseHeaders().add("ETag", "\"r1\"");
+      if ("\"r1\"".equals(ifNoneMatch)) {
+        exchange.sendResponseHeaders(304, -1);
+        return;
+      }
+      var body = BODY.getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+    }
+  }
+
+  private DependencySearchService service(Duration ttl) throws IOException {
+    return service(ttl, DependencyIndex.builder());
+  }
+
+  private DependencySearchService service(Duration ttl, DependencyIndex.Builder builder) throws IOException {
+    var index = tempDir.resolve("index.bin");
+    builder.write(index);
+    var url = server.url("/solrsearch/select?q=");
+    return new DependencySearchService(index, tempDir.resolve("search"), ttl, url);
+  }
+
+  @Test
+  void repeatedSearchesAreServedFromTheCache() throws IOException {
+    var expected = List.of("com.google.guava:guava:33.4.0-jre", "com.google.guava:guava-testlib:33.4.0-jre");
+
+    assertEquals(expected, service(Duration.ofHours(1)).sendSearchRequest("guava"));
+    assertEquals(expected, service(Duration.ofHours(1)).sendSearchRequest(" Guava "));
+
+    assertEquals(1, requests.size());
+    assertTrue(requests.getFirst().startsWith("q=guava&rows=25"), requests.getFirst());
+  }
+
+  @Test
+  void expiredEntriesAreRevalidatedWithTheirEtag() throws IOException {
+    var service = service(Duration.ZERO);
+
+    var first = service.sendSearchRequest("guava");
+    var second = service.sendSearchRequest("guava");
+
+    assertEquals(first, second);
+    assertEquals(2, requests.size());
+    assertTrue(requests.get(1).endsWith("if-none-match \"r1\""), requests.get(1));
+  }
+
+  @Test
+  void staleResultsAreUsedWhenCentralIsUnreachable() throws IOException {
+    var service = service(Duration.ZERO);
+    var online = service.sendSearchRequest("guava");
+
+    server.stop();
+
+    assertEquals(online, service.sendSearchRequest("guava"));
+    assertThrows(RuntimeException.class, () -> service.sendSearchRequest("never-searched"));
+  }
+
+  @Test
+  void concurrentIdenticalSearchesShareOneRequest() throws Exception {
+    var service = service(Duration.ofHours(1));
+    release = new CountDownLatch(1);
+
+    var results = new ArrayList<Future<List<String>>>();
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 8; i++) {
+        results.add(executor.submit(() -> service.sendSearchRequest("guava")));
+      }
+      while (requests.isEmpty()) {
+        Thread.sleep(10);
+      }
+      Thread.sleep(200);
+      release.countDown();
+
+      for (var result : results) {
+        assertEquals(2, result.get(5, TimeUnit.SECONDS).size());
+      }
+    }
+    assertEquals(1, requests.size());
+  }
+
+  @Test
+  void localMatchesAreAddedToCentralResults() throws IOException {
+    var service = service(Duration.ofHours(1), DependencyIndex.builder()
+        .add("com.google.guava", "guava", "32.1.0-jre")
+        .add("com.acme", "guava-extras", "1.0.0"));
+
+    assertEquals(List.of("com.google.guava:guava:33.4.0-jre", "com.google.guava:guava-testlib:33.4.0-jre",
+        "com.acme:guava-extras:1.0.0"), service.sendSearchRequest("guava"));
+    assertEquals(1, requests.size());
+  }
+
+  @Test
+  void localMatchesAreUsedWhenCentralIsUnreachable() throws IOException {
+    var service = service(Duration.ofHours(1), DependencyIndex.builder().add("com.acme", "guava-extras", "1.0.0"));
+
+    server.stop();
+
+    assertEquals(List.of("com.acme:guava-extras:1.0.0"), service.sendSearchRequest("guava"));
+  }
+
+  @Test
+  void anIndexOfCentralAnswersAlone() throws IOException {
+    var service = service(Duration.ofHours(1), DependencyIndex.builder()
+        .addCentralIndex(Path.of("src/test/resources/dependency-index/nexus-maven-repository-index.gz")));
+
+    assertEquals(List.of("org.projectlombok:lombok:1.18.36"), service.sendSearchRequest("lombok"));
+    assertTrue(requests.isEmpty());
+  }
+
+  @Test
+  void anUnreadableIndexIsRebuilt() throws IOException {
+    var service = service(Duration.ofHours(1));
+    Files.writeString(tempDir.resolve("index.bin"), "not an index");
+
+    assertEquals("com.google.guava:guava:33.4.0-jre", service.sendSearchRequest("guava").getFirst());
+    assertDoesNotThrow(() -> DependencyIndex.open(tempDir.resolve("index.bin")));
+  }
+}
@@ -0,0 +1,167 @@
+package dev.buildcli.core.actions.tools;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolScannerTest {
+  @TempDir
+  Path tempDir;
+
+  private Path bin;
+  private Path cacheFile;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    bin = Files.createDirectories(tempDir.resolve("bin"));
+    cacheFile = tempDir.resolve("cache/doctor.properties");
+  }
+
+  @Test
+  @Timeout(value = 10, unit = TimeUnit.SECONDS)
+  void testToolsAreProbedConcurrently() throws IOException {
+    var latch = new CountDownLatch(3);
+    var checkers = List.<ToolChecker>of(
+        new FakeChecker("a", executable("a"), latch),
+        new FakeChecker("b", executable("b"), latch),
+        new FakeChecker("c", executable("c"), latch));
+
+    var statuses = new ToolScanner(checkers, cacheFile, bin.toString()).scan(false);
+
+    assertEquals(List.of("a", "b", "c"), statuses.values().stream().map(ToolStatus::name).toList());
+    assertTrue(statuses.values().stream().allMatch(ToolStatus::installed));
+  }
+
+  @Test
+  void testCachedResultIsReusedUntilExecutableChanges() throws IOException {
+    var executable = executable("mvn");
+    var checker = new FakeChecker("Maven", executable, null);
+    var scanner = new ToolScanner(List.of(checker), cacheFile, bin.toString());
+
+    assertEquals("1.0", scanner.scan(false).get(checker).version());
+    assertEquals("1.0", new ToolScanner(List.of(checker), cacheFile, bin.toString()).scan(false).get(checker).version());
+    assertEquals(1, checker.probes.get());
+
+    Files.setLastModifiedTime(executable, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+    assertEquals("1.1", scanner.scan(false).get(checker).version());
+    assertEquals(2, checker.probes.get());
+  }
+
+  @Test
+  void testPathChangeInvalidatesCache() throws IOException {
+    var checker = new FakeChecker("Maven", executable("mvn"), null);
+
+    new ToolScanner(List.of(checker), cacheFile, bin.toString()).scan(false);
+    new ToolScanner(List.of(checker), cacheFile, bin + File.pathSeparator + tempDir).scan(false);
+
+    assertEquals(2, checker.probes.get());
+  }
+
+  @Test
+  void testRefreshProbesAgain() throws IOException {
+    var checker = new FakeChecker("Maven", executable("mvn"), null);
+    var scanner = new ToolScanner(List.of(checker), cacheFile, bin.toString());
+
+    scanner.scan(false);
+    scanner.scan(true);
+
+    assertEquals(2, checker.probes.get());
+  }
+
+  @Test
+  void testMissingExecutableIsNotCached() {
+    var checker = new FakeChecker("Gradle", bin.resolve("gradle"), null);
+    var scanner = new ToolScanner(List.of(checker), cacheFile, bin.toString());
+
+    scanner.scan(false);
+    scanner.scan(false);
+
+    assertEquals(2, checker.probes.get());
+    assertFalse(Files.exists(cacheFile));
+  }
+
+  @Test
+  void testLocate() throws IOException {
+    var executable = executable("docker");
+    Files.createFile(bin.resolve("not-executable"));
+
+    assertEquals(executable, ToolScanner.locate("docker", tempDir + File.pathSeparator + bin));
+    assertNull(ToolScanner.locate("not-executable", bin.toString()));
+    assertNull(ToolScanner.locate("docker", ""));
+  }
+
+  private Path executable(String name) throws IOException {
+    var file = Files.createFile(bin.resolve(name));
+    assertTrue(file.toFile().setExecutable(true));
+    return file;
+  }
+
+  private static final class FakeChecker implements ToolChecker {
+    private final String name;
+    private final Path executable;
+    private final CountDownLatch latch;
+    private final AtomicInteger probes = new AtomicInteger();
+
+    private FakeChecker(String name, Path executable, CountDownLatch latch) {
+      this.name = name;
+      this.executable = executable;
+      this.latch = latch;
+    }
+
+    @Override
+    public ToolStatus probe() {
+      int count = probes.incrementAndGet();
+      if (latch != null) {
+        latch.countDown();
+        try {
+          assertTrue(latch.await(5, TimeUnit.SECONDS), "probes did not run concurrently");
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return new ToolStatus(name, Files.exists(executable), "1." + (count - 1));
+    }
+
+    @Override
+    public String executable() {
+      return executable.getFileName().toString();
+    }
+
+    @Override
+    public String name() {
+      return name;
+    }
+
+    @Override
+    public boolean isInstalled() {
+      return probe().installed();
+    }
+
+    @Override
+    public String version() {
+      return probe().version();
+    }
+
+    @Override
+    public String installInstructions() {
+      return "";
+    }
+
+    @Override
+    public void fixIssue() {
+    }
+  }
+}
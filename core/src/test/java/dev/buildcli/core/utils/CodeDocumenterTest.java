@@ -0,0 +1,169 @@
+package dev.buildcli.core.utils;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import dev.buildcli.core.actions.ai.AITelemetry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import utilsfortest.StubServer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodeDocumenterTest {
+  @TempDir
+  Path tempDir;
+
+  @RegisterExtension
+  final StubServer server = new StubServer();
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private final List<String> models = new CopyOnWriteArrayList<>();
+  private final Set<Integer> connections = ConcurrentHashMap.newKeySet();
+  private final AITelemetry telemetry = new AITelemetry(null);
+
+  @BeforeEach
+  void startServer() {
+    server.context("/v1/chat/completions", this::complete);
+  }
+
+  /**
+   * Answers like Ollama's OpenAI-compatible endpoint, echoing the code back with a Javadoc.
+   */
+  private void complete(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      connections.add(exchange.getRemoteAddress().getPort());
+      try {
+        var request = JsonParser.parseString(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8))
+            .getAsJsonObject();
+        models.add(request.get("model").getAsString());
+        var messages = request.getAsJsonArray("messages");
+        assertEquals("system", messages.get(0).getAsJsonObject().get("role").getAsString());
+        var code = messages.get(1).getAsJsonObject().get("content").getAsString().replace("Document this code:\n\n", "");
+
+        Thread.sleep(50);
+        if (code.contains("Broken")) {
+          exchange.sendResponseHeaders(500, -1);
+          return;
+        }
+
+        var message = new JsonObject();
+        message.addProperty("role", "assistant");
+        if (code.contains("Unfenced")) {
+          message.addProperty("content", "Here you go:\n```java\n/** Documented. */\n" + code);
+        } else if (code.contains("Prose")) {
+          message.addProperty("content", "This class needs no documentation.");
+        } else {
+          message.addProperty("content", "Here you go:\n```java\n/** Documented. */\n" + code + "\n```");
+        }
+        var choice = new JsonObject();
+        choice.add("message", message);
+        var response = new JsonObject();
+        response.add("choices", JsonParser.parseString("[" + choice + "]"));
+        response.add("usage", JsonParser.parseString("{\"prompt_tokens\": 90, \"completion_tokens\": 30}"));
+
+        var body = response.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        inFlight.decrementAndGet();
+      }
+    }
+  }
+
+  private CodeDocumenter.Settings settings(int parallel) {
+    return new CodeDocumenter.Settings(server.url("/"), "qwen2.5-coder", parallel);
+  }
+
+  @Test
+  void documentsEveryJavaFileWithBoundedConcurrency() throws IOException {
+    for (int i = 0; i < 12; i++) {
+      var directory = Files.createDirectories(tempDir.resolve("src/pkg" + i % 3));
+      Files.writeString(directory.resolve("Type%d.java".formatted(i)), "class Type%d {}".formatted(i));
+    }
+    Files.writeString(tempDir.resolve("src/README.md"), "not java");
+
+    var stats = CodeDocumenter.document(tempDir.resolve("src"), settings(3), telemetry);
+
+    assertEquals(12, stats.results().size());
+    assertEquals(12, stats.documented());
+    assertEquals(0, stats.failed());
+    assertEquals(3, maxInFlight.get());
+    assertTrue(connections.size() <= 3, "connections are kept alive and reused: " + connections);
+    assertEquals(Set.of("qwen2.5-coder"), Set.copyOf(models));
+    assertEquals("/** Documented. */\nclass Type7 {}", Files.readString(tempDir.resolve("src/pkg1/Type7.java")));
+    assertEquals("not java", Files.readString(tempDir.resolve("src/README.md")));
+  }
+
+  @Test
+  void recordsTokensAndQueueWaitOfEachRequest() throws IOException {
+    for (int i = 0; i < 6; i++) {
+      Files.writeString(tempDir.resolve("Type%d.java".formatted(i)), "class Type%d {}".formatted(i));
+    }
+
+    CodeDocumenter.document(tempDir, settings(2), telemetry);
+
+    var requests = telemetry.since(0);
+    assertEquals(6, requests.size());
+    assertTrue(requests.stream().allMatch(request -> request.promptTokens() == 90 && request.completionTokens() == 30
+        && !request.tokensEstimated() && request.model().equals("qwen2.5-coder")));
+    // two workers for six files: the last ones wait for two requests before theirs
+    assertTrue(requests.stream().anyMatch(request -> request.queueWait().toMillis() >= 90), requests.toString());
+  }
+
+  @Test
+  void reportsLatencyAndFailuresPerFile() throws IOException {
+    Files.writeString(tempDir.resolve("Good.java"), "class Good {}");
+    Files.writeString(tempDir.resolve("Broken.java"), "class Broken {}");
+
+    var stats = CodeDocumenter.document(tempDir, settings(2), telemetry);
+
+    assertEquals(1, stats.documented());
+    assertEquals(1, stats.failed());
+    assertEquals(List.of(tempDir.resolve("Broken.java"), tempDir.resolve("Good.java")),
+        stats.results().stream().map(CodeDocumenter.FileResult::file).toList());
+    assertTrue(stats.latency(50).toMillis() >= 50, stats.toString());
+    assertTrue(stats.throughput() > 0, stats.toString());
+    assertEquals("class Broken {}", Files.readString(tempDir.resolve("Broken.java")));
+  }
+
+  @Test
+  void documentsASingleFile() throws IOException {
+    var file = Files.writeString(tempDir.resolve("Single.java"), "class Single {}");
+
+    var stats = CodeDocumenter.document(file, settings(4), telemetry);
+
+    assertEquals(1, stats.documented());
+    assertEquals("/** Documented. */\nclass Single {}", Files.readString(file));
+  }
+
+  @Test
+  void leavesTheFileAloneWhenTheAnswerHasNoCompleteCodeBlock() throws IOException {
+    Files.writeString(tempDir.resolve("Unfenced.java"), "class Unfenced {}");
+    Files.writeString(tempDir.resolve("Prose.java"), "class Prose {}");
+
+    var stats = CodeDocumenter.document(tempDir, settings(2), telemetry);
+
+    assertEquals(0, stats.documented());
+    assertEquals(2, stats.failed());
+    assertEquals("class Unfenced {}", Files.readString(tempDir.resolve("Unfenced.java")));
+    assertEquals("class Prose {}", Files.readString(tempDir.resolve("Prose.java")));
+  }
+}
@@ -48,4 +48,14 @@ class PomUtilsTest {
 		assertTrue(changedPom.hasDependency(groupId, artifactId));
 		assertEquals(1, changedPom.countDependencies());
 	}
+
+	@Test
+	void shouldKeepTheRestOfTheModel() {
+		var changedPom = PomUtils.addDependencyToPom("src/test/resources/pom-utils-test/pom.xml",
+				new String[]{ "org.hibernate:hibernate-core" });
+		assertEquals("com.example", changedPom.getGroupId());
+		assertEquals("BuildCLI", changedPom.getArtifactId());
+		assertEquals("17", changedPom.getProperties().get("maven.compiler.source"));
+		assertEquals(1, changedPom.getDependencyManagement().getDependencies().size());
+	}
 }
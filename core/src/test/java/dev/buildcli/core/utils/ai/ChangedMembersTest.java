@@ -0,0 +1,66 @@
+package dev.buildcli.core.utils.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangedMembersTest {
+  static final String PREVIOUS = """
+      package com.acme;
+
+      public class Orders {
+        private int count;
+
+        public int count() {
+          return count;
+        }
+
+        public void add() {
+          count++;
+        }
+      }
+      """;
+
+  @Test
+  void selectsOnlyTheChangedMethod() {
+    var current = PREVIOUS.replace("count++;", "count += 2;");
+
+    var members = ChangedMembers.of(PREVIOUS, current);
+
+    assertEquals(1, members.size());
+    assertTrue(members.getFirst().code().contains("public void add()"));
+    assertFalse(members.getFirst().code().contains("public int count()"));
+    assertEquals(members.getFirst().code(), current.substring(members.getFirst().start(), members.getFirst().end()));
+    assertFalse(ChangedMembers.isWhole(members, current));
+  }
+
+  @Test
+  void ignoresWhitespaceOnlyChanges() {
+    var current = PREVIOUS.replace("return count;", "return   count;");
+
+    assertTrue(ChangedMembers.of(PREVIOUS, current).isEmpty());
+  }
+
+  @Test
+  void takesNewFilesWhole() {
+    var members = ChangedMembers.of(null, PREVIOUS);
+
+    assertEquals(List.of(new ChangedMembers.Member(0, PREVIOUS.length(), PREVIOUS)), members);
+    assertTrue(ChangedMembers.isWhole(members, PREVIOUS));
+  }
+
+  @Test
+  void splicesReplacementsBackInPlace() {
+    var current = PREVIOUS.replace("count++;", "count += 2;").replace("return count;", "return this.count;");
+    var members = ChangedMembers.of(PREVIOUS, current);
+    assertEquals(2, members.size());
+
+    var replacements = members.stream().map(member -> member.code().replace("public", "/** Documented. */\n  public")).toList();
+    var spliced = ChangedMembers.splice(current, members, replacements);
+
+    assertEquals(current.replace("public int count()", "/** Documented. */\n  public int count()")
+        .replace("public void add()", "/** Documented. */\n  public void add()"), spliced);
+  }
+}
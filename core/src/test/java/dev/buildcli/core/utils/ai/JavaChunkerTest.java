@@ -0,0 +1,82 @@
+package dev.buildcli.core.utils.ai;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaChunkerTest {
+  static final String SOURCE = """
+      package com.acme;
+
+      import java.util.List;
+
+      /**
+       * A class with { braces } in its Javadoc.
+       */
+      public class Orders {
+        private static final String OPEN = "{";
+        private final List<String> ids = List.of("}", "a;b");
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public int count() {
+          // a } in a comment
+          return ids.size();
+        }
+
+        public String describe() {
+          return \"""
+              text block with } and ;
+              \""";
+        }
+
+        static class Line {
+          char close = '}';
+
+          void print() {
+            Runnable r = () -> {
+              System.out.println(close);
+            };
+            r.run();
+          }
+        }
+      }
+      """;
+
+  @Test
+  void piecesAddUpToTheSource() {
+    for (int budget : new int[]{1, 10, 40, 100, 10_000}) {
+      assertEquals(SOURCE, String.join("", JavaChunker.split(SOURCE, budget)), "budget " + budget);
+    }
+  }
+
+  @Test
+  void smallSourcesStayWhole() {
+    assertEquals(1, JavaChunker.split(SOURCE, 10_000).size());
+  }
+
+  @Test
+  void cutsOnlyBetweenMembers() {
+    var pieces = JavaChunker.split(SOURCE, 1);
+
+    assertTrue(pieces.getFirst().startsWith("package com.acme;"));
+    assertTrue(pieces.getFirst().endsWith("public class Orders {\n"), pieces.getFirst());
+    assertTrue(pieces.contains("  private static final String OPEN = \"{\";\n"), pieces.toString());
+    assertTrue(pieces.stream().anyMatch(piece -> piece.startsWith("\n  @SuppressWarnings({\"unchecked\", \"rawtypes\"})\n"
+        + "  public int count() {") && piece.endsWith("return ids.size();\n  }\n")), pieces.toString());
+    assertTrue(pieces.stream().anyMatch(piece -> piece.contains("text block with } and ;") && piece.endsWith("  }\n")),
+        pieces.toString());
+    assertTrue(pieces.stream().anyMatch(piece -> piece.contains("void print() {") && piece.contains("r.run();")),
+        "a method is never cut: " + pieces);
+    assertEquals("}\n", pieces.getLast());
+  }
+
+  @Test
+  void keepsNestedTypesWholeWhenTheyFit() {
+    var pieces = JavaChunker.split(SOURCE, 60);
+
+    assertTrue(pieces.stream().allMatch(piece -> JavaChunker.estimateTokens(piece) <= 60
+        || !piece.contains("\n\n")), pieces.toString());
+    assertTrue(pieces.stream().anyMatch(piece -> piece.contains("static class Line {") && piece.contains("r.run();")),
+        pieces.toString());
+  }
+}
@@ -0,0 +1,150 @@
+package dev.buildcli.core.utils.async;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares {@link Async} with the previous design, where every {@code then} and
+ * {@code consumeAsync} started a virtual thread that blocked on the stage before it, on pipelines
+ * shaped like the AI code commands: a slow call, a transformation and a write. Counts the threads
+ * each starts and the most alive at once, and measures throughput. Run with {@code -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AsyncBenchmarkTest {
+  private static final int PIPELINES = 5_000;
+  private static final int CALL_MILLIS = 20;
+  private static final int PARALLELISM = 16;
+
+  @Test
+  void compareWithThreadPerStage() {
+    var legacy = measure(executor -> {
+      var sum = new LongAdder();
+      var pipelines = new ArrayList<LegacyAsync<Void>>();
+      for (int i = 0; i < PIPELINES; i++) {
+        int value = i;
+        pipelines.add(new LegacyAsync<>(() -> call(value), executor)
+            .then(v -> v + 1)
+            .then(v -> v * 2)
+            .consumeAsync(sum::add));
+      }
+      pipelines.forEach(LegacyAsync::await);
+      return sum.sum();
+    });
+
+    var composed = measure(executor -> {
+      var sum = new LongAdder();
+      var pipelines = new ArrayList<Async<?>>();
+      for (int i = 0; i < PIPELINES; i++) {
+        int value = i;
+        pipelines.add(Async.run(() -> call(value), executor)
+            .then(v -> v + 1)
+            .then(v -> v * 2)
+            .consumeAsync(sum::add));
+      }
+      Async.awaitAll(pipelines.toArray(Async<?>[]::new));
+      return sum.sum();
+    });
+
+    var items = IntStream.range(0, PIPELINES).boxed().toList();
+    var bounded = measure(executor -> {
+      var mapped = Async.mapAsync(items, PARALLELISM, i -> (call(i) + 1) * 2L, executor);
+      try {
+        return mapped.await().stream().mapToLong(Long::longValue).sum();
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    var expected = IntStream.range(0, PIPELINES).mapToLong(i -> (i + 1) * 2L).sum();
+    assertEquals(expected, legacy.result());
+    assertEquals(expected, composed.result());
+    assertEquals(expected, bounded.result());
+    assertTrue(composed.started() * 3 < legacy.started(), "one thread per pipeline instead of one per stage");
+    assertEquals(PARALLELISM, bounded.peak());
+
+    System.out.printf("%d pipelines of a %d ms call and three stages%n", PIPELINES, CALL_MILLIS);
+    System.out.printf("  thread per stage:      %6d threads, %6d at once, %8.0f pipelines/s%n",
+        legacy.started(), legacy.peak(), legacy.throughput());
+    System.out.printf("  composed stages:       %6d threads, %6d at once, %8.0f pipelines/s%n",
+        composed.started(), composed.peak(), composed.throughput());
+    System.out.printf("  mapAsync(items, %d):   %6d threads, %6d at once, %8.0f pipelines/s (bounded by design)%n",
+        PARALLELISM, bounded.started(), bounded.peak(), bounded.throughput());
+  }
+
+  private record Result(long result, int started, int peak, double throughput) {
+  }
+
+  private static Result measure(Function<Executor, Long> benchmark) {
+    var started = new AtomicInteger();
+    var live = new AtomicInteger();
+    var peak = new AtomicInteger();
+    try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+      Executor counted = command -> {
+        started.incrementAndGet();
+        threads.execute(() -> {
+          peak.accumulateAndGet(live.incrementAndGet(), Math::max);
+          try {
+            command.run();
+          } finally {
+            live.decrementAndGet();
+          }
+        });
+      };
+
+      long start = System.nanoTime();
+      var result = benchmark.apply(counted);
+      var seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+      return new Result(result, started.get(), peak.get(), PIPELINES / seconds);
+    }
+  }
+
+  private static int call(int value) {
+    try {
+      Thread.sleep(CALL_MILLIS);
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+    return value;
+  }
+
+  /**
+   * The previous {@code Async}: each stage is a new task that joins the one before it.
+   */
+  private static final class LegacyAsync<T> {
+    private final CompletableFuture<T> execsAsync;
+    private final Executor executor;
+
+    private LegacyAsync(Supplier<T> supplier, Executor executor) {
+      this.execsAsync = CompletableFuture.supplyAsync(supplier, executor);
+      this.executor = executor;
+    }
+
+    <R> LegacyAsync<R> then(Function<? super T, ? extends R> function) {
+      return new LegacyAsync<>(() -> function.apply(execsAsync.join()), executor);
+    }
+
+    LegacyAsync<Void> consumeAsync(Consumer<? super T> consumer) {
+      return new LegacyAsync<>(() -> execsAsync.thenAccept(consumer).join(), executor);
+    }
+
+    T await() {
+      return execsAsync.join();
+    }
+  }
+}
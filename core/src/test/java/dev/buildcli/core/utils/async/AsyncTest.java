@@ -0,0 +1,171 @@
+package dev.buildcli.core.utils.async;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncTest {
+  @Test
+  void stagesRunOnTheThreadOfTheTask() throws Exception {
+    var threads = new AtomicInteger();
+    try (var executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().factory())) {
+      var counted = (Executor) command -> {
+        threads.incrementAndGet();
+        executor.execute(command);
+      };
+
+      var attached = new CountDownLatch(1);
+      var sameThread = Async.run(() -> {
+            await(attached);
+            return Thread.currentThread();
+          }, counted)
+          .then(first -> first == Thread.currentThread());
+      attached.countDown();
+
+      assertTrue(sameThread.await(), "then runs on the thread that computed the value");
+      assertEquals(1, threads.get());
+    }
+  }
+
+  @Test
+  void catchAnyRecoversWithTheThrownException() throws Exception {
+    var recovered = Async.<String>run(() -> {
+          throw new IllegalStateException("boom");
+        })
+        .then(String::toUpperCase)
+        .catchAny(throwable -> throwable.getClass().getSimpleName() + ": " + throwable.getMessage());
+
+    assertEquals("IllegalStateException: boom", recovered.await());
+    Async.awaitAll(recovered);
+  }
+
+  @Test
+  void awaitAllCancelsTheOthersOnFirstFailure() throws Exception {
+    var started = new CountDownLatch(1);
+    var interrupted = new CountDownLatch(1);
+    var slow = Async.justRun(() -> {
+      started.countDown();
+      try {
+        Thread.sleep(10_000);
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+      }
+    });
+    var failing = Async.<Void>run(() -> {
+      await(started);
+      throw new IllegalArgumentException("bad file");
+    });
+
+    var thrown = assertThrows(IllegalArgumentException.class, () -> Async.awaitAll(slow, failing));
+
+    assertEquals("bad file", thrown.getMessage());
+    assertTrue(interrupted.await(5, TimeUnit.SECONDS), "the slow task is interrupted");
+  }
+
+  @Test
+  void mapAsyncBoundsParallelismAndKeepsOrder() throws Exception {
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+
+    var results = Async.mapAsync(IntStream.range(0, 40).boxed().toList(), 4, i -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(5);
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      } finally {
+        running.decrementAndGet();
+      }
+      return i * 2;
+    }).await();
+
+    assertEquals(IntStream.range(0, 40).map(i -> i * 2).boxed().toList(), results);
+    assertEquals(4, maxRunning.get());
+    assertEquals(List.of(), Async.mapAsync(List.of(), 4, i -> i).await());
+  }
+
+  @Test
+  void mapAsyncRunsLongListsOnAnInlineExecutor() throws Exception {
+    var items = IntStream.range(0, 50_000).boxed().toList();
+
+    var results = Async.mapAsync(items, 1, i -> i * 2, Runnable::run).await(Duration.ofSeconds(20));
+
+    assertEquals(IntStream.range(0, 50_000).map(i -> i * 2).boxed().toList(), results);
+    assertEquals(items, Async.mapAsync(items, 8, i -> i, Runnable::run).await(Duration.ofSeconds(20)));
+  }
+
+  @Test
+  void mapAsyncStopsOnFirstFailure() {
+    var started = new AtomicInteger();
+
+    var mapped = Async.mapAsync(IntStream.range(0, 100).boxed().toList(), 2, i -> {
+      started.incrementAndGet();
+      if (i == 3) {
+        throw new IllegalStateException("item " + i);
+      }
+      return i;
+    });
+
+    var thrown = assertThrows(IllegalStateException.class, mapped::await);
+    assertEquals("item 3", thrown.getMessage());
+    assertTrue(started.get() < 100, "started " + started.get());
+  }
+
+  @Test
+  void timeoutCancelsTheWork() throws Exception {
+    var interrupted = new CountDownLatch(1);
+    var timed = Async.run(() -> {
+      try {
+        Thread.sleep(10_000);
+        return "late";
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+        return "interrupted";
+      }
+    }).timeout(Duration.ofMillis(50));
+
+    var thrown = assertThrows(RuntimeException.class, timed::await);
+    assertInstanceOf(TimeoutException.class, thrown.getCause());
+    assertTrue(interrupted.await(5, TimeUnit.SECONDS), "the task is interrupted");
+  }
+
+  @Test
+  void cancellingALaterStageInterruptsTheTask() throws Exception {
+    var started = new CountDownLatch(1);
+    var interrupted = new CountDownLatch(1);
+    var task = Async.run(() -> {
+      started.countDown();
+      try {
+        Thread.sleep(10_000);
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+      }
+      return 1;
+    });
+    var later = task.then(value -> value + 1);
+    started.await();
+
+    later.cancel();
+
+    assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    assertTrue(task.isDone() && later.isDone());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,176 @@
+package dev.buildcli.core.utils.compress;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the extractors with the previous {@code readAllBytes()} loops on a generated archive
+ * shaped like a JDK distribution: one large module image plus several hundred libraries, headers
+ * and legal files. Run with {@code -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FileExtractorBenchmarkTest {
+  private static final int MODULES_SIZE = 128 * 1024 * 1024;
+  private static final int FILES = 600;
+  private static final int MAX_FILE_SIZE = 384 * 1024;
+  private static final int ROUNDS = 3;
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void compareWithReadAllBytes() throws IOException {
+    var zip = tempDir.resolve("jdk.zip");
+    var tarGz = tempDir.resolve("jdk.tar.gz");
+    var expectedBytes = writeArchives(zip, tarGz);
+
+    var legacyZip = 0.0;
+    var parallelZip = 0.0;
+    var legacyTar = 0.0;
+    var streamedTar = 0.0;
+    for (int round = 0; round < ROUNDS; round++) {
+      var out = tempDir.resolve("out");
+
+      long start = System.nanoTime();
+      legacyZip(zip, out.resolve("legacy-zip"));
+      legacyZip += (System.nanoTime() - start) / 1_000_000.0;
+
+      start = System.nanoTime();
+      FileExtractor.extractFile(zip.toString(), out.resolve("zip").toString());
+      parallelZip += (System.nanoTime() - start) / 1_000_000.0;
+
+      start = System.nanoTime();
+      legacyTar(tarGz, out.resolve("legacy-tar"));
+      legacyTar += (System.nanoTime() - start) / 1_000_000.0;
+
+      start = System.nanoTime();
+      FileExtractor.extractFile(tarGz.toString(), out.resolve("tar").toString());
+      streamedTar += (System.nanoTime() - start) / 1_000_000.0;
+
+      assertEquals(expectedBytes, size(out.resolve("zip")));
+      assertEquals(expectedBytes, size(out.resolve("tar")));
+      delete(out);
+    }
+
+    System.out.printf("extracting %d files, %d MB, with %d cores, average of %d rounds%n",
+        FILES + 1, expectedBytes / (1024 * 1024), Runtime.getRuntime().availableProcessors(), ROUNDS);
+    System.out.printf("  zip readAllBytes:        %8.2f ms%n", legacyZip / ROUNDS);
+    System.out.printf("  zip parallel ZipFile:    %8.2f ms%n", parallelZip / ROUNDS);
+    System.out.printf("  tar.gz readAllBytes:     %8.2f ms%n", legacyTar / ROUNDS);
+    System.out.printf("  tar.gz transferTo:       %8.2f ms%n", streamedTar / ROUNDS);
+  }
+
+  /**
+   * Writes the same entries to both archives, with text-like content that compresses about as
+   * well as class files, and returns their total size.
+   */
+  private static long writeArchives(Path zip, Path tarGz) throws IOException {
+    var random = new Random(11);
+    var words = new String[512];
+    for (int i = 0; i < words.length; i++) {
+      words[i] = Long.toString(random.nextLong() & Long.MAX_VALUE, 36).substring(0, 3 + random.nextInt(8)) + ' ';
+    }
+
+    long total = 0;
+    try (var zipOut = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(zip)));
+         var tarOut = new TarArchiveOutputStream(new GzipCompressorOutputStream(
+             new BufferedOutputStream(Files.newOutputStream(tarGz))))) {
+      tarOut.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+      for (int i = 0; i <= FILES; i++) {
+        var name = i == 0 ? "jdk/lib/modules" : "jdk/%s/%d/file%d.dat".formatted(i % 3 == 0 ? "legal" : "lib", i % 20, i);
+        var content = content(random, words, i == 0 ? MODULES_SIZE : random.nextInt(MAX_FILE_SIZE));
+        total += content.length;
+
+        zipOut.putNextEntry(new ZipEntry(name));
+        zipOut.write(content);
+        zipOut.closeEntry();
+
+        var entry = new TarArchiveEntry(name);
+        entry.setSize(content.length);
+        tarOut.putArchiveEntry(entry);
+        tarOut.write(content);
+        tarOut.closeArchiveEntry();
+      }
+    }
+    return total;
+  }
+
+  private static byte[] content(Random random, String[] words, int size) {
+    var builder = new StringBuilder(size + 16);
+    while (builder.length() < size) {
+      builder.append(words[random.nextInt(words.length)]);
+    }
+    builder.setLength(size);
+    return builder.toString().getBytes();
+  }
+
+  /**
+   * The zip extraction {@link FileExtractor} used before.
+   */
+  private static void legacyZip(Path archive, Path outputPath) throws IOException {
+    Files.createDirectories(outputPath);
+    try (ZipInputStream zis = new ZipInputStream(new FileInputStream(archive.toFile()))) {
+      ZipEntry zipEntry;
+      while ((zipEntry = zis.getNextEntry()) != null) {
+        Path entryPath = outputPath.resolve(zipEntry.getName());
+        Files.createDirectories(entryPath.getParent());
+        try (OutputStream os = Files.newOutputStream(entryPath)) {
+          os.write(zis.readAllBytes());
+        }
+      }
+    }
+  }
+
+  /**
+   * The tar.gz extraction {@link FileExtractor} used before.
+   */
+  private static void legacyTar(Path archive, Path outputPath) throws IOException {
+    Files.createDirectories(outputPath);
+    try (TarArchiveInputStream tais = new TarArchiveInputStream(
+        new GzipCompressorInputStream(new FileInputStream(archive.toFile())))) {
+      TarArchiveEntry entry;
+      while ((entry = tais.getNextEntry()) != null) {
+        Path entryPath = outputPath.resolve(entry.getName());
+        Files.createDirectories(entryPath.getParent());
+        try (OutputStream os = Files.newOutputStream(entryPath)) {
+          os.write(tais.readAllBytes());
+        }
+      }
+    }
+  }
+
+  private static long size(Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+    }
+  }
+
+  private static void delete(Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (var file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+}
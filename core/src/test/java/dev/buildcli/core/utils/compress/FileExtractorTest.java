@@ -3,6 +3,9 @@ package dev.buildcli.core.utils.compress;
 
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarConstants;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,10 +13,13 @@ import org.junit.jupiter.api.Test;
 
 
 import java.io.*;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.attribute.PosixFilePermission;
 import java.util.Comparator;
+import java.util.Random;
 import java.util.Set;
 import java.util.zip.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -111,6 +117,15 @@ class FileExtractorTest {
     assertArrayEquals(expectedContent, actualContent);
   }
 
+  @Test
+  void testExtractTarGzStream() throws IOException {
+    try (InputStream archive = Files.newInputStream(tempFileTarGz)) {
+      FileExtractor.extract(archive, "https://example.com/dist/test-bin.tar.gz", tempDir.toString());
+    }
+
+    assertArrayEquals("Content test".getBytes(), Files.readAllBytes(tempDir.resolve("test.txt")));
+  }
+
   @Test
   void testExtractTarGzFile() throws IOException {
     FileExtractor.extractFile(tempFileTarGz.toString(), tempDir.toString());
@@ -152,4 +167,162 @@ class FileExtractorTest {
             ex.getMessage().contains("access denied"));
 
   }
+
+  @Test
+  void testExtractZipFileInParallel() throws IOException {
+    Path archive = tempDir.resolve("many.zip");
+    var random = new Random(7);
+    byte[][] contents = new byte[200][];
+    try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(archive))) {
+      for (int i = 0; i < contents.length; i++) {
+        contents[i] = new byte[random.nextInt(64 * 1024)];
+        random.nextBytes(contents[i]);
+        zos.putNextEntry(new ZipEntry("dir" + (i % 7) + "/file" + i + ".bin"));
+        zos.write(contents[i]);
+        zos.closeEntry();
+      }
+    }
+
+    Path output = tempDir.resolve("many");
+    FileExtractor.extractFile(archive.toString(), output.toString());
+
+    for (int i = 0; i < contents.length; i++) {
+      assertArrayEquals(contents[i], Files.readAllBytes(output.resolve("dir" + (i % 7) + "/file" + i + ".bin")));
+    }
+  }
+
+  @Test
+  void testRejectsZipEntriesOutsideTheTarget() throws IOException {
+    Path archive = tempDir.resolve("slip.zip");
+    try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(archive))) {
+      zos.putNextEntry(new ZipEntry("../escaped.txt"));
+      zos.write("escaped".getBytes());
+      zos.closeEntry();
+    }
+
+    Path output = tempDir.resolve("out");
+    IOException fromFile = assertThrows(IOException.class,
+        () -> FileExtractor.extractFile(archive.toString(), output.toString()));
+    assertTrue(fromFile.getMessage().contains("outside of the target directory"));
+    assertThrows(IOException.class,
+        () -> FileExtractor.extract(Files.newInputStream(archive), "slip.zip", output.toString()));
+    assertFalse(Files.exists(tempDir.resolve("escaped.txt")));
+  }
+
+  @Test
+  void testRejectsTarLinksOutsideTheTarget() throws IOException {
+    Path archive = tempDir.resolve("link.tar.gz");
+    try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(
+        new GzipCompressorOutputStream(Files.newOutputStream(archive)))) {
+      TarArchiveEntry link = new TarArchiveEntry("bin/passwd", TarConstants.LF_SYMLINK);
+      link.setLinkName("../../../etc/passwd");
+      tarOut.putArchiveEntry(link);
+      tarOut.closeArchiveEntry();
+    }
+
+    IOException ex = assertThrows(IOException.class,
+        () -> FileExtractor.extractFile(archive.toString(), tempDir.resolve("out").toString()));
+    assertTrue(ex.getMessage().contains("outside of the target directory"));
+  }
+
+  @Test
+  void testRejectsChainedTarLinksLeadingOutsideTheTarget() throws IOException {
+    Path archive = tempDir.resolve("chain.tar.gz");
+    byte[] content = "escaped".getBytes();
+    try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(
+        new GzipCompressorOutputStream(Files.newOutputStream(archive)))) {
+      TarArchiveEntry q = new TarArchiveEntry("q", TarConstants.LF_SYMLINK);
+      q.setLinkName(".");
+      tarOut.putArchiveEntry(q);
+      tarOut.closeArchiveEntry();
+
+      TarArchiveEntry p = new TarArchiveEntry("p", TarConstants.LF_SYMLINK);
+      p.setLinkName("q/..");
+      tarOut.putArchiveEntry(p);
+      tarOut.closeArchiveEntry();
+
+      TarArchiveEntry evil = new TarArchiveEntry("p/evil");
+      evil.setSize(content.length);
+      tarOut.putArchiveEntry(evil);
+      tarOut.write(content);
+      tarOut.closeArchiveEntry();
+    }
+
+    Path output = tempDir.resolve("out");
+    IOException ex = assertThrows(IOException.class,
+        () -> FileExtractor.extractFile(archive.toString(), output.toString()));
+    assertTrue(ex.getMessage().contains("outside of the target directory"));
+    assertTrue(Files.isSymbolicLink(output.resolve("q")));
+    assertFalse(Files.exists(output.resolve("p"), LinkOption.NOFOLLOW_LINKS));
+    assertFalse(Files.exists(tempDir.resolve("evil")));
+  }
+
+  @Test
+  void testRejectsTarLinksRedirectedByLaterLinks() throws IOException {
+    Path archive = tempDir.resolve("redirect.tar.gz");
+    try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(
+        new GzipCompressorOutputStream(Files.newOutputStream(archive)))) {
+      for (String[] link : new String[][] {{"a", "b/c/../.."}, {"b", "."}, {"c", "."}}) {
+        TarArchiveEntry entry = new TarArchiveEntry(link[0], TarConstants.LF_SYMLINK);
+        entry.setLinkName(link[1]);
+        tarOut.putArchiveEntry(entry);
+        tarOut.closeArchiveEntry();
+      }
+    }
+
+    Path output = tempDir.resolve("out");
+    IOException ex = assertThrows(IOException.class,
+        () -> FileExtractor.extractFile(archive.toString(), output.toString()));
+    assertTrue(ex.getMessage().contains("outside of the target directory"));
+    assertFalse(Files.exists(output.resolve("a"), LinkOption.NOFOLLOW_LINKS));
+    assertTrue(Files.isSymbolicLink(output.resolve("b")));
+  }
+
+  @Test
+  void testKeepsExecutableBitsAndLinks() throws IOException {
+    assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+    byte[] script = "#!/bin/sh\necho mvn\n".getBytes();
+
+    Path tarGz = tempDir.resolve("dist.tar.gz");
+    try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(
+        new GzipCompressorOutputStream(Files.newOutputStream(tarGz)))) {
+      TarArchiveEntry entry = new TarArchiveEntry("dist/bin/mvn");
+      entry.setSize(script.length);
+      entry.setMode(0755);
+      tarOut.putArchiveEntry(entry);
+      tarOut.write(script);
+      tarOut.closeArchiveEntry();
+
+      TarArchiveEntry link = new TarArchiveEntry("dist/mvn", TarConstants.LF_SYMLINK);
+      link.setLinkName("bin/mvn");
+      tarOut.putArchiveEntry(link);
+      tarOut.closeArchiveEntry();
+    }
+
+    Path zip = tempDir.resolve("dist.zip");
+    try (ZipArchiveOutputStream zipOut = new ZipArchiveOutputStream(Files.newOutputStream(zip))) {
+      ZipArchiveEntry entry = new ZipArchiveEntry("dist/bin/gradle");
+      entry.setUnixMode(0100755);
+      zipOut.putArchiveEntry(entry);
+      zipOut.write(script);
+      zipOut.closeArchiveEntry();
+
+      ZipArchiveEntry data = new ZipArchiveEntry("dist/lib/gradle.jar");
+      data.setUnixMode(0100644);
+      zipOut.putArchiveEntry(data);
+      zipOut.write(script);
+      zipOut.closeArchiveEntry();
+    }
+
+    FileExtractor.extractFile(tarGz.toString(), tempDir.resolve("tar").toString());
+    FileExtractor.extractFile(zip.toString(), tempDir.resolve("zip").toString());
+
+    assertTrue(Files.isExecutable(tempDir.resolve("tar/dist/bin/mvn")));
+    assertTrue(Files.isSymbolicLink(tempDir.resolve("tar/dist/mvn")));
+    assertArrayEquals(script, Files.readAllBytes(tempDir.resolve("tar/dist/mvn")));
+    assertTrue(Files.getPosixFilePermissions(tempDir.resolve("zip/dist/bin/gradle"))
+        .contains(PosixFilePermission.OWNER_EXECUTE));
+    assertFalse(Files.getPosixFilePermissions(tempDir.resolve("zip/dist/lib/gradle.jar"))
+        .contains(PosixFilePermission.OWNER_EXECUTE));
+  }
 }
@@ -0,0 +1,93 @@
+package dev.buildcli.core.utils.console.markdown;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarkdownStreamTest {
+  private static final String ANSWER = """
+      # Summary
+      The **service** reads `pom.xml` and:
+      - resolves *dependencies*
+      1. writes [docs](https://buildcli.dev)
+      > quoted
+      ---
+      last line""";
+
+  private static final String CODE = """
+      Here is the test:
+      ```java
+      class FooTest {
+        @Test void foo() {}
+      }
+      ```
+      done""";
+
+  @Test
+  void rendersLikeInterpretWhateverTheTokenSize() {
+    var interpreter = new MarkdownInterpreter();
+    var expected = interpreter.interpret(ANSWER);
+
+    for (int size : new int[]{1, 3, 7, ANSWER.length()}) {
+      var out = new StringBuilder();
+      try (var stream = interpreter.stream(out::append)) {
+        for (int i = 0; i < ANSWER.length(); i += size) {
+          stream.accept(ANSWER.substring(i, Math.min(ANSWER.length(), i + size)));
+        }
+      }
+      assertEquals(expected, out.toString(), "token size " + size);
+    }
+  }
+
+  @Test
+  void writesEachLineAsSoonAsItIsComplete() {
+    var chunks = new ArrayList<String>();
+    var stream = new MarkdownInterpreter().stream(chunks::add);
+
+    stream.accept("# Sum");
+    assertEquals(List.of(), chunks);
+    stream.accept("mary\nThe ");
+    assertEquals(1, chunks.size());
+    assertTrue(strip(chunks.getFirst()).startsWith("Summary"));
+
+    stream.accept("end");
+    stream.close();
+    assertEquals("The end\n", strip(chunks.get(1)));
+  }
+
+  @Test
+  void streamsCodeBlocksLineByLine() {
+    var chunks = new ArrayList<String>();
+    var stream = new MarkdownInterpreter().stream(chunks::add);
+
+    for (var line : CODE.split("(?<=\n)")) {
+      stream.accept(line);
+      if (line.startsWith("class")) {
+        assertTrue(strip(String.join("", chunks)).endsWith("│ class FooTest {\n"));
+      }
+    }
+    stream.close();
+
+    var rendered = strip(String.join("", chunks));
+    assertTrue(rendered.contains("java\n┌"), rendered);
+    assertTrue(rendered.contains("│   @Test void foo() {}\n"), rendered);
+    assertTrue(rendered.endsWith("└" + "─".repeat(50) + "\ndone\n"), rendered);
+  }
+
+  @Test
+  void closesACodeBlockTheAnswerLeftOpen() {
+    var out = new StringBuilder();
+    try (var stream = new MarkdownInterpreter().stream(out::append)) {
+      stream.accept("```\nint x = 1;");
+    }
+
+    assertTrue(strip(out.toString()).endsWith("│ int x = 1;\n└" + "─".repeat(50) + "\n"), out.toString());
+  }
+
+  private static String strip(String styled) {
+    return styled.replaceAll("\u001B\\[[;\\d]*m", "");
+  }
+}
@@ -0,0 +1,110 @@
+package dev.buildcli.core.utils.filesystem;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares {@link FileCrawler} with the previous recursive {@code File.listFiles()} search on a
+ * generated multi-module tree where most files live in build output and dependency folders. Run
+ * with {@code -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FileCrawlerBenchmarkTest {
+  private static final int MODULES = 40;
+  private static final int PACKAGES = 25;
+  private static final int SOURCES = 10;
+  private static final int ROUNDS = 5;
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void compareWithRecursiveListing() throws IOException {
+    for (int m = 0; m < MODULES; m++) {
+      var module = tempDir.resolve("module-" + m);
+      Files.createDirectories(module);
+      Files.writeString(module.resolve("pom.xml"), "<project/>");
+      for (int p = 0; p < PACKAGES; p++) {
+        var sources = Files.createDirectories(module.resolve("src/main/java/pkg" + p));
+        var classes = Files.createDirectories(module.resolve("target/classes/pkg" + p));
+        var generated = Files.createDirectories(module.resolve("target/generated-sources/pkg" + p));
+        var modules = Files.createDirectories(module.resolve("web/node_modules/lib" + p + "/dist"));
+        for (int s = 0; s < SOURCES; s++) {
+          Files.writeString(sources.resolve("Type" + s + ".java"), "");
+          Files.writeString(classes.resolve("Type" + s + ".class"), "");
+          Files.writeString(generated.resolve("Gen" + s + ".java"), "");
+          Files.writeString(modules.resolve("index" + s + ".js"), "");
+        }
+      }
+    }
+    var expected = MODULES * PACKAGES * SOURCES;
+
+    var legacy = 0.0;
+    var crawler = 0.0;
+    var parallel = 0.0;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      var legacyFound = legacySearch(tempDir.toFile(), ".java").size();
+      legacy += (System.nanoTime() - start) / 1_000_000.0;
+
+      start = System.nanoTime();
+      var crawled = FileCrawler.of(tempDir).extensions(".java").list().size();
+      crawler += (System.nanoTime() - start) / 1_000_000.0;
+
+      start = System.nanoTime();
+      long parallelFound;
+      try (var paths = FileCrawler.of(tempDir).extensions(".java").stream().parallel()) {
+        parallelFound = paths.count();
+      }
+      parallel += (System.nanoTime() - start) / 1_000_000.0;
+
+      assertEquals(expected * 2, legacyFound);
+      assertEquals(expected, crawled);
+      assertEquals(expected, parallelFound);
+    }
+
+    System.out.printf("file search over %d modules, %d sources, average of %d rounds%n", MODULES, expected, ROUNDS);
+    System.out.printf("  File.listFiles recursion:  %8.2f ms%n", legacy / ROUNDS);
+    System.out.printf("  FileCrawler sequential:    %8.2f ms%n", crawler / ROUNDS);
+    System.out.printf("  FileCrawler parallel:      %8.2f ms%n", parallel / ROUNDS);
+  }
+
+  /**
+   * The search {@link FindFilesUtils} used before {@link FileCrawler}.
+   */
+  private static List<File> legacySearch(File dir, String... extensions) {
+    List<File> files = new ArrayList<>();
+    if (dir.isDirectory()) {
+      var listFiles = dir.listFiles();
+      if (listFiles == null || listFiles.length == 0) {
+        return files;
+      }
+
+      for (File file : listFiles) {
+        if (file.isDirectory()) {
+          files.addAll(legacySearch(file, extensions));
+          continue;
+        }
+
+        for (var extension : extensions) {
+          if (file.getName().endsWith(extension)) {
+            files.add(file);
+            break;
+          }
+        }
+      }
+    }
+
+    return List.copyOf(files);
+  }
+}
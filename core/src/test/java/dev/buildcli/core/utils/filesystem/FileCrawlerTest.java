@@ -0,0 +1,104 @@
+package dev.buildcli.core.utils.filesystem;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileCrawlerTest {
+  @TempDir
+  Path tempDir;
+
+  private void touch(String... paths) throws IOException {
+    for (var path : paths) {
+      var file = tempDir.resolve(path);
+      Files.createDirectories(file.getParent());
+      Files.writeString(file, path);
+    }
+  }
+
+  private Set<String> relative(List<Path> paths) {
+    return paths.stream()
+        .map(path -> tempDir.relativize(path).toString().replace('\\', '/'))
+        .collect(Collectors.toSet());
+  }
+
+  @Test
+  void prunesVcsDependencyAndBuildOutputDirectories() throws IOException {
+    touch("pom.xml", "src/main/java/App.java", "target/classes/App.java", ".git/objects/x.java",
+        "web/node_modules/lib/index.java", "gradle/build.gradle", "gradle/build/Gen.java",
+        "src/main/java/com/acme/build/Builder.java", "src/main/java/com/acme/target/Target.java");
+
+    var found = FileCrawler.of(tempDir).extensions(".java").list();
+
+    assertEquals(Set.of("src/main/java/App.java", "src/main/java/com/acme/build/Builder.java",
+        "src/main/java/com/acme/target/Target.java"), relative(found));
+  }
+
+  @Test
+  void honorsNestedGitignoreFiles() throws IOException {
+    touch(".gitignore", "module/.gitignore", "App.java", "generated/Gen.java", "module/Local.java",
+        "module/Skip.java", "module/keep/Gen.java");
+    Files.writeString(tempDir.resolve(".gitignore"), "generated/\n*.tmp\n");
+    Files.writeString(tempDir.resolve("module/.gitignore"), "Skip.java\n");
+    touch("module/scratch.tmp");
+
+    var found = FileCrawler.of(tempDir).list();
+
+    assertEquals(Set.of(".gitignore", "module/.gitignore", "App.java", "module/Local.java", "module/keep/Gen.java"),
+        relative(found));
+  }
+
+  @Test
+  void includeBuildOutputStillSkipsVcsMetadata() throws IOException {
+    touch("pom.xml", ".gitignore", "target/plugin.jar", ".git/lfs/blob.jar", "lib/extra.jar");
+    Files.writeString(tempDir.resolve(".gitignore"), "lib/\n");
+
+    var found = FileCrawler.of(tempDir).extensions(".jar").includeBuildOutput().list();
+
+    assertEquals(Set.of("target/plugin.jar", "lib/extra.jar"), relative(found));
+  }
+
+  @Test
+  void parallelStreamFindsTheSameFiles() throws IOException {
+    for (int i = 0; i < 40; i++) {
+      touch("m" + i + "/src/A" + i + ".java", "m" + i + "/pkg/deep/B" + i + ".java");
+    }
+
+    var sequential = FileCrawler.of(tempDir).list();
+    try (var parallel = FileCrawler.of(tempDir).stream().parallel()) {
+      var paths = parallel.toList();
+      assertEquals(80, paths.size());
+      assertEquals(Set.copyOf(sequential), Set.copyOf(paths));
+    }
+  }
+
+  @Test
+  void regularFileRootIsReturnedWhenItMatches() throws IOException {
+    touch("App.java");
+    var file = tempDir.resolve("App.java");
+
+    assertEquals(List.of(file), FileCrawler.of(file).extensions(".java").list());
+    assertTrue(FileCrawler.of(file).extensions(".kt").list().isEmpty());
+    assertTrue(FileCrawler.of(tempDir.resolve("missing")).list().isEmpty());
+  }
+
+  @Test
+  void limitStopsTheWalkEarly() throws IOException {
+    for (int i = 0; i < 10; i++) {
+      touch("d" + i + "/F.java");
+    }
+
+    try (var paths = FileCrawler.of(tempDir).stream()) {
+      assertEquals(3, paths.limit(3).count());
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package dev.buildcli.core.utils.filesystem;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileIndexTest {
+  @TempDir
+  Path tempDir;
+
+  private Path write(String path, String content) throws IOException {
+    var file = tempDir.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, content);
+    return file;
+  }
+
+  @Test
+  void indexesFilesWithTheirGitBlobId() throws IOException {
+    write("src/App.java", "class App {}");
+    write("src/util/Strings.kt", "object Strings");
+    write("README.md", "readme");
+
+    var index = FileIndex.open(tempDir);
+    index.refresh();
+
+    assertEquals(3, index.size());
+    var entry = index.entries().stream().filter(e -> e.path().equals("src/App.java")).findFirst().orElseThrow();
+    assertEquals(new ObjectInserter.Formatter().idFor(Constants.OBJ_BLOB,
+        "class App {}".getBytes(StandardCharsets.UTF_8)), entry.blobId());
+    assertEquals(List.of(tempDir.resolve("src/App.java"), tempDir.resolve("src/util/Strings.kt")),
+        index.files(".java", ".kt"));
+  }
+
+  @Test
+  void persistsAndPicksUpChanges() throws IOException {
+    write("src/App.java", "class App {}");
+    var gone = write("src/Old.java", "class Old {}");
+    FileIndex.open(tempDir).refresh();
+
+    var reopened = FileIndex.open(tempDir);
+    assertEquals(2, reopened.size());
+
+    Files.delete(gone);
+    var app = write("src/App.java", "class App { int x; }");
+    Files.setLastModifiedTime(app, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+    write("src/New.java", "class New {}");
+
+    assertEquals(List.of(tempDir.resolve("src/App.java"), tempDir.resolve("src/New.java")),
+        reopened.files(tempDir.resolve("src"), ".java"));
+    var entry = reopened.entries().stream().filter(e -> e.path().equals("src/App.java")).findFirst().orElseThrow();
+    assertEquals("class App { int x; }".length(), entry.size());
+  }
+
+  @Test
+  void subtreeQueriesLeaveTheRestOfTheIndexAlone() throws IOException {
+    write("a/A.java", "a");
+    write("b/B.java", "b");
+    var index = FileIndex.open(tempDir);
+
+    assertEquals(List.of(tempDir.resolve("a/A.java")), index.files(tempDir.resolve("a"), ".java"));
+    assertEquals(1, index.size());
+    assertEquals(List.of(tempDir.resolve("b/B.java")), index.files(tempDir.resolve("b/B.java"), ".java"));
+    assertEquals(2, index.size());
+  }
+
+  @Test
+  void prunedAndOutsidePathsAreCrawledWithoutIndexing() throws IOException {
+    write("pom.xml", "<project/>");
+    write("target/generated/Gen.java", "gen");
+    var outside = Files.createDirectories(tempDir.resolve("../outside-" + tempDir.getFileName()).normalize());
+    Files.writeString(outside.resolve("Out.java"), "out");
+
+    try {
+      var index = FileIndex.open(tempDir);
+      assertEquals(List.of(tempDir.resolve("target/generated/Gen.java")),
+          index.files(tempDir.resolve("target"), ".java"));
+      assertEquals(List.of(outside.resolve("Out.java")), index.files(outside, ".java"));
+      assertEquals(0, index.size());
+    } finally {
+      Files.delete(outside.resolve("Out.java"));
+      Files.delete(outside);
+    }
+  }
+
+  @Test
+  void changedSinceComparesAgainstTheRevisionTree() throws Exception {
+    write("src/Same.java", "same");
+    write("src/Edited.java", "before");
+    write("notes.txt", "notes");
+    try (var git = Git.init().setDirectory(tempDir.toFile()).call()) {
+      git.add().addFilepattern(".").call();
+      git.commit().setMessage("initial").setSign(false).setAuthor("test", "test@example.com")
+          .setCommitter("test", "test@example.com").call();
+
+      write("src/Edited.java", "after");
+      write("src/Added.java", "added");
+      write("notes.txt", "more notes");
+
+      var index = FileIndex.open(tempDir);
+      assertEquals(List.of(tempDir.resolve("src/Added.java"), tempDir.resolve("src/Edited.java")),
+          index.changedSince(git.getRepository(), "HEAD", ".java"));
+      assertEquals(3, index.changedSince(git.getRepository(), "HEAD").size());
+      assertThrows(IllegalArgumentException.class, () -> index.changedSince(git.getRepository(), "no-such-rev"));
+    }
+  }
+
+  @Test
+  void changedSinceAppliesLineEndingConversionAndReportsDeletions() throws Exception {
+    write("src/Lf.java", "class Lf {}\n");
+    write("src/Gone.java", "class Gone {}\n");
+    write("pom.xml", "<project/>\n");
+    write("target/Generated.java", "class Generated {}\n");
+    try (var git = Git.init().setDirectory(tempDir.toFile()).call()) {
+      var config = git.getRepository().getConfig();
+      config.setString("core", null, "autocrlf", "true");
+      config.save();
+      git.add().addFilepattern("src").call();
+      git.commit().setMessage("initial").setSign(false).setAuthor("test", "test@example.com")
+          .setCommitter("test", "test@example.com").call();
+
+      var crlf = write("src/Lf.java", "class Lf {}\r\n");
+      Files.setLastModifiedTime(crlf, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+      Files.delete(tempDir.resolve("src/Gone.java"));
+
+      var index = FileIndex.open(tempDir);
+      assertEquals(List.of(tempDir.resolve("src/Gone.java")), index.changedSince(git.getRepository(), "HEAD", ".java"));
+    }
+  }
+
+  @Test
+  void watcherKeepsTheIndexCurrent() throws Exception {
+    write("src/App.java", "class App {}");
+    var index = FileIndex.open(tempDir);
+
+    try (var ignored = index.watch()) {
+      assertTrue(index.isWatched());
+      assertEquals(1, index.size());
+      assertThrows(IllegalStateException.class, index::watch);
+
+      write("src/pkg/Added.java", "class Added {}");
+      Files.delete(tempDir.resolve("src/App.java"));
+
+      var deadline = System.currentTimeMillis() + 10_000;
+      while (System.currentTimeMillis() < deadline
+          && !index.files(".java").equals(List.of(tempDir.resolve("src/pkg/Added.java")))) {
+        Thread.sleep(50);
+      }
+      assertEquals(List.of(tempDir.resolve("src/pkg/Added.java")), index.files(".java"));
+    }
+
+    assertFalse(index.isWatched());
+    assertEquals(1, FileIndex.open(tempDir).size());
+  }
+}
@@ -0,0 +1,74 @@
+package dev.buildcli.core.utils.filesystem;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GitIgnoreTest {
+  private static final Path ROOT = Path.of("/repo");
+
+  private static GitIgnore rules(String... lines) {
+    return GitIgnore.empty().child(ROOT, List.of(lines));
+  }
+
+  @Test
+  void unanchoredPatternMatchesAtAnyDepth() {
+    var ignore = rules("*.log", "# comment", "");
+
+    assertTrue(ignore.isIgnored(ROOT.resolve("debug.log"), false));
+    assertTrue(ignore.isIgnored(ROOT.resolve("a/b/debug.log"), false));
+    assertFalse(ignore.isIgnored(ROOT.resolve("a/b/debug.txt"), false));
+  }
+
+  @Test
+  void slashAnchorsPatternToItsDirectory() {
+    var ignore = rules("/dist", "docs/*.html");
+
+    assertTrue(ignore.isIgnored(ROOT.resolve("dist"), true));
+    assertFalse(ignore.isIgnored(ROOT.resolve("web/dist"), true));
+    assertTrue(ignore.isIgnored(ROOT.resolve("docs/index.html"), false));
+    assertFalse(ignore.isIgnored(ROOT.resolve("web/docs/index.html"), false));
+  }
+
+  @Test
+  void trailingSlashOnlyMatchesDirectories() {
+    var ignore = rules("out/");
+
+    assertTrue(ignore.isIgnored(ROOT.resolve("module/out"), true));
+    assertFalse(ignore.isIgnored(ROOT.resolve("module/out"), false));
+  }
+
+  @Test
+  void doubleStarMatchesAnyNumberOfDirectories() {
+    var ignore = rules("**/generated", "src/**/Foo?.java", "logs/**");
+
+    assertTrue(ignore.isIgnored(ROOT.resolve("generated"), true));
+    assertTrue(ignore.isIgnored(ROOT.resolve("a/b/generated"), true));
+    assertTrue(ignore.isIgnored(ROOT.resolve("src/Foo1.java"), false));
+    assertTrue(ignore.isIgnored(ROOT.resolve("src/main/java/Foo2.java"), false));
+    assertFalse(ignore.isIgnored(ROOT.resolve("src/main/java/Foo10.java"), false));
+    assertTrue(ignore.isIgnored(ROOT.resolve("logs/2024/app.txt"), false));
+  }
+
+  @Test
+  void lastMatchingRuleWinsAndNegationReincludes() {
+    var ignore = rules("*.txt", "!keep.txt", "[abc].md");
+
+    assertTrue(ignore.isIgnored(ROOT.resolve("notes.txt"), false));
+    assertFalse(ignore.isIgnored(ROOT.resolve("keep.txt"), false));
+    assertTrue(ignore.isIgnored(ROOT.resolve("b.md"), false));
+    assertFalse(ignore.isIgnored(ROOT.resolve("d.md"), false));
+  }
+
+  @Test
+  void deeperFileOverridesParent() {
+    var ignore = rules("*.gen").child(ROOT.resolve("module"), List.of("!*.gen"));
+
+    assertTrue(ignore.isIgnored(ROOT.resolve("a.gen"), false));
+    assertFalse(ignore.isIgnored(ROOT.resolve("module/a.gen"), false));
+  }
+}
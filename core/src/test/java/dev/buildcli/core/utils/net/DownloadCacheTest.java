@@ -0,0 +1,209 @@
+package dev.buildcli.core.utils.net;
+
+import dev.buildcli.core.exceptions.DownloadFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import utilsfortest.StubServer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownloadCacheTest {
+  @TempDir
+  Path tempDir;
+
+  @RegisterExtension
+  final StubServer server = new StubServer();
+
+  private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+  private final Map<String, Integer> downloads = new ConcurrentHashMap<>();
+  private final Map<String, String> fileNames = new ConcurrentHashMap<>();
+
+  @BeforeEach
+  void startServer() {
+    server.context("/", exchange -> {
+      try (exchange) {
+        var path = exchange.getRequestURI().getPath();
+        var content = files.get(path);
+        if (content == null) {
+          exchange.sendResponseHeaders(404, -1);
+          return;
+        }
+        var name = fileNames.get(path);
+        if (name != null) {
+          exchange.getResponseHeaders().add("Content-Disposition", "attachment; filename=\"%s\"".formatted(name));
+        }
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+          exchange.sendResponseHeaders(200, -1);
+          return;
+        }
+        downloads.merge(path, 1, Integer::sum);
+        exchange.sendResponseHeaders(200, content.length);
+        exchange.getResponseBody().write(content);
+      }
+    });
+  }
+
+  private String url(String path) {
+    return server.url(path);
+  }
+
+  private void publish(String path, String content, boolean withChecksum) throws Exception {
+    var bytes = content.getBytes(StandardCharsets.UTF_8);
+    files.put(path, bytes);
+    if (withChecksum) {
+      files.put(path + ".sha512", (hex("SHA-512", bytes) + "  " + path.substring(1)).getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private static String hex(String algorithm, byte[] content) throws Exception {
+    return HexFormat.of().formatHex(MessageDigest.getInstance(algorithm).digest(content));
+  }
+
+  @Test
+  void secondFetchIsServedFromTheCache() throws Exception {
+    publish("/maven.tar.gz", "maven distribution", true);
+    var cache = new DownloadCache(tempDir.resolve("cache"), DownloadCache.DEFAULT_MAX_SIZE);
+
+    var first = cache.fetch(url("/maven.tar.gz"), tempDir.resolve("one/maven.tar.gz"), null);
+    var second = cache.fetch(url("/maven.tar.gz"), tempDir.resolve("two/maven.tar.gz"), null);
+
+    assertEquals("maven distribution", Files.readString(first));
+    assertEquals("maven distribution", Files.readString(second));
+    assertEquals(1, downloads.get("/maven.tar.gz"));
+    assertTrue(Files.isSameFile(first, second), "hits are hard linked");
+  }
+
+  @Test
+  void rejectsContentThatDoesNotMatchThePublishedChecksum() throws Exception {
+    publish("/tampered.jar", "original", true);
+    files.put("/tampered.jar", "tampered".getBytes(StandardCharsets.UTF_8));
+    var cache = new DownloadCache(tempDir.resolve("cache"), DownloadCache.DEFAULT_MAX_SIZE);
+
+    var error = assertThrows(DownloadFailedException.class,
+        () -> cache.fetch(url("/tampered.jar"), tempDir.resolve("tampered.jar"), null));
+    assertTrue(error.getMessage().contains("Checksum mismatch"));
+    assertFalse(Files.exists(tempDir.resolve("tampered.jar")));
+    try (var blobs = Files.list(tempDir.resolve("cache"))) {
+      assertTrue(blobs.noneMatch(path -> path.getFileName().toString().equals("blobs")));
+    }
+  }
+
+  @Test
+  void checksumHitsAcrossUrls() throws Exception {
+    publish("/mirror-a/plugin.jar", "plugin bytes", false);
+    publish("/mirror-b/plugin.jar", "plugin bytes", false);
+    var sha256 = DownloadCache.Checksum.sha256(hex("SHA-256", "plugin bytes".getBytes(StandardCharsets.UTF_8)));
+    var cache = new DownloadCache(tempDir.resolve("cache"), DownloadCache.DEFAULT_MAX_SIZE);
+
+    cache.fetch(url("/mirror-a/plugin.jar"), tempDir.resolve("a.jar"), sha256, null);
+    cache.fetch(url("/mirror-b/plugin.jar"), tempDir.resolve("b.jar"), sha256, null);
+
+    assertEquals("plugin bytes", Files.readString(tempDir.resolve("b.jar")));
+    assertNull(downloads.get("/mirror-b/plugin.jar"));
+  }
+
+  @Test
+  void fetchIntoNamesTheFileAsTheServerDoes() throws Exception {
+    publish("/download/7", "plugin", false);
+    fileNames.put("/download/7", "plugin-1.0.jar");
+    var cache = new DownloadCache(tempDir.resolve("cache"), DownloadCache.DEFAULT_MAX_SIZE);
+
+    var first = cache.fetchInto(url("/download/7"), tempDir.resolve("one"), null);
+    var second = cache.fetchInto(url("/download/7"), tempDir.resolve("two"), null);
+
+    assertEquals(tempDir.resolve("one/plugin-1.0.jar"), first);
+    assertEquals(tempDir.resolve("two/plugin-1.0.jar"), second);
+    assertEquals("plugin", Files.readString(second));
+    assertEquals(1, downloads.get("/download/7"));
+  }
+
+  @Test
+  void urlsWithoutChecksumHitByUrl() throws Exception {
+    publish("/plain.jar", "plain", false);
+    var cache = new DownloadCache(tempDir.resolve("cache"), DownloadCache.DEFAULT_MAX_SIZE);
+
+    cache.fetch(url("/plain.jar"), tempDir.resolve("first.jar"), null);
+    cache.fetch(url("/plain.jar"), tempDir.resolve("second.jar"), null);
+
+    assertEquals(1, downloads.get("/plain.jar"));
+  }
+
+  @Test
+  void corruptedBlobIsDownloadedAgain() throws Exception {
+    publish("/gradle.zip", "gradle distribution", true);
+    var cache = new DownloadCache(tempDir.resolve("cache"), DownloadCache.DEFAULT_MAX_SIZE);
+
+    var linked = cache.fetch(url("/gradle.zip"), tempDir.resolve("gradle.zip"), null);
+    Files.writeString(linked, "edited in place");
+    var fetched = cache.fetch(url("/gradle.zip"), tempDir.resolve("again/gradle.zip"), null);
+
+    assertEquals("gradle distribution", Files.readString(fetched));
+    assertEquals(2, downloads.get("/gradle.zip"));
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedEntriesPastTheBudget() throws Exception {
+    var content = "x".repeat(1000);
+    publish("/a.bin", content + "a", true);
+    publish("/b.bin", content + "b", true);
+    publish("/c.bin", content + "c", true);
+    var cache = new DownloadCache(tempDir.resolve("cache"), 2500);
+
+    cache.fetch(url("/a.bin"), tempDir.resolve("a.bin"), null);
+    Thread.sleep(20);
+    cache.fetch(url("/b.bin"), tempDir.resolve("b.bin"), null);
+    Thread.sleep(20);
+    cache.fetch(url("/a.bin"), tempDir.resolve("a2.bin"), null);
+    Thread.sleep(20);
+    cache.fetch(url("/c.bin"), tempDir.resolve("c.bin"), null);
+
+    try (var blobs = Files.list(tempDir.resolve("cache/blobs"))) {
+      assertEquals(2, blobs.count());
+    }
+    cache.fetch(url("/a.bin"), tempDir.resolve("a3.bin"), null);
+    cache.fetch(url("/b.bin"), tempDir.resolve("b2.bin"), null);
+    assertEquals(1, downloads.get("/a.bin"));
+    assertEquals(2, downloads.get("/b.bin"), "b was the least recently used entry");
+  }
+
+  @Test
+  void openStreamsAMissIntoTheCache() throws Exception {
+    publish("/gradle-bin.zip", "streamed distribution", true);
+    var cache = new DownloadCache(tempDir.resolve("cache"), DownloadCache.DEFAULT_MAX_SIZE);
+
+    try (var in = cache.open(url("/gradle-bin.zip"), null, null)) {
+      assertEquals("streamed", new String(in.readNBytes(8), StandardCharsets.UTF_8));
+    }
+    try (var in = cache.open(url("/gradle-bin.zip"), null, null)) {
+      assertEquals("streamed distribution", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    assertEquals(1, downloads.get("/gradle-bin.zip"));
+    try (var temp = Files.list(tempDir.resolve("cache/tmp"))) {
+      assertEquals(0, temp.count());
+    }
+  }
+
+  @Test
+  void openFailsOnCloseWhenTheStreamedContentDoesNotMatch() throws Exception {
+    publish("/maven-bin.tar.gz", "original", true);
+    files.put("/maven-bin.tar.gz", "tampered".getBytes(StandardCharsets.UTF_8));
+    var cache = new DownloadCache(tempDir.resolve("cache"), DownloadCache.DEFAULT_MAX_SIZE);
+
+    var in = cache.open(url("/maven-bin.tar.gz"), null, null);
+    assertEquals("tampered", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    assertThrows(DownloadFailedException.class, in::close);
+
+    assertFalse(Files.exists(tempDir.resolve("cache/blobs")));
+  }
+}
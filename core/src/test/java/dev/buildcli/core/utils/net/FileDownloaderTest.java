@@ -1,160 +1,236 @@
 package dev.buildcli.core.utils.net;
 
+import com.sun.net.httpserver.HttpExchange;
+import dev.buildcli.core.exceptions.DownloadFailedException;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.MockedStatic;
-import org.mockito.junit.jupiter.MockitoExtension;
-import org.mockito.junit.jupiter.MockitoSettings;
-import org.mockito.quality.Strictness;
-
-import java.io.*;
-import java.net.http.HttpClient;
-import java.net.http.HttpHeaders;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.util.Optional;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import utilsfortest.StubServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
 class FileDownloaderTest {
-
-  private MockedStatic<HttpClient> httpClientStatic;
-  private final String url = "http://localhost/teste.txt";
-  private final String filename = "test.txt";
-  private final byte[] fakeContent = "test file".getBytes();
-  private final ByteArrayInputStream inputStream = new ByteArrayInputStream(fakeContent);
+  private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+  private static final long SEGMENT = 64 * 1024;
+
+  @TempDir
+  Path tempDir;
+
+  @RegisterExtension
+  final StubServer server = new StubServer();
+
+  private final byte[] content = new byte[300 * 1024 + 17];
+  private final List<String> ranges = new CopyOnWriteArrayList<>();
+  private final AtomicInteger gets = new AtomicInteger();
+  private final AtomicBoolean failNextRange = new AtomicBoolean();
+  private final AtomicBoolean rejectFirstAndStallOthers = new AtomicBoolean();
+  private final CountDownLatch stalled = new CountDownLatch(1);
+  private volatile String etag = "\"v1\"";
+
+  @BeforeEach
+  void startServer() {
+    new Random(42).nextBytes(content);
+    server.context("/ranged/data.bin", this::serveRanged);
+    server.context("/plain/data.bin", this::servePlain);
+    server.context("/named", exchange -> {
+      exchange.getResponseHeaders().add("Content-Disposition", "attachment; filename=\"named-download.txt\"");
+      servePlain(exchange);
+    });
+  }
 
   @AfterEach
-  void cleanup() throws IOException {
-    if (httpClientStatic != null) {
-      httpClientStatic.close();
-    }
-    inputStream.close();
-    File file = new File(filename);
-    if (file.exists()) {
-      file.delete();
+  void cleanUp() throws IOException {
+    stalled.countDown();
+    Files.deleteIfExists(Path.of("named-download.txt"));
+  }
+
+  private URI uri(String path) {
+    return URI.create(server.url(path));
+  }
+
+  private void serveRanged(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+      exchange.getResponseHeaders().add("ETag", etag);
+      if ("HEAD".equals(exchange.getRequestMethod())) {
+        exchange.getResponseHeaders().add("Content-Length", Long.toString(content.length));
+        exchange.sendResponseHeaders(200, -1);
+        return;
+      }
+
+      gets.incrementAndGet();
+      var range = exchange.getRequestHeaders().getFirst("Range");
+      var ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+      if (range == null || (ifRange != null && !ifRange.equals(etag))) {
+        exchange.sendResponseHeaders(200, content.length);
+        exchange.getResponseBody().write(content);
+        return;
+      }
+
+      ranges.add(range);
+      var matcher = RANGE.matcher(range);
+      assertTrue(matcher.matches());
+      var start = Integer.parseInt(matcher.group(1));
+      var end = Integer.parseInt(matcher.group(2));
+      if (start == 0 && rejectFirstAndStallOthers.get()) {
+        exchange.sendResponseHeaders(503, -1);
+        return;
+      }
+      exchange.getResponseHeaders().add("Content-Range", "bytes %d-%d/%d".formatted(start, end, content.length));
+      exchange.sendResponseHeaders(206, end - start + 1);
+      if (rejectFirstAndStallOthers.get()) {
+        exchange.getResponseBody().write(content, start, 1);
+        exchange.getResponseBody().flush();
+        awaitQuietly(stalled);
+      }
+
+      if (start == 0 && failNextRange.compareAndSet(true, false)) {
+        exchange.getResponseBody().write(content, 0, (end + 1) / 2);
+        exchange.getResponseBody().flush();
+        throw new IOException("simulated connection drop");
+      }
+      exchange.getResponseBody().write(content, start, end - start + 1);
     }
   }
 
-  private void setupMockHttpClient(HttpResponse<InputStream> response) throws IOException, InterruptedException {
-    HttpClient mockClient = mock(HttpClient.class);
-    when(mockClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(response);
-    httpClientStatic = mockStatic(HttpClient.class);
-    httpClientStatic.when(HttpClient::newHttpClient).thenReturn(mockClient);
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(20, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
   }
 
-  private HttpResponse<InputStream> setupMockHttpResponse(String contentLength, String contentDisposition) {
-    HttpResponse<InputStream> mockResponse = mock(HttpResponse.class);
-    when(mockResponse.statusCode()).thenReturn(200);
-    when(mockResponse.body()).thenReturn(inputStream);
+  private void servePlain(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      if ("HEAD".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      gets.incrementAndGet();
+      exchange.sendResponseHeaders(200, 0);
+      for (int offset = 0; offset < content.length; offset += 1000) {
+        exchange.getResponseBody().write(content, offset, Math.min(1000, content.length - offset));
+      }
+    }
+  }
 
-    HttpHeaders headers = mock(HttpHeaders.class);
-    when(headers.firstValue("Content-Length")).thenReturn(Optional.ofNullable(contentLength));
-    when(headers.firstValue("Content-disposition")).thenReturn(Optional.ofNullable(contentDisposition));
-    when(mockResponse.headers()).thenReturn(headers);
+  @Test
+  void splitsLargeFilesIntoParallelRangeSegments() throws Exception {
+    var target = tempDir.resolve("out/data.bin");
+    var updates = new CopyOnWriteArrayList<long[]>();
+
+    FileDownloader.download(uri("/ranged/data.bin"), target, SEGMENT, 4, (done, total) -> updates.add(new long[]{done, total}));
+
+    assertArrayEquals(content, Files.readAllBytes(target));
+    assertEquals(4, ranges.size());
+    assertTrue(ranges.contains("bytes=0-%d".formatted((content.length + 3) / 4 - 1)));
+    assertArrayEquals(new long[]{content.length, content.length}, updates.getLast());
+    assertFalse(Files.exists(tempDir.resolve("out/data.bin.part")));
+    assertFalse(Files.exists(tempDir.resolve("out/data.bin.part.properties")));
+  }
 
-    return mockResponse;
+  @Test
+  void resumesSegmentsAfterAFailedAttempt() throws Exception {
+    var target = tempDir.resolve("data.bin");
+    failNextRange.set(true);
+
+    assertThrows(IOException.class, () -> FileDownloader.download(uri("/ranged/data.bin"), target, SEGMENT, 4, null));
+    assertTrue(Files.exists(tempDir.resolve("data.bin.part.properties")));
+    assertFalse(Files.exists(target));
+
+    ranges.clear();
+    FileDownloader.download(uri("/ranged/data.bin"), target, SEGMENT, 4, null);
+
+    assertArrayEquals(content, Files.readAllBytes(target));
+    assertTrue(ranges.stream().noneMatch(range -> range.startsWith("bytes=0-")), "segment 0 resumes past its start: " + ranges);
+    var refetched = ranges.stream().map(RANGE::matcher).filter(Matcher::matches)
+        .mapToLong(range -> Long.parseLong(range.group(2)) - Long.parseLong(range.group(1)) + 1).sum();
+    assertTrue(refetched < content.length, "only what is missing is fetched again: " + ranges);
   }
 
   @Test
-  void shouldDownloadFileSuccessfully_whenHttpRequestIsValid() throws IOException, InterruptedException {
-    HttpResponse<InputStream> mockResponse = setupMockHttpResponse(
-        String.valueOf(fakeContent.length),
-        "attachment; filename=\"" + filename + "\""
-    );
-    setupMockHttpClient(mockResponse);
-
-    var standardOut = System.out;
-    try (
-        var outputStream = new ByteArrayOutputStream();
-        var printStream = new PrintStream(outputStream)
-    ) {
-      System.setOut(printStream);
-      File file = FileDownloader.download(url);
-
-      String line1 = "dev.buildcli.core.utils.net.FileDownloader -- Connecting to http://localhost/teste.txt";
-      String line2 = "dev.buildcli.core.utils.net.FileDownloader -- Connected to http://localhost/teste.txt";
-      String line3 = "[==================================================] 100%";
-
-      assertTrue(outputStream.toString().contains(line1));
-      assertTrue(outputStream.toString().contains(line2));
-      assertTrue(outputStream.toString().contains(line3));
-      assertEquals(filename, file.getName());
-      assertEquals(fakeContent.length, file.length());
-    } finally {
-      System.setOut(standardOut);
-    }
+  @Timeout(value = 30, unit = TimeUnit.SECONDS)
+  void aFailedSegmentCancelsTheOthers() {
+    var target = tempDir.resolve("data.bin");
+    rejectFirstAndStallOthers.set(true);
+
+    var started = System.nanoTime();
+    var thrown = assertThrows(IOException.class, () -> FileDownloader.download(uri("/ranged/data.bin"), target, SEGMENT, 4, null));
+
+    assertEquals("Failed to download file: 503", thrown.getMessage());
+    assertTrue(Duration.ofNanos(System.nanoTime() - started).toSeconds() < 10, "the stalled segments are not awaited");
+    assertFalse(Files.exists(target));
   }
 
   @Test
-  void shouldThrowException_whenStatusCodeIsNot200() throws IOException, InterruptedException {
-    HttpResponse<InputStream> mockResponse = mock(HttpResponse.class);
-    when(mockResponse.statusCode()).thenReturn(404);
-    setupMockHttpClient(mockResponse);
+  void restartsWhenTheRemoteFileChanged() throws Exception {
+    var target = tempDir.resolve("data.bin");
+    failNextRange.set(true);
+    assertThrows(IOException.class, () -> FileDownloader.download(uri("/ranged/data.bin"), target, SEGMENT, 4, null));
 
-    Exception ex = assertThrows(RuntimeException.class, () -> FileDownloader.download(url));
-    assertTrue(ex.getMessage().contains("Failed to download file: 404"));
+    etag = "\"v2\"";
+    ranges.clear();
+    FileDownloader.download(uri("/ranged/data.bin"), target, SEGMENT, 4, null);
+
+    assertArrayEquals(content, Files.readAllBytes(target));
+    assertEquals(4, ranges.size());
   }
 
-  @MockitoSettings(strictness = Strictness.LENIENT)
   @Test
-  void shouldThrowException_whenContentLengthIsInvalid() throws IOException, InterruptedException {
-    HttpResponse<InputStream> mockResponse = setupMockHttpResponse("0", "attachment; filename=\"" + filename + "\"");
-    setupMockHttpClient(mockResponse);
+  void streamsResponsesWithoutLengthOrRangeSupport() throws Exception {
+    var target = tempDir.resolve("plain.bin");
+    var updates = new CopyOnWriteArrayList<long[]>();
+
+    FileDownloader.download(uri("/plain/data.bin"), target, SEGMENT, 4, (done, total) -> updates.add(new long[]{done, total}));
 
-    Exception ex = assertThrows(RuntimeException.class, () -> FileDownloader.download(url));
-    assertTrue(ex.getMessage().contains("Failed to download maven artifact: 200"));
+    assertArrayEquals(content, Files.readAllBytes(target));
+    assertEquals(1, gets.get());
+    assertTrue(updates.size() < 10, "progress is throttled, got " + updates.size() + " updates");
+    assertArrayEquals(new long[]{content.length, content.length}, updates.getLast());
   }
 
-  @MockitoSettings(strictness = Strictness.LENIENT)
   @Test
-  void shouldThrowException_whenFilenameInContentDispositionIsEmpty() throws IOException, InterruptedException {
-    HttpResponse<InputStream> mockResponse = setupMockHttpResponse(
-        String.valueOf(fakeContent.length),
-        "attachment; filename=\"\""
-    );
-    setupMockHttpClient(mockResponse);
-
-    Exception ex = assertThrows(RuntimeException.class, () -> FileDownloader.download(url));
-    assertTrue(ex.toString().contains("Failed to download file: 200"));
+  void namesTheFileAfterContentDisposition() {
+    File file = FileDownloader.download(uri("/named").toString());
+
+    assertEquals("named-download.txt", file.getName());
+    assertEquals(content.length, file.length());
   }
 
-  @MockitoSettings(strictness = Strictness.LENIENT)
   @Test
-  void shouldThrowException_whenContentDispositionHeaderIsMissing() throws IOException, InterruptedException {
-    HttpResponse<InputStream> mockResponse = setupMockHttpResponse(
-        String.valueOf(fakeContent.length),
-        null
-    );
-    setupMockHttpClient(mockResponse);
-
-    Exception ex = assertThrows(RuntimeException.class, () -> FileDownloader.download(url));
-    assertTrue(ex.toString().contains("Failed to download file: 200"));
+  void shouldThrowException_whenStatusCodeIsNot200() {
+    Exception ex = assertThrows(DownloadFailedException.class, () -> FileDownloader.download(uri("/missing").toString()));
+    assertTrue(ex.getMessage().contains("Failed to download file: 404"));
   }
 
   @Test
-  void shouldThrowException_whenHttpRequestTimesOut() throws IOException, InterruptedException {
-    HttpClient mockClient = mock(HttpClient.class);
-    when(mockClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-        .thenThrow(new InterruptedException());
-
-    var standardOut = System.out;
-    try (
-        MockedStatic<HttpClient> httpClient = mockStatic(HttpClient.class);
-        var outputStream = new ByteArrayOutputStream();
-        var printStream = new PrintStream(outputStream);
-    ) {
-      System.setOut(printStream);
-      httpClient.when(HttpClient::newHttpClient).thenReturn(mockClient);
-      File result = FileDownloader.download(url);
-      System.out.println(result);
-      assertTrue(outputStream.toString().contains("Thread was interrupted. Cleanup performed."));
-      assertNull(result);
+  void returnsNullWhenInterrupted() {
+    Thread.currentThread().interrupt();
+    try {
+      assertNull(FileDownloader.download(uri("/named").toString()));
+      assertTrue(Thread.currentThread().isInterrupted());
     } finally {
-      System.setOut(standardOut);
+      Thread.interrupted();
     }
   }
 }
@@ -0,0 +1,86 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures {@link DependencyTreeResolver} on a generated repository of {@code LAYERS * WIDTH}
+ * artifacts, each depending on three artifacts of the next layer. Run with {@code -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DependencyTreeBenchmarkTest {
+  private static final int LAYERS = 8;
+  private static final int WIDTH = 1_000;
+  private static final int FAN_OUT = 3;
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void resolveLargeGraph() throws IOException {
+    var repository = tempDir.resolve("repository");
+    var cache = new PomCache(tempDir.resolve("cache"));
+    for (int layer = 0; layer < LAYERS; layer++) {
+      for (int i = 0; i < WIDTH; i++) {
+        int next = layer + 1;
+        int index = i;
+        var dependencies = next == LAYERS ? "" : IntStream.range(0, FAN_OUT)
+            .mapToObj(j -> dependency("n%d-%d".formatted(next, (index * FAN_OUT + j) % WIDTH)))
+            .collect(Collectors.joining());
+        write(repository.resolve("org/example/n%d-%d/1/n%d-%d-1.pom".formatted(layer, i, layer, i)),
+            "n%d-%d".formatted(layer, i), dependencies);
+      }
+    }
+    var pomFile = tempDir.resolve("project/pom.xml");
+    write(pomFile, "app", IntStream.range(0, WIDTH).mapToObj(i -> dependency("n0-" + i)).collect(Collectors.joining()));
+
+    long start = System.nanoTime();
+    var cold = new DependencyTreeResolver(new EffectivePomResolver(repository, cache)).resolve(pomFile);
+    var coldMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+    start = System.nanoTime();
+    var diskCache = new DependencyTreeResolver(new EffectivePomResolver(repository, cache)).resolve(pomFile);
+    var diskMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+    var resolver = new DependencyTreeResolver(new EffectivePomResolver(repository, cache));
+    resolver.resolve(pomFile);
+    start = System.nanoTime();
+    var warm = resolver.resolve(pomFile);
+    var warmMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+    assertEquals(LAYERS * WIDTH, cold.size());
+    assertEquals(cold.size(), diskCache.size());
+    assertEquals(cold.size(), warm.size());
+
+    System.out.printf("dependency tree with %d nodes%n", cold.size());
+    System.out.printf("  cold (parse every POM):      %8.2f ms%n", coldMillis);
+    System.out.printf("  new resolver, PomCache warm: %8.2f ms%n", diskMillis);
+    System.out.printf("  memoized resolver:           %8.2f ms%n", warmMillis);
+  }
+
+  private static String dependency(String artifactId) {
+    return "<dependency><groupId>org.example</groupId><artifactId>%s</artifactId><version>1</version></dependency>"
+        .formatted(artifactId);
+  }
+
+  private static void write(Path pomFile, String artifactId, String dependencies) throws IOException {
+    Files.createDirectories(pomFile.getParent());
+    Files.writeString(pomFile, """
+        <project>
+          <groupId>org.example</groupId>
+          <artifactId>%s</artifactId>
+          <version>1</version>
+          <dependencies>%s</dependencies>
+        </project>
+        """.formatted(artifactId, dependencies));
+  }
+}
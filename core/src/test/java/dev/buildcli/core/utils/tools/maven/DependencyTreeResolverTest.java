@@ -0,0 +1,217 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyTreeResolverTest {
+  @TempDir
+  Path tempDir;
+
+  private Path repository;
+  private DependencyTreeResolver treeResolver;
+
+  @BeforeEach
+  void setUp() {
+    repository = tempDir.resolve("repository");
+    var cache = new PomCache(tempDir.resolve("cache"));
+    treeResolver = new DependencyTreeResolver(new EffectivePomResolver(repository, cache));
+  }
+
+  @Test
+  void testNearestWins() throws IOException {
+    artifact("a", "1", dependency("c", "1"));
+    artifact("b", "1", dependency("d", "1"));
+    artifact("d", "1", dependency("c", "2"));
+    artifact("c", "1");
+    artifact("c", "2");
+
+    var tree = treeResolver.resolve(project(dependency("b", "1"), dependency("a", "1")));
+
+    assertEquals("c:1", find(tree, "c").artifactId() + ":" + find(tree, "c").version());
+    assertEquals(2, find(tree, "c").depth());
+    assertEquals(List.of(new DependencyTree.Conflict("org.example:c", "1", "2", "org.example:d:jar:1:compile")),
+        tree.conflicts());
+  }
+
+  @Test
+  void testFirstDeclarationWinsOnEqualDepth() throws IOException {
+    artifact("a", "1", dependency("c", "1"));
+    artifact("b", "1", dependency("c", "2"));
+    artifact("c", "1");
+
+    var tree = treeResolver.resolve(project(dependency("a", "1"), dependency("b", "1")));
+
+    assertEquals("1", find(tree, "c").version());
+    assertEquals(1, tree.conflicts().size());
+    assertTrue(tree.dependencies().get(1).children().isEmpty());
+  }
+
+  @Test
+  void testScopePropagationAndOptionalDependencies() throws IOException {
+    artifact("a", "1",
+        dependency("runtime-dep", "1", "<scope>runtime</scope>"),
+        dependency("provided-dep", "1", "<scope>provided</scope>"),
+        dependency("test-dep", "1", "<scope>test</scope>"),
+        dependency("optional-dep", "1", "<optional>true</optional>"));
+    artifact("t", "1", dependency("compile-dep", "1"));
+    artifact("runtime-dep", "1");
+    artifact("compile-dep", "1");
+
+    var tree = treeResolver.resolve(project(dependency("a", "1"), dependency("t", "1", "<scope>test</scope>")));
+
+    assertEquals("runtime", find(tree, "runtime-dep").scope());
+    assertEquals("test", find(tree, "compile-dep").scope());
+    assertNull(find(tree, "provided-dep"));
+    assertNull(find(tree, "test-dep"));
+    assertNull(find(tree, "optional-dep"));
+    assertEquals(4, tree.size());
+  }
+
+  @Test
+  void testExclusionsApplyToWholeSubtree() throws IOException {
+    artifact("a", "1", dependency("b", "1"));
+    artifact("b", "1",
+        dependency("c", "1"),
+        dependency("d", "1"));
+    artifact("c", "1");
+    artifact("d", "1");
+
+    var tree = treeResolver.resolve(project(dependency("a", "1",
+        "<exclusions><exclusion><groupId>org.example</groupId><artifactId>c</artifactId></exclusion></exclusions>")));
+
+    assertNull(find(tree, "c"));
+    assertNotNull(find(tree, "d"));
+  }
+
+  @Test
+  void testProjectDependencyManagementOverridesTransitiveVersions() throws IOException {
+    artifact("a", "1", dependency("c", "1"));
+    artifact("c", "3");
+
+    var pomFile = projectWith("""
+        <dependencyManagement>
+          <dependencies>
+            <dependency><groupId>org.example</groupId><artifactId>c</artifactId><version>3</version></dependency>
+          </dependencies>
+        </dependencyManagement>
+        """, dependency("a", "1"));
+    var tree = treeResolver.resolve(pomFile);
+
+    assertEquals("3", find(tree, "c").version());
+    assertTrue(tree.unresolved().isEmpty());
+  }
+
+  @Test
+  void testMissingPomsAreReportedAsUnresolved() throws IOException {
+    artifact("a", "1", dependency("missing", "1"));
+
+    var tree = treeResolver.resolve(project(dependency("a", "1")));
+
+    assertFalse(find(tree, "missing").resolved());
+    assertEquals(List.of("org.example:missing:1"), tree.unresolved());
+  }
+
+  @Test
+  void testRender() throws IOException {
+    artifact("a", "1", dependency("c", "1"));
+    artifact("b", "1");
+    artifact("c", "1");
+
+    var tree = treeResolver.resolve(project(dependency("a", "1"), dependency("b", "1")));
+
+    var separator = System.lineSeparator();
+    assertEquals("org.example:app:jar:1.0.0" + separator
+        + "+- org.example:a:jar:1:compile" + separator
+        + "|  \\- org.example:c:jar:1:compile" + separator
+        + "\\- org.example:b:jar:1:compile" + separator, tree.render());
+  }
+
+  @Test
+  void testLargeGraphIsParsedOncePerArtifact() throws IOException {
+    int layers = 6;
+    int width = 200;
+    for (int layer = 0; layer < layers; layer++) {
+      for (int i = 0; i < width; i++) {
+        var children = new ArrayList<String>();
+        if (layer + 1 < layers) {
+          for (int j = 0; j < 3; j++) {
+            children.add(dependency("n%d-%d".formatted(layer + 1, (i * 3 + j) % width), "1"));
+          }
+        }
+        artifact("n%d-%d".formatted(layer, i), "1", children.toArray(String[]::new));
+      }
+    }
+
+    var direct = new ArrayList<String>();
+    for (int i = 0; i < width; i++) {
+      direct.add(dependency("n0-" + i, "1"));
+    }
+    var tree = treeResolver.resolve(project(direct.toArray(String[]::new)));
+
+    assertEquals(layers * width, tree.size());
+    assertTrue(tree.conflicts().isEmpty());
+  }
+
+  private static DependencyNode find(DependencyTree tree, String artifactId) {
+    return find(tree.dependencies(), artifactId);
+  }
+
+  private static DependencyNode find(List<DependencyNode> nodes, String artifactId) {
+    for (var node : nodes) {
+      if (node.artifactId().equals(artifactId)) {
+        return node;
+      }
+      var found = find(node.children(), artifactId);
+      if (found != null) {
+        return found;
+      }
+    }
+    return null;
+  }
+
+  private static String dependency(String artifactId, String version, String... extra) {
+    return "<dependency><groupId>org.example</groupId><artifactId>%s</artifactId><version>%s</version>%s</dependency>"
+        .formatted(artifactId, version, String.join("", extra));
+  }
+
+  private Path project(String... dependencies) throws IOException {
+    return projectWith("", dependencies);
+  }
+
+  private Path projectWith(String extra, String... dependencies) throws IOException {
+    var pomFile = tempDir.resolve("project/pom.xml");
+    Files.createDirectories(pomFile.getParent());
+    Files.writeString(pomFile, """
+        <project>
+          <groupId>org.example</groupId>
+          <artifactId>app</artifactId>
+          <version>1.0.0</version>
+          %s
+          <dependencies>%s</dependencies>
+        </project>
+        """.formatted(extra, String.join("", dependencies)));
+    return pomFile;
+  }
+
+  private void artifact(String artifactId, String version, String... dependencies) throws IOException {
+    var directory = repository.resolve("org/example/" + artifactId + "/" + version);
+    Files.createDirectories(directory);
+    Files.writeString(directory.resolve(artifactId + "-" + version + ".pom"), """
+        <project>
+          <groupId>org.example</groupId>
+          <artifactId>%s</artifactId>
+          <version>%s</version>
+          <dependencies>%s</dependencies>
+        </project>
+        """.formatted(artifactId, version, String.join("", dependencies)));
+  }
+}
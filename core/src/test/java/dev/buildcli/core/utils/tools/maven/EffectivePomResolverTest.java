@@ -0,0 +1,199 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.exceptions.ArtifactResolutionException;
+import dev.buildcli.core.model.Dependency;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EffectivePomResolverTest {
+  private static final Path FIXTURE = Path.of("src/test/resources/effective-pom-test");
+
+  @TempDir
+  Path cacheDir;
+
+  private EffectivePomResolver resolver;
+
+  @BeforeEach
+  void setUp() {
+    resolver = new EffectivePomResolver(FIXTURE.resolve("repository"), new PomCache(cacheDir));
+  }
+
+  @Test
+  void testResolveArtifactFromRepository() {
+    var pom = resolver.resolve("org.example", "platform-parent", "1.0.0");
+
+    assertEquals("org.example:platform-parent:1.0.0", pom.coordinates());
+    assertEquals("pom", pom.packaging());
+    assertEquals("platform-parent-1.0.0", pom.properties().get("build.label"));
+    assertEquals("2.0.16", pom.managed("org.slf4j", "slf4j-api").orElseThrow().getVersion());
+  }
+
+  @Test
+  void testBomImportsAreExpandedTransitively() {
+    var bom = resolver.resolve("org.example", "platform-bom", "2.1.0");
+
+    assertEquals("2.1.0", bom.managed("org.example", "lib-util").orElseThrow().getVersion());
+    assertEquals("33.3.1-jre", bom.managed("com.google.guava", "guava").orElseThrow().getVersion());
+    assertTrue(bom.managed("org.example", "tools-bom").isEmpty());
+  }
+
+  @Test
+  void testResolveProjectThroughRelativePathAndRepository() {
+    var app = resolver.resolve(FIXTURE.resolve("project/app/pom.xml"));
+
+    assertEquals("com.acme:acme-app:3.2.0", app.coordinates());
+    assertEquals("jar", app.packaging());
+    assertEquals("acme-app-3.2.0", app.properties().get("build.label"));
+    assertEquals("5.10.0", app.properties().get("junit.version"));
+
+    var dependencies = byArtifactId(app.dependencies());
+    assertEquals(List.of("junit-jupiter-api", "lib-core", "lib-util", "slf4j-api", "guava", "acme-model"),
+        app.dependencies().stream().map(Dependency::getArtifactId).toList());
+    assertEquals("5.10.0", dependencies.get("junit-jupiter-api").getVersion());
+    assertEquals("test", dependencies.get("junit-jupiter-api").getScope());
+    assertEquals("1.0.0", dependencies.get("lib-core").getVersion());
+    assertEquals("2.1.0", dependencies.get("lib-util").getVersion());
+    assertEquals("runtime", dependencies.get("lib-util").getScope());
+    assertEquals("2.0.16", dependencies.get("slf4j-api").getVersion());
+    assertEquals("33.3.1-jre", dependencies.get("guava").getVersion());
+    assertEquals("com.acme", dependencies.get("acme-model").getGroupId());
+    assertEquals("3.2.0", dependencies.get("acme-model").getVersion());
+  }
+
+  @Test
+  void testResolvedArtifactsAreMemoized() {
+    var first = resolver.resolve("org.example", "platform-bom", "2.1.0");
+    resolver.resolve(FIXTURE.resolve("project/app/pom.xml"));
+
+    assertSame(first, resolver.resolve("org.example", "platform-bom", "2.1.0"));
+  }
+
+  @Test
+  void testConcurrentCallersShareOneResult() throws Exception {
+    Callable<EffectivePom> task = () -> resolver.resolve(FIXTURE.resolve("project/app/pom.xml"));
+
+    try (var executor = Executors.newFixedThreadPool(8)) {
+      var results = executor.invokeAll(IntStream.range(0, 32).mapToObj(i -> task).toList());
+      var first = results.getFirst().get();
+      for (var result : results) {
+        assertSame(first, result.get());
+      }
+    }
+  }
+
+  @Test
+  void testMissingParentFails() {
+    var exception = assertThrows(ArtifactResolutionException.class,
+        () -> resolver.resolve("org.example", "unknown", "1.0.0"));
+
+    assertTrue(exception.getMessage().contains("org.example:unknown:1.0.0"));
+  }
+
+  @Test
+  void testCyclicParentsFail(@TempDir Path repository) throws IOException {
+    writeParentPom(repository, "a", "b");
+    writeParentPom(repository, "b", "a");
+
+    var cyclic = new EffectivePomResolver(repository, new PomCache(cacheDir));
+
+    assertThrows(ArtifactResolutionException.class, () -> cyclic.resolve("org.example", "a", "1"));
+  }
+
+  @Test
+  void testManagementIsMatchedOnTypeAndClassifier(@TempDir Path project) throws IOException {
+    var pomFile = project.resolve("pom.xml");
+    Files.writeString(pomFile, """
+        <project>
+          <groupId>org.example</groupId>
+          <artifactId>app</artifactId>
+          <version>1</version>
+          <dependencyManagement>
+            <dependencies>
+              <dependency>
+                <groupId>org.example</groupId>
+                <artifactId>lib</artifactId>
+                <version>1.0</version>
+              </dependency>
+              <dependency>
+                <groupId>org.example</groupId>
+                <artifactId>lib</artifactId>
+                <version>2.0</version>
+                <classifier>tests</classifier>
+                <scope>test</scope>
+              </dependency>
+              <dependency>
+                <groupId>org.example</groupId>
+                <artifactId>lib</artifactId>
+                <version>3.0</version>
+                <type>test-jar</type>
+              </dependency>
+            </dependencies>
+          </dependencyManagement>
+          <dependencies>
+            <dependency>
+              <groupId>org.example</groupId>
+              <artifactId>lib</artifactId>
+            </dependency>
+            <dependency>
+              <groupId>org.example</groupId>
+              <artifactId>lib</artifactId>
+              <classifier>tests</classifier>
+            </dependency>
+            <dependency>
+              <groupId>org.example</groupId>
+              <artifactId>lib</artifactId>
+              <type>test-jar</type>
+            </dependency>
+          </dependencies>
+        </project>
+        """);
+
+    var pom = resolver.resolve(pomFile);
+
+    assertEquals(3, pom.dependencyManagement().size());
+    assertEquals("1.0", pom.managed("org.example", "lib").orElseThrow().getVersion());
+    var versions = pom.dependencies().stream()
+        .map(d -> d.getType() + "/" + d.getClassifier() + "=" + d.getVersion() + ":" + d.getScope())
+        .toList();
+    assertEquals(List.of("null/null=1.0:null", "null/tests=2.0:test", "test-jar/null=3.0:null"), versions);
+  }
+
+  @Test
+  void testInterpolateLeavesUnknownExpressions() {
+    var context = Map.of("a", "${b}", "b", "value");
+
+    assertEquals("value-${missing.property}", EffectivePomResolver.interpolate("${a}-${missing.property}", context));
+  }
+
+  private static Map<String, Dependency> byArtifactId(List<Dependency> dependencies) {
+    return dependencies.stream().collect(Collectors.toMap(Dependency::getArtifactId, d -> d));
+  }
+
+  private static void writeParentPom(Path repository, String artifactId, String parent) throws IOException {
+    var directory = repository.resolve("org/example/" + artifactId + "/1");
+    Files.createDirectories(directory);
+    Files.writeString(directory.resolve(artifactId + "-1.pom"), """
+        <project>
+          <parent>
+            <groupId>org.example</groupId>
+            <artifactId>%s</artifactId>
+            <version>1</version>
+          </parent>
+          <artifactId>%s</artifactId>
+        </project>
+        """.formatted(parent, artifactId));
+  }
+}
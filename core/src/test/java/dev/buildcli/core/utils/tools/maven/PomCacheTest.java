@@ -0,0 +1,148 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PomCacheTest {
+  private static final String POM = """
+      <project xmlns="http://maven.apache.org/POM/4.0.0">
+        <modelVersion>4.0.0</modelVersion>
+        <parent>
+          <groupId>org.example</groupId>
+          <artifactId>parent</artifactId>
+          <version>2.0.0</version>
+          <relativePath>../parent/pom.xml</relativePath>
+        </parent>
+        <artifactId>app</artifactId>
+        <packaging>pom</packaging>
+        <modules>
+          <module>core</module>
+          <module>web</module>
+        </modules>
+        <properties>
+          <java.version>21</java.version>
+          <empty/>
+        </properties>
+        <dependencyManagement>
+          <dependencies>
+            <dependency>
+              <groupId>org.example</groupId>
+              <artifactId>bom</artifactId>
+              <version>1.0.0</version>
+              <type>pom</type>
+              <scope>import</scope>
+            </dependency>
+          </dependencies>
+        </dependencyManagement>
+        <dependencies>
+          <dependency>
+            <groupId>org.slf4j</groupId>
+            <artifactId>slf4j-api</artifactId>
+            <version>2.0.16</version>
+          </dependency>
+          <dependency>
+            <groupId>org.junit.jupiter</groupId>
+            <artifactId>junit-jupiter</artifactId>
+            <type>jar</type>
+            <scope>test</scope>
+            <optional>true</optional>
+          </dependency>
+        </dependencies>
+      </project>
+      """;
+
+  @TempDir
+  Path tempDir;
+
+  private Path cacheDir;
+  private Path pomFile;
+  private PomCache cache;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    cacheDir = tempDir.resolve("cache");
+    pomFile = tempDir.resolve("pom.xml");
+    Files.writeString(pomFile, POM);
+    cache = new PomCache(cacheDir);
+  }
+
+  @Test
+  void testCachedModelMatchesParsedModel() {
+    var first = cache.load(pomFile);
+    var second = cache.load(pomFile);
+
+    assertNotSame(first, second);
+    assertEquals("app", second.getArtifactId());
+    assertNull(second.getGroupId());
+    assertEquals("pom", second.getPackaging());
+    assertEquals("org.example", second.getParent().getGroupId());
+    assertEquals("parent", second.getParent().getArtifactId());
+    assertEquals("2.0.0", second.getParent().getVersion());
+    assertEquals("../parent/pom.xml", second.getParent().getRelativePath());
+    assertEquals(List.of("core", "web"), second.getModules());
+    assertEquals(Map.of("java.version", "21", "empty", ""), second.getProperties());
+    assertEquals("import", second.getDependencyManagement().getDependencies().getFirst().getScope());
+    assertEquals(first.toString(), second.toString());
+
+    var junit = second.getDependencies().get(1);
+    assertNull(junit.getVersion());
+    assertEquals("jar", junit.getType());
+    assertEquals("test", junit.getScope());
+    assertEquals("true", junit.getOptional());
+  }
+
+  @Test
+  void testEntryIsReusedWhileFileIsUnchanged() throws IOException {
+    cache.load(pomFile);
+    var entry = entryFile();
+    assertTrue(Files.exists(entry));
+
+    var written = FileTime.fromMillis(0);
+    Files.setLastModifiedTime(entry, written);
+    cache.load(pomFile);
+
+    assertEquals(written, Files.getLastModifiedTime(entry));
+  }
+
+  @Test
+  void testSameSizeAndMtimeButDifferentContentIsReparsed() throws IOException {
+    var modified = Files.getLastModifiedTime(pomFile);
+    assertEquals("2.0.16", cache.load(pomFile).getDependencies().getFirst().getVersion());
+
+    Files.writeString(pomFile, POM.replace("2.0.16", "2.0.17"));
+    Files.setLastModifiedTime(pomFile, modified);
+
+    assertEquals("2.0.17", cache.load(pomFile).getDependencies().getFirst().getVersion());
+  }
+
+  @Test
+  void testCorruptEntryFallsBackToParser() throws IOException {
+    cache.load(pomFile);
+    Files.write(entryFile(), new byte[]{0x42, 0x43, 0x50, 0x43, 0, 0, 0, 1, 0});
+
+    assertEquals(2, cache.load(pomFile).countDependencies());
+    assertEquals(2, cache.load(pomFile).countDependencies());
+  }
+
+  @Test
+  void testInvalidateDeletesEntry() {
+    cache.load(pomFile);
+    cache.invalidate(pomFile);
+
+    assertFalse(Files.exists(entryFile()));
+  }
+
+  private Path entryFile() {
+    return cache.entryFile(pomFile.toAbsolutePath().normalize());
+  }
+}
@@ -0,0 +1,197 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.model.Dependency;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PomEditorTest {
+  private static final String POM = "src/test/resources/pom-utils-test/pom.xml";
+  private static final String NON_DEPENDENCIES_POM = "src/test/resources/pom-utils-test/non-dependencies-pom.xml";
+
+  @TempDir
+  Path tempDir;
+
+  private Path copy(String resource) throws IOException {
+    var target = tempDir.resolve("pom.xml");
+    Files.copy(Path.of(resource), target, StandardCopyOption.REPLACE_EXISTING);
+    return target;
+  }
+
+  @Test
+  void shouldUpdateOnlyTheVersionElement() throws IOException {
+    var pom = copy(POM);
+    var original = Files.readString(pom);
+
+    var editor = PomEditor.open(pom).addOrUpdateDependency(new Dependency("com.google.code.gson", "gson", "2.12.1"));
+    editor.write();
+
+    assertEquals(original.replace("<version>2.11.0</version>", "<version>2.12.1</version>"), Files.readString(pom));
+  }
+
+  @Test
+  void shouldInsertVersionIntoDependencyWithoutOne() throws IOException {
+    var pom = copy(POM);
+    var original = Files.readString(pom);
+
+    PomEditor.open(pom).addOrUpdateDependency(new Dependency("org.junit.jupiter", "junit-jupiter-api", "5.12.2")).write();
+
+    assertEquals(original.replace("<scope>test</scope>\n\t\t</dependency>\n\t</dependencies>",
+            "<scope>test</scope>\n\t\t\t<version>5.12.2</version>\n\t\t</dependency>\n\t</dependencies>"),
+        Files.readString(pom));
+  }
+
+  @Test
+  void shouldAppendNewDependencyKeepingTheRestOfTheFile() throws IOException {
+    var pom = copy(POM);
+    var original = Files.readString(pom);
+
+    PomEditor.open(pom).addOrUpdateDependency(new Dependency("org.hibernate", "hibernate-core", "6.6.0")).write();
+
+    var expected = original.replace("\t</dependencies>\n\n\t<build>", """
+        \t\t<!-- Added by BuildCLI -->
+        \t\t<dependency>
+        \t\t\t<groupId>org.hibernate</groupId>
+        \t\t\t<artifactId>hibernate-core</artifactId>
+        \t\t\t<version>6.6.0</version>
+        \t\t</dependency>
+        \t</dependencies>
+
+        \t<build>""");
+    assertEquals(expected, Files.readString(pom));
+    assertEquals(4, PomEngine.load(pom).pom().countDependencies());
+  }
+
+  @Test
+  void shouldCreateDependenciesBlockAfterProperties() throws IOException {
+    var pom = copy(NON_DEPENDENCIES_POM);
+    var original = Files.readString(pom);
+
+    PomEditor.open(pom).addOrUpdateDependency(new Dependency("org.hibernate", "hibernate-core", null)).write();
+
+    var expected = original.replace("\t</properties>\n", """
+        \t</properties>
+
+        \t<dependencies>
+        \t\t<!-- Added by BuildCLI -->
+        \t\t<dependency>
+        \t\t\t<groupId>org.hibernate</groupId>
+        \t\t\t<artifactId>hibernate-core</artifactId>
+        \t\t</dependency>
+        \t</dependencies>
+        """);
+    assertEquals(expected, Files.readString(pom));
+  }
+
+  @Test
+  void shouldRemoveDependencyWithItsLines() throws IOException {
+    var pom = copy(POM);
+    var original = Files.readString(pom);
+
+    var editor = PomEditor.open(pom);
+    assertTrue(editor.removeDependency("com.google.code.gson", "gson"));
+    assertFalse(editor.removeDependency("org.hibernate", "hibernate-core"));
+    editor.write();
+
+    assertEquals(original.replace("""
+        \t\t<dependency>
+        \t\t\t<groupId>com.google.code.gson</groupId>
+        \t\t\t<artifactId>gson</artifactId>
+        \t\t\t<version>2.11.0</version>
+        \t\t</dependency>
+        """, ""), Files.readString(pom));
+  }
+
+  @Test
+  void shouldRemoveAddedCommentTogetherWithDependency() throws IOException {
+    var pom = copy(POM);
+    var original = Files.readString(pom);
+    var dependency = new Dependency("org.hibernate", "hibernate-core", "6.6.0");
+
+    PomEditor.open(pom).addOrUpdateDependency(dependency).write();
+    var editor = PomEditor.open(pom);
+    editor.removeDependency(dependency.getGroupId(), dependency.getArtifactId());
+    editor.write();
+
+    assertEquals(original, Files.readString(pom));
+  }
+
+  @Test
+  void shouldPreserveCrlfLineEndings() throws IOException {
+    var pom = tempDir.resolve("pom.xml");
+    var original = "<?xml version=\"1.0\"?>\r\n<project>\r\n  <modelVersion>4.0.0</modelVersion>\r\n"
+        + "  <dependencies>\r\n    <dependency>\r\n      <groupId>a</groupId>\r\n      <artifactId>b</artifactId>\r\n"
+        + "      <version>1</version>\r\n    </dependency>\r\n  </dependencies>\r\n</project>\r\n";
+    Files.writeString(pom, original);
+
+    PomEditor.open(pom)
+        .addOrUpdateDependency(new Dependency("a", "b", "2"))
+        .addOrUpdateDependency(new Dependency("c", "d", "3"))
+        .write();
+
+    var expected = original.replace("<version>1</version>", "<version>2</version>")
+        .replace("  </dependencies>", "    <!-- Added by BuildCLI -->\r\n    <dependency>\r\n      <groupId>c</groupId>\r\n"
+            + "      <artifactId>d</artifactId>\r\n      <version>3</version>\r\n    </dependency>\r\n  </dependencies>");
+    assertEquals(expected, Files.readString(pom));
+  }
+
+  @Test
+  void shouldSkipCommentsAndCdataThatLookLikeMarkup() throws IOException {
+    var pom = tempDir.resolve("pom.xml");
+    var original = "<project>\n  <!-- <dependencies> -->\n  <description><![CDATA[<dependency>]]></description>\n"
+        + "  <dependencies>\n    <dependency>\n      <groupId>a</groupId>\n      <artifactId>b</artifactId>\n"
+        + "      <version attr=\"x>y\">1</version>\n    </dependency>\n  </dependencies>\n</project>\n";
+    Files.writeString(pom, original);
+
+    PomEditor.open(pom).addOrUpdateDependency(new Dependency("a", "b", "2")).write();
+
+    assertEquals(original.replace("<version attr=\"x>y\">1</version>", "<version>2</version>"), Files.readString(pom));
+  }
+
+  @Test
+  void shouldExpandSelfClosingDependencies() throws IOException {
+    var pom = tempDir.resolve("pom.xml");
+    Files.writeString(pom, "<project>\n  <dependencies/>\n</project>\n");
+
+    PomEditor.open(pom).addOrUpdateDependency(new Dependency("a", "b", "1")).write();
+
+    assertEquals("<project>\n  <dependencies>\n    <!-- Added by BuildCLI -->\n    <dependency>\n      <groupId>a</groupId>\n"
+        + "      <artifactId>b</artifactId>\n      <version>1</version>\n    </dependency>\n  </dependencies>\n</project>\n",
+        Files.readString(pom));
+  }
+
+  @Test
+  void shouldRefuseToOverwriteFileChangedAfterOpen() throws IOException {
+    var pom = copy(POM);
+    var editor = PomEditor.open(pom).addOrUpdateDependency(new Dependency("org.hibernate", "hibernate-core", "6.6.0"));
+
+    Files.writeString(pom, Files.readString(pom) + "\n");
+    Files.setLastModifiedTime(pom, FileTime.from(Instant.now().plusSeconds(5)));
+
+    assertThrows(IOException.class, editor::write);
+  }
+
+  @Test
+  void shouldNotTouchFileWithoutChanges() throws IOException {
+    var pom = copy(POM);
+    var lastModified = FileTime.from(Instant.parse("2020-01-01T00:00:00Z"));
+    Files.setLastModifiedTime(pom, lastModified);
+
+    var editor = PomEditor.open(pom).addOrUpdateDependency(new Dependency("info.picocli", "picocli", "4.7.6"));
+    assertFalse(editor.hasChanges());
+    editor.write();
+
+    assertEquals(lastModified, Files.getLastModifiedTime(pom));
+  }
+}
@@ -0,0 +1,127 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.model.Dependency;
+import dev.buildcli.core.model.Pom;
+import dev.buildcli.core.utils.NamespaceFilter;
+import jakarta.xml.bind.JAXBContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares {@link PomEngine} with the previous read path (new {@link JAXBContext} per call plus a DOM
+ * parse and {@code Transformer} round trip for the template). Run with {@code -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PomEngineBenchmarkTest {
+  private static final int DEPENDENCIES = 5_000;
+  private static final int WARMUP = 5;
+  private static final int ITERATIONS = 20;
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void compareWithDomAndTransformerPath() throws Exception {
+    var pomFile = tempDir.resolve("pom.xml");
+    Files.writeString(pomFile, largePom());
+
+    assertEquals(DEPENDENCIES, legacyRead(pomFile).countDependencies());
+    assertEquals(DEPENDENCIES, PomEngine.load(pomFile).pom().countDependencies());
+
+    var legacy = measure(() -> {
+      legacyRead(pomFile);
+      legacyTemplate(pomFile);
+    });
+    var engine = measure(() -> PomEngine.load(pomFile).template());
+
+    System.out.printf("pom.xml with %d dependencies (%d KB)%n", DEPENDENCIES, Files.size(pomFile) / 1024);
+    System.out.printf("  legacy JAXB + DOM/Transformer: %8.2f ms/op%n", legacy);
+    System.out.printf("  PomEngine single pass:         %8.2f ms/op%n", engine);
+  }
+
+  private static double measure(ThrowingRunnable runnable) throws Exception {
+    for (int i = 0; i < WARMUP; i++) {
+      runnable.run();
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      runnable.run();
+    }
+    return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+  }
+
+  private static Pom legacyRead(Path pomFile) throws Exception {
+    var unmarshaller = JAXBContext.newInstance(Pom.class).createUnmarshaller();
+    var xmlInputFactory = XMLInputFactory.newFactory();
+    xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    var filter = new NamespaceFilter(xmlInputFactory.createXMLStreamReader(new StreamSource(pomFile.toFile())));
+    return unmarshaller.unmarshal(filter, Pom.class).getValue();
+  }
+
+  private static String legacyTemplate(Path pomFile) throws Exception {
+    var docFactory = DocumentBuilderFactory.newInstance();
+    docFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+    var xmlDoc = docFactory.newDocumentBuilder().parse(pomFile.toFile());
+    var nodes = xmlDoc.getElementsByTagName(Dependency.XML_WRAPPER_ELEMENT);
+
+    var dependenciesNode = IntStream.range(0, nodes.getLength())
+        .filter(i -> nodes.item(i).getParentNode().getNodeName().equals(Pom.XML_ELEMENT))
+        .mapToObj(nodes::item)
+        .findFirst()
+        .orElseThrow();
+    dependenciesNode.getParentNode().replaceChild(xmlDoc.createTextNode(MavenConstants.DEPENDENCIES_PATTERN), dependenciesNode);
+
+    var transformFactory = TransformerFactory.newInstance();
+    transformFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+    var outputString = new StringWriter();
+    transformFactory.newTransformer().transform(new DOMSource(xmlDoc), new StreamResult(outputString));
+    return outputString.toString();
+  }
+
+  private static String largePom() {
+    var builder = new StringBuilder("""
+        <?xml version="1.0" encoding="UTF-8"?>
+        <project xmlns="http://maven.apache.org/POM/4.0.0">
+          <modelVersion>4.0.0</modelVersion>
+          <groupId>dev.buildcli</groupId>
+          <artifactId>benchmark</artifactId>
+          <version>1.0.0</version>
+          <dependencies>
+        """);
+    for (int i = 0; i < DEPENDENCIES; i++) {
+      builder.append("""
+              <dependency>
+                <groupId>org.example.group%d</groupId>
+                <artifactId>artifact-%d</artifactId>
+                <version>1.%d.0</version>
+              </dependency>
+          """.formatted(i % 50, i, i));
+    }
+    return builder.append("""
+          </dependencies>
+        </project>
+        """).toString();
+  }
+
+  @FunctionalInterface
+  private interface ThrowingRunnable {
+    void run() throws Exception;
+  }
+}
@@ -0,0 +1,86 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.exceptions.ExtractionRuntimeException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PomEngineTest {
+  private static final String POM = "src/test/resources/pom-utils-test/pom.xml";
+  private static final String NON_DEPENDENCIES_POM = "src/test/resources/pom-utils-test/non-dependencies-pom.xml";
+
+  @Test
+  void shouldReadProjectDependenciesOnly() {
+    var pom = PomEngine.load(POM).pom();
+
+    assertEquals(3, pom.countDependencies());
+    assertTrue(pom.hasDependency("info.picocli", "picocli"));
+    assertFalse(pom.hasDependency("org.junit", "junit-bom"));
+  }
+
+  @Test
+  void shouldReplaceOnlyProjectDependenciesBlockInTemplate() throws IOException {
+    var content = Files.readString(Path.of(POM));
+    var template = PomEngine.load(POM).template();
+
+    assertTrue(template.contains("\t" + MavenConstants.DEPENDENCIES_PATTERN + "\n\n\t<build>"));
+    assertTrue(template.contains("<artifactId>junit-bom</artifactId>"));
+    assertFalse(template.contains("<artifactId>picocli</artifactId>"));
+    assertEquals(content.substring(0, content.indexOf("\n\t<dependencies>") + 2),
+        template.substring(0, template.indexOf(MavenConstants.DEPENDENCIES_PATTERN)));
+  }
+
+  @Test
+  void shouldAppendPatternBeforeProjectEndWhenNoDependencies() {
+    var document = PomEngine.load(NON_DEPENDENCIES_POM);
+
+    assertFalse(document.hasDependenciesBlock());
+    assertEquals(0, document.pom().countDependencies());
+    assertTrue(document.template().endsWith(MavenConstants.DEPENDENCIES_PATTERN + "</project>\n"));
+  }
+
+  @Test
+  void shouldRenderChangedModelKeepingTheRestOfTheFile() {
+    var document = PomEngine.load(POM);
+    document.pom().rmDependency("info.picocli:picocli");
+
+    var rendered = document.render();
+
+    assertEquals(2, PomEngine.parse(rendered).pom().countDependencies());
+    assertTrue(rendered.startsWith(document.content().substring(0, document.dependenciesStart())));
+    assertTrue(rendered.endsWith(document.content().substring(document.dependenciesEnd())));
+  }
+
+  @Test
+  void shouldHandleSelfClosingDependencies() {
+    var document = PomEngine.parse("<project><dependencies/><build/></project>");
+
+    assertTrue(document.hasDependenciesBlock());
+    assertEquals("<project>" + MavenConstants.DEPENDENCIES_PATTERN + "<build/></project>", document.template());
+  }
+
+  @Test
+  void shouldMapOffsetsOfCrlfFiles() {
+    var content = "<project>\r\n  <a>x</a>\r\n  <dependencies>\r\n    <dependency><groupId>g</groupId>"
+        + "<artifactId>a</artifactId></dependency>\r\n  </dependencies>\r\n</project>\r\n";
+
+    var document = PomEngine.parse(content);
+
+    assertEquals(1, document.pom().countDependencies());
+    assertEquals("<project>\r\n  <a>x</a>\r\n  " + MavenConstants.DEPENDENCIES_PATTERN + "\r\n</project>\r\n",
+        document.template());
+  }
+
+  @Test
+  void shouldWrapMalformedXml() {
+    assertThrows(ExtractionRuntimeException.class, () -> PomEngine.parse("<project><dependencies></project>"));
+  }
+}
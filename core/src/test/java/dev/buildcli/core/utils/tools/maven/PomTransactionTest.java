@@ -0,0 +1,89 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.model.Dependency;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PomTransactionTest {
+  private static final String POM = "src/test/resources/pom-utils-test/pom.xml";
+
+  @TempDir
+  Path tempDir;
+
+  private Path copyPom() throws IOException {
+    var target = tempDir.resolve("pom.xml");
+    Files.copy(Path.of(POM), target, StandardCopyOption.REPLACE_EXISTING);
+    return target;
+  }
+
+  @Test
+  void shouldApplyMixedOperationsInOneWrite() throws IOException {
+    var pom = copyPom();
+
+    var transaction = PomTransaction.begin(pom)
+        .remove("info.picocli", "picocli")
+        .update(new Dependency("com.google.code.gson", "gson", "2.12.1"))
+        .add(new Dependency("org.hibernate", "hibernate-core", "6.6.0"));
+
+    assertTrue(transaction.commit());
+
+    var written = PomEngine.load(pom).pom();
+    assertEquals(3, written.countDependencies());
+    assertFalse(written.hasDependency("info.picocli", "picocli"));
+    assertTrue(written.hasDependency("org.hibernate", "hibernate-core"));
+    assertEquals("2.12.1", written.getDependency(new Dependency("com.google.code.gson", "gson", null)).getVersion());
+  }
+
+  @Test
+  void shouldAddHundredsOfCoordinates() throws IOException {
+    var pom = copyPom();
+    var transaction = PomTransaction.begin(pom);
+
+    IntStream.range(0, 500).forEach(i -> transaction.add(new Dependency("org.example", "lib-" + i, "1.0." + i)));
+    IntStream.range(0, 500).filter(i -> i % 2 == 0).forEach(i -> transaction.remove("org.example", "lib-" + i));
+    transaction.commit();
+
+    var written = PomEngine.load(pom).pom();
+    assertEquals(253, written.countDependencies());
+    assertTrue(written.hasDependency("org.example", "lib-499"));
+    assertFalse(written.hasDependency("org.example", "lib-498"));
+  }
+
+  @Test
+  void shouldIgnoreUpdateOfUndeclaredDependency() throws IOException {
+    var pom = copyPom();
+    var original = Files.readString(pom);
+
+    var transaction = PomTransaction.begin(pom).update(new Dependency("org.hibernate", "hibernate-core", "6.6.0"));
+
+    assertFalse(transaction.hasDependency("org.hibernate", "hibernate-core"));
+    assertFalse(transaction.commit());
+    assertEquals(original, Files.readString(pom));
+  }
+
+  @Test
+  void shouldLeaveFileUntouchedWhenChangesCancelOut() throws IOException {
+    var pom = copyPom();
+    var original = Files.readString(pom);
+
+    var transaction = PomTransaction.begin(pom)
+        .remove("info.picocli", "picocli")
+        .add(new Dependency("info.picocli", "picocli", "4.7.6"))
+        .add(new Dependency("org.hibernate", "hibernate-core", "6.6.0"))
+        .remove("org.hibernate", "hibernate-core");
+
+    assertTrue(transaction.hasDependency("info.picocli", "picocli"));
+    assertFalse(transaction.commit());
+    assertEquals(original, Files.readString(pom));
+  }
+}
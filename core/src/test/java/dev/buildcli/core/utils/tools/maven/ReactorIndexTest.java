@@ -0,0 +1,165 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactorIndexTest {
+  @TempDir
+  Path tempDir;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    write(tempDir.resolve("pom.xml"), """
+        <project xmlns="http://maven.apache.org/POM/4.0.0">
+          <modelVersion>4.0.0</modelVersion>
+          <groupId>org.example</groupId>
+          <artifactId>root</artifactId>
+          <version>1.0.0</version>
+          <packaging>pom</packaging>
+          <modules>
+            <module>api</module>
+            <module>app</module>
+            <module>missing</module>
+          </modules>
+        </project>
+        """);
+    write(tempDir.resolve("api/pom.xml"), """
+        <project xmlns="http://maven.apache.org/POM/4.0.0">
+          <modelVersion>4.0.0</modelVersion>
+          <parent>
+            <groupId>org.example</groupId>
+            <artifactId>root</artifactId>
+            <version>1.0.0</version>
+          </parent>
+          <artifactId>api</artifactId>
+          <dependencies>
+            <dependency>
+              <groupId>org.slf4j</groupId>
+              <artifactId>slf4j-api</artifactId>
+              <version>2.0.16</version>
+            </dependency>
+          </dependencies>
+        </project>
+        """);
+    write(tempDir.resolve("app/pom.xml"), """
+        <project xmlns="http://maven.apache.org/POM/4.0.0">
+          <modelVersion>4.0.0</modelVersion>
+          <parent>
+            <groupId>org.example</groupId>
+            <artifactId>root</artifactId>
+            <version>1.0.0</version>
+          </parent>
+          <artifactId>app</artifactId>
+          <packaging>pom</packaging>
+          <modules>
+            <module>web</module>
+          </modules>
+          <dependencies>
+            <dependency>
+              <groupId>${project.groupId}</groupId>
+              <artifactId>api</artifactId>
+              <version>${project.version}</version>
+            </dependency>
+          </dependencies>
+        </project>
+        """);
+    write(tempDir.resolve("app/web/pom.xml"), """
+        <project xmlns="http://maven.apache.org/POM/4.0.0">
+          <modelVersion>4.0.0</modelVersion>
+          <parent>
+            <groupId>org.example</groupId>
+            <artifactId>app</artifactId>
+            <version>1.0.0</version>
+          </parent>
+          <groupId>org.example.web</groupId>
+          <artifactId>web</artifactId>
+          <dependencies>
+            <dependency>
+              <groupId>org.example</groupId>
+              <artifactId>api</artifactId>
+              <version>1.0.0</version>
+            </dependency>
+          </dependencies>
+        </project>
+        """);
+  }
+
+  @Test
+  void testBuildIndexesEveryModule() {
+    var index = ReactorIndex.build(tempDir);
+
+    assertEquals(4, index.size());
+    assertEquals("org.example:root", index.root().key());
+    assertEquals(List.of("org.example:root", "org.example:api", "org.example:app", "org.example.web:web"),
+        index.modules().stream().map(ReactorModule::key).toList());
+  }
+
+  @Test
+  void testModulesInheritCoordinatesFromParent() {
+    var api = ReactorIndex.build(tempDir).find("api").orElseThrow();
+
+    assertEquals("org.example", api.groupId());
+    assertEquals("1.0.0", api.version());
+    assertEquals(tempDir.resolve("api/pom.xml").toAbsolutePath().normalize(), api.pomFile());
+  }
+
+  @Test
+  void testGraphEdges() {
+    var index = ReactorIndex.build(tempDir);
+    var root = index.root();
+    var api = index.find("org.example:api").orElseThrow();
+    var app = index.find("app").orElseThrow();
+    var web = index.find("web").orElseThrow();
+
+    assertEquals(List.of(api, app), index.modulesOf(root));
+    assertEquals(List.of(web), index.modulesOf(app));
+    assertEquals(app, index.parentOf(web).orElseThrow());
+    assertTrue(index.parentOf(root).isEmpty());
+    assertEquals(List.of(api), index.dependenciesOf(app));
+    assertEquals(List.of(api), index.dependenciesOf(web));
+    assertTrue(index.dependenciesOf(api).isEmpty());
+    assertEquals(List.of(app, web), index.dependentsOf(api).stream()
+        .sorted((a, b) -> a.artifactId().compareTo(b.artifactId())).toList());
+  }
+
+  @Test
+  void testResolveTargets() {
+    var rootPom = tempDir.resolve("pom.xml");
+
+    assertEquals(List.of(rootPom), ReactorIndex.resolveTargets(rootPom, null));
+    assertEquals(4, ReactorIndex.resolveTargets(rootPom, ReactorIndex.ALL_MODULES).size());
+    assertEquals(List.of(tempDir.resolve("app/web/pom.xml").toAbsolutePath().normalize()),
+        ReactorIndex.resolveTargets(rootPom, "org.example.web:web"));
+    assertThrows(IllegalArgumentException.class, () -> ReactorIndex.resolveTargets(rootPom, "unknown"));
+  }
+
+  @Test
+  void testSingleModuleProject() throws IOException {
+    var single = tempDir.resolve("single");
+    write(single.resolve("pom.xml"), """
+        <project>
+          <groupId>org.example</groupId>
+          <artifactId>single</artifactId>
+          <version>0.1.0</version>
+        </project>
+        """);
+
+    var index = ReactorIndex.build(single.resolve("pom.xml"));
+
+    assertEquals(1, index.size());
+    assertTrue(index.modulesOf(index.root()).isEmpty());
+  }
+
+  private static void write(Path path, String content) throws IOException {
+    Files.createDirectories(path.getParent());
+    Files.writeString(path, content);
+  }
+}
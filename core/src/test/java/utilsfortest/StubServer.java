@@ -0,0 +1,57 @@
+package utilsfortest;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+
+/**
+ * An HTTP server on a free loopback port, started before each test and stopped after it. Register
+ * it with {@code @RegisterExtension} and add the handlers with {@link #context}, in the test or in
+ * a {@code @BeforeEach} method. Each exchange runs on its own virtual thread.
+ */
+public class StubServer implements BeforeEachCallback, AfterEachCallback {
+
+    private HttpServer server;
+
+    @Override
+    public void beforeEach(ExtensionContext context) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        stop();
+    }
+
+    public StubServer context(String path, HttpHandler handler) {
+        server.createContext(path, handler);
+        return this;
+    }
+
+    /**
+     * The URL of {@code path} on the address the server is bound to, such as
+     * {@code http://127.0.0.1:41234/path}, so it does not depend on what {@code localhost} resolves to.
+     */
+    public String url(String path) {
+        var address = server.getAddress().getAddress();
+        var host = address instanceof Inet6Address ? "[" + address.getHostAddress() + "]" : address.getHostAddress();
+        return "http://" + host + ":" + server.getAddress().getPort() + path;
+    }
+
+    /**
+     * Stops the server, for tests of what happens when it cannot be reached.
+     */
+    public void stop() {
+        server.stop(0);
+    }
+}